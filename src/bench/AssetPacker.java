@@ -0,0 +1,115 @@
+import javax.imageio.ImageIO;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * AssetPacker men-decode semua aset di AssetManifest sekali saat build dan menulisnya ke satu AssetArchive:
+ * gambar sebagai piksel ARGB premultiplied (translucent) atau RGB (opaque), suara dan musik sebagai PCM
+ * dalam MusicPlayer.OUTPUT_FORMAT. AssetLoader me-memory-map archive itu saat startup, sehingga PNG/JPG/WAV
+ * tidak perlu di-decode ulang di setiap peluncuran.
+ * Bukan bagian dari game; dijalankan dari command line setiap kali aset berubah. Archive lama tidak
+ * diperbarui otomatis, tetapi AssetLoader mendeteksi aset yang berubah sejak itu (ukuran, waktu ubah, hash)
+ * dan memuatnya dari file lepas. Aset dibaca dari classpath, sama seperti AssetLoader.
+ *
+ * Contoh:
+ *   java -cp out:. AssetPacker assets.pak
+ *
+ * Aset yang tidak ditemukan atau gagal di-decode dilewati (AssetLoader memuatnya dari file lepas seperti biasa).
+ * Keluar dengan kode 1 jika archive tidak bisa ditulis.
+ */
+public class AssetPacker {
+    public static void main(String[] args) {
+        if (args.length > 1 || (args.length == 1 && args[0].startsWith("--"))) {
+            System.err.println("Usage: AssetPacker [output.pak]   (default: " + AssetLoader.DEFAULT_ARCHIVE + ")");
+            System.exit(2);
+        }
+        Path output = Paths.get(args.length == 1 ? args[0] : AssetLoader.DEFAULT_ARCHIVE);
+
+        long start = System.nanoTime();
+        AssetArchive.Writer writer = new AssetArchive.Writer();
+        int packed = 0;
+        long sourceTotal = 0;
+        for (AssetManifest asset : AssetManifest.values()) {
+            URL url = AssetPacker.class.getResource(asset.getPath());
+            if (url == null) {
+                System.err.println(asset.getLabel() + " not found: " + asset.getPath() + " (skipped)");
+                continue;
+            }
+            try {
+                URLConnection connection = url.openConnection();
+                byte[] data;
+                try (InputStream in = connection.getInputStream()) {
+                    data = in.readAllBytes();
+                }
+                long modified = connection.getLastModified(); // Dibandingkan AssetLoader untuk mendeteksi aset yang berubah
+                if (asset.isImage()) {
+                    BufferedImage image = toArchiveFormat(asset, ImageIO.read(new ByteArrayInputStream(data)));
+                    if (image == null) {
+                        System.err.println(asset.getLabel() + " could not be decoded (skipped)");
+                        continue;
+                    }
+                    writer.addImage(asset.getPath(), image, data, modified);
+                    System.out.printf("  %-28s %5dx%-5d %10d bytes -> %10d bytes pixels%n", asset.getLabel(),
+                            image.getWidth(), image.getHeight(), data.length, image.getWidth() * image.getHeight() * 4L);
+                } else {
+                    byte[] pcm = decodePcm(data);
+                    writer.addPcm(asset.getPath(), pcm, data, modified);
+                    System.out.printf("  %-28s %11d frames %10d bytes -> %10d bytes PCM%n", asset.getLabel(),
+                            pcm.length / 4, data.length, (long) pcm.length);
+                }
+                packed++;
+                sourceTotal += data.length;
+            } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                System.err.println("Error packing " + asset.getLabel() + ": " + e.getMessage() + " (skipped)");
+            }
+        }
+
+        try {
+            long size = writer.write(output);
+            System.out.printf("Packed %d of %d assets (%d bytes of source files) into %s: %d bytes in %.1f ms%n",
+                    packed, AssetManifest.values().length, sourceTotal, output, size, (System.nanoTime() - start) / 1e6);
+        } catch (IOException e) {
+            System.err.println("Cannot write " + output + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    // Menyalin gambar ke format piksel archive: INT_RGB untuk gambar opaque, INT_ARGB_PRE untuk translucent
+    private static BufferedImage toArchiveFormat(AssetManifest asset, BufferedImage decoded) {
+        if (decoded == null) {
+            return null;
+        }
+        int type = asset.getKind() == AssetManifest.Kind.OPAQUE_IMAGE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+        BufferedImage image = new BufferedImage(decoded.getWidth(), decoded.getHeight(), type);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.drawImage(decoded, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    // Men-decode file suara ke PCM dalam MusicPlayer.OUTPUT_FORMAT
+    private static byte[] decodePcm(byte[] data) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(new ByteArrayInputStream(data)))) {
+            AudioInputStream pcm = source.getFormat().matches(MusicPlayer.OUTPUT_FORMAT)
+                    ? source : AudioSystem.getAudioInputStream(MusicPlayer.OUTPUT_FORMAT, source);
+            byte[] bytes = pcm.readAllBytes();
+            return bytes.length % 4 == 0 ? bytes : Arrays.copyOf(bytes, bytes.length / 4 * 4); // Hanya frame yang lengkap
+        }
+    }
+}
@@ -0,0 +1,264 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * PersistenceBenchmark mengukur throughput dan latensi penyimpanan skor (saveThasil,
+ * getThasilByUsername, getAllThasil) lewat antarmuka ScoreStore yang dipakai DatabaseModel.
+ * Bukan bagian dari game; dijalankan manual dari command line.
+ *
+ * Target:
+ *   h2-pool      MySqlScoreStore dengan ConnectionPool, di atas database H2 in-process (mode MySQL)
+ *   h2-direct    MySqlScoreStore dengan koneksi baru per panggilan, di atas database H2 yang sama
+ *   mysql-pool   MySqlScoreStore dengan ConnectionPool
+ *   mysql-direct MySqlScoreStore dengan koneksi baru per panggilan (desain lama, sebagai pembanding)
+ *   local        LocalScoreStore di direktori sementara
+ *
+ * Target h2-* tidak butuh server MySQL, tetapi tetap menjalankan migrasi skema, SQL upsert/batch, dan
+ * ConnectionPool yang sama dengan game, sehingga regresi di jalur JDBC terlihat tanpa MySQL.
+ * Angkanya tidak mewakili MySQL sungguhan (tanpa jaringan dan tanpa InnoDB); bandingkan antar commit saja.
+ *
+ * Contoh:
+ *   java -cp out:lib/mysql-connector-j-9.3.0.jar:lib/h2-2.2.224.jar PersistenceBenchmark --target=h2-pool --threads=1,4,16 --rows=10000
+ *
+ * Target MySQL memakai database terpisah (default 'skillballs_bench', dibuat otomatis). Target MySQL dan H2
+ * mengosongkan tabel 'thasil' di database itu sebelum setiap putaran.
+ */
+public class PersistenceBenchmark {
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/skillballs_bench"
+            + "?useSSL=false&serverTimezone=UTC&useAffectedRows=true&rewriteBatchedStatements=true&createDatabaseIfNotExist=true";
+
+    // Database H2 in-memory dalam mode MySQL, hidup sampai JVM selesai. Skemanya diberi nama sama dengan database,
+    // supaya DATABASE() di query information_schema milik SchemaMigrator menunjuk ke skema tempat tabel dibuat.
+    private static final String H2_URL = "jdbc:h2:mem:skillballs_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1"
+            + ";INIT=CREATE SCHEMA IF NOT EXISTS skillballs_bench\\;SET SCHEMA skillballs_bench";
+
+    // Pengganti named lock MySQL (GET_LOCK/RELEASE_LOCK) yang dipakai SchemaMigrator, untuk target H2
+    private static final ReentrantLock H2_NAMED_LOCK = new ReentrantLock();
+
+    private static final String USERNAME_PREFIX = "bench_";
+    private static final int POPULATE_BATCH_SIZE = 500;
+
+    // Satu operasi yang diukur; dipanggil berulang dari beberapa thread
+    private interface Operation {
+        void run(ScoreStore store, ThreadLocalRandom random) throws ScoreStoreException;
+    }
+
+    private final Map<String, String> options;
+    private final int rows;
+
+    private PersistenceBenchmark(Map<String, String> options) {
+        this.options = options;
+        this.rows = Integer.parseInt(option("rows", "1000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                System.err.println("Usage: PersistenceBenchmark [--target=h2-pool|h2-direct|mysql-pool|mysql-direct|local]");
+                System.err.println("       [--threads=1,4,16]");
+                System.err.println("       [--rows=1000] [--ops=2000] [--allOps=50] [--warmup=200]");
+                System.err.println("       [--url=jdbc:mysql://...] [--user=root] [--password=]");
+                System.exit(2);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        new PersistenceBenchmark(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    private void run() throws Exception {
+        String target = option("target", "h2-pool");
+        int ops = Integer.parseInt(option("ops", "2000"));
+        int allOps = Integer.parseInt(option("allOps", "50"));
+        int warmup = Integer.parseInt(option("warmup", "200"));
+
+        for (String threadOption : option("threads", "1,4").split(",")) {
+            int threads = Integer.parseInt(threadOption.trim());
+            Path tempDir = null;
+            ScoreStore store;
+            if (target.equals("local")) {
+                tempDir = Files.createTempDirectory("skillballs-bench");
+                store = new LocalScoreStore(tempDir);
+            } else if (target.equals("mysql-pool") || target.equals("mysql-direct")
+                    || target.equals("h2-pool") || target.equals("h2-direct")) {
+                store = openJdbc(target, threads);
+            } else {
+                throw new IllegalArgumentException("Unknown target: " + target);
+            }
+
+            try {
+                populate(store);
+                System.out.printf("%ntarget=%s threads=%d rows=%d%n", target, threads, rows);
+                System.out.printf("%-22s %8s %12s %10s %10s %10s %10s %7s%n",
+                        "operation", "ops", "ops/sec", "p50(us)", "p99(us)", "p99.9(us)", "max(us)", "errors");
+
+                measure("saveThasil", store, threads, warmup, ops, (s, random) ->
+                        s.saveThasil(USERNAME_PREFIX + random.nextInt(rows), random.nextInt(100000), random.nextInt(100)));
+                measure("getThasilByUsername", store, threads, warmup, ops, (s, random) ->
+                        s.getThasilByUsername(USERNAME_PREFIX + random.nextInt(rows)));
+                measure("getAllThasil", store, threads, Math.min(warmup, allOps), allOps, (s, random) ->
+                        s.getAllThasil());
+
+                if (store instanceof MySqlScoreStore && ((MySqlScoreStore) store).getConnectionPool() != null) {
+                    System.out.println(((MySqlScoreStore) store).getConnectionPool());
+                }
+            } finally {
+                store.close();
+                if (tempDir != null) {
+                    deleteRecursively(tempDir);
+                }
+            }
+        }
+    }
+
+    // Membuka MySqlScoreStore (di MySQL atau H2) dan mengosongkan tabel 'thasil' di database benchmark
+    private ScoreStore openJdbc(String target, int threads) throws ScoreStoreException, SQLException {
+        boolean h2 = target.startsWith("h2-");
+        String url = h2 ? H2_URL : option("url", DEFAULT_URL);
+        String user = h2 ? "sa" : option("user", "root");
+        String password = h2 ? "" : option("password", "");
+        if (h2) {
+            try (Connection conn = DriverManager.getConnection(url, user, password);
+                 Statement stmt = conn.createStatement()) {
+                stmt.execute("CREATE ALIAS IF NOT EXISTS GET_LOCK FOR 'PersistenceBenchmark.getLock'");
+                stmt.execute("CREATE ALIAS IF NOT EXISTS RELEASE_LOCK FOR 'PersistenceBenchmark.releaseLock'");
+            }
+        }
+        ConnectionSource connections = target.endsWith("-pool")
+                ? new ConnectionPool(url, user, password, 1, threads, 5000L, 60000L, 500L)
+                : new DirectConnectionSource(url, user, password);
+        MySqlScoreStore store = new MySqlScoreStore(connections);
+        store.getThasilByUsername(USERNAME_PREFIX); // Menjalankan migrasi skema lebih dulu
+
+        try (Connection conn = DriverManager.getConnection(url, user, password);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("TRUNCATE TABLE thasil");
+        }
+        return store;
+    }
+
+    // GET_LOCK(name, timeout) untuk H2: 1 jika lock didapat dalam batas waktu, 0 jika tidak
+    public static int getLock(String name, int timeoutSeconds) throws InterruptedException {
+        return H2_NAMED_LOCK.tryLock(timeoutSeconds, TimeUnit.SECONDS) ? 1 : 0;
+    }
+
+    // RELEASE_LOCK(name) untuk H2: 1 jika lock dilepas, 0 jika lock tidak dipegang thread ini
+    public static int releaseLock(String name) {
+        if (!H2_NAMED_LOCK.isHeldByCurrentThread()) {
+            return 0;
+        }
+        H2_NAMED_LOCK.unlock();
+        return 1;
+    }
+
+    // Mengisi tabel dengan 'rows' pemain supaya ukuran tabel sesuai skenario
+    private void populate(ScoreStore store) throws ScoreStoreException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Thasil> batch = new ArrayList<>(POPULATE_BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Thasil(USERNAME_PREFIX + i, random.nextInt(100000), random.nextInt(100)));
+            if (batch.size() == POPULATE_BATCH_SIZE || i == rows - 1) {
+                store.saveThasilBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Menjalankan satu operasi dari beberapa thread sekaligus. Tiap thread menjalankan 'warmup'
+     * operasi tanpa diukur, lalu 'ops' operasi yang latensinya dicatat satu per satu.
+     */
+    private void measure(String name, ScoreStore store, int threads, int warmup, int ops, Operation operation)
+            throws InterruptedException {
+        long[][] latencies = new long[threads][];
+        AtomicLong errors = new AtomicLong(0);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long[] samples = new long[ops];
+                int count = 0;
+                try {
+                    for (int i = 0; i < warmup; i++) {
+                        operation.run(store, random);
+                    }
+                    ready.countDown();
+                    start.await();
+                    for (int i = 0; i < ops; i++) {
+                        long begin = System.nanoTime();
+                        try {
+                            operation.run(store, random);
+                            samples[count++] = System.nanoTime() - begin;
+                        } catch (ScoreStoreException e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } catch (ScoreStoreException e) {
+                    System.err.println("Warmup failed: " + e.getMessage());
+                    ready.countDown();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[index] = Arrays.copyOf(samples, count);
+                    done.countDown();
+                }
+            }, "bench-" + name + "-" + t);
+            worker.start();
+        }
+
+        ready.await();
+        long begin = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsed = System.nanoTime() - begin;
+
+        long[] all = Stream.of(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        double opsPerSec = all.length / (elapsed / 1_000_000_000.0);
+        System.out.printf("%-22s %8d %12.1f %10.1f %10.1f %10.1f %10.1f %7d%n", name, all.length, opsPerSec,
+                percentileMicros(all, 0.50), percentileMicros(all, 0.99), percentileMicros(all, 0.999),
+                all.length == 0 ? 0.0 : all[all.length - 1] / 1000.0, errors.get());
+    }
+
+    // Persentil nearest-rank dari latensi yang sudah terurut, dalam mikrodetik
+    private static double percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)] / 1000.0;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
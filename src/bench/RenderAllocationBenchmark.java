@@ -0,0 +1,183 @@
+import java.awt.Graphics2D;
+import java.awt.Transparency;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * RenderAllocationBenchmark mengukur berapa byte yang dialokasikan untuk menggambar satu frame game
+ * (GamePanel.renderFrame). Tujuannya: setelah semua cache terisi, frame digambar tanpa alokasi sama
+ * sekali, sehingga rendering tidak memicu GC di tengah permainan.
+ * Bukan bagian dari game; dijalankan manual dari command line, tanpa layar (headless) dan tanpa MySQL.
+ *
+ * Simulasi dijalankan langsung dari thread benchmark (tanpa thread game loop): satu tick per dua frame,
+ * pemain dibuat kebal supaya tidak game over, dan lasso ditembakkan berkala ke salah satu bola.
+ * Frame digambar ke BufferedImage dan alokasinya diukur per frame dengan
+ * ThreadMXBean.getThreadAllocatedBytes (hanya di sekitar panggilan render, bukan simulasinya).
+ * Aset diganti gambar sintetis berukuran sama supaya tidak butuh layar.
+ *
+ * Dua fase, keduanya harus 0 byte per frame setelah warmup:
+ *   dynamic  bola bergerak, lasso aktif, dan angka HUD berubah. Semua sudut lasso, ukuran bola, dan glyph
+ *            angka sudah disiapkan GamePanel di frame pertama, jadi tidak ada cache yang terisi di tengah permainan.
+ *   static   simulasi dihentikan dan frame yang sama digambar berulang kali.
+ *
+ * Contoh:
+ *   java -cp out:lib/mysql-connector-j-9.3.0.jar RenderAllocationBenchmark --frames=20000 --assert
+ *
+ * Dengan --assert, proses keluar dengan kode 1 jika ada frame (dynamic atau static) yang mengalokasikan memori.
+ */
+public class RenderAllocationBenchmark {
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 700;
+    private static final int FRAMES_PER_TICK = 2; // 120 fps untuk simulasi 60 tick per detik
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.err.println("Usage: RenderAllocationBenchmark [--warmup=20000] [--frames=20000] [--staticFrames=5000]");
+                System.err.println("       [--lassoEvery=120] [--seed=1] [--assert]");
+                System.exit(2);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "20000"));
+        int frames = Integer.parseInt(options.getOrDefault("frames", "20000"));
+        int staticFrames = Integer.parseInt(options.getOrDefault("staticFrames", "5000"));
+        int lassoEvery = Integer.parseInt(options.getOrDefault("lassoEvery", "120")); // Dalam frame; 0 = tidak pernah
+        Random random = new Random(Long.parseLong(options.getOrDefault("seed", "1")));
+        boolean assertZero = options.containsKey("assert");
+
+        // Harus diatur sebelum kelas AWT/GamePanel dimuat
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("skillballs.render.mode", "passive");
+        System.setProperty("skillballs.local.dir", Files.createTempDirectory("skillballs-render-bench").toString());
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("Thread allocation counters are not supported by this JVM.");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+
+        loadSyntheticAssets();
+        GamePanel panel = new GamePanel("bench_render", null);
+        panel.setSize(WIDTH, HEIGHT);
+        GameViewModel viewModel = panel.getGameViewModel();
+        viewModel.initializeGame();
+        Player player = viewModel.getPlayer(); // Dibuat kebal di step(): bom tidak mengakhiri game, efek bonus dan timer ikut digambar
+
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = target.createGraphics();
+
+        // Warmup: simulasi dan rendering berjalan seperti biasa supaya JIT dan cache siap
+        for (int i = 0; i < warmup; i++) {
+            step(panel, viewModel, random, i, lassoEvery);
+            panel.renderFrameForBenchmark(g2d, WIDTH, HEIGHT);
+        }
+
+        long[] dynamicBytes = new long[frames];
+        for (int i = 0; i < frames; i++) {
+            step(panel, viewModel, random, i, lassoEvery);
+            long before = threads.getThreadAllocatedBytes(thread);
+            panel.renderFrameForBenchmark(g2d, WIDTH, HEIGHT);
+            dynamicBytes[i] = threads.getThreadAllocatedBytes(thread) - before;
+        }
+
+        long[] staticBytes = new long[staticFrames];
+        for (int i = 0; i < staticFrames; i++) {
+            long before = threads.getThreadAllocatedBytes(thread);
+            panel.renderFrameForBenchmark(g2d, WIDTH, HEIGHT);
+            staticBytes[i] = threads.getThreadAllocatedBytes(thread) - before;
+        }
+        g2d.dispose();
+
+        System.out.printf("balls=%d score=%d collected=%d%n", viewModel.getBalls().size(), player.getScore(),
+                player.getCollectedBalls());
+        report("dynamic", dynamicBytes);
+        report("static", staticBytes);
+        System.out.println(AssetLoader.getScaledImageCacheStats());
+        System.out.println(viewModel.getCollisionStats());
+
+        long dynamicAllocating = Arrays.stream(dynamicBytes).filter(b -> b > 0).count();
+        long staticAllocating = Arrays.stream(staticBytes).filter(b -> b > 0).count();
+        if (assertZero && (dynamicAllocating > 0 || staticAllocating > 0)) {
+            System.err.println("FAILED: " + dynamicAllocating + " dynamic and " + staticAllocating
+                    + " static frame(s) allocated memory.");
+            System.exit(1);
+        }
+        System.exit(0); // Thread penyimpanan adalah daemon, tetapi AWT bisa menahan JVM
+    }
+
+    // Menjalankan simulasi sesuai jadwal frame: tick setiap FRAMES_PER_TICK frame, lasso setiap lassoEvery frame
+    private static void step(GamePanel panel, GameViewModel viewModel, Random random, int frame, int lassoEvery) {
+        if (lassoEvery > 0 && frame % lassoEvery == 0) {
+            fireLasso(panel, viewModel.getBalls(), random);
+        }
+        if (frame % FRAMES_PER_TICK == 0) {
+            Player player = viewModel.getPlayer();
+            if (!player.isInvincible() || player.getInvincibilityDuration() < 600) {
+                player.setInvincible(true); // Bintang bonus mengatur ulang durasinya; tetap kebal selama benchmark
+                player.setInvincibilityDuration(Integer.MAX_VALUE / 2);
+            }
+            panel.tickForBenchmark();
+        }
+    }
+
+    private static void report(String phase, long[] bytes) {
+        long[] sorted = bytes.clone();
+        Arrays.sort(sorted);
+        long total = Arrays.stream(bytes).sum();
+        long allocating = Arrays.stream(bytes).filter(b -> b > 0).count();
+        int p99 = (int) Math.max(Math.ceil(sorted.length * 0.99) - 1, 0);
+        System.out.printf("%-8s frames=%d allocating=%d bytes/frame: mean=%.2f p50=%d p99=%d max=%d%n",
+                phase, bytes.length, allocating, bytes.length == 0 ? 0.0 : (double) total / bytes.length,
+                sorted.length == 0 ? 0 : sorted[sorted.length / 2], sorted.length == 0 ? 0 : sorted[p99],
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+    }
+
+    // Menembakkan lasso ke salah satu bola (atau titik acak jika belum ada bola) seperti klik kiri mouse
+    private static void fireLasso(GamePanel panel, List<Balls> balls, Random random) {
+        int x = random.nextInt(WIDTH);
+        int y = random.nextInt(HEIGHT);
+        if (!balls.isEmpty()) {
+            Balls ball = balls.get(random.nextInt(balls.size()));
+            x = ball.getX() + ball.getSize() / 2;
+            y = ball.getY() + ball.getSize() / 2;
+        }
+        MouseEvent click = new MouseEvent(panel, MouseEvent.MOUSE_PRESSED, System.currentTimeMillis(), 0,
+                x, y, 1, false, MouseEvent.BUTTON1);
+        panel.getMouseListeners()[0].mousePressed(click);
+    }
+
+    // Gambar pengganti dengan ukuran yang sama seperti aset asli
+    private static void loadSyntheticAssets() {
+        AssetLoader.backgroundImage = syntheticImage(1920, 1080, Transparency.OPAQUE);
+        AssetLoader.playerAstronautSprite = syntheticImage(320, 472, Transparency.TRANSLUCENT);
+        AssetLoader.bonusEffectSprite = syntheticImage(816, 228, Transparency.TRANSLUCENT);
+        AssetLoader.skillBallImage = syntheticImage(128, 128, Transparency.TRANSLUCENT);
+        AssetLoader.bombAlienImage = syntheticImage(128, 128, Transparency.TRANSLUCENT);
+        AssetLoader.bonusStarImage = syntheticImage(128, 128, Transparency.TRANSLUCENT);
+        AssetLoader.lassoChainSegmentImage = syntheticImage(64, 64, Transparency.TRANSLUCENT);
+        AssetLoader.lassoHookImage = syntheticImage(64, 64, Transparency.TRANSLUCENT);
+        AssetLoader.basketImage = syntheticImage(256, 320, Transparency.TRANSLUCENT);
+    }
+
+    private static BufferedImage syntheticImage(int width, int height, int transparency) {
+        BufferedImage image = new BufferedImage(width, height,
+                transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(transparency == Transparency.OPAQUE ? java.awt.Color.DARK_GRAY : java.awt.Color.ORANGE);
+        g.fillOval(0, 0, width, height);
+        g.dispose();
+        return image;
+    }
+}
@@ -0,0 +1,82 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplayRunner menjalankan ulang rekaman input (.sbr) dengan ReplayEngine secepat CPU mampu dan
+ * memeriksa bahwa hasilnya sama persis dengan sesi aslinya (semua checksum cocok).
+ * Bukan bagian dari game; dijalankan manual dari command line, misalnya untuk memeriksa bahwa
+ * perubahan logika game tidak mengubah hasil sesi yang sudah direkam.
+ * Keluar dengan kode 1 jika ada replay yang menyimpang atau gagal dibaca.
+ *
+ * Contoh:
+ *   java -cp out:lib/mysql-connector-j-9.3.0.jar ReplayRunner replays/player-1718000000000.sbr --repeat=10
+ *
+ * Rekaman dibuat oleh GamePanel di folder 'replays' (lihat -Dskillballs.replay.dir) atau oleh
+ * SimulationBenchmark --record=file.sbr. Log game (System.out) dimatikan kecuali dengan --verbose.
+ */
+public class ReplayRunner {
+    public static void main(String[] args) {
+        List<Path> files = new ArrayList<>();
+        int repeat = 1;
+        boolean verbose = false;
+        for (String arg : args) {
+            if (arg.startsWith("--repeat=")) {
+                repeat = Integer.parseInt(arg.substring("--repeat=".length()));
+            } else if (arg.equals("--verbose")) {
+                verbose = true;
+            } else if (arg.startsWith("--")) {
+                files.clear();
+                break;
+            } else {
+                files.add(Paths.get(arg));
+            }
+        }
+        if (files.isEmpty() || repeat < 1) {
+            System.err.println("Usage: ReplayRunner <replay.sbr>... [--repeat=1] [--verbose]");
+            System.exit(2);
+        }
+
+        PrintStream out = System.out;
+        boolean allMatched = true;
+        for (Path file : files) {
+            InputLog log;
+            try {
+                log = InputLog.read(file);
+            } catch (IOException e) {
+                System.err.println(file + ": cannot read replay: " + e.getMessage());
+                allMatched = false;
+                continue;
+            }
+            out.printf("%s: user=%s seed=%d world=%dx%d ticks=%d events=%d size=%d bytes%s%n", file, log.getUsername(),
+                    log.getSeed(), log.getWorldWidth(), log.getWorldHeight(), log.getLastTick(), log.getEventCount(),
+                    log.getSizeInBytes(), log.hasEnd() ? "" : " (truncated, no END)");
+
+            for (int run = 1; run <= repeat; run++) {
+                if (!verbose) {
+                    System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+                }
+                long start = System.nanoTime();
+                ReplayEngine engine = new ReplayEngine(log);
+                boolean matched = engine.run();
+                long elapsedNanos = System.nanoTime() - start;
+                System.setOut(out);
+
+                matched &= !log.hasEnd() || engine.isEndVerified();
+                allMatched &= matched;
+                double seconds = elapsedNanos / 1e9;
+                Player player = engine.getViewModel().getPlayer();
+                out.printf("  run %d: %s checksums=%d mismatches=%d firstMismatchTick=%d score=%d collected=%d gameOverTick=%d"
+                                + " time=%.3fs ticks/s=%.0f (%.0fx real time)%n",
+                        run, matched ? "MATCH" : "DIVERGED", engine.getChecksumsVerified(), engine.getChecksumMismatches(),
+                        engine.getFirstMismatchTick(), player.getScore(), player.getCollectedBalls(), engine.getGameOverTick(),
+                        seconds, engine.getTicks() / seconds, engine.getTicks() / seconds / 60);
+            }
+        }
+        System.exit(allMatched ? 0 : 1);
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * SimulationBenchmark menjalankan game tanpa layar lewat HeadlessSimulation, secepat CPU mampu,
+ * dengan pemain bot sederhana: berjalan acak, menembakkan lasso ke bola yang bukan bom secara berkala,
+ * dan membawa bola yang dipegang ke keranjang. Setelah game over, game baru langsung dimulai.
+ * Bukan bagian dari game; dijalankan manual dari command line untuk soak test dan mengukur throughput.
+ * Tidak membutuhkan layar, suara, maupun MySQL.
+ *
+ * Contoh:
+ *   java -cp out:lib/mysql-connector-j-9.3.0.jar SimulationBenchmark --ticks=2000000 --seed=7
+ *
+ * Log game (System.out) dimatikan selama simulasi kecuali dengan --verbose.
+ * Dengan --record=file.sbr, input game pertama direkam dan bisa dijalankan ulang dengan ReplayRunner.
+ */
+public class SimulationBenchmark {
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.err.println("Usage: SimulationBenchmark [--ticks=1000000] [--seed=1] [--width=1200] [--height=700]");
+                System.err.println("       [--lassoEvery=30] [--record=file.sbr] [--verbose]");
+                System.exit(2);
+            }
+            int eq = arg.indexOf('=');
+            options.put(eq < 0 ? arg.substring(2) : arg.substring(2, eq), eq < 0 ? "true" : arg.substring(eq + 1));
+        }
+        long totalTicks = Long.parseLong(options.getOrDefault("ticks", "1000000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+        int width = Integer.parseInt(options.getOrDefault("width", "1200"));
+        int height = Integer.parseInt(options.getOrDefault("height", "700"));
+        int lassoEvery = Integer.parseInt(options.getOrDefault("lassoEvery", "30")); // Dalam tick; 0 = tidak pernah
+        boolean verbose = options.containsKey("verbose");
+        String recordFile = options.get("record");
+
+        Random botRandom = new Random(seed ^ 0x5DEECE66DL); // Terpisah dari Random game
+        HeadlessSimulation simulation = new HeadlessSimulation("bench_sim", width, height, new Random(seed));
+        if (recordFile != null) {
+            simulation.getViewModel().setInputRecorder(new InputRecorder());
+        }
+        simulation.start();
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        PrintStream out = System.out;
+        if (!verbose) {
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        }
+        long scoreSum = 0;
+        long collectedSum = 0;
+        int dx = 0;
+        int dy = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (long tick = 0; tick < totalTicks; tick++) {
+            if (simulation.isGameOver()) {
+                Player player = simulation.getViewModel().getPlayer();
+                scoreSum += player.getScore();
+                collectedSum += player.getCollectedBalls();
+                if (recordFile != null) {
+                    saveRecording(simulation.getViewModel(), recordFile);
+                    recordFile = null; // Hanya game pertama yang direkam
+                }
+                simulation.start();
+            }
+            GameViewModel viewModel = simulation.getViewModel();
+            Player player = viewModel.getPlayer();
+            if (viewModel.getHeldBall() != null) {
+                // Bawa bola ke keranjang di tengah bawah
+                int basketCenterX = width / 2;
+                int basketCenterY = height - GameViewModel.BASKET_BOTTOM_MARGIN - GameViewModel.BASKET_HEIGHT / 2;
+                dx = Integer.signum(basketCenterX - (player.getX() + 25));
+                dy = Integer.signum(basketCenterY - (player.getY() + 25));
+            } else if (tick % 20 == 0) {
+                dx = botRandom.nextInt(3) - 1;
+                dy = botRandom.nextInt(3) - 1;
+            }
+            if (lassoEvery > 0 && tick % lassoEvery == 0) {
+                fireAtBall(simulation, viewModel.getBalls(), botRandom);
+            }
+            simulation.step(dx, dy);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.setOut(out);
+        if (recordFile != null) {
+            saveRecording(simulation.getViewModel(), recordFile); // Game pertama belum selesai saat tick habis
+        }
+
+        int finishedGames = simulation.getGameOvers();
+        System.out.printf("ticks=%d time=%.2fs ticks/s=%.0f (%.0fx real time at 60 ticks/s)%n",
+                totalTicks, elapsedNanos / 1e9, totalTicks / (elapsedNanos / 1e9), totalTicks / (elapsedNanos / 1e9) / 60);
+        System.out.printf("games=%d gameOvers=%d avgScore=%.1f avgCollected=%.1f bonusStarts=%d bombEffects=%d%n",
+                simulation.getGamesStarted(), finishedGames, finishedGames == 0 ? 0.0 : (double) scoreSum / finishedGames,
+                finishedGames == 0 ? 0.0 : (double) collectedSum / finishedGames, simulation.getBonusMusicStarts(),
+                simulation.getBombEffects());
+        System.out.printf("allocated=%d bytes (%.2f bytes/tick)%n", allocated, (double) allocated / totalTicks);
+        System.out.println(simulation.getViewModel().getBallStoreStats());
+        System.out.println(simulation.getViewModel().getCollisionStats());
+    }
+
+    private static void saveRecording(GameViewModel viewModel, String file) {
+        InputRecorder recording = viewModel.finishInputRecording();
+        try {
+            recording.writeTo(Paths.get(file));
+            System.err.println("Recorded " + recording.getEventCount() + " events (" + recording.size() + " bytes) to " + file);
+        } catch (IOException e) {
+            System.err.println("Error writing recording " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Menembakkan lasso ke bola acak yang bukan bom (atau tidak menembak jika tidak ada)
+    private static void fireAtBall(HeadlessSimulation simulation, List<Balls> balls, Random random) {
+        if (balls.isEmpty()) {
+            return;
+        }
+        Balls ball = balls.get(random.nextInt(balls.size()));
+        if (ball.isBomb() || !ball.isActive()) {
+            return;
+        }
+        simulation.fireLasso(ball.getX() + ball.getSize() / 2, ball.getY() + ball.getSize() / 2);
+    }
+}
@@ -0,0 +1,328 @@
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * BallStore menyimpan data semua bola aktif dalam array primitif paralel (struct-of-arrays):
+ * posisi, kecepatan, ukuran, nilai, warna, dan status (bitfield) berada di int[] yang padat dan berurutan.
+ * Objek Balls hanyalah tampilan ringan ke satu slot di array ini, sehingga kode lama tetap bisa
+ * memakai getter/setter Balls, sementara tick simulasi cukup menyapu array tanpa mengejar pointer.
+ *
+ * Slot 0 .. size()-1 selalu terisi. Menghapus bola memindahkan data slot terakhir ke slot yang kosong
+ * (swap-remove, O(1)) dan memperbarui tampilan Balls milik slot itu, jadi referensi ke objek Balls
+ * tetap berlaku selama bolanya aktif, tetapi urutan bola bisa berubah. Objek Balls yang dilepas
+ * masuk ke daftar bebas dan dipakai ulang saat spawn berikutnya, sehingga siklus spawn/hapus
+ * tidak membuat sampah untuk GC. Pemanggil tidak boleh menyimpan referensi ke bola setelah melepasnya.
+ * Tidak thread-safe; dipakai hanya di dalam tick simulasi (di bawah stateLock GamePanel).
+ */
+public class BallStore {
+    // Bit-bit pada flags[]
+    static final int FLAG_ACTIVE = 1;
+    static final int FLAG_BEING_PULLED = 1 << 1;
+    static final int FLAG_HELD = 1 << 2;
+    static final int FLAG_BOMB = 1 << 3;
+    static final int FLAG_BONUS_STAR = 1 << 4;
+    static final int FLAG_MOVING_RIGHT = 1 << 5;
+    // Bola bergerak bebas jika aktif dan tidak sedang ditarik atau dipegang
+    private static final int MOTION_MASK = FLAG_ACTIVE | FLAG_BEING_PULLED | FLAG_HELD;
+
+    // Indeks warna fallback (lihat Balls.getColor); disimpan sebagai int supaya simulasi tidak memuat kelas AWT
+    static final int COLOR_BOMB = 0;
+    static final int COLOR_BONUS_STAR = 1;
+    static final int FIRST_RANDOM_COLOR = 2;
+    static final int RANDOM_COLOR_COUNT = 12;
+
+    // Data bola per slot; dibaca dan ditulis langsung oleh Balls
+    int[] x;
+    int[] y;
+    int[] prevX; // Posisi pada tick sebelumnya (untuk interpolasi rendering)
+    int[] prevY;
+    int[] originalX; // Posisi awal (untuk animasi menarik bola ke pemain)
+    int[] originalY;
+    int[] speed;
+    int[] velocity; // Perpindahan X per tick: +speed/-speed jika bergerak bebas, 0 jika tidak
+    int[] size;
+    int[] value;
+    int[] flags;
+    int[] color; // Indeks warna fallback
+    private Balls[] views;
+    private int count;
+
+    private Balls[] free;
+    private int freeCount;
+
+    private final List<Balls> activeView;
+
+    private int created; // Jumlah objek Balls yang pernah dibuat
+    private long acquired; // Jumlah spawn
+    private long reused; // Jumlah spawn yang memakai objek dari daftar bebas
+    private int peakActive;
+
+    /**
+     * @param initialCapacity Jumlah slot dan objek Balls yang langsung dibuat, supaya spawn pertama pun tidak mengalokasikan.
+     */
+    public BallStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        allocateArrays(capacity);
+        this.free = new Balls[capacity];
+        for (int i = 0; i < initialCapacity; i++) {
+            free[freeCount++] = new Balls(this);
+            created++;
+        }
+        // Tampilan read-only atas bola aktif; dibuat sekali supaya getBalls() tidak mengalokasikan
+        this.activeView = new AbstractList<Balls>() {
+            @Override
+            public Balls get(int index) {
+                return BallStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Menempatkan bola baru di slot berikutnya dengan atribut acak dari rand.
+     * Tidak mengalokasikan objek selama kapasitas dan daftar bebas mencukupi.
+     * @return Tampilan Balls untuk bola baru.
+     */
+    public Balls acquire(int startX, int startY, int minSpeed, int maxSpeed, int minSize, int maxSize,
+                         boolean isBomb, boolean isBonusStar, Random rand) {
+        Balls ball;
+        if (freeCount > 0) {
+            ball = free[--freeCount];
+            free[freeCount] = null;
+            reused++;
+        } else {
+            ball = new Balls(this);
+            created++;
+        }
+        acquired++;
+        if (count == x.length) {
+            grow(count * 2);
+        }
+        int slot = count++;
+        views[slot] = ball;
+        ball.slot = slot;
+        if (count > peakActive) {
+            peakActive = count;
+        }
+
+        x[slot] = startX;
+        y[slot] = startY;
+        prevX[slot] = startX;
+        prevY[slot] = startY;
+        originalX[slot] = startX;
+        originalY[slot] = startY;
+
+        // Urutan pengambilan angka acak sama seperti sebelumnya: nilai, ukuran, warna, kecepatan
+        value[slot] = rand.nextInt(10) + 1; // Nilai acak antara 1 hingga 10
+        size[slot] = rand.nextInt(maxSize - minSize + 1) + minSize; // Ukuran acak antara minSize dan maxSize
+        if (isBomb) {
+            color[slot] = COLOR_BOMB; // Warna untuk bom
+        } else if (isBonusStar) {
+            color[slot] = COLOR_BONUS_STAR; // Warna untuk bintang bonus
+        } else {
+            color[slot] = FIRST_RANDOM_COLOR + rand.nextInt(RANDOM_COLOR_COUNT); // Warna acak untuk bola biasa
+        }
+        speed[slot] = rand.nextInt(maxSpeed - minSpeed + 1) + minSpeed; // Kecepatan acak dalam rentang tertentu
+
+        int f = FLAG_ACTIVE;
+        if (isBomb) {
+            f |= FLAG_BOMB;
+        }
+        if (isBonusStar) {
+            f |= FLAG_BONUS_STAR;
+        }
+        if (startY < 300) {
+            f |= FLAG_MOVING_RIGHT; // Arah gerak awal berdasarkan posisi Y
+        }
+        flags[slot] = f;
+        updateVelocity(slot);
+        return ball;
+    }
+
+    /**
+     * Menghapus bola dari store dan mengembalikan objek Balls-nya ke daftar bebas.
+     * Tidak melakukan apa-apa jika bola tidak aktif di store ini.
+     */
+    public void release(Balls ball) {
+        int slot = ball.slot;
+        if (ball.store != this || slot < 0 || slot >= count || views[slot] != ball) {
+            return;
+        }
+        int last = count - 1;
+        if (slot != last) {
+            // Swap-remove: data slot terakhir pindah ke slot yang kosong
+            x[slot] = x[last];
+            y[slot] = y[last];
+            prevX[slot] = prevX[last];
+            prevY[slot] = prevY[last];
+            originalX[slot] = originalX[last];
+            originalY[slot] = originalY[last];
+            speed[slot] = speed[last];
+            velocity[slot] = velocity[last];
+            size[slot] = size[last];
+            value[slot] = value[last];
+            flags[slot] = flags[last];
+            color[slot] = color[last];
+            Balls moved = views[last];
+            views[slot] = moved;
+            moved.slot = slot;
+        }
+        views[last] = null;
+        count = last;
+
+        ball.slot = -1;
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = ball;
+    }
+
+    /**
+     * Mengembalikan semua bola ke daftar bebas (misalnya saat game dimulai ulang).
+     */
+    public void releaseAll() {
+        while (count > 0) {
+            release(views[count - 1]);
+        }
+    }
+
+    /**
+     * Menyimpan posisi semua bola sebagai posisi tick sebelumnya.
+     */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /**
+     * Menggerakkan semua bola yang bergerak bebas satu tick.
+     * Bola yang ditarik, dipegang, atau tidak aktif memiliki velocity 0, jadi loop ini tidak bercabang
+     * dan bisa divektorisasi oleh JIT.
+     */
+    public void moveFreeBalls() {
+        int[] xs = x;
+        int[] vs = velocity;
+        for (int i = 0; i < count; i++) {
+            xs[i] += vs[i];
+        }
+    }
+
+    /**
+     * @return true jika bola di slot ini aktif dan tidak sedang ditarik atau dipegang.
+     */
+    public boolean isFree(int slot) {
+        return (flags[slot] & MOTION_MASK) == FLAG_ACTIVE;
+    }
+
+    public Balls get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", active: " + count);
+        }
+        return views[index];
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Tampilan read-only atas bola aktif, dengan urutan yang sama seperti get(index).
+     */
+    public List<Balls> asList() {
+        return activeView;
+    }
+
+    /**
+     * Mencampur data semua bola aktif (sesuai urutan slot) ke dalam hash, untuk memeriksa bahwa replay
+     * menghasilkan state yang sama persis dengan sesi aslinya.
+     * @param hash Hash awal (state lain yang sudah dicampur pemanggil).
+     */
+    public long checksum(long hash) {
+        hash = hash * 31 + count;
+        for (int i = 0; i < count; i++) {
+            hash = hash * 31 + x[i];
+            hash = hash * 31 + y[i];
+            hash = hash * 31 + originalX[i];
+            hash = hash * 31 + originalY[i];
+            hash = hash * 31 + speed[i];
+            hash = hash * 31 + velocity[i];
+            hash = hash * 31 + size[i];
+            hash = hash * 31 + value[i];
+            hash = hash * 31 + flags[i];
+            hash = hash * 31 + color[i];
+        }
+        return hash;
+    }
+
+    public int getCapacity() { return x.length; }
+    public int getFreeCount() { return freeCount; }
+    public int getCreatedCount() { return created; }
+    public int getPeakActive() { return peakActive; }
+    public long getAcquiredCount() { return acquired; }
+    public long getReusedCount() { return reused; }
+
+    /**
+     * Ringkasan isi store untuk log atau benchmark.
+     */
+    public String getStats() {
+        return String.format("BallStore[active=%d, capacity=%d, free=%d, created=%d, peakActive=%d, acquired=%d, reused=%d]",
+                count, x.length, freeCount, created, peakActive, acquired, reused);
+    }
+
+    // Menyetel bit status dan menghitung ulang velocity slot tersebut
+    void setFlag(int slot, int flag, boolean on) {
+        if (on) {
+            flags[slot] |= flag;
+        } else {
+            flags[slot] &= ~flag;
+        }
+        updateVelocity(slot);
+    }
+
+    private void updateVelocity(int slot) {
+        int f = flags[slot];
+        if ((f & MOTION_MASK) != FLAG_ACTIVE) {
+            velocity[slot] = 0;
+        } else {
+            velocity[slot] = (f & FLAG_MOVING_RIGHT) != 0 ? speed[slot] : -speed[slot];
+        }
+    }
+
+    private void allocateArrays(int capacity) {
+        x = new int[capacity];
+        y = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        originalX = new int[capacity];
+        originalY = new int[capacity];
+        speed = new int[capacity];
+        velocity = new int[capacity];
+        size = new int[capacity];
+        value = new int[capacity];
+        flags = new int[capacity];
+        color = new int[capacity];
+        views = new Balls[capacity];
+    }
+
+    private void grow(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        originalX = Arrays.copyOf(originalX, capacity);
+        originalY = Arrays.copyOf(originalY, capacity);
+        speed = Arrays.copyOf(speed, capacity);
+        velocity = Arrays.copyOf(velocity, capacity);
+        size = Arrays.copyOf(size, capacity);
+        value = Arrays.copyOf(value, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        color = Arrays.copyOf(color, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+}
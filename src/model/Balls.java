@@ -1,117 +1,78 @@
 import java.awt.Color;
-import java.util.Random;
 
+/**
+ * Balls adalah tampilan ringan ke satu bola di BallStore. Semua data bola (posisi, ukuran, nilai,
+ * status) disimpan di array milik BallStore; objek ini hanya menyimpan nomor slot-nya, sehingga
+ * getter dan setter di bawah membaca dan menulis langsung ke array tersebut.
+ * Objek Balls dibuat dan dipakai ulang oleh BallStore; gunakan BallStore.acquire() untuk membuat bola.
+ */
 public class Balls {
-    // Posisi koordinat saat ini
-    private int x;
-    private int y;
-    
-    // Posisi awal (digunakan untuk animasi menarik bola ke pemain)
-    private int originalX;
-    private int originalY;
-
-    // Nilai angka pada bola (1–10)
-    private int value;
-
-    // Ukuran diameter bola
-    private int size;
-
-    // Warna bola (digunakan jika asset gambar gagal dimuat)
-    private Color color;
-
-    // Status apakah bola masih aktif (belum ditangkap/dihilangkan)
-    private boolean active;
-
-    // True jika bola sedang dalam proses ditarik oleh lasso (bergerak ke pemain)
-    private boolean isBeingPulled;
-
-    // True jika bola sudah sampai ke pemain dan sedang dibawa
-    private boolean isHeldByPlayer;
-
-    // True jika bola ini adalah bom
-    private boolean isBomb;
-
-    // True jika bola ini adalah bintang bonus
-    private boolean isBonusStar;
-
-    // Kecepatan gerak bola
-    private int speed;
-
-    // Arah gerakan bola (true: ke kanan, false: ke kiri)
-    private boolean movingRight;
-
-    // Konstruktor dengan parameter lengkap termasuk jenis bom dan bonus
-    public Balls(int startX, int startY, int minSpeed, int maxSpeed, int minSize, int maxSize, boolean isBomb, boolean isBonusStar) {
-        this.x = startX;
-        this.y = startY;
-        this.originalX = startX;
-        this.originalY = startY;
-
-        Random rand = new Random();
-
-        // Nilai acak antara 1 hingga 10
-        this.value = rand.nextInt(10) + 1;
-
-        // Ukuran acak antara minSize dan maxSize
-        this.size = rand.nextInt(maxSize - minSize + 1) + minSize;
-
-        this.isBomb = isBomb;
-        this.isBonusStar = isBonusStar;
-
-        // Tentukan warna berdasarkan tipe bola
-        if (this.isBomb) {
-            this.color = Color.RED; // Warna untuk bom
-        } else if (this.isBonusStar) {
-            this.color = Color.MAGENTA; // Warna untuk bintang bonus
-        } else {
-            this.color = generateRandomColor(); // Warna acak untuk bola biasa
-        }
-
-        this.active = true;
-        this.isBeingPulled = false;
-        this.isHeldByPlayer = false;
-
-        // Kecepatan acak dalam rentang tertentu
-        this.speed = rand.nextInt(maxSpeed - minSpeed + 1) + minSpeed;
-
-        // Atur arah gerak awal berdasarkan posisi Y
-        this.movingRight = (startY < 300);
+    // Store pemilik data bola dan slot bola ini di dalamnya (-1 = sudah dilepas); slot diubah oleh BallStore
+    final BallStore store;
+    int slot = -1;
+
+    // Letak bola di SpatialGrid (bucket -1 = tidak ada di grid); hanya diubah oleh SpatialGrid
+    int gridBucket = -1;
+    int gridSlot;
+    int gridCellX;
+    int gridCellY;
+
+    Balls(BallStore store) {
+        this.store = store;
     }
 
-    // Fungsi untuk menghasilkan warna acak RGB
-    private Color generateRandomColor() {
-        Random rand = new Random();
-        float r = rand.nextFloat();
-        float g = rand.nextFloat();
-        float b = rand.nextFloat();
-        return new Color(r, g, b);
+    // Warna fallback per indeks warna di BallStore. Kelas terpisah supaya java.awt.Color baru dimuat saat
+    // bola digambar, bukan saat simulasi berjalan tanpa layar.
+    private static final class Palette {
+        static final Color[] COLORS = {
+            Color.RED, Color.MAGENTA, // BallStore.COLOR_BOMB, BallStore.COLOR_BONUS_STAR
+            new Color(0x4FC3F7), new Color(0x81C784), new Color(0xFFD54F), new Color(0xFF8A65),
+            new Color(0xBA68C8), new Color(0x4DB6AC), new Color(0xF06292), new Color(0xAED581),
+            new Color(0x7986CB), new Color(0xFFB74D), new Color(0x90A4AE), new Color(0xDCE775)
+        };
     }
 
     // Getter dan Setter untuk atribut-atribut bola
-    public int getX() { return x; }
-    public void setX(int x) { this.x = x; }
-    public int getY() { return y; }
-    public void setY(int y) { this.y = y; }
-    public int getOriginalX() { return originalX; }
-    public int getOriginalY() { return originalY; }
-    public void setOriginalPosition(int x, int y) { this.originalX = x; this.originalY = y; }
-    public int getValue() { return value; }
-    public int getSize() { return size; }
-    public Color getColor() { return color; } // Warna fallback untuk rendering
-    public boolean isActive() { return active; }
-    public void setActive(boolean active) { this.active = active; }
-    public boolean isBeingPulled() { return isBeingPulled; }
-    public void setBeingPulled(boolean beingPulled) { this.isBeingPulled = beingPulled; }
-    public boolean isHeldByPlayer() { return isHeldByPlayer; }
-    public void setHeldByPlayer(boolean isHeldByPlayer) { this.isHeldByPlayer = isHeldByPlayer; }
-    public boolean isBomb() { return isBomb; }
-    public boolean isBonusStar() { return isBonusStar; } // Getter untuk status bonus star
+    public int getX() { return store.x[slot]; }
+    public void setX(int x) { store.x[slot] = x; }
+    public int getY() { return store.y[slot]; }
+    public void setY(int y) { store.y[slot] = y; }
+    public int getOriginalX() { return store.originalX[slot]; }
+    public int getOriginalY() { return store.originalY[slot]; }
+    public void setOriginalPosition(int x, int y) { store.originalX[slot] = x; store.originalY[slot] = y; }
+    public int getValue() { return store.value[slot]; }
+    public int getSize() { return store.size[slot]; }
+    public Color getColor() { return Palette.COLORS[store.color[slot]]; } // Warna fallback untuk rendering
+    public boolean isActive() { return slot >= 0 && (store.flags[slot] & BallStore.FLAG_ACTIVE) != 0; }
+    public void setActive(boolean active) { store.setFlag(slot, BallStore.FLAG_ACTIVE, active); }
+    public boolean isBeingPulled() { return (store.flags[slot] & BallStore.FLAG_BEING_PULLED) != 0; }
+    public void setBeingPulled(boolean beingPulled) { store.setFlag(slot, BallStore.FLAG_BEING_PULLED, beingPulled); }
+    public boolean isHeldByPlayer() { return (store.flags[slot] & BallStore.FLAG_HELD) != 0; }
+    public void setHeldByPlayer(boolean isHeldByPlayer) { store.setFlag(slot, BallStore.FLAG_HELD, isHeldByPlayer); }
+    public boolean isBomb() { return (store.flags[slot] & BallStore.FLAG_BOMB) != 0; }
+    public boolean isBonusStar() { return (store.flags[slot] & BallStore.FLAG_BONUS_STAR) != 0; } // Getter untuk status bonus star
+
+    // Menyimpan posisi saat ini sebagai posisi tick sebelumnya; dipanggil di awal setiap tick
+    public void savePreviousPosition() {
+        store.prevX[slot] = store.x[slot];
+        store.prevY[slot] = store.y[slot];
+    }
+
+    // Posisi untuk digambar: interpolasi antara tick sebelumnya (alpha 0) dan tick terbaru (alpha 1)
+    public int getRenderX(double alpha) {
+        int prevX = store.prevX[slot];
+        return (int) Math.round(prevX + (store.x[slot] - prevX) * alpha);
+    }
+    public int getRenderY(double alpha) {
+        int prevY = store.prevY[slot];
+        return (int) Math.round(prevY + (store.y[slot] - prevY) * alpha);
+    }
 
     // Fungsi untuk menggerakkan bola ke kanan atau kiri tergantung arah
     public void move() {
-        if (movingRight) { x += speed; } else { x -= speed; }
+        if (isMovingRight()) { store.x[slot] += getSpeed(); } else { store.x[slot] -= getSpeed(); }
     }
 
-    public boolean isMovingRight() { return movingRight; }
-    public int getSpeed() { return speed; }
+    public boolean isMovingRight() { return (store.flags[slot] & BallStore.FLAG_MOVING_RIGHT) != 0; }
+    public int getSpeed() { return store.speed[slot]; }
 }
@@ -0,0 +1,368 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ConnectionPool adalah pool koneksi JDBC berukuran terbatas yang dimiliki oleh DatabaseModel.
+ * Koneksi fisik ke MySQL dibuka sekali lalu dipakai ulang, sehingga handshake TCP + autentikasi
+ * tidak terjadi lagi di setiap query. Koneksi yang dipinjam dibungkus proxy: memanggil close()
+ * mengembalikannya ke pool, bukan menutup koneksi fisiknya.
+ */
+public class ConnectionPool implements ConnectionSource {
+    // Parameter koneksi ke database
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    // Batas ukuran pool (jumlah koneksi fisik)
+    private final int minSize;
+    private final int maxSize;
+
+    // Lama maksimum menunggu koneksi kosong sebelum borrow() gagal
+    private final long borrowTimeoutMillis;
+
+    // Koneksi idle yang lebih lama dari ini akan ditutup oleh evictor (selama total > minSize)
+    private final long idleTimeoutMillis;
+
+    // Koneksi yang idle lebih singkat dari ini dianggap masih sehat dan tidak divalidasi ulang saat dipinjam
+    private final long validationBypassMillis;
+
+    // Timeout (detik) untuk Connection.isValid() saat validasi
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    // Koneksi idle; dipakai LIFO supaya koneksi "hangat" dipakai lebih dulu dan sisanya bisa di-evict
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    // Izin peminjaman; jumlahnya = maxSize sehingga pool tidak pernah melebihi batas
+    private final Semaphore permits;
+
+    private final AtomicInteger totalCount = new AtomicInteger(0); // Koneksi fisik yang sedang terbuka
+    private final AtomicInteger activeCount = new AtomicInteger(0); // Koneksi yang sedang dipinjam
+
+    // === Metrik pool ===
+    private final AtomicLong borrowCount = new AtomicLong(0);
+    private final AtomicLong totalBorrowWaitNanos = new AtomicLong(0);
+    private final AtomicLong maxBorrowWaitNanos = new AtomicLong(0);
+    private final AtomicLong borrowTimeoutCount = new AtomicLong(0);
+    private final AtomicLong createdCount = new AtomicLong(0);
+    private final AtomicLong destroyedCount = new AtomicLong(0);
+    private final AtomicLong validationFailureCount = new AtomicLong(0);
+
+    // Thread latar untuk eviction koneksi idle dan menjaga jumlah minimum koneksi
+    private final ScheduledExecutorService evictor;
+
+    private volatile boolean closed = false;
+
+    /**
+     * Membuat pool baru. Koneksi minimum diisi secara asinkron oleh thread evictor
+     * supaya pembuatan pool tidak memblokir Event Dispatch Thread.
+     */
+    public ConnectionPool(String jdbcUrl, String user, String password, int minSize, int maxSize,
+                          long borrowTimeoutMillis, long idleTimeoutMillis, long validationBypassMillis) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+        }
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationBypassMillis = validationBypassMillis;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::maintain, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Meminjam koneksi dari pool. Koneksi harus ditutup (close()) setelah dipakai,
+     * misalnya dengan try-with-resources, agar kembali ke pool.
+     * @return Koneksi yang siap dipakai.
+     * @throws SQLException Jika pool ditutup, waktu tunggu habis, atau koneksi baru gagal dibuat.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a pooled connection", e);
+        }
+        recordBorrowWait(System.nanoTime() - start);
+        if (!acquired) {
+            borrowTimeoutCount.incrementAndGet();
+            throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a pooled connection (" + this + ")");
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    break;
+                }
+                destroy(pooled);
+            }
+            if (pooled == null) {
+                pooled = create();
+            }
+            activeCount.incrementAndGet();
+            borrowCount.incrementAndGet();
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    // Validasi saat peminjaman: koneksi yang baru saja dipakai dilewati agar tidak menambah round trip
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastUsedMillis < validationBypassMillis) {
+            return true;
+        }
+        try {
+            if (pooled.physical.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return true;
+            }
+        } catch (SQLException e) {
+            // Dianggap tidak valid
+        }
+        validationFailureCount.incrementAndGet();
+        return false;
+    }
+
+    // Membuka koneksi fisik baru ke database
+    private PooledConnection create() throws SQLException {
+        Connection physical = DriverManager.getConnection(jdbcUrl, user, password);
+        totalCount.incrementAndGet();
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    // Menutup koneksi fisik dan mengurangi hitungan total
+    private void destroy(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+        totalCount.decrementAndGet();
+        destroyedCount.incrementAndGet();
+    }
+
+    // Dipanggil oleh handle saat close(): kembalikan ke pool atau buang jika rusak
+    private void giveBack(PooledConnection pooled) {
+        pooled.lastUsedMillis = System.currentTimeMillis();
+        activeCount.decrementAndGet();
+
+        boolean reusable = !closed && !pooled.broken;
+        if (reusable) {
+            try {
+                // Jangan bocorkan transaksi yang belum selesai ke peminjam berikutnya.
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                reusable = false;
+            }
+        }
+
+        if (reusable) {
+            idle.offerFirst(pooled);
+        } else {
+            destroy(pooled);
+        }
+        permits.release();
+    }
+
+    // Tugas berkala: tutup koneksi idle yang kedaluwarsa lalu isi ulang sampai minSize
+    private void maintain() {
+        if (closed) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator(); // Paling lama idle ada di ujung belakang
+        while (it.hasNext() && totalCount.get() > minSize) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastUsedMillis > idleTimeoutMillis && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+
+        while (!closed && totalCount.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = create();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not open a connection: " + e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    // Mencatat lama menunggu koneksi untuk metrik
+    private void recordBorrowWait(long waitNanos) {
+        totalBorrowWaitNanos.addAndGet(waitNanos);
+        long max;
+        while (waitNanos > (max = maxBorrowWaitNanos.get()) && !maxBorrowWaitNanos.compareAndSet(max, waitNanos)) {
+            // Ulangi sampai maksimum berhasil diperbarui
+        }
+    }
+
+    // ConnectionSource: sama dengan borrow()
+    @Override
+    public Connection getConnection() throws SQLException {
+        return borrow();
+    }
+
+    /**
+     * Menutup pool: menghentikan evictor dan menutup semua koneksi idle.
+     * Koneksi yang masih dipinjam akan ditutup saat dikembalikan.
+     */
+    @Override
+    public void shutdown() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+        System.out.println("Connection pool closed. " + this);
+    }
+
+    // === Getter metrik pool ===
+    public int getMinSize() { return minSize; }
+    public int getMaxSize() { return maxSize; }
+    public int getActiveCount() { return activeCount.get(); }
+    public int getIdleCount() { return idle.size(); }
+    public int getTotalCount() { return totalCount.get(); }
+    public long getBorrowCount() { return borrowCount.get(); }
+    public long getBorrowTimeoutCount() { return borrowTimeoutCount.get(); }
+    public long getCreatedCount() { return createdCount.get(); }
+    public long getDestroyedCount() { return destroyedCount.get(); }
+    public long getValidationFailureCount() { return validationFailureCount.get(); }
+
+    // Rata-rata waktu tunggu borrow dalam milidetik
+    public double getAverageBorrowWaitMillis() {
+        long count = borrowCount.get() + borrowTimeoutCount.get();
+        return count == 0 ? 0.0 : totalBorrowWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    // Waktu tunggu borrow terlama dalam milidetik
+    public double getMaxBorrowWaitMillis() {
+        return maxBorrowWaitNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ConnectionPool[active=%d, idle=%d, total=%d/%d, borrows=%d, timeouts=%d, avgWait=%.3fms, maxWait=%.3fms, created=%d, destroyed=%d, invalid=%d]",
+                getActiveCount(), getIdleCount(), getTotalCount(), maxSize, getBorrowCount(), getBorrowTimeoutCount(),
+                getAverageBorrowWaitMillis(), getMaxBorrowWaitMillis(), getCreatedCount(), getDestroyedCount(), getValidationFailureCount());
+    }
+
+    /**
+     * Koneksi fisik beserta status pool-nya. Setiap peminjaman mendapat handle proxy baru
+     * sehingga handle lama yang sudah di-close() tidak bisa dipakai lagi.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+        private volatile boolean broken = false;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * InvocationHandler untuk koneksi yang dipinjam: close() mengembalikan koneksi ke pool,
+     * dan error koneksi (SQLState kelas 08) menandai koneksi fisik sebagai rusak.
+     */
+    private class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if ("close".equals(name)) {
+                synchronized (this) {
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        giveBack(returning);
+                    }
+                }
+                return null;
+            }
+            if ("isClosed".equals(name)) {
+                return pooled == null || pooled.physical.isClosed();
+            }
+            if ("equals".equals(name)) {
+                return proxy == args[0];
+            }
+            if ("hashCode".equals(name)) {
+                return System.identityHashCode(proxy);
+            }
+            if ("toString".equals(name)) {
+                return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+
+            PooledConnection current = pooled;
+            if (current == null) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                return method.invoke(current.physical, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        current.broken = true;
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * ConnectionSource adalah sumber koneksi JDBC untuk MySqlScoreStore.
+ * Implementasinya: ConnectionPool (koneksi dipakai ulang) dan DirectConnectionSource
+ * (koneksi baru per panggilan, dipakai sebagai pembanding di PersistenceBenchmark).
+ * close() pada koneksi yang dikembalikan selalu melepaskan koneksi tersebut.
+ */
+public interface ConnectionSource {
+    // Mengambil koneksi yang siap dipakai
+    Connection getConnection() throws SQLException;
+
+    // Menutup semua koneksi milik sumber ini
+    void shutdown();
+}
@@ -0,0 +1,43 @@
+import java.time.LocalDate;
+
+/**
+ * DailySessionStats adalah jumlah sesi dan skor dalam satu hari (UTC),
+ * dibaca dari tabel rollup 'game_session_daily'.
+ */
+public class DailySessionStats {
+    private final LocalDate date;
+    private final int sessions;
+    private final int players;
+    private final long totalSkor;
+    private final int bestSkor;
+
+    public DailySessionStats(LocalDate date, int sessions, int players, long totalSkor, int bestSkor) {
+        this.date = date;
+        this.sessions = sessions;
+        this.players = players;
+        this.totalSkor = totalSkor;
+        this.bestSkor = bestSkor;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    // Jumlah sesi yang selesai pada hari ini
+    public int getSessions() {
+        return sessions;
+    }
+
+    // Jumlah pemain berbeda yang bermain pada hari ini
+    public int getPlayers() {
+        return players;
+    }
+
+    public int getBestSkor() {
+        return bestSkor;
+    }
+
+    public double getAverageSkor() {
+        return sessions == 0 ? 0 : (double) totalSkor / sessions;
+    }
+}
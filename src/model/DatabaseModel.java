@@ -1,17 +1,74 @@
-import java.sql.*;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class DatabaseModel {
-    // URL koneksi ke database MySQL, sesuaikan nama database dan parameter timezone
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/skillballs_db?useSSL=false&serverTimezone=UTC";
-    
+    // URL koneksi ke database MySQL, sesuaikan nama database dan parameter timezone.
+    // useAffectedRows=true membuat executeUpdate() melaporkan baris yang benar-benar berubah (dipakai upsert).
+    // rewriteBatchedStatements=true membuat driver mengirim batch sebagai INSERT multi-baris (dipakai saveThasilBatch).
+    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/skillballs_db?useSSL=false&serverTimezone=UTC&useAffectedRows=true&rewriteBatchedStatements=true";
+
     // Username dan password untuk koneksi database
     private static final String USER = "root"; // Ganti jika Anda menggunakan username berbeda
     private static final String PASSWORD = ""; // Ganti jika Anda menggunakan password
 
-    // Konstruktor untuk inisialisasi driver JDBC
+    // Konfigurasi pool koneksi, bisa diubah lewat system property (-Dskillballs.db.pool.max=16, dst.)
+    private static final int POOL_MIN_SIZE = Integer.getInteger("skillballs.db.pool.min", 1);
+    private static final int POOL_MAX_SIZE = Integer.getInteger("skillballs.db.pool.max", 8);
+    private static final long POOL_BORROW_TIMEOUT_MS = Long.getLong("skillballs.db.pool.borrowTimeoutMs", 5000L);
+    private static final long POOL_IDLE_TIMEOUT_MS = Long.getLong("skillballs.db.pool.idleTimeoutMs", 60000L);
+    private static final long POOL_VALIDATION_BYPASS_MS = Long.getLong("skillballs.db.pool.validationBypassMs", 500L);
+
+    // Direktori store lokal (log skor dan penanda replikasi)
+    private static final String LOCAL_STORE_DIR = System.getProperty("skillballs.local.dir", "data");
+
+    // Cache leaderboard bersama; TTL membatasi berapa lama perubahan dari penulis lain bisa tidak terlihat
+    private static final long LEADERBOARD_TTL_MS = Long.getLong("skillballs.leaderboard.ttlMs", 30000L);
+    // Hanya baris teratas yang disimpan di memori; halaman di bawahnya diambil dengan keyset pagination
+    private static final int LEADERBOARD_CACHE_ROWS = Integer.getInteger("skillballs.leaderboard.cacheRows", 1000);
+    private static final LeaderboardCache sharedLeaderboard = new LeaderboardCache(LEADERBOARD_TTL_MS, LEADERBOARD_CACHE_ROWS);
+
+    // Store bersama untuk semua instance DatabaseModel (MainViewModel dan GameViewModel):
+    // MySQL sebagai sumber utama, dan log lokal yang selalu ditulis lebih dulu (null jika tidak bisa dibuka)
+    private static MySqlScoreStore sharedRemoteStore;
+    private static LocalScoreStore sharedLocalStore;
+
+    // Antrean write-behind bersama yang mereplikasi hasil dari store lokal ke MySQL
+    private static ScoreWriteBehind sharedWriteBehind;
+
+    // Antrean bersama untuk riwayat sesi permainan (tabel 'game_session')
+    private static GameSessionWriter sharedSessionWriter;
+
+    // Listener dari UI yang dipanggil setelah hasil asinkron tersimpan di MySQL
+    private static volatile Consumer<List<Thasil>> scoreFlushListener;
+
+    // Batas waktu menunggu antrean write-behind dikosongkan saat aplikasi keluar
+    private static final long WRITE_BEHIND_DRAIN_TIMEOUT_MS = 5000L;
+
+    private final MySqlScoreStore remoteStore;
+    private final LocalScoreStore localStore;
+    private final ScoreWriteBehind writeBehind;
+    private final GameSessionWriter sessionWriter;
+
+    // Konstruktor untuk inisialisasi driver JDBC dan store bersama
     public DatabaseModel() {
+        synchronized (DatabaseModel.class) {
+            initSharedStores();
+            this.remoteStore = sharedRemoteStore;
+            this.localStore = sharedLocalStore;
+            this.writeBehind = sharedWriteBehind;
+            this.sessionWriter = sharedSessionWriter;
+        }
+    }
+
+    // Membuat pool, store, dan antrean replikasi bersama saat pertama kali dibutuhkan
+    private static void initSharedStores() {
+        if (sharedRemoteStore != null) {
+            return;
+        }
         try {
             // Register JDBC driver (untuk versi JDBC baru, ini kadang tidak wajib)
             Class.forName("com.mysql.cj.jdbc.Driver");
@@ -20,97 +77,308 @@ public class DatabaseModel {
             System.err.println("MySQL JDBC Driver not found!");
             e.printStackTrace();
         }
+        ConnectionPool pool = new ConnectionPool(JDBC_URL, USER, PASSWORD, POOL_MIN_SIZE, POOL_MAX_SIZE,
+                POOL_BORROW_TIMEOUT_MS, POOL_IDLE_TIMEOUT_MS, POOL_VALIDATION_BYPASS_MS);
+        sharedRemoteStore = new MySqlScoreStore(pool);
+
+        try {
+            sharedLocalStore = new LocalScoreStore(Paths.get(LOCAL_STORE_DIR));
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage() + " Continuing without local fallback.");
+            sharedLocalStore = null;
+        }
+
+        sharedSessionWriter = new GameSessionWriter(sharedRemoteStore);
+        sharedWriteBehind = new ScoreWriteBehind(sharedRemoteStore);
+        sharedWriteBehind.setFlushListener(DatabaseModel::onReplicated);
+        if (sharedLocalStore != null) {
+            LocalScoreStore local = sharedLocalStore;
+            sharedWriteBehind.setReplicatedListener(local::markReplicated);
+            // Hasil yang belum sempat direplikasi pada sesi sebelumnya dikirim ulang
+            long position = local.getLogPosition();
+            for (Thasil result : local.getUnreplicated()) {
+                sharedWriteBehind.submit(result.getUsername(), result.getSkor(), result.getCount(), position);
+            }
+        }
     }
 
-    // Mendapatkan koneksi ke database
-    private Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(JDBC_URL, USER, PASSWORD);
+    // Dipanggil dari worker thread setelah hasil tersimpan di MySQL
+    private static void onReplicated(List<Thasil> changed) {
+        for (Thasil result : changed) {
+            sharedLeaderboard.applyUpdate(result);
+        }
+        Consumer<List<Thasil>> listener = scoreFlushListener;
+        if (listener != null) {
+            listener.accept(changed);
+        }
     }
 
-    // Mengambil semua data dari tabel 'thasil' dan mengurutkan berdasarkan skor (DESC) dan count (DESC)
+    // Mengembalikan pool bersama (misalnya untuk membaca metrik pool)
+    public ConnectionPool getConnectionPool() {
+        return remoteStore.getConnectionPool();
+    }
+
+    // Mengosongkan antrean write-behind lalu menutup store bersama; dipanggil sekali saat aplikasi akan keluar
+    public static synchronized void shutdown() {
+        if (sharedWriteBehind != null) {
+            sharedWriteBehind.shutdown(WRITE_BEHIND_DRAIN_TIMEOUT_MS);
+            sharedWriteBehind = null;
+        }
+        if (sharedSessionWriter != null) {
+            sharedSessionWriter.shutdown(WRITE_BEHIND_DRAIN_TIMEOUT_MS);
+            sharedSessionWriter = null;
+        }
+        if (sharedRemoteStore != null) {
+            sharedRemoteStore.close();
+            sharedRemoteStore = null;
+        }
+        if (sharedLocalStore != null) {
+            sharedLocalStore.close();
+            sharedLocalStore = null;
+        }
+    }
+
+    // Mengambil semua data dari tabel 'thasil' dan mengurutkan berdasarkan skor (DESC) dan count (DESC).
+    // Memuat seluruh tabel ke memori; untuk tabel besar gunakan getTopThasil / getThasilPage.
     public List<Thasil> getAllThasil() {
-        List<Thasil> results = new ArrayList<>();
-        String sql = "SELECT username, skor, count FROM thasil ORDER BY skor DESC, count DESC";
-
-        try (Connection conn = getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-
-            // Iterasi hasil query dan masukkan ke dalam list
-            while (rs.next()) {
-                String username = rs.getString("username");
-                int skor = rs.getInt("skor");
-                int count = rs.getInt("count");
-                results.add(new Thasil(username, skor, count));
+        List<Thasil> cached = sharedLeaderboard.getAllIfFresh();
+        if (cached != null) {
+            return cached;
+        }
+
+        long loadStart = System.nanoTime();
+        try {
+            List<Thasil> results = remoteStore.getAllThasil();
+            sharedLeaderboard.replaceTop(results, true, loadStart);
+            return results;
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return readLocal(local -> local.getAllThasil());
+        }
+    }
+
+    // Mengambil 'limit' baris teratas leaderboard. Dilayani dari cache jika jendela cache mencukupi.
+    public List<Thasil> getTopThasil(int limit) {
+        List<Thasil> cached = sharedLeaderboard.getTopIfFresh(limit);
+        if (cached != null) {
+            return cached;
+        }
+
+        // Muat satu jendela cache penuh sekaligus supaya halaman berikutnya juga bisa dilayani dari memori
+        int fetch = Math.max(limit, sharedLeaderboard.getCapacity());
+        long loadStart = System.nanoTime();
+        try {
+            List<Thasil> results = remoteStore.getTopThasil(fetch);
+            sharedLeaderboard.replaceTop(results, results.size() < fetch, loadStart);
+            return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return readLocal(local -> local.getTopThasil(limit));
+        }
+    }
+
+    /**
+     * Mengambil satu halaman leaderboard setelah baris terakhir halaman sebelumnya.
+     * @param afterSkor Skor baris terakhir halaman sebelumnya.
+     * @param afterCount Count baris terakhir halaman sebelumnya.
+     * @param afterUsername Username baris terakhir halaman sebelumnya.
+     * @param limit Jumlah maksimum baris yang diambil.
+     * @return Baris-baris halaman berikutnya (kosong jika sudah habis).
+     */
+    public List<Thasil> getThasilPage(int afterSkor, int afterCount, String afterUsername, int limit) {
+        List<Thasil> cached = sharedLeaderboard.getPageIfFresh(afterSkor, afterCount, afterUsername, limit);
+        if (cached != null) {
+            return cached;
+        }
+
+        try {
+            return remoteStore.getThasilPage(afterSkor, afterCount, afterUsername, limit);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return readLocal(local -> local.getThasilPage(afterSkor, afterCount, afterUsername, limit));
+        }
+    }
+
+    // Pembacaan dari store lokal saat MySQL tidak bisa diakses. Hasilnya tidak dimasukkan ke cache,
+    // karena store lokal hanya berisi skor yang pernah dimainkan di komputer ini.
+    private interface LocalRead {
+        List<Thasil> read(LocalScoreStore local) throws ScoreStoreException;
+    }
+
+    private List<Thasil> readLocal(LocalRead read) {
+        if (localStore == null) {
+            return new ArrayList<>();
+        }
+        try {
+            System.out.println("MySQL unavailable, reading scores from local store.");
+            return read.read(localStore);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    private interface LocalWrite {
+        void write(LocalScoreStore local) throws ScoreStoreException;
+    }
+
+    // Menulis ke store lokal untuk penyimpanan langsung ke MySQL. Penulisan dan pembacaan posisi log memakai lock
+    // yang sama dengan saveThasilAsync, dan posisinya didaftarkan ke write-behind sebelum lock dilepas, supaya
+    // penanda replikasi tidak dimajukan melewati record ini selama penyimpanan ke MySQL belum selesai.
+    // Mengembalikan posisi log setelah record (-1 jika tidak ada store lokal); akhiri dengan endDirectSave.
+    private long beginDirectSave(LocalWrite write) {
+        if (localStore == null) {
+            return -1;
+        }
+        synchronized (localStore) {
+            try {
+                write.write(localStore);
+            } catch (ScoreStoreException e) {
+                System.err.println(e.getMessage());
+                return -1;
             }
-        } catch (SQLException e) {
-            System.err.println("Error fetching results: " + e.getMessage());
-            e.printStackTrace();
+            long position = localStore.getLogPosition();
+            writeBehind.beginDirectWrite(position);
+            return position;
         }
-        return results;
     }
 
-    // Menyimpan atau mengupdate data skor ke tabel 'thasil'
-    public void saveThasil(String username, int skor, int count) {
-        // Cek apakah username sudah ada di database
-        Thasil existingThasil = getThasilByUsername(username);
+    // Menyimpan hasil ke store lokal lebih dulu; mengembalikan posisi log setelahnya (-1 jika tidak ada store lokal)
+    private long saveLocal(String username, int skor, int count) {
+        if (localStore == null) {
+            return -1;
+        }
+        try {
+            localStore.saveThasil(username, skor, count);
+            return localStore.getLogPosition();
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return -1;
+        }
+    }
 
-        String sql;
-        if (existingThasil == null) {
-            // Jika belum ada, lakukan INSERT
-            sql = "INSERT INTO thasil (username, skor, count) VALUES (?, ?, ?)";
-        } else {
-            // Jika sudah ada, lakukan UPDATE hanya jika skor baru lebih tinggi,
-            // atau jika skor sama tapi count lebih tinggi
-            if (skor > existingThasil.getSkor() || (skor == existingThasil.getSkor() && count > existingThasil.getCount())) {
-                sql = "UPDATE thasil SET skor = ?, count = ? WHERE username = ?";
+    /**
+     * Menyimpan atau mengupdate data skor: ke store lokal, lalu langsung ke MySQL.
+     * Jika MySQL tidak bisa diakses, hasil masuk antrean replikasi dan dikirim belakangan.
+     * @return CHANGED jika baris baru dibuat atau skor lama diperbarui, UNCHANGED jika data di database
+     *         sudah lebih baik atau sama, QUEUED jika hasil baru tersimpan lokal dan menunggu replikasi,
+     *         atau FAILED jika hasil tidak tersimpan di database maupun antrean.
+     */
+    public SaveOutcome saveThasil(String username, int skor, int count) {
+        long position = beginDirectSave(local -> local.saveThasil(username, skor, count));
+        try {
+            boolean changed = remoteStore.saveThasil(username, skor, count);
+            if (changed) {
+                sharedLeaderboard.applyUpdate(new Thasil(username, skor, count));
+                System.out.println("Thasil data saved/updated successfully for " + username);
             } else {
                 System.out.println("Existing score/count for " + username + " is better or equal. No update needed.");
-                return; // Tidak perlu update
             }
+            return changed ? SaveOutcome.CHANGED : SaveOutcome.UNCHANGED;
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            boolean queued = writeBehind.submit(username, skor, count, position);
+            if (queued) {
+                System.out.println("Result for " + username + " stored locally and queued for replication.");
+            }
+            return queued ? SaveOutcome.QUEUED : SaveOutcome.FAILED;
+        } finally {
+            writeBehind.endDirectWrite(position); // Setelah hasil yang gagal masuk antrean
         }
+    }
 
-        // Jalankan query INSERT atau UPDATE
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            if (existingThasil == null) {
-                pstmt.setString(1, username);
-                pstmt.setInt(2, skor);
-                pstmt.setInt(3, count);
-            } else {
-                pstmt.setInt(1, skor);
-                pstmt.setInt(2, count);
-                pstmt.setString(3, username);
+    /**
+     * Menyimpan banyak hasil sekaligus: ke store lokal, lalu ke MySQL dalam satu transaksi
+     * memakai JDBC batching. Jika MySQL tidak bisa diakses, hasil terbaik per username masuk
+     * antrean replikasi dan ditandai QUEUED.
+     * @param results Daftar hasil yang akan disimpan.
+     * @return Status per baris, dengan urutan yang sama seperti daftar input.
+     */
+    public List<SaveOutcome> saveThasilBatch(List<Thasil> results) {
+        long position = beginDirectSave(local -> local.saveThasilBatch(results));
+        try {
+            List<SaveOutcome> outcomes = remoteStore.saveThasilBatch(results);
+            for (int i = 0; i < results.size(); i++) {
+                SaveOutcome outcome = outcomes.get(i);
+                if (outcome == SaveOutcome.CHANGED || outcome == SaveOutcome.APPLIED) {
+                    // Cache hanya mengganti entri jika hasil ini lebih baik, sama seperti aturan upsert
+                    sharedLeaderboard.applyUpdate(results.get(i));
+                }
             }
+            return outcomes;
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            List<SaveOutcome> outcomes = new ArrayList<>(results.size());
+            for (int i = 0; i < results.size(); i++) {
+                outcomes.add(SaveOutcome.SUPERSEDED);
+            }
+            for (int index : ScoreStore.bestRowIndexes(results)) {
+                Thasil result = results.get(index);
+                boolean queued = writeBehind.submit(result.getUsername(), result.getSkor(), result.getCount(), position);
+                outcomes.set(index, queued ? SaveOutcome.QUEUED : SaveOutcome.FAILED);
+            }
+            return outcomes;
+        } finally {
+            writeBehind.endDirectWrite(position); // Setelah hasil yang gagal masuk antrean
+        }
+    }
 
-            pstmt.executeUpdate();
-            System.out.println("Thasil data saved/updated successfully for " + username);
-        } catch (SQLException e) {
-            System.err.println("Error saving/updating Thasil data: " + e.getMessage());
-            e.printStackTrace();
+    // Menyimpan hasil ke store lokal lalu memasukkannya ke antrean replikasi; langsung kembali tanpa menunggu MySQL
+    public void saveThasilAsync(String username, int skor, int count) {
+        if (localStore == null) {
+            writeBehind.submit(username, skor, count, -1);
+            return;
+        }
+        // Tulis dan masukkan antrean di bawah lock store lokal, supaya posisi log yang dicatat
+        // tidak mencakup record milik thread lain yang belum masuk antrean
+        synchronized (localStore) {
+            long position = saveLocal(username, skor, count);
+            writeBehind.submit(username, skor, count, position);
         }
     }
 
-    // Mengambil data skor berdasarkan username
+    // Mengatur listener yang dipanggil (dari worker thread) setelah hasil asinkron mengubah tabel
+    public void setScoreFlushListener(Consumer<List<Thasil>> listener) {
+        scoreFlushListener = listener;
+    }
+
+    // Mengambil data skor berdasarkan username (dari store lokal jika MySQL tidak bisa diakses)
     public Thasil getThasilByUsername(String username) {
-        String sql = "SELECT username, skor, count FROM thasil WHERE username = ?";
-        Thasil result = null;
+        try {
+            return remoteStore.getThasilByUsername(username);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return localStore == null ? null : localStore.getThasilByUsername(username);
+        }
+    }
 
-        try (Connection conn = getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    // Memasukkan satu sesi permainan ke antrean riwayat; langsung kembali tanpa menunggu MySQL
+    public void recordGameSessionAsync(GameSession session) {
+        sessionWriter.submit(session);
+    }
 
-            pstmt.setString(1, username);
+    // Statistik agregat (jumlah sesi, skor terbaik, rata-rata) seorang pemain, atau null jika tidak ada
+    public PlayerStats getPlayerStats(String username) {
+        try {
+            return remoteStore.getPlayerStats(username);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return null;
+        }
+    }
 
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    result = new Thasil(rs.getString("username"), rs.getInt("skor"), rs.getInt("count"));
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching Thasil by username: " + e.getMessage());
-            e.printStackTrace();
+    /**
+     * Jumlah sesi per hari untuk beberapa hari terakhir (UTC, termasuk hari ini).
+     * @param username Hanya sesi pemain ini, atau null untuk semua pemain.
+     * @param days Jumlah hari ke belakang.
+     */
+    public List<DailySessionStats> getDailySessionStats(String username, int days) {
+        LocalDate fromDate = LocalDate.now(ZoneOffset.UTC).minusDays(Math.max(days, 1) - 1);
+        try {
+            return remoteStore.getDailySessionStats(username, fromDate);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            return new ArrayList<>();
         }
-        return result;
     }
 }
@@ -0,0 +1,30 @@
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * DirectConnectionSource membuka koneksi fisik baru lewat DriverManager di setiap panggilan,
+ * seperti DatabaseModel sebelum ada ConnectionPool. Tidak dipakai oleh game; hanya sebagai
+ * pembanding biaya koneksi per panggilan.
+ */
+public class DirectConnectionSource implements ConnectionSource {
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    public DirectConnectionSource(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, user, password);
+    }
+
+    @Override
+    public void shutdown() {
+        // Tidak ada koneksi yang disimpan
+    }
+}
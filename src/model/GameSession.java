@@ -0,0 +1,61 @@
+/**
+ * GameSession menyimpan ringkasan satu sesi permainan untuk tabel riwayat 'game_session'.
+ * Berbeda dengan Thasil (hanya hasil terbaik per username), setiap sesi disimpan.
+ */
+public class GameSession {
+    // Nama pengguna yang memainkan sesi
+    private final String username;
+
+    // Skor akhir dan jumlah bola yang dikumpulkan pada sesi ini
+    private final int skor;
+    private final int count;
+
+    // Lama permainan dalam milidetik
+    private final long durationMillis;
+
+    // Berapa kali pemain terkena bom (termasuk saat kebal)
+    private final int bombsHit;
+
+    // Waktu mulai dan selesai (epoch milidetik)
+    private final long startedAtMillis;
+    private final long endedAtMillis;
+
+    public GameSession(String username, int skor, int count, long durationMillis, int bombsHit,
+                       long startedAtMillis, long endedAtMillis) {
+        this.username = username;
+        this.skor = skor;
+        this.count = count;
+        this.durationMillis = durationMillis;
+        this.bombsHit = bombsHit;
+        this.startedAtMillis = startedAtMillis;
+        this.endedAtMillis = endedAtMillis;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public int getSkor() {
+        return skor;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getBombsHit() {
+        return bombsHit;
+    }
+
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    public long getEndedAtMillis() {
+        return endedAtMillis;
+    }
+}
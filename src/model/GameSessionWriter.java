@@ -0,0 +1,144 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * GameSessionWriter mengumpulkan sesi permainan yang selesai dan menyimpannya ke tabel
+ * 'game_session' secara asinkron. Sebuah worker thread mengambil sesi per batch dan menyimpannya
+ * dalam satu transaksi; jika MySQL tidak bisa diakses, batch dicoba ulang dengan backoff eksponensial.
+ * Antrean dibatasi: jika penuh, sesi tertua dibuang supaya memori tidak terus bertambah.
+ */
+public class GameSessionWriter {
+    // Jumlah maksimum sesi dalam satu transaksi
+    private static final int MAX_BATCH_SIZE = 200;
+
+    // Batas jumlah sesi yang menunggu di memori
+    private static final int MAX_PENDING = 10000;
+
+    // Jeda singkat sebelum flush supaya sesi yang selesai berdekatan masuk ke batch yang sama
+    private static final long LINGER_MS = 200L;
+
+    // Backoff retry saat database gagal diakses
+    private static final long INITIAL_BACKOFF_MS = 500L;
+    private static final long MAX_BACKOFF_MS = 30000L;
+
+    private final MySqlScoreStore store;
+
+    // Sesi yang menunggu disimpan, urutan selesai dipertahankan
+    private final ArrayDeque<GameSession> pending = new ArrayDeque<>();
+    private final Object lock = new Object();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long droppedCount = 0;
+
+    public GameSessionWriter(MySqlScoreStore store) {
+        this.store = store;
+        this.worker = new Thread(this::runWorker, "game-session-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    // Memasukkan sesi ke antrean; tidak pernah memblokir pada I/O database
+    public void submit(GameSession session) {
+        synchronized (lock) {
+            if (!running) {
+                System.err.println("Game session writer is shut down. Session for " + session.getUsername() + " dropped.");
+                return;
+            }
+            if (pending.size() >= MAX_PENDING) {
+                pending.pollFirst();
+                droppedCount++;
+                System.err.println("Game session queue full. Oldest session dropped (" + droppedCount + " total).");
+            }
+            pending.addLast(session);
+            lock.notifyAll();
+        }
+    }
+
+    // Jumlah sesi yang belum tersimpan
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // Loop utama worker: tunggu sesi, ambil batch, simpan, dan retry dengan backoff jika gagal
+    private void runWorker() {
+        long backoff = INITIAL_BACKOFF_MS;
+        while (true) {
+            List<GameSession> batch = new ArrayList<>();
+            synchronized (lock) {
+                while (pending.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return; // Sudah shutdown dan antrean kosong
+                }
+                if (running && pending.size() < MAX_BATCH_SIZE) {
+                    try {
+                        lock.wait(LINGER_MS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                while (!pending.isEmpty() && batch.size() < MAX_BATCH_SIZE) {
+                    batch.add(pending.pollFirst());
+                }
+            }
+
+            try {
+                store.saveGameSessions(batch);
+                backoff = INITIAL_BACKOFF_MS;
+                continue;
+            } catch (ScoreStoreException e) {
+                System.err.println(e.getMessage());
+            }
+
+            synchronized (lock) {
+                // Kembalikan batch ke depan antrean dengan urutan semula
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    pending.addFirst(batch.get(i));
+                }
+                if (!running) {
+                    System.err.println("Database unavailable during shutdown. " + pending.size() + " game session(s) not saved.");
+                    return;
+                }
+                System.err.println("Saving " + batch.size() + " game session(s) failed. Retrying in " + backoff + " ms.");
+                try {
+                    lock.wait(backoff);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    /**
+     * Menghentikan antrean dan menunggu worker menyimpan semua sesi yang tersisa.
+     * @param timeoutMillis Batas waktu menunggu.
+     * @return true jika semua sesi sudah tersimpan.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = getPendingCount();
+        if (worker.isAlive() || remaining > 0) {
+            System.err.println("Game session queue did not drain completely. " + remaining + " session(s) pending.");
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,198 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * LeaderboardCache menyimpan bagian teratas tabel 'thasil' di memori (paling banyak
+ * {@code capacity} baris), sudah terurut seperti ORDER BY skor DESC, count DESC, username.
+ * Cache diperbarui per baris setiap kali DatabaseModel berhasil menyimpan skor, dan dianggap
+ * kedaluwarsa setelah TTL supaya perubahan dari penulis lain (client lain ke database yang sama)
+ * tetap terlihat. Jika seluruh tabel muat di dalam kapasitas, cache ditandai lengkap.
+ */
+public class LeaderboardCache {
+    // Urutan leaderboard: skor tertinggi, lalu count tertinggi, lalu username agar urutan stabil
+    public static final Comparator<Thasil> ORDER = Comparator
+            .comparingInt(Thasil::getSkor).reversed()
+            .thenComparing(Comparator.comparingInt(Thasil::getCount).reversed())
+            .thenComparing(Thasil::getUsername);
+
+    private final long ttlMillis;
+    private final int capacity;
+
+    private final TreeSet<Thasil> ranking = new TreeSet<>(ORDER);
+    private final Map<String, Thasil> byUsername = new HashMap<>();
+
+    // True jika cache berisi seluruh tabel (tabel lebih kecil dari kapasitas)
+    private boolean complete = false;
+
+    // Waktu (System.nanoTime) saat isi cache terakhir dimuat dari database; -1 jika belum pernah
+    private long loadedAtNanos = -1;
+
+    // Update yang diterapkan belakangan, diterapkan ulang jika ada pemuatan yang dimulai sebelum update itu
+    private final Map<String, Long> recentUpdateNanos = new HashMap<>();
+
+    // Statistik cache
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    public LeaderboardCache(long ttlMillis, int capacity) {
+        this.ttlMillis = ttlMillis;
+        this.capacity = capacity;
+    }
+
+    // Jumlah baris teratas yang disimpan cache
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Mengembalikan seluruh leaderboard jika cache masih segar dan berisi seluruh tabel.
+     * @return Salinan list terurut, atau null jika pemanggil harus memuat dari database.
+     */
+    public synchronized List<Thasil> getAllIfFresh() {
+        if (!isFresh() || !complete) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return new ArrayList<>(ranking);
+    }
+
+    /**
+     * Mengembalikan {@code limit} baris teratas jika cache masih segar dan memuat semuanya.
+     * @return Salinan list terurut, atau null jika pemanggil harus memuat dari database.
+     */
+    public synchronized List<Thasil> getTopIfFresh(int limit) {
+        if (!isFresh() || (limit > ranking.size() && !complete)) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        List<Thasil> rows = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Thasil row : ranking) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Mengembalikan halaman berikutnya setelah baris (afterSkor, afterCount, afterUsername)
+     * jika seluruh halaman berada di dalam jendela cache.
+     * @return Salinan list terurut, atau null jika pemanggil harus memuat dari database.
+     */
+    public synchronized List<Thasil> getPageIfFresh(int afterSkor, int afterCount, String afterUsername, int limit) {
+        if (!isFresh()) {
+            missCount++;
+            return null;
+        }
+        List<Thasil> rows = new ArrayList<>(limit);
+        for (Thasil row : ranking.tailSet(new Thasil(afterUsername, afterSkor, afterCount), false)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            rows.add(row);
+        }
+        if (rows.size() < limit && !complete) {
+            missCount++;
+            return null; // Halaman melewati batas jendela cache
+        }
+        hitCount++;
+        return rows;
+    }
+
+    // True jika cache sudah dimuat dan umurnya belum melewati TTL
+    private boolean isFresh() {
+        return loadedAtNanos >= 0 && System.nanoTime() - loadedAtNanos < ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Mengganti isi cache dengan baris teratas hasil query database.
+     * @param rows Baris teratas dari database, sudah terurut.
+     * @param tableComplete True jika rows berisi seluruh tabel.
+     * @param loadStartNanos Waktu (System.nanoTime) sebelum query dijalankan; update yang
+     *                       terjadi setelahnya diterapkan ulang agar tidak tertimpa data lama.
+     */
+    public synchronized void replaceTop(List<Thasil> rows, boolean tableComplete, long loadStartNanos) {
+        Map<String, Thasil> reapply = new HashMap<>();
+        Iterator<Map.Entry<String, Long>> it = recentUpdateNanos.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            if (entry.getValue() - loadStartNanos >= 0) {
+                reapply.put(entry.getKey(), byUsername.get(entry.getKey()));
+            } else {
+                it.remove();
+            }
+        }
+
+        ranking.clear();
+        byUsername.clear();
+        complete = tableComplete && rows.size() <= capacity;
+        for (Thasil row : rows) {
+            if (ranking.size() >= capacity) {
+                break;
+            }
+            put(row);
+        }
+        loadedAtNanos = loadStartNanos;
+        for (Thasil row : reapply.values()) {
+            if (row != null) {
+                applyUpdate(row);
+            }
+        }
+    }
+
+    /**
+     * Menerapkan satu hasil yang sudah disimpan ke database. Sama seperti aturan upsert,
+     * entri hanya diganti jika hasil baru lebih baik. Baris yang jatuh di luar jendela
+     * teratas dibuang dari cache.
+     */
+    public synchronized void applyUpdate(Thasil result) {
+        if (loadedAtNanos < 0) {
+            return; // Belum ada isi; pemuatan berikutnya akan membaca data terbaru dari database
+        }
+        Thasil existing = byUsername.get(result.getUsername());
+        if (!result.isBetterThan(existing)) {
+            return;
+        }
+        recentUpdateNanos.put(result.getUsername(), System.nanoTime());
+
+        if (existing == null && !complete && !ranking.isEmpty() && ORDER.compare(result, ranking.last()) > 0) {
+            return; // Di bawah jendela cache dan bukan tabel lengkap: posisi sebenarnya tidak diketahui
+        }
+        put(result);
+        if (ranking.size() > capacity) {
+            Thasil dropped = ranking.pollLast();
+            byUsername.remove(dropped.getUsername());
+            complete = false;
+        }
+    }
+
+    // Memasukkan/mengganti entri untuk username tertentu
+    private void put(Thasil row) {
+        Thasil old = byUsername.put(row.getUsername(), row);
+        if (old != null) {
+            ranking.remove(old);
+        }
+        ranking.add(row);
+    }
+
+    // Mengosongkan cache sehingga pembacaan berikutnya memuat ulang dari database
+    public synchronized void invalidate() {
+        loadedAtNanos = -1;
+        complete = false;
+        ranking.clear();
+        byUsername.clear();
+        recentUpdateNanos.clear();
+    }
+
+    public synchronized long getHitCount() { return hitCount; }
+    public synchronized long getMissCount() { return missCount; }
+    public synchronized int size() { return ranking.size(); }
+}
@@ -0,0 +1,377 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.zip.CRC32;
+
+/**
+ * LocalScoreStore menyimpan skor di file log lokal yang hanya ditambah (append-only) dan
+ * di-memory-map, dengan index terurut di memori. Hasil game ditulis ke sini lebih dulu, lalu
+ * direplikasi ke MySQL oleh ScoreWriteBehind. Posisi log yang sudah direplikasi disimpan di file
+ * terpisah, sehingga hasil yang belum sempat dikirim (misalnya MySQL mati) dikirim ulang saat start.
+ *
+ * Format file: header [int MAGIC][int VERSION], lalu record berurutan:
+ * [int panjangPayload][payload: short panjangNama, byte[] nama (UTF-8), int skor, int count, long waktu][int CRC32 payload].
+ * Panjang 0 atau CRC yang tidak cocok menandai akhir log (misalnya record terakhir yang terpotong saat crash).
+ */
+public class LocalScoreStore implements ScoreStore {
+    private static final int MAGIC = 0x534B4C47; // "SKLG"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+
+    // Ukuran mapping awal; diperbesar dua kali lipat saat penuh
+    private static final int INITIAL_MAP_SIZE = 1 << 20;
+
+    // Batas panjang username dalam byte (sama dengan kolom VARCHAR(100) utf8mb4 di MySQL)
+    private static final int MAX_USERNAME_BYTES = 400;
+
+    // Log dipadatkan saat dibuka jika ukurannya jauh lebih besar dari data yang masih berlaku
+    private static final int COMPACTION_MIN_BYTES = 256 * 1024;
+    private static final int COMPACTION_RATIO = 4;
+
+    private final Path logPath;
+    private final Path replicatedMarkPath;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    // Index di memori: hasil terbaik per username, dan leaderboard terurut
+    private final Map<String, Entry> byUsername = new HashMap<>();
+    private final TreeSet<Thasil> ranking = new TreeSet<>(LeaderboardCache.ORDER);
+
+    // Posisi akhir log yang sudah pasti tersimpan di MySQL
+    private long replicatedPosition;
+
+    // Hasil terbaik satu username beserta posisi akhir record-nya di log
+    private static class Entry {
+        private final Thasil result;
+        private final long endPosition;
+
+        Entry(Thasil result, long endPosition) {
+            this.result = result;
+            this.endPosition = endPosition;
+        }
+    }
+
+    /**
+     * Membuka (atau membuat) log di direktori yang diberikan dan membangun index dari isinya.
+     * @param directory Direktori tempat file log disimpan.
+     * @throws ScoreStoreException Jika file tidak bisa dibuat atau dibaca.
+     */
+    public LocalScoreStore(Path directory) throws ScoreStoreException {
+        this.logPath = directory.resolve("scores.log");
+        this.replicatedMarkPath = directory.resolve("scores.replicated");
+        try {
+            Files.createDirectories(directory);
+            replicatedPosition = readReplicatedMark();
+            open();
+            if (writePosition > COMPACTION_MIN_BYTES && writePosition > COMPACTION_RATIO * liveBytes()) {
+                compact();
+            }
+            System.out.println("Local score store opened: " + byUsername.size() + " player(s), "
+                    + getUnreplicated().size() + " pending replication (" + logPath + ").");
+        } catch (IOException e) {
+            throw new ScoreStoreException("Cannot open local score store at " + logPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    // Memetakan file log dan memindai semua record yang valid untuk membangun index
+    private void open() throws IOException {
+        channel = FileChannel.open(logPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_MAP_SIZE, size));
+
+        byUsername.clear();
+        ranking.clear();
+        if (size < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putInt(HEADER_SIZE, 0);
+            writePosition = HEADER_SIZE;
+            buffer.force(0, HEADER_SIZE + 4);
+            return;
+        }
+
+        int position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (position + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + 8 + length > buffer.capacity()) {
+                break;
+            }
+            ByteBuffer payload = buffer.slice(position + 4, length);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != buffer.getInt(position + 4 + length)) {
+                System.err.println("Local score log: corrupt record at offset " + position + ", ignoring the rest.");
+                break;
+            }
+            int nameLength = payload.getShort();
+            byte[] name = new byte[nameLength];
+            payload.get(name);
+            Thasil result = new Thasil(new String(name, StandardCharsets.UTF_8), payload.getInt(), payload.getInt());
+            position += 8 + length;
+            index(result, position);
+        }
+        writePosition = position;
+        // Hapus sisa record terpotong supaya penulisan berikutnya tidak tersambung dengan data rusak
+        if (writePosition + 4 <= buffer.capacity()) {
+            buffer.putInt(writePosition, 0);
+        }
+    }
+
+    // Memasukkan hasil ke index jika lebih baik dari yang sudah ada
+    private boolean index(Thasil result, long endPosition) {
+        Entry existing = byUsername.get(result.getUsername());
+        if (existing != null && !result.isBetterThan(existing.result)) {
+            return false;
+        }
+        if (existing != null) {
+            ranking.remove(existing.result);
+        }
+        byUsername.put(result.getUsername(), new Entry(result, endPosition));
+        ranking.add(result);
+        return true;
+    }
+
+    // Menulis satu record di akhir log (belum di-force ke disk) dan mengembalikan posisi akhirnya
+    private long append(Thasil result) throws IOException {
+        byte[] name = result.getUsername().getBytes(StandardCharsets.UTF_8);
+        if (name.length > MAX_USERNAME_BYTES) {
+            throw new IOException("Username too long for local score store: " + result.getUsername());
+        }
+        int length = 2 + name.length + 4 + 4 + 8;
+        ensureCapacity(8 + length + 4);
+
+        ByteBuffer payload = buffer.slice(writePosition + 4, length);
+        payload.putShort((short) name.length);
+        payload.put(name);
+        payload.putInt(result.getSkor());
+        payload.putInt(result.getCount());
+        payload.putLong(System.currentTimeMillis());
+        payload.flip();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        buffer.putInt(writePosition + 4 + length, (int) crc.getValue());
+        buffer.putInt(writePosition + 8 + length, 0); // Penanda akhir log
+        buffer.putInt(writePosition, length); // Panjang ditulis terakhir: record baru dianggap ada setelah lengkap
+        writePosition += 8 + length;
+        return writePosition;
+    }
+
+    // Memperbesar mapping (dan file) jika sisa ruang tidak cukup
+    private void ensureCapacity(int needed) throws IOException {
+        if (writePosition + needed <= buffer.capacity()) {
+            return;
+        }
+        long newSize = buffer.capacity();
+        while (writePosition + needed > newSize) {
+            newSize *= 2;
+        }
+        if (newSize > Integer.MAX_VALUE) {
+            throw new IOException("Local score log is full");
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+    }
+
+    // Memastikan record sejak posisi tertentu sudah ditulis ke disk
+    private void flushFrom(int startPosition) {
+        buffer.force(startPosition, writePosition + 4 - startPosition);
+    }
+
+    @Override
+    public synchronized boolean saveThasil(String username, int skor, int count) throws ScoreStoreException {
+        Thasil result = new Thasil(username, skor, count);
+        Entry existing = byUsername.get(username);
+        if (existing != null && !result.isBetterThan(existing.result)) {
+            return false; // Tidak perlu ditulis: hasil lokal yang ada sudah lebih baik atau sama
+        }
+        int start = writePosition;
+        try {
+            index(result, append(result));
+        } catch (IOException e) {
+            throw new ScoreStoreException("Error writing local score log: " + e.getMessage(), e);
+        }
+        flushFrom(start);
+        return true;
+    }
+
+    @Override
+    public synchronized List<SaveOutcome> saveThasilBatch(List<Thasil> results) throws ScoreStoreException {
+        List<SaveOutcome> outcomes = new ArrayList<>(Collections.nCopies(results.size(), SaveOutcome.SUPERSEDED));
+        int start = writePosition;
+        try {
+            for (int index : ScoreStore.bestRowIndexes(results)) {
+                Thasil result = results.get(index);
+                Entry existing = byUsername.get(result.getUsername());
+                if (existing != null && !result.isBetterThan(existing.result)) {
+                    outcomes.set(index, SaveOutcome.UNCHANGED);
+                } else {
+                    index(result, append(result));
+                    outcomes.set(index, SaveOutcome.CHANGED);
+                }
+            }
+        } catch (IOException e) {
+            throw new ScoreStoreException("Error writing local score log: " + e.getMessage(), e);
+        } finally {
+            if (writePosition > start) {
+                flushFrom(start); // Satu kali force untuk seluruh batch
+            }
+        }
+        return outcomes;
+    }
+
+    @Override
+    public synchronized Thasil getThasilByUsername(String username) {
+        Entry entry = byUsername.get(username);
+        return entry == null ? null : entry.result;
+    }
+
+    @Override
+    public synchronized List<Thasil> getAllThasil() {
+        return new ArrayList<>(ranking);
+    }
+
+    @Override
+    public synchronized List<Thasil> getTopThasil(int limit) {
+        List<Thasil> rows = new ArrayList<>(Math.min(limit, ranking.size()));
+        for (Thasil row : ranking) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @Override
+    public synchronized List<Thasil> getThasilPage(int afterSkor, int afterCount, String afterUsername, int limit) {
+        List<Thasil> rows = new ArrayList<>(limit);
+        for (Thasil row : ranking.tailSet(new Thasil(afterUsername, afterSkor, afterCount), false)) {
+            if (rows.size() >= limit) {
+                break;
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Posisi akhir log saat ini (dipakai sebagai penanda replikasi)
+    public synchronized long getLogPosition() {
+        return writePosition;
+    }
+
+    // Hasil yang ditulis setelah posisi replikasi terakhir, yaitu yang mungkin belum ada di MySQL
+    public synchronized List<Thasil> getUnreplicated() {
+        List<Thasil> pending = new ArrayList<>();
+        for (Entry entry : byUsername.values()) {
+            if (entry.endPosition > replicatedPosition) {
+                pending.add(entry.result);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Mencatat bahwa semua record sampai posisi tertentu sudah tersimpan di MySQL.
+     * Dipanggil oleh antrean replikasi setelah antreannya kosong.
+     */
+    public synchronized void markReplicated(long position) {
+        if (position <= replicatedPosition) {
+            return;
+        }
+        replicatedPosition = position;
+        try {
+            writeReplicatedMark(position);
+        } catch (IOException e) {
+            System.err.println("Error writing local replication mark: " + e.getMessage());
+        }
+    }
+
+    private long readReplicatedMark() throws IOException {
+        if (!Files.exists(replicatedMarkPath)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(replicatedMarkPath);
+        return bytes.length == 8 ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    // Ditulis ke file sementara lalu di-rename supaya penanda tidak pernah setengah tertulis
+    private void writeReplicatedMark(long position) throws IOException {
+        Path temp = replicatedMarkPath.resolveSibling(replicatedMarkPath.getFileName() + ".tmp");
+        Files.write(temp, ByteBuffer.allocate(8).putLong(position).array());
+        Files.move(temp, replicatedMarkPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Perkiraan ukuran log jika hanya berisi satu record per username
+    private long liveBytes() {
+        long bytes = HEADER_SIZE;
+        for (String username : byUsername.keySet()) {
+            bytes += 8 + 2 + username.getBytes(StandardCharsets.UTF_8).length + 16 + 4;
+        }
+        return bytes;
+    }
+
+    /**
+     * Menulis ulang log hanya dengan hasil terbaik tiap username. Hasil yang sudah direplikasi
+     * ditulis lebih dulu, sehingga penanda replikasi baru tepat berada sebelum hasil yang belum direplikasi.
+     */
+    private void compact() throws IOException {
+        List<Thasil> replicated = new ArrayList<>();
+        List<Thasil> pending = new ArrayList<>();
+        for (Entry entry : byUsername.values()) {
+            (entry.endPosition > replicatedPosition ? pending : replicated).add(entry.result);
+        }
+        long before = writePosition;
+
+        Path temp = logPath.resolveSibling(logPath.getFileName() + ".compact");
+        Files.deleteIfExists(temp);
+        channel.close();
+        channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_MAP_SIZE, liveBytes() + 4));
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, FORMAT_VERSION);
+        writePosition = HEADER_SIZE;
+        for (Thasil result : replicated) {
+            append(result);
+        }
+        long newReplicatedPosition = writePosition;
+        for (Thasil result : pending) {
+            append(result);
+        }
+        buffer.force();
+        channel.close();
+
+        // Penanda baru (lebih kecil) ditulis sebelum log baru dipindahkan: jika proses mati di antaranya,
+        // log lama dengan penanda kecil hanya membuat hasil dikirim ulang (upsert), tidak ada yang terlewat.
+        writeReplicatedMark(newReplicatedPosition);
+        Files.move(temp, logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        replicatedPosition = newReplicatedPosition;
+        open();
+        System.out.println("Local score log compacted from " + before + " to " + writePosition + " bytes.");
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Error closing local score store: " + e.getMessage());
+        }
+    }
+}
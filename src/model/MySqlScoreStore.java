@@ -0,0 +1,398 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * MySqlScoreStore menyimpan skor di tabel 'thasil' MySQL memakai ConnectionSource (biasanya ConnectionPool),
+ * beserta riwayat sesi di tabel 'game_session' dan rollup statistiknya.
+ * Migrasi skema dijalankan pada koneksi pertama yang berhasil dipinjam.
+ */
+public class MySqlScoreStore implements ScoreStore {
+    private final ConnectionSource connections;
+
+    // True setelah migrasi skema (tabel, primary key, dan index) berhasil diterapkan
+    private volatile boolean schemaReady = false;
+    private final Object schemaLock = new Object();
+
+    // Upsert satu statement: INSERT baru, atau UPDATE hanya jika skor lebih tinggi,
+    // atau skor sama tapi count lebih tinggi. Kolom count di-assign lebih dulu karena MySQL
+    // mengevaluasi assignment dari kiri ke kanan, sehingga kondisinya masih membaca skor lama.
+    // Ditulis dengan CASE dan kolom di sisi kiri perbandingan supaya juga berjalan di H2 mode MySQL
+    // (target h2-* di PersistenceBenchmark), yang tidak mengenal IF() dan salah mem-parse "(VALUES(...".
+    private static final String UPSERT_THASIL_SQL =
+            "INSERT INTO thasil (username, skor, count) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "count = CASE WHEN skor < VALUES(skor) OR (skor = VALUES(skor) AND count < VALUES(count)) " +
+            "THEN VALUES(count) ELSE count END, " +
+            "skor = CASE WHEN skor < VALUES(skor) THEN VALUES(skor) ELSE skor END";
+
+    // Keyset pagination: baris setelah (afterSkor, afterCount, afterUsername) dalam urutan leaderboard.
+    // Tidak memakai OFFSET, sehingga biaya tiap halaman tidak bertambah semakin jauh halaman tersebut.
+    private static final String THASIL_PAGE_SQL =
+            "SELECT username, skor, count FROM thasil " +
+            "WHERE skor < ? OR (skor = ? AND (count < ? OR (count = ? AND username > ?))) " +
+            "ORDER BY skor DESC, count DESC, username LIMIT ?";
+
+    private static final String INSERT_SESSION_SQL =
+            "INSERT INTO game_session (username, skor, count, duration_ms, bombs_hit, started_at, ended_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Rollup dijumlahkan (bukan ditimpa), sehingga satu batch cukup mengirim agregat per username / per hari
+    private static final String UPSERT_PLAYER_ROLLUP_SQL =
+            "INSERT INTO game_session_player (username, sessions, total_skor, best_skor, total_duration_ms, total_bombs_hit, last_played_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "sessions = sessions + VALUES(sessions), " +
+            "total_skor = total_skor + VALUES(total_skor), " +
+            "best_skor = GREATEST(best_skor, VALUES(best_skor)), " +
+            "total_duration_ms = total_duration_ms + VALUES(total_duration_ms), " +
+            "total_bombs_hit = total_bombs_hit + VALUES(total_bombs_hit), " +
+            "last_played_at = GREATEST(last_played_at, VALUES(last_played_at))";
+
+    private static final String UPSERT_DAILY_ROLLUP_SQL =
+            "INSERT INTO game_session_daily (play_date, username, sessions, total_skor, best_skor) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "sessions = sessions + VALUES(sessions), " +
+            "total_skor = total_skor + VALUES(total_skor), " +
+            "best_skor = GREATEST(best_skor, VALUES(best_skor))";
+
+    public MySqlScoreStore(ConnectionSource connections) {
+        this.connections = connections;
+    }
+
+    // Mengembalikan pool yang dipakai (misalnya untuk membaca metrik pool), atau null jika tidak memakai pool
+    public ConnectionPool getConnectionPool() {
+        return connections instanceof ConnectionPool ? (ConnectionPool) connections : null;
+    }
+
+    // Mengambil koneksi dari sumber koneksi; close() pada koneksi ini mengembalikannya ke pool.
+    // Koneksi pertama yang berhasil diambil menjalankan migrasi skema lebih dulu.
+    private Connection getConnection() throws SQLException {
+        Connection conn = connections.getConnection();
+        if (!schemaReady) {
+            try {
+                ensureSchema(conn);
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    // Menjalankan migrasi skema sekali; jika gagal (misalnya database mati) dicoba lagi di koneksi berikutnya
+    private void ensureSchema(Connection conn) throws SQLException {
+        synchronized (schemaLock) {
+            if (schemaReady) {
+                return;
+            }
+            new SchemaMigrator().migrate(conn);
+            schemaReady = true;
+        }
+    }
+
+    @Override
+    public boolean saveThasil(String username, int skor, int count) throws ScoreStoreException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(UPSERT_THASIL_SQL)) {
+
+            pstmt.setString(1, username);
+            pstmt.setInt(2, skor);
+            pstmt.setInt(3, count);
+
+            // Dengan useAffectedRows=true: 1 = insert, 2 = update, 0 = data lama lebih baik atau sama
+            return pstmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error saving/updating Thasil data: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Menyimpan banyak hasil sekaligus dalam satu transaksi memakai JDBC batching.
+     * Hasil dengan username yang sama digabung lebih dulu (hanya yang terbaik yang dikirim),
+     * lalu diurutkan berdasarkan username agar urutan lock baris konsisten antar penulis.
+     * Jika batch gagal, transaksi di-rollback dan ScoreStoreException dilempar.
+     */
+    @Override
+    public List<SaveOutcome> saveThasilBatch(List<Thasil> results) throws ScoreStoreException {
+        List<SaveOutcome> outcomes = new ArrayList<>(Collections.nCopies(results.size(), SaveOutcome.SUPERSEDED));
+        List<Integer> rows = ScoreStore.bestRowIndexes(results);
+        if (rows.isEmpty()) {
+            return outcomes;
+        }
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_THASIL_SQL)) {
+                for (int index : rows) {
+                    Thasil result = results.get(index);
+                    pstmt.setString(1, result.getUsername());
+                    pstmt.setInt(2, result.getSkor());
+                    pstmt.setInt(3, result.getCount());
+                    pstmt.addBatch();
+                }
+
+                int[] counts = pstmt.executeBatch();
+                conn.commit();
+
+                for (int i = 0; i < rows.size(); i++) {
+                    int affected = i < counts.length ? counts[i] : Statement.SUCCESS_NO_INFO;
+                    SaveOutcome outcome;
+                    if (affected == Statement.SUCCESS_NO_INFO) {
+                        outcome = SaveOutcome.APPLIED;
+                    } else if (affected > 0) {
+                        outcome = SaveOutcome.CHANGED;
+                    } else {
+                        outcome = SaveOutcome.UNCHANGED;
+                    }
+                    outcomes.set(rows.get(i), outcome);
+                }
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error saving Thasil batch (" + rows.size() + " rows): " + e.getMessage(), e);
+        }
+        return outcomes;
+    }
+
+    @Override
+    public Thasil getThasilByUsername(String username) throws ScoreStoreException {
+        String sql = "SELECT username, skor, count FROM thasil WHERE username = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, username);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new Thasil(rs.getString("username"), rs.getInt("skor"), rs.getInt("count"));
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching Thasil by username: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<Thasil> getAllThasil() throws ScoreStoreException {
+        List<Thasil> results = new ArrayList<>();
+        String sql = "SELECT username, skor, count FROM thasil ORDER BY skor DESC, count DESC, username";
+
+        try (Connection conn = getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            // Iterasi hasil query dan masukkan ke dalam list
+            readThasilRows(rs, results);
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching results: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Thasil> getTopThasil(int limit) throws ScoreStoreException {
+        List<Thasil> results = new ArrayList<>();
+        String sql = "SELECT username, skor, count FROM thasil ORDER BY skor DESC, count DESC, username LIMIT ?";
+
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                readThasilRows(rs, results);
+            }
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching top results: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    @Override
+    public List<Thasil> getThasilPage(int afterSkor, int afterCount, String afterUsername, int limit) throws ScoreStoreException {
+        List<Thasil> results = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(THASIL_PAGE_SQL)) {
+
+            pstmt.setInt(1, afterSkor);
+            pstmt.setInt(2, afterSkor);
+            pstmt.setInt(3, afterCount);
+            pstmt.setInt(4, afterCount);
+            pstmt.setString(5, afterUsername);
+            pstmt.setInt(6, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                readThasilRows(rs, results);
+            }
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching results page: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    /**
+     * Menyimpan banyak sesi sekaligus dalam satu transaksi: baris riwayat dikirim sebagai satu
+     * batch (ditulis ulang driver menjadi INSERT multi-baris), lalu rollup per pemain dan per hari
+     * diperbarui dengan agregat batch ini. Jika gagal, seluruh transaksi di-rollback.
+     */
+    public void saveGameSessions(List<GameSession> sessions) throws ScoreStoreException {
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        // Agregat batch, diurutkan berdasarkan key agar urutan lock baris rollup konsisten antar penulis
+        Map<String, long[]> perPlayer = new TreeMap<>();
+        Map<String, long[]> perDay = new TreeMap<>();
+        for (GameSession session : sessions) {
+            long[] player = perPlayer.computeIfAbsent(session.getUsername(), k -> new long[6]);
+            player[0]++;
+            player[1] += session.getSkor();
+            player[2] = player[0] == 1 ? session.getSkor() : Math.max(player[2], session.getSkor());
+            player[3] += session.getDurationMillis();
+            player[4] += session.getBombsHit();
+            player[5] = Math.max(player[5], session.getEndedAtMillis());
+
+            LocalDate day = Instant.ofEpochMilli(session.getEndedAtMillis()).atZone(ZoneOffset.UTC).toLocalDate();
+            long[] daily = perDay.computeIfAbsent(day + "|" + session.getUsername(), k -> new long[3]);
+            daily[0]++;
+            daily[1] += session.getSkor();
+            daily[2] = daily[0] == 1 ? session.getSkor() : Math.max(daily[2], session.getSkor());
+        }
+
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement insert = conn.prepareStatement(INSERT_SESSION_SQL);
+                 PreparedStatement playerRollup = conn.prepareStatement(UPSERT_PLAYER_ROLLUP_SQL);
+                 PreparedStatement dailyRollup = conn.prepareStatement(UPSERT_DAILY_ROLLUP_SQL)) {
+
+                for (GameSession session : sessions) {
+                    insert.setString(1, session.getUsername());
+                    insert.setInt(2, session.getSkor());
+                    insert.setInt(3, session.getCount());
+                    insert.setLong(4, session.getDurationMillis());
+                    insert.setInt(5, session.getBombsHit());
+                    insert.setTimestamp(6, new Timestamp(session.getStartedAtMillis()));
+                    insert.setTimestamp(7, new Timestamp(session.getEndedAtMillis()));
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+
+                for (Map.Entry<String, long[]> entry : perPlayer.entrySet()) {
+                    long[] player = entry.getValue();
+                    playerRollup.setString(1, entry.getKey());
+                    playerRollup.setLong(2, player[0]);
+                    playerRollup.setLong(3, player[1]);
+                    playerRollup.setLong(4, player[2]);
+                    playerRollup.setLong(5, player[3]);
+                    playerRollup.setLong(6, player[4]);
+                    playerRollup.setTimestamp(7, new Timestamp(player[5]));
+                    playerRollup.addBatch();
+                }
+                playerRollup.executeBatch();
+
+                for (Map.Entry<String, long[]> entry : perDay.entrySet()) {
+                    long[] daily = entry.getValue();
+                    int split = entry.getKey().indexOf('|');
+                    dailyRollup.setObject(1, LocalDate.parse(entry.getKey().substring(0, split)));
+                    dailyRollup.setString(2, entry.getKey().substring(split + 1));
+                    dailyRollup.setLong(3, daily[0]);
+                    dailyRollup.setLong(4, daily[1]);
+                    dailyRollup.setLong(5, daily[2]);
+                    dailyRollup.addBatch();
+                }
+                dailyRollup.executeBatch();
+
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error saving game sessions (" + sessions.size() + " rows): " + e.getMessage(), e);
+        }
+    }
+
+    // Statistik agregat seorang pemain dari rollup, atau null jika belum pernah bermain
+    public PlayerStats getPlayerStats(String username) throws ScoreStoreException {
+        String sql = "SELECT sessions, total_skor, best_skor, total_duration_ms, total_bombs_hit, last_played_at " +
+                "FROM game_session_player WHERE username = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, username);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return new PlayerStats(username, rs.getInt("sessions"), rs.getLong("total_skor"),
+                            rs.getInt("best_skor"), rs.getLong("total_duration_ms"), rs.getLong("total_bombs_hit"),
+                            rs.getTimestamp("last_played_at").getTime());
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching player stats: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Jumlah sesi per hari sejak tanggal tertentu, dari rollup harian.
+     * @param username Hanya sesi pemain ini, atau null untuk semua pemain.
+     * @param fromDate Tanggal pertama (UTC) yang diikutkan.
+     */
+    public List<DailySessionStats> getDailySessionStats(String username, LocalDate fromDate) throws ScoreStoreException {
+        String sql = "SELECT play_date, SUM(sessions) AS sessions, COUNT(*) AS players, " +
+                "SUM(total_skor) AS total_skor, MAX(best_skor) AS best_skor FROM game_session_daily " +
+                "WHERE play_date >= ?" + (username != null ? " AND username = ?" : "") +
+                " GROUP BY play_date ORDER BY play_date";
+        List<DailySessionStats> results = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setObject(1, fromDate);
+            if (username != null) {
+                pstmt.setString(2, username);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(new DailySessionStats(rs.getObject("play_date", LocalDate.class), rs.getInt("sessions"),
+                            rs.getInt("players"), rs.getLong("total_skor"), rs.getInt("best_skor")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new ScoreStoreException("Error fetching daily session stats: " + e.getMessage(), e);
+        }
+        return results;
+    }
+
+    // Membaca semua baris (username, skor, count) dari ResultSet ke dalam list
+    private void readThasilRows(ResultSet rs, List<Thasil> results) throws SQLException {
+        while (rs.next()) {
+            String username = rs.getString("username");
+            int skor = rs.getInt("skor");
+            int count = rs.getInt("count");
+            results.add(new Thasil(username, skor, count));
+        }
+    }
+
+    @Override
+    public void close() {
+        connections.shutdown();
+    }
+}
@@ -3,6 +3,10 @@ public class Player {
     private int x;
     private int y;
 
+    // Posisi pada tick simulasi sebelumnya (untuk interpolasi rendering)
+    private int prevX;
+    private int prevY;
+
     // Skor total yang dikumpulkan pemain
     private int score;
 
@@ -43,6 +47,8 @@ public class Player {
     public Player(int x, int y) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
         this.score = 0;
         this.collectedBalls = 0;
 
@@ -61,6 +67,16 @@ public class Player {
     public int getY() { return y; }
     public void setY(int y) { this.y = y; }
 
+    // Menyimpan posisi saat ini sebagai posisi tick sebelumnya; dipanggil di awal setiap tick
+    public void savePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    // Posisi untuk digambar: interpolasi antara tick sebelumnya (alpha 0) dan tick terbaru (alpha 1)
+    public int getRenderX(double alpha) { return (int) Math.round(prevX + (x - prevX) * alpha); }
+    public int getRenderY(double alpha) { return (int) Math.round(prevY + (y - prevY) * alpha); }
+
     public int getScore() { return score; }
     public void addScore(int points) { this.score += points; }
 
@@ -0,0 +1,60 @@
+/**
+ * PlayerStats adalah statistik agregat seluruh sesi seorang pemain,
+ * dibaca dari tabel rollup 'game_session_player' (bukan dari riwayat mentah).
+ */
+public class PlayerStats {
+    private final String username;
+    private final int sessions;
+    private final long totalSkor;
+    private final int bestSkor;
+    private final long totalDurationMillis;
+    private final long totalBombsHit;
+    private final long lastPlayedAtMillis;
+
+    public PlayerStats(String username, int sessions, long totalSkor, int bestSkor,
+                       long totalDurationMillis, long totalBombsHit, long lastPlayedAtMillis) {
+        this.username = username;
+        this.sessions = sessions;
+        this.totalSkor = totalSkor;
+        this.bestSkor = bestSkor;
+        this.totalDurationMillis = totalDurationMillis;
+        this.totalBombsHit = totalBombsHit;
+        this.lastPlayedAtMillis = lastPlayedAtMillis;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    // Jumlah sesi yang pernah dimainkan
+    public int getSessions() {
+        return sessions;
+    }
+
+    // Skor tertinggi dari semua sesi
+    public int getBestSkor() {
+        return bestSkor;
+    }
+
+    // Rata-rata skor per sesi
+    public double getAverageSkor() {
+        return sessions == 0 ? 0 : (double) totalSkor / sessions;
+    }
+
+    // Rata-rata lama permainan per sesi dalam milidetik
+    public long getAverageDurationMillis() {
+        return sessions == 0 ? 0 : totalDurationMillis / sessions;
+    }
+
+    public long getTotalDurationMillis() {
+        return totalDurationMillis;
+    }
+
+    public long getTotalBombsHit() {
+        return totalBombsHit;
+    }
+
+    public long getLastPlayedAtMillis() {
+        return lastPlayedAtMillis;
+    }
+}
@@ -0,0 +1,21 @@
+// Hasil penyimpanan satu baris skor (dipakai oleh DatabaseModel.saveThasil dan saveThasilBatch)
+public enum SaveOutcome {
+    // Baris baru dibuat atau skor lama diperbarui
+    CHANGED,
+
+    // Data di database sudah lebih baik atau sama, tidak ada perubahan
+    UNCHANGED,
+
+    // Baris sudah dijalankan di dalam batch yang ditulis ulang driver menjadi satu INSERT multi-baris,
+    // sehingga driver tidak melaporkan apakah baris ini berubah atau tidak
+    APPLIED,
+
+    // Ada hasil lain untuk username yang sama di batch ini yang lebih baik, baris ini dilewati
+    SUPERSEDED,
+
+    // MySQL tidak bisa diakses; hasil sudah disimpan di store lokal dan masuk antrean replikasi
+    QUEUED,
+
+    // Hasil tidak tersimpan di mana pun (antrean replikasi sudah dihentikan)
+    FAILED
+}
@@ -0,0 +1,245 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SchemaMigrator menjalankan migrasi skema database secara berurutan berdasarkan nomor versi.
+ * Versi yang sudah diterapkan dicatat di tabel 'schema_version', sehingga setiap migrasi hanya
+ * dijalankan sekali. Migrasi dijalankan di bawah named lock MySQL supaya dua instance game yang
+ * start bersamaan tidak menerapkan migrasi yang sama dua kali.
+ */
+public class SchemaMigrator {
+    // Nama lock MySQL (GET_LOCK) dan lama menunggunya dalam detik
+    private static final String LOCK_NAME = "skillballs_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 10;
+
+    // Satu langkah migrasi; DDL di MySQL melakukan commit implisit, jadi tiap langkah harus idempoten
+    private interface MigrationStep {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    // Definisi satu migrasi berversi
+    private static class Migration {
+        private final int version;
+        private final String description;
+        private final MigrationStep step;
+
+        Migration(int version, String description, MigrationStep step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+    }
+
+    // Daftar migrasi, harus terurut berdasarkan versi. Jangan ubah migrasi yang sudah dirilis; tambahkan versi baru.
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator() {
+        migrations.add(new Migration(1, "create thasil table", conn -> execute(conn,
+                "CREATE TABLE IF NOT EXISTS thasil (" +
+                "username VARCHAR(100) NOT NULL, " +
+                "skor INT NOT NULL DEFAULT 0, " +
+                "count INT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (username)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4")));
+
+        migrations.add(new Migration(2, "primary key on thasil.username", this::ensureThasilPrimaryKey));
+
+        migrations.add(new Migration(3, "covering leaderboard index on thasil", conn -> {
+            if (!indexExists(conn, "thasil", "idx_thasil_leaderboard")) {
+                execute(conn, "CREATE INDEX idx_thasil_leaderboard ON thasil (skor DESC, count DESC, username)");
+            }
+        }));
+
+        migrations.add(new Migration(4, "create game_session history table", conn -> execute(conn,
+                "CREATE TABLE IF NOT EXISTS game_session (" +
+                "id BIGINT NOT NULL AUTO_INCREMENT, " +
+                "username VARCHAR(100) NOT NULL, " +
+                "skor INT NOT NULL, " +
+                "count INT NOT NULL, " +
+                "duration_ms BIGINT NOT NULL, " +
+                "bombs_hit INT NOT NULL, " +
+                "started_at DATETIME(3) NOT NULL, " +
+                "ended_at DATETIME(3) NOT NULL, " +
+                "PRIMARY KEY (id), " +
+                "INDEX idx_game_session_user (username, ended_at)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4")));
+
+        migrations.add(new Migration(5, "game_session rollups per player and per day", this::createSessionRollups));
+    }
+
+    /**
+     * Menerapkan semua migrasi yang belum tercatat di 'schema_version'.
+     * @param conn Koneksi database (autocommit aktif).
+     * @throws SQLException Jika lock tidak didapat atau salah satu migrasi gagal.
+     */
+    public void migrate(Connection conn) throws SQLException {
+        execute(conn, "CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INT NOT NULL PRIMARY KEY, " +
+                "description VARCHAR(255) NOT NULL, " +
+                "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP" +
+                ") ENGINE=InnoDB");
+
+        if (!acquireLock(conn)) {
+            throw new SQLException("Could not acquire schema migration lock within " + LOCK_TIMEOUT_SECONDS + " s");
+        }
+        try {
+            int current = getCurrentVersion(conn);
+            for (Migration migration : migrations) {
+                if (migration.version <= current) {
+                    continue;
+                }
+                long start = System.nanoTime();
+                migration.step.apply(conn);
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    pstmt.setInt(1, migration.version);
+                    pstmt.setString(2, migration.description);
+                    pstmt.executeUpdate();
+                }
+                System.out.printf("Schema migration %d (%s) applied in %.1f ms.%n",
+                        migration.version, migration.description, (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } finally {
+            releaseLock(conn);
+        }
+    }
+
+    // Versi skema tertinggi yang sudah diterapkan (0 jika belum ada)
+    private int getCurrentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Tabel 'thasil' lama (dibuat manual sebelum ada migrasi) bisa saja tidak memiliki primary key,
+     * padahal upsert membutuhkannya. Dalam kasus itu tabel dibangun ulang: baris terbaik per username
+     * disalin ke tabel baru, lalu kedua tabel ditukar secara atomik. Tabel lama disimpan sebagai 'thasil_legacy'.
+     * Langkah ini hanya berjalan selama versi 2 belum tercatat, jadi 'thasil_legacy' yang sudah ada berasal dari
+     * percobaan sebelumnya yang tidak selesai atau dari restore manual; tabel itu diberi nama lain lebih dulu
+     * (bukan dihapus) supaya RENAME TABLE tidak gagal di setiap koneksi.
+     */
+    private void ensureThasilPrimaryKey(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'thasil' AND CONSTRAINT_TYPE = 'PRIMARY KEY'");
+             ResultSet rs = pstmt.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+
+        System.out.println("Table thasil has no primary key. Rebuilding it with one row per username...");
+        execute(conn, "DROP TABLE IF EXISTS thasil_migrated");
+        execute(conn, "CREATE TABLE thasil_migrated (" +
+                "username VARCHAR(100) NOT NULL, " +
+                "skor INT NOT NULL DEFAULT 0, " +
+                "count INT NOT NULL DEFAULT 0, " +
+                "PRIMARY KEY (username)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        // Duplikat username digabung dengan aturan dan bentuk SQL yang sama seperti upsert di MySqlScoreStore
+        execute(conn, "INSERT INTO thasil_migrated (username, skor, count) " +
+                "SELECT username, skor, count FROM thasil " +
+                "ON DUPLICATE KEY UPDATE " +
+                "count = CASE WHEN skor < VALUES(skor) OR (skor = VALUES(skor) AND count < VALUES(count)) " +
+                "THEN VALUES(count) ELSE count END, " +
+                "skor = CASE WHEN skor < VALUES(skor) THEN VALUES(skor) ELSE skor END");
+        if (tableExists(conn, "thasil_legacy")) {
+            String stale = "thasil_legacy_" + System.currentTimeMillis();
+            System.out.println("Table thasil_legacy already exists from an earlier attempt. Renaming it to " + stale + ".");
+            execute(conn, "ALTER TABLE thasil_legacy RENAME TO " + stale);
+        }
+        execute(conn, "RENAME TABLE thasil TO thasil_legacy, thasil_migrated TO thasil");
+    }
+
+    /**
+     * Tabel rollup untuk statistik sesi. Keduanya diperbarui di transaksi yang sama dengan insert
+     * ke 'game_session', sehingga query statistik tidak perlu memindai riwayat mentah.
+     * Isinya dibangun ulang dari 'game_session' supaya langkah ini aman diulang.
+     */
+    private void createSessionRollups(Connection conn) throws SQLException {
+        execute(conn, "CREATE TABLE IF NOT EXISTS game_session_player (" +
+                "username VARCHAR(100) NOT NULL, " +
+                "sessions INT NOT NULL, " +
+                "total_skor BIGINT NOT NULL, " +
+                "best_skor INT NOT NULL, " +
+                "total_duration_ms BIGINT NOT NULL, " +
+                "total_bombs_hit BIGINT NOT NULL, " +
+                "last_played_at DATETIME(3) NOT NULL, " +
+                "PRIMARY KEY (username)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        execute(conn, "CREATE TABLE IF NOT EXISTS game_session_daily (" +
+                "play_date DATE NOT NULL, " +
+                "username VARCHAR(100) NOT NULL, " +
+                "sessions INT NOT NULL, " +
+                "total_skor BIGINT NOT NULL, " +
+                "best_skor INT NOT NULL, " +
+                "PRIMARY KEY (play_date, username)" +
+                ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+
+        execute(conn, "DELETE FROM game_session_player");
+        execute(conn, "INSERT INTO game_session_player " +
+                "SELECT username, COUNT(*), SUM(skor), MAX(skor), SUM(duration_ms), SUM(bombs_hit), MAX(ended_at) " +
+                "FROM game_session GROUP BY username");
+        execute(conn, "DELETE FROM game_session_daily");
+        execute(conn, "INSERT INTO game_session_daily " +
+                "SELECT DATE(ended_at), username, COUNT(*), SUM(skor), MAX(skor) " +
+                "FROM game_session GROUP BY DATE(ended_at), username");
+    }
+
+    // Mengecek apakah tabel dengan nama tertentu sudah ada di database aktif
+    private boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT COUNT(*) FROM information_schema.TABLES " +
+                "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?")) {
+            pstmt.setString(1, table);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    // Mengecek apakah index dengan nama tertentu sudah ada di tabel. Memakai DatabaseMetaData, bukan
+    // information_schema.STATISTICS, karena tabel itu tidak ada di H2 (target h2-* di PersistenceBenchmark).
+    private boolean indexExists(Connection conn, String table, String index) throws SQLException {
+        try (ResultSet rs = conn.getMetaData().getIndexInfo(conn.getCatalog(), conn.getSchema(), table, false, true)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private boolean acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) == 1;
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        } catch (SQLException e) {
+            System.err.println("Error releasing schema migration lock: " + e.getMessage());
+        }
+    }
+
+    private static void execute(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+}
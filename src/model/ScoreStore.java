@@ -0,0 +1,52 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ScoreStore adalah antarmuka penyimpanan skor di balik DatabaseModel.
+ * Implementasinya: MySqlScoreStore (tabel 'thasil' di MySQL) dan LocalScoreStore
+ * (file log lokal yang dipakai lebih dulu dan saat MySQL tidak tersedia).
+ * Semua implementasi memakai aturan yang sama: hasil hanya disimpan jika skornya lebih tinggi,
+ * atau skornya sama tapi count lebih tinggi, dan leaderboard diurutkan seperti LeaderboardCache.ORDER.
+ */
+public interface ScoreStore {
+    // Menyimpan satu hasil; true jika data tersimpan berubah
+    boolean saveThasil(String username, int skor, int count) throws ScoreStoreException;
+
+    // Menyimpan banyak hasil sekaligus; status per baris dengan urutan sama seperti input
+    List<SaveOutcome> saveThasilBatch(List<Thasil> results) throws ScoreStoreException;
+
+    // Mengambil hasil terbaik milik username tertentu, atau null jika belum ada
+    Thasil getThasilByUsername(String username) throws ScoreStoreException;
+
+    // Mengambil seluruh leaderboard
+    List<Thasil> getAllThasil() throws ScoreStoreException;
+
+    // Mengambil 'limit' baris teratas leaderboard
+    List<Thasil> getTopThasil(int limit) throws ScoreStoreException;
+
+    // Mengambil halaman leaderboard setelah baris (afterSkor, afterCount, afterUsername)
+    List<Thasil> getThasilPage(int afterSkor, int afterCount, String afterUsername, int limit) throws ScoreStoreException;
+
+    // Melepaskan sumber daya (koneksi, file)
+    void close();
+
+    /**
+     * Menggabungkan hasil dengan username yang sama: untuk tiap username hanya indeks hasil terbaik
+     * yang dikembalikan, diurutkan berdasarkan username (urutan lock/penulisan yang konsisten).
+     */
+    static List<Integer> bestRowIndexes(List<Thasil> results) {
+        Map<String, Integer> bestIndex = new HashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            Thasil result = results.get(i);
+            Integer current = bestIndex.get(result.getUsername());
+            if (current == null || result.isBetterThan(results.get(current))) {
+                bestIndex.put(result.getUsername(), i);
+            }
+        }
+        List<Integer> rows = new ArrayList<>(bestIndex.values());
+        rows.sort((a, b) -> results.get(a).getUsername().compareTo(results.get(b).getUsername()));
+        return rows;
+    }
+}
@@ -0,0 +1,12 @@
+// Exception untuk kegagalan penyimpanan skor (database tidak bisa diakses, file log rusak, dll.)
+public class ScoreStoreException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public ScoreStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ScoreStoreException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,258 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * ScoreWriteBehind adalah antrean write-behind untuk hasil game.
+ * Hasil dimasukkan ke antrean tanpa menunggu database, lalu sebuah worker thread khusus
+ * menyimpannya ke ScoreStore tujuan (MySQL). Hasil yang masih menunggu untuk username yang sama
+ * digabung (hanya yang terbaik yang disimpan), dikirim per batch, dan dicoba ulang
+ * dengan backoff eksponensial jika database sedang tidak bisa diakses.
+ * Jika hasil berasal dari log lokal, posisi log ikut dicatat; setelah antrean kosong,
+ * posisi tertinggi dilaporkan lewat replicatedListener sebagai penanda replikasi.
+ * Penyimpanan langsung (di luar antrean) yang sedang berjalan didaftarkan lewat beginDirectWrite,
+ * supaya penanda tidak dimajukan melewati record yang belum pasti tersimpan di database.
+ * Selama worker masih mengirim batch, penanda juga tidak dimajukan sampai batch itu berhasil tersimpan.
+ */
+public class ScoreWriteBehind {
+    // Jumlah maksimum hasil yang diambil dari antrean dalam satu kali flush
+    private static final int MAX_BATCH_SIZE = 100;
+
+    // Backoff retry saat database gagal diakses
+    private static final long INITIAL_BACKOFF_MS = 500L;
+    private static final long MAX_BACKOFF_MS = 30000L;
+
+    private final ScoreStore target;
+
+    // Hasil yang menunggu disimpan, satu entri per username (urutan masuk dipertahankan)
+    private final Map<String, Thasil> pending = new LinkedHashMap<>();
+    private final Object lock = new Object();
+
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // Dipanggil dari worker thread setelah batch berhasil disimpan (hanya berisi baris yang berubah)
+    private volatile Consumer<List<Thasil>> flushListener;
+
+    // Posisi log lokal tertinggi dari hasil yang pernah masuk antrean, dan listener penanda replikasi
+    private long highestSourcePosition = -1;
+    private volatile LongConsumer replicatedListener;
+
+    // Posisi akhir log dari penyimpanan langsung yang sedang berjalan, dengan jumlahnya (dijaga lock)
+    private final TreeMap<Long, Integer> directWrites = new TreeMap<>();
+
+    // True selama worker mengirim batch yang sudah diambil dari antrean tetapi belum dikonfirmasi database (dijaga lock)
+    private boolean batchInFlight;
+
+    public ScoreWriteBehind(ScoreStore target) {
+        this.target = target;
+        this.worker = new Thread(this::runWorker, "score-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Memasukkan hasil game ke antrean. Tidak pernah memblokir pada I/O database.
+     * Jika username yang sama masih menunggu, hanya hasil yang lebih baik yang disimpan.
+     * @param sourcePosition Posisi akhir log lokal setelah hasil ini ditulis, atau -1 jika tidak ada.
+     * @return false jika antrean sudah dihentikan dan hasil tidak diterima.
+     */
+    public boolean submit(String username, int skor, int count, long sourcePosition) {
+        Thasil result = new Thasil(username, skor, count);
+        synchronized (lock) {
+            if (!running) {
+                System.err.println("Write-behind queue is shut down. Result for " + username + " dropped.");
+                return false;
+            }
+            merge(result);
+            highestSourcePosition = Math.max(highestSourcePosition, sourcePosition);
+            lock.notifyAll();
+            return true;
+        }
+    }
+
+    /**
+     * Mendaftarkan penyimpanan langsung ke database (di luar antrean) untuk record log lokal yang berakhir
+     * di sourcePosition. Sampai endDirectWrite dipanggil, penanda replikasi tetap di bawah record itu.
+     * Harus dipanggil sebelum hasil lain yang ditulis sesudah record ini masuk antrean.
+     */
+    public void beginDirectWrite(long sourcePosition) {
+        if (sourcePosition < 0) {
+            return;
+        }
+        synchronized (lock) {
+            directWrites.merge(sourcePosition, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Menandai penyimpanan langsung selesai. Jika gagal, hasilnya harus sudah dimasukkan ke antrean
+     * (submit) sebelum metode ini dipanggil.
+     */
+    public void endDirectWrite(long sourcePosition) {
+        if (sourcePosition < 0) {
+            return;
+        }
+        synchronized (lock) {
+            directWrites.computeIfPresent(sourcePosition, (position, count) -> count == 1 ? null : count - 1);
+        }
+        reportReplicated(); // Penanda yang tertahan oleh penyimpanan ini bisa maju sekarang
+    }
+
+    // Menggabungkan hasil ke antrean; harus dipanggil saat memegang lock
+    private void merge(Thasil result) {
+        Thasil existing = pending.get(result.getUsername());
+        if (result.isBetterThan(existing)) {
+            pending.put(result.getUsername(), result);
+        }
+    }
+
+    // Mengatur listener yang dipanggil setelah ada baris yang berubah di database
+    public void setFlushListener(Consumer<List<Thasil>> flushListener) {
+        this.flushListener = flushListener;
+    }
+
+    // Mengatur listener yang menerima posisi log lokal yang sudah sepenuhnya tersimpan di database
+    public void setReplicatedListener(LongConsumer replicatedListener) {
+        this.replicatedListener = replicatedListener;
+    }
+
+    // Jumlah username yang hasilnya belum tersimpan
+    public int getPendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // Loop utama worker: ambil batch, simpan, dan retry dengan backoff jika gagal
+    private void runWorker() {
+        long backoff = INITIAL_BACKOFF_MS;
+        while (true) {
+            List<Thasil> batch = new ArrayList<>();
+            synchronized (lock) {
+                while (pending.isEmpty() && running) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.isEmpty()) {
+                    return; // Sudah shutdown dan antrean kosong
+                }
+                Iterator<Thasil> it = pending.values().iterator();
+                while (it.hasNext() && batch.size() < MAX_BATCH_SIZE) {
+                    batch.add(it.next());
+                    it.remove();
+                }
+                batchInFlight = true;
+            }
+
+            List<Thasil> failed = new ArrayList<>();
+            List<Thasil> changed = new ArrayList<>();
+            flush(batch, changed, failed);
+
+            if (!changed.isEmpty()) {
+                Consumer<List<Thasil>> listener = flushListener;
+                if (listener != null) {
+                    listener.accept(changed);
+                }
+            }
+
+            if (failed.isEmpty()) {
+                synchronized (lock) {
+                    batchInFlight = false;
+                }
+                backoff = INITIAL_BACKOFF_MS;
+                reportReplicated();
+                continue;
+            }
+
+            synchronized (lock) {
+                for (Thasil result : failed) {
+                    merge(result); // Hasil baru yang masuk selama flush tetap menang jika lebih baik
+                }
+                batchInFlight = false; // Batch sudah kembali ke antrean sebelum penanda bisa dilaporkan lagi
+                if (!running) {
+                    // Saat shutdown tidak ada retry lagi; jangan menahan aplikasi keluar.
+                    System.err.println("Database unavailable during shutdown. " + pending.size() + " result(s) not saved.");
+                    return;
+                }
+                System.err.println("Saving " + failed.size() + " result(s) failed. Retrying in " + backoff + " ms.");
+                try {
+                    lock.wait(backoff);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    // Jika antrean kosong dan tidak ada batch yang sedang dikirim, semua hasil sampai posisi log tertinggi sudah
+    // tersimpan di database, kecuali record penyimpanan langsung yang masih berjalan: penanda berhenti tepat
+    // sebelum record itu berakhir
+    private void reportReplicated() {
+        long position;
+        synchronized (lock) {
+            if (!pending.isEmpty() || batchInFlight || highestSourcePosition < 0) {
+                return;
+            }
+            position = highestSourcePosition;
+            if (!directWrites.isEmpty()) {
+                position = Math.min(position, directWrites.firstKey() - 1);
+            }
+        }
+        LongConsumer listener = replicatedListener;
+        if (listener != null) {
+            listener.accept(position);
+        }
+    }
+
+    // Menyimpan satu batch dalam satu transaksi; jika gagal seluruh batch dikembalikan lewat 'failed'
+    private void flush(List<Thasil> batch, List<Thasil> changed, List<Thasil> failed) {
+        List<SaveOutcome> outcomes;
+        try {
+            outcomes = target.saveThasilBatch(batch);
+        } catch (ScoreStoreException e) {
+            System.err.println(e.getMessage());
+            failed.addAll(batch);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            SaveOutcome outcome = outcomes.get(i);
+            if (outcome == SaveOutcome.CHANGED || outcome == SaveOutcome.APPLIED) {
+                changed.add(batch.get(i));
+            }
+        }
+    }
+
+    /**
+     * Menghentikan antrean dan menunggu worker menyimpan semua hasil yang tersisa.
+     * @param timeoutMillis Batas waktu menunggu.
+     * @return true jika semua hasil sudah tersimpan.
+     */
+    public boolean shutdown(long timeoutMillis) {
+        synchronized (lock) {
+            running = false;
+            lock.notifyAll();
+        }
+        try {
+            worker.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int remaining = getPendingCount();
+        if (worker.isAlive() || remaining > 0) {
+            System.err.println("Write-behind queue did not drain completely. " + remaining + " result(s) pending.");
+            return false;
+        }
+        System.out.println("Write-behind queue drained.");
+        return true;
+    }
+}
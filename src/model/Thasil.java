@@ -29,4 +29,9 @@ public class Thasil {
     public int getCount() {
         return count;
     }
+
+    // Aturan "hasil lebih baik": skor lebih tinggi, atau skor sama tapi count lebih tinggi
+    public boolean isBetterThan(Thasil other) {
+        return other == null || skor > other.skor || (skor == other.skor && count > other.count);
+    }
 }
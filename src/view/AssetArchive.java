@@ -0,0 +1,392 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * AssetArchive adalah satu file berisi aset yang sudah di-decode saat build (lihat AssetPacker):
+ * piksel gambar (ARGB premultiplied atau RGB, 4 byte per piksel) dan PCM suara dalam MusicPlayer.OUTPUT_FORMAT.
+ * Saat runtime file ini di-memory-map dengan FileChannel.map, sehingga tidak ada PNG/JPG/WAV yang
+ * di-decode ulang dan data suara dibaca langsung dari mapping tanpa salinan di heap.
+ *
+ * Format (little-endian):
+ *   header: MAGIC int, VERSION int, jumlah entri int
+ *   entri:  panjang path u16, path UTF-8, format byte, lebar int, tinggi int (frame untuk PCM),
+ *           ukuran file sumber long, waktu ubah file sumber long, SHA-256 file sumber (32 byte),
+ *           offset data long, panjang data long
+ *   data:   setiap blok dimulai di offset kelipatan ALIGNMENT
+ * Path entri sama dengan AssetManifest.getPath(), jadi urutan enum boleh berubah tanpa membuat ulang archive.
+ * Ukuran, waktu ubah, dan hash file sumber dipakai isUpToDate() untuk mendeteksi aset yang diubah
+ * setelah AssetPacker terakhir dijalankan.
+ */
+public final class AssetArchive {
+    static final int MAGIC = 0x5342504B; // "SBPK"
+    static final int VERSION = 2;
+    private static final int HASH_BYTES = 32; // SHA-256
+    static final int ALIGNMENT = 64;
+
+    static final byte FORMAT_INT_ARGB_PRE = 1; // Gambar translucent: int ARGB premultiplied per piksel
+    static final byte FORMAT_INT_RGB = 2; // Gambar opaque: int xRGB per piksel
+    static final byte FORMAT_PCM = 3; // Suara: MusicPlayer.OUTPUT_FORMAT (16 bit, stereo, signed, little-endian)
+
+    /**
+     * Satu aset di archive.
+     */
+    public static final class Entry {
+        final String path;
+        final byte format;
+        final int width; // Lebar gambar, atau 0 untuk PCM
+        final int height; // Tinggi gambar, atau jumlah frame untuk PCM
+        final long sourceBytes; // Ukuran file asli
+        final long sourceModified; // Waktu ubah file asli (ms sejak epoch), 0 jika tidak diketahui
+        final byte[] sourceHash; // SHA-256 isi file asli
+        final long offset;
+        final long length;
+
+        Entry(String path, byte format, int width, int height, long sourceBytes, long sourceModified, byte[] sourceHash,
+              long offset, long length) {
+            this.path = path;
+            this.format = format;
+            this.width = width;
+            this.height = height;
+            this.sourceBytes = sourceBytes;
+            this.sourceModified = sourceModified;
+            this.sourceHash = sourceHash;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        public boolean isImage() {
+            return format == FORMAT_INT_ARGB_PRE || format == FORMAT_INT_RGB;
+        }
+
+        public long getLength() { return length; }
+        public long getSourceBytes() { return sourceBytes; }
+    }
+
+    private final Path file;
+    private final MappedByteBuffer data;
+    private final Map<String, Entry> entries;
+
+    private AssetArchive(Path file, MappedByteBuffer data, Map<String, Entry> entries) {
+        this.file = file;
+        this.data = data;
+        this.entries = entries;
+    }
+
+    /**
+     * Me-memory-map archive dan membaca indeksnya. Data aset sendiri baru dibaca dari disk saat disentuh.
+     * @throws IOException jika file tidak bisa dibaca atau formatnya tidak dikenal/rusak.
+     */
+    public static AssetArchive open(Path file) throws IOException {
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Asset archive too large: " + channel.size() + " bytes");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Mapping tetap berlaku setelah channel ditutup
+        }
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (data.getInt() != MAGIC) {
+                throw new IOException("Not an asset archive: " + file);
+            }
+            int version = data.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported asset archive version " + version + ": " + file);
+            }
+            int count = data.getInt();
+            if (count < 0) {
+                throw new IOException("Corrupt asset archive: negative entry count");
+            }
+            Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                byte[] path = new byte[data.getShort() & 0xFFFF];
+                data.get(path);
+                String entryPath = new String(path, StandardCharsets.UTF_8);
+                byte format = data.get();
+                int width = data.getInt();
+                int height = data.getInt();
+                long sourceBytes = data.getLong();
+                long sourceModified = data.getLong();
+                byte[] sourceHash = new byte[HASH_BYTES];
+                data.get(sourceHash);
+                Entry entry = new Entry(entryPath, format, width, height, sourceBytes, sourceModified, sourceHash,
+                        data.getLong(), data.getLong());
+                if (entry.offset < 0 || entry.length < 0 || entry.offset + entry.length > data.capacity()
+                        || entry.length != expectedLength(entry.format, entry.width, entry.height)) {
+                    throw new IOException("Corrupt asset archive: bad entry " + entry.path);
+                }
+                entries.put(entry.path, entry);
+            }
+            return new AssetArchive(file, data, entries);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Corrupt asset archive: truncated index", e);
+        }
+    }
+
+    // Panjang data yang seharusnya untuk format dan ukuran entri, atau -1 jika formatnya tidak dikenal
+    private static long expectedLength(byte format, int width, int height) {
+        switch (format) {
+            case FORMAT_INT_ARGB_PRE:
+            case FORMAT_INT_RGB:
+                return width > 0 && height > 0 ? (long) width * height * 4 : -1;
+            case FORMAT_PCM:
+                return height >= 0 ? (long) height * 4 : -1;
+            default:
+                return -1;
+        }
+    }
+
+    public Path getFile() { return file; }
+    public int size() { return entries.size(); }
+
+    /**
+     * @return Entri untuk aset ini, atau null jika aset tidak ada di archive (atau jenisnya tidak cocok).
+     */
+    public Entry get(AssetManifest asset) {
+        Entry entry = entries.get(asset.getPath());
+        if (entry == null || entry.isImage() != asset.isImage()) {
+            return null;
+        }
+        if (asset.isImage() && (entry.format == FORMAT_INT_RGB) != (asset.getKind() == AssetManifest.Kind.OPAQUE_IMAGE)) {
+            return null; // Jenis gambar di manifest berubah sejak archive dibuat
+        }
+        return entry;
+    }
+
+    /**
+     * Memeriksa apakah file sumber entri masih sama dengan saat archive dibuat. Ukuran dan waktu ubah dibaca
+     * dari URLConnection tanpa membaca isi file; hanya jika ukurannya sama tetapi waktu ubahnya berbeda atau
+     * tidak diketahui (misalnya setelah checkout ulang), isi file di-hash dan dibandingkan.
+     * @param source Resource file sumber (AssetManifest.getPath()).
+     * @throws IOException jika file sumber tidak bisa dibaca.
+     */
+    public static boolean isUpToDate(Entry entry, URL source) throws IOException {
+        URLConnection connection = source.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            long size = connection.getContentLengthLong();
+            if (size >= 0 && size != entry.sourceBytes) {
+                return false;
+            }
+            long modified = connection.getLastModified();
+            if (size >= 0 && modified != 0 && modified == entry.sourceModified) {
+                return true;
+            }
+            return Arrays.equals(sha256(in.readAllBytes()), entry.sourceHash);
+        }
+    }
+
+    static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Wajib ada di setiap JRE
+        }
+    }
+
+    // Potongan mapping untuk data satu entri (posisi dan limit sendiri, tidak mengubah buffer utama)
+    private ByteBuffer region(Entry entry) {
+        ByteBuffer region = data.duplicate();
+        region.position((int) entry.offset).limit((int) (entry.offset + entry.length));
+        return region.slice().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Membuat gambar dari piksel entri tanpa decode. Jika compatible image untuk gc memakai format piksel
+     * yang sama (biasanya INT_ARGB_PRE/INT_RGB), piksel disalin langsung ke raster-nya; jika tidak, gambar
+     * dibuat dalam format archive lalu digambar ke compatible image.
+     * @param gc Konfigurasi layar tujuan, atau null (tanpa layar).
+     */
+    public BufferedImage createImage(Entry entry, GraphicsConfiguration gc) {
+        boolean opaque = entry.format == FORMAT_INT_RGB;
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+        BufferedImage compatible = gc == null ? null
+                : gc.createCompatibleImage(entry.width, entry.height, opaque ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+        BufferedImage image = compatible != null && compatible.getType() == type ? compatible
+                : new BufferedImage(entry.width, entry.height, type);
+
+        // Disalin per baris lewat setDataElements (bukan DataBufferInt.getData) supaya gambar tetap bisa diakselerasi
+        IntBuffer pixels = region(entry).asIntBuffer();
+        WritableRaster raster = image.getRaster();
+        int[] row = new int[entry.width];
+        for (int y = 0; y < entry.height; y++) {
+            pixels.get(row);
+            raster.setDataElements(0, y, entry.width, 1, row);
+        }
+        if (compatible == null || compatible == image) {
+            return image;
+        }
+        Graphics2D g2d = compatible.createGraphics();
+        try {
+            g2d.drawImage(image, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        return compatible;
+    }
+
+    /**
+     * @return Sampel PCM entri (16 bit stereo interleaved) sebagai view langsung ke mapping, tanpa salinan.
+     */
+    public ShortBuffer pcmSamples(Entry entry) {
+        return region(entry).asShortBuffer();
+    }
+
+    /**
+     * @return Byte PCM entri sebagai view langsung ke mapping, untuk di-stream (lihat asInputStream).
+     */
+    public ByteBuffer pcmBytes(Entry entry) {
+        return region(entry);
+    }
+
+    /**
+     * InputStream yang membaca sisa isi buffer, tanpa menyalinnya terlebih dulu.
+     */
+    static InputStream asInputStream(ByteBuffer buffer) {
+        return new InputStream() {
+            @Override
+            public int read() {
+                return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+                int n = Math.min(len, buffer.remaining());
+                buffer.get(b, off, n);
+                return n;
+            }
+
+            @Override
+            public int available() {
+                return buffer.remaining();
+            }
+        };
+    }
+
+    /**
+     * Menyusun archive baru di memori lalu menulisnya ke file. Dipakai oleh AssetPacker saat build.
+     */
+    static final class Writer {
+        private final List<Entry> entries = new ArrayList<>();
+        private final List<byte[]> blocks = new ArrayList<>();
+
+        // Gambar yang sudah dikonversi ke TYPE_INT_ARGB_PRE (translucent) atau TYPE_INT_RGB (opaque)
+        void addImage(String path, BufferedImage image, byte[] source, long sourceModified) {
+            byte format;
+            if (image.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+                format = FORMAT_INT_ARGB_PRE;
+            } else if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+                format = FORMAT_INT_RGB;
+            } else {
+                throw new IllegalArgumentException("Unsupported image type for " + path + ": " + image.getType());
+            }
+            int width = image.getWidth();
+            int height = image.getHeight();
+            int[] row = new int[width];
+            ByteBuffer block = ByteBuffer.allocate(width * height * 4).order(ByteOrder.LITTLE_ENDIAN);
+            IntBuffer pixels = block.asIntBuffer();
+            for (int y = 0; y < height; y++) {
+                image.getRaster().getDataElements(0, y, width, 1, row);
+                pixels.put(row);
+            }
+            add(new Entry(path, format, width, height, source.length, sourceModified, sha256(source), 0, block.capacity()),
+                    block.array());
+        }
+
+        // PCM dalam MusicPlayer.OUTPUT_FORMAT
+        void addPcm(String path, byte[] pcm, byte[] source, long sourceModified) {
+            int frames = pcm.length / 4;
+            add(new Entry(path, FORMAT_PCM, 0, frames, source.length, sourceModified, sha256(source), 0, frames * 4L), pcm);
+        }
+
+        private void add(Entry entry, byte[] block) {
+            entries.add(entry);
+            blocks.add(block);
+        }
+
+        /**
+         * Menulis archive ke file (ditulis ke file sementara dulu, lalu dipindahkan, supaya archive lama
+         * tidak pernah setengah tertulis).
+         * @return Ukuran archive dalam byte.
+         */
+        long write(Path file) throws IOException {
+            List<byte[]> paths = new ArrayList<>();
+            long indexBytes = 12;
+            for (Entry entry : entries) {
+                byte[] path = entry.path.getBytes(StandardCharsets.UTF_8);
+                if (path.length > 0xFFFF) {
+                    throw new IOException("Asset path too long: " + entry.path);
+                }
+                paths.add(path);
+                indexBytes += 2 + path.length + 1 + 4 + 4 + 8 + 8 + HASH_BYTES + 8 + 8;
+            }
+            long[] offsets = new long[entries.size()];
+            long end = indexBytes;
+            for (int i = 0; i < entries.size(); i++) {
+                offsets[i] = align(end);
+                end = offsets[i] + blocks.get(i).length;
+            }
+            if (end > Integer.MAX_VALUE) {
+                throw new IOException("Asset archive too large: " + end + " bytes");
+            }
+
+            ByteBuffer out = ByteBuffer.allocate((int) end).order(ByteOrder.LITTLE_ENDIAN);
+            out.putInt(MAGIC).putInt(VERSION).putInt(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                out.putShort((short) paths.get(i).length).put(paths.get(i)).put(entry.format)
+                        .putInt(entry.width).putInt(entry.height).putLong(entry.sourceBytes)
+                        .putLong(entry.sourceModified).put(entry.sourceHash)
+                        .putLong(offsets[i]).putLong(entry.length);
+            }
+            for (int i = 0; i < entries.size(); i++) {
+                out.position((int) offsets[i]);
+                out.put(blocks.get(i));
+            }
+
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, out.array());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            return end;
+        }
+
+        private static long align(long offset) {
+            return (offset + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        }
+    }
+}
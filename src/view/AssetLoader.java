@@ -1,10 +1,30 @@
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ShortBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
 import java.awt.Transparency;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 // NEW: Penting untuk kontrol volume
 import javax.sound.sampled.*; // Pastikan ini diimpor
@@ -20,285 +40,533 @@ public class AssetLoader {
     public static BufferedImage lassoHookImage;
     public static BufferedImage bonusEffectSprite; 
 
-    // Sound assets
-    public static Clip backgroundMusicClip;
-    public static Clip bonusMusicClip;      
-    public static Clip bombEffectClip;      
-    public static Clip mainMenuMusicClip;   
-
-    // NEW: FloatControl untuk mengatur volume masing-masing klip
-    public static FloatControl backgroundMusicGainControl;
-    public static FloatControl bonusMusicGainControl;
-    public static FloatControl bombEffectGainControl;
-    public static FloatControl mainMenuMusicGainControl;
+    // Sound assets: efek pendek di-decode penuh ke PCM dan dicampur oleh soundEffects; musik (menu, game, bonus)
+    // di-stream oleh musicPlayer
+    public static final SoundEffectMixer soundEffects = new SoundEffectMixer();
+    public static final MusicPlayer musicPlayer = new MusicPlayer();
 
     // NEW: Gambar untuk keranjang
     public static BufferedImage basketImage; 
 
+    // --- CACHE GAMBAR TERSKALA ---
+    // Batas cache: jumlah entri dan total ukuran piksel (4 byte per piksel), mana yang tercapai lebih dulu.
+    private static final int SCALED_CACHE_MAX_ENTRIES = 128;
+    private static final long SCALED_CACHE_MAX_BYTES = 48L * 1024 * 1024;
 
-    public static void loadAssets() {
-        System.out.println("Loading assets...");
+    // Kunci cache: gambar sumber (berdasarkan identitas objek) dan ukuran tujuan.
+    private static final class ScaledImageKey {
+        private BufferedImage source;
+        private int width;
+        private int height;
 
-        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        ScaledImageKey(BufferedImage source, int width, int height) {
+            this.source = source;
+            this.width = width;
+            this.height = height;
+        }
 
-        try {
-            // Load Player Astronaut
-            URL playerAstronautUrl = AssetLoader.class.getResource("/assets/images/astronot.png"); // Ganti nama file ini jika di aset Anda namanya "astronot.png"
-            if (playerAstronautUrl != null) {
-                BufferedImage tempPlayer = ImageIO.read(playerAstronautUrl);
-                if (tempPlayer != null) {
-                    playerAstronautSprite = gc.createCompatibleImage(tempPlayer.getWidth(), tempPlayer.getHeight(), Transparency.TRANSLUCENT);
-                    playerAstronautSprite.getGraphics().drawImage(tempPlayer, 0, 0, null);
-                    playerAstronautSprite.getGraphics().dispose();
-                    System.out.println("Player astronaut sprite loaded.");
-                } else {
-                    System.err.println("Player astronaut sprite (tempPlayer) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Player astronaut sprite not found: /assets/images/astronot.png");
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ScaledImageKey)) {
+                return false;
             }
+            ScaledImageKey other = (ScaledImageKey) o;
+            return source == other.source && width == other.width && height == other.height;
+        }
 
-            // Load Background Image
-            URL backgroundUrl = AssetLoader.class.getResource("/assets/images/background.jpg");
-            if (backgroundUrl != null) {
-                BufferedImage tempBg = ImageIO.read(backgroundUrl);
-                if (tempBg != null) {
-                    backgroundImage = gc.createCompatibleImage(tempBg.getWidth(), tempBg.getHeight(), Transparency.OPAQUE);
-                    backgroundImage.getGraphics().drawImage(tempBg, 0, 0, null);
-                    backgroundImage.getGraphics().dispose();
-                    System.out.println("Background image loaded.");
-                } else {
-                    System.err.println("Background image (tempBg) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Background image not found: /assets/images/background.jpg");
-            }
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(source) * 31 + width) * 31 + height;
+        }
+    }
 
-            URL mainMenuBackgroundUrl = AssetLoader.class.getResource("/assets/images/main_background.jpg"); // Nama file baru
-            if (mainMenuBackgroundUrl != null) {
-                BufferedImage tempMainMenuBg = ImageIO.read(mainMenuBackgroundUrl);
-                if (tempMainMenuBg != null) {
-                    mainMenuBackgroundImage = gc.createCompatibleImage(tempMainMenuBg.getWidth(), tempMainMenuBg.getHeight(), Transparency.OPAQUE);
-                    mainMenuBackgroundImage.getGraphics().drawImage(tempMainMenuBg, 0, 0, null);
-                    mainMenuBackgroundImage.getGraphics().dispose();
-                    System.out.println("Main menu background image loaded.");
-                } else {
-                    System.err.println("Main menu background image (tempMainMenuBg) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Main menu background image not found: /assets/images/main_background.jpg");
-            }
+    // LinkedHashMap dengan urutan akses: entri pertama adalah yang paling lama tidak dipakai (LRU).
+    private static final LinkedHashMap<ScaledImageKey, BufferedImage> scaledImages = new LinkedHashMap<>(64, 0.75f, true);
+    // Kunci yang dipakai ulang untuk pencarian, supaya cache hit tidak mengalokasikan objek baru.
+    private static final ScaledImageKey scaledLookupKey = new ScaledImageKey(null, 0, 0);
+    private static GraphicsConfiguration scaledImagesConfig; // Konfigurasi layar tempat gambar di cache dibuat.
+    private static long scaledImagesBytes = 0;
+    private static long scaledHitCount = 0;
+    private static long scaledMissCount = 0;
+    private static long scaledEvictionCount = 0;
 
-            // Load Skill Ball (Star) Image (bintang1.png)
-            URL skillBallImageUrl = AssetLoader.class.getResource("/assets/images/bintang_point.png");
-            if (skillBallImageUrl != null) {
-                BufferedImage tempStar = ImageIO.read(skillBallImageUrl);
-                if (tempStar != null) {
-                    skillBallImage = gc.createCompatibleImage(tempStar.getWidth(), tempStar.getHeight(), Transparency.TRANSLUCENT);
-                    skillBallImage.getGraphics().drawImage(tempStar, 0, 0, null);
-                    skillBallImage.getGraphics().dispose();
-                    System.out.println("Skill ball (star) image loaded.");
-                } else {
-                    System.err.println("Skill ball (star) image (tempStar) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Skill ball (star) image not found: /assets/images/bintang_point.png");
-            }
 
-            // Load Bomb Alien Image (bom_alien.png)
-            URL bombAlienImageUrl = AssetLoader.class.getResource("/assets/images/bom_alien.png");
-            if (bombAlienImageUrl != null) {
-                BufferedImage tempBomb = ImageIO.read(bombAlienImageUrl);
-                if (tempBomb != null) {
-                    bombAlienImage = gc.createCompatibleImage(tempBomb.getWidth(), tempBomb.getHeight(), Transparency.TRANSLUCENT);
-                    bombAlienImage.getGraphics().drawImage(tempBomb, 0, 0, null);
-                    bombAlienImage.getGraphics().dispose();
-                    System.out.println("Bomb alien image loaded.");
-                } else {
-                    System.err.println("Bomb alien image (tempBomb) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Bomb alien image not found: /assets/images/bom_alien.png");
-            }
+    // --- PEMUATAN ASET PARALEL ---
+    // Semua entri AssetManifest di-decode bersamaan di thread pool kecil. Setiap aset punya future sendiri,
+    // sehingga menu bisa tampil segera (dengan placeholder) dan bagian yang butuh aset tertentu menunggu aset itu saja.
+    // Field statis di atas diisi sebelum future aset tersebut selesai, jadi kode yang berjalan setelah future
+    // (thenRun, join, atau invokeLater dari callback) melihat nilainya tanpa sinkronisasi tambahan.
+    private static final int LOADER_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final EnumMap<AssetManifest, CompletableFuture<Object>> assetLoads = new EnumMap<>(AssetManifest.class);
+    private static CompletableFuture<Void> allAssetsLoaded;
+    private static final long[] loadNanos = new long[AssetManifest.values().length]; // Waktu decode per aset
+    private static final long[] loadBytes = new long[AssetManifest.values().length]; // Ukuran file per aset
+    private static final long[] decodedBytes = new long[AssetManifest.values().length]; // Ukuran hasil decode per aset
+    private static final boolean[] loadedFromArchive = new boolean[AssetManifest.values().length];
+    private static long loadStartNanos;
+    private static long loadWallNanos;
 
-            // Load Bonus Star Image (bintangbonus.png)
-            URL bonusStarImageUrl = AssetLoader.class.getResource("/assets/images/bintang_bonus.png");
-            if (bonusStarImageUrl != null) {
-                BufferedImage tempBonusStar = ImageIO.read(bonusStarImageUrl);
-                if (tempBonusStar != null) {
-                    bonusStarImage = gc.createCompatibleImage(tempBonusStar.getWidth(), tempBonusStar.getHeight(), Transparency.TRANSLUCENT);
-                    bonusStarImage.getGraphics().drawImage(tempBonusStar, 0, 0, null);
-                    bonusStarImage.getGraphics().dispose();
-                    System.out.println("Bonus star image loaded.");
-                } else {
-                    System.err.println("Bonus star image (tempBonusStar) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Bonus star image not found: /assets/images/bintang_bonus.png");
-            }
+    // --- ARCHIVE ASET ---
+    // Jika ada, aset dibaca dari AssetArchive (dibuat oleh AssetPacker) yang di-memory-map, tanpa decode PNG/JPG/WAV.
+    // Aset yang tidak ada di archive tetap dimuat dari file lepasnya.
+    static final String DEFAULT_ARCHIVE = "assets.pak";
+    private static final String ARCHIVE_PATH = System.getProperty("skillballs.assets.archive", DEFAULT_ARCHIVE);
+    private static AssetArchive archive; // Diisi di startLoading sebelum tugas pemuatan dikirim
+    // Hasil pemeriksaan entri archive terhadap file sumbernya, sekali per aset (lihat packedEntry)
+    private static final ConcurrentHashMap<AssetManifest, Optional<AssetArchive.Entry>> packedEntries = new ConcurrentHashMap<>();
 
-            // Load Lasso Chain Segment Image (tali.png)
-            URL lassoChainUrl = AssetLoader.class.getResource("/assets/images/tali_laso.png");
-            if (lassoChainUrl != null) {
-                BufferedImage tempChain = ImageIO.read(lassoChainUrl);
-                if (tempChain != null) {
-                    lassoChainSegmentImage = gc.createCompatibleImage(tempChain.getWidth(), tempChain.getHeight(), Transparency.TRANSLUCENT);
-                    lassoChainSegmentImage.getGraphics().drawImage(tempChain, 0, 0, null);
-                    lassoChainSegmentImage.getGraphics().dispose();
-                    System.out.println("Lasso chain segment image loaded.");
-                } else {
-                    System.err.println("Lasso chain segment image (tempChain) is null. File might be corrupted or empty.");
+    // --- CACHE DISK GAMBAR ---
+    // Gambar dari file lepas yang sudah dikonversi ke format layar disimpan di disk (lihat ImageDiskCache),
+    // sehingga start berikutnya tidak men-decode PNG/JPG. -Dskillballs.image.cache=false untuk mematikan.
+    private static final boolean IMAGE_CACHE_ENABLED =
+            !"false".equalsIgnoreCase(System.getProperty("skillballs.image.cache", "true"));
+    private static final ImageDiskCache imageCache = IMAGE_CACHE_ENABLED
+            ? new ImageDiskCache(Paths.get(System.getProperty("skillballs.image.cache.dir", "cache/images"))) : null;
+    private static final boolean[] loadedFromImageCache = new boolean[AssetManifest.values().length];
+
+    /**
+     * Mulai memuat semua aset di AssetManifest secara paralel di thread latar dan langsung kembali.
+     * Aset yang gagal dimuat dicatat di System.err dan field-nya tetap null; future-nya tetap selesai normal.
+     * Panggilan berikutnya tidak memuat ulang dan mengembalikan future yang sama.
+     * Sebaiknya dipanggil dari EDT (konfigurasi layar untuk compatible image diambil dari thread pemanggil).
+     * @return Future yang selesai setelah semua aset selesai dimuat.
+     */
+    public static synchronized CompletableFuture<Void> startLoading() {
+        if (allAssetsLoaded != null) {
+            return allAssetsLoaded;
+        }
+        System.out.println("Loading assets on " + LOADER_THREADS + " threads...");
+        loadStartNanos = System.nanoTime();
+        GraphicsConfiguration gc = GraphicsEnvironment.isHeadless() ? null
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+        archive = openArchive();
+        if (archive != null) {
+            // Musik didaftarkan sekarang juga (hanya view ke mapping), karena musik menu langsung diputar
+            for (AssetManifest asset : AssetManifest.values()) {
+                AssetArchive.Entry entry = asset.getKind() == AssetManifest.Kind.MUSIC ? packedEntry(asset) : null;
+                if (entry != null) {
+                    musicPlayer.usePacked(asset, archive.pcmBytes(entry));
                 }
-            } else {
-                System.err.println("Lasso chain segment image not found: /assets/images/tali_laso.png");
             }
+        }
 
-            // Load Lasso Hook Image (kail.png)
-            URL lassoHookUrl = AssetLoader.class.getResource("/assets/images/kail.png");
-            if (lassoHookUrl != null) {
-                BufferedImage tempHook = ImageIO.read(lassoHookUrl);
-                if (tempHook != null) {
-                    lassoHookImage = gc.createCompatibleImage(tempHook.getWidth(), tempHook.getHeight(), Transparency.TRANSLUCENT);
-                    lassoHookImage.getGraphics().drawImage(tempHook, 0, 0, null);
-                    lassoHookImage.getGraphics().dispose();
-                    System.out.println("Lasso hook image loaded.");
-                } else {
-                    System.err.println("Lasso hook image (tempHook) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Lasso hook image not found: /assets/images/kail.png");
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(LOADER_THREADS, r -> {
+            Thread t = new Thread(r, "asset-loader-" + threadCount.incrementAndGet());
+            t.setDaemon(true); // Tidak menahan JVM saat aplikasi ditutup di tengah pemuatan
+            return t;
+        });
+        // Aset besar (suara, gambar latar) dikirim lebih dulu supaya tidak menjadi ekor di akhir pemuatan
+        AssetManifest[] order = AssetManifest.values().clone();
+        Arrays.sort(order, Comparator.comparingInt(AssetLoader::loadPriority));
+        for (AssetManifest asset : order) {
+            assetLoads.put(asset, CompletableFuture.supplyAsync(() -> loadAsset(asset, gc), executor));
+        }
+        executor.shutdown(); // Tugas yang sudah dikirim tetap dijalankan; thread berhenti setelahnya
+
+        allAssetsLoaded = CompletableFuture.allOf(assetLoads.values().toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> {
+                    synchronized (AssetLoader.class) {
+                        loadWallNanos = System.nanoTime() - loadStartNanos;
+                    }
+                    System.out.println(getLoadReport());
+                });
+        return allAssetsLoaded;
+    }
+
+    /**
+     * Memuat semua aset dan menunggu sampai selesai (untuk pemanggil yang butuh semua aset segera).
+     */
+    public static void loadAssets() {
+        startLoading().join();
+    }
+
+    /**
+     * @return Future yang selesai setelah aset ini dimuat (hasilnya BufferedImage, PCM efek suara (ShortBuffer), AudioFileFormat atau AssetArchive.Entry untuk musik, atau null jika gagal).
+     * Memulai pemuatan jika belum dimulai.
+     */
+    public static CompletableFuture<Object> whenLoaded(AssetManifest asset) {
+        startLoading();
+        synchronized (AssetLoader.class) {
+            return assetLoads.get(asset);
+        }
+    }
+
+    /**
+     * @return Future yang selesai setelah semua aset dimuat. Memulai pemuatan jika belum dimulai.
+     */
+    public static CompletableFuture<Void> whenAllLoaded() {
+        return startLoading();
+    }
+
+    /**
+     * @return true jika semua aset sudah selesai dimuat (berhasil atau gagal).
+     */
+    public static synchronized boolean isLoaded() {
+        return allAssetsLoaded != null && allAssetsLoaded.isDone();
+    }
+
+    /**
+     * Ringkasan waktu dan ukuran pemuatan setiap aset, untuk log saat startup.
+     */
+    public static synchronized String getLoadReport() {
+        StringBuilder report = new StringBuilder("Asset load report:");
+        long totalNanos = 0;
+        long totalBytes = 0;
+        long totalDecoded = 0;
+        for (AssetManifest asset : AssetManifest.values()) {
+            CompletableFuture<Object> load = assetLoads.get(asset);
+            if (load == null || !load.isDone()) {
+                report.append(String.format("%n  %-28s pending", asset.getLabel()));
+                continue;
             }
+            int i = asset.ordinal();
+            report.append(String.format("%n  %-28s %8.1f ms %10d bytes read %10d bytes decoded%s",
+                    asset.getLabel(), loadNanos[i] / 1e6, loadBytes[i], decodedBytes[i],
+                    load.join() == null ? "  FAILED" : loadedFromArchive[i] ? "  (archive)" : loadedFromImageCache[i] ? "  (cache)" : ""));
+            totalNanos += loadNanos[i];
+            totalBytes += loadBytes[i];
+            totalDecoded += decodedBytes[i];
+        }
+        report.append(String.format("%n  total: %d assets, %d bytes read, %d bytes decoded, %.1f ms of work in %.1f ms wall time on %d threads",
+                AssetManifest.values().length, totalBytes, totalDecoded, totalNanos / 1e6, loadWallNanos / 1e6, LOADER_THREADS));
+        if (imageCache != null) {
+            report.append(String.format("%n  %s", imageCache.getStats()));
+        }
+        return report.toString();
+    }
+
+    // Suara dan gambar opaque (latar) biasanya paling besar dan paling lama di-decode
+    private static int loadPriority(AssetManifest asset) {
+        switch (asset.getKind()) {
+            case SOUND: return 0;
+            case MUSIC: return 3; // Hanya membaca header file
+            case OPAQUE_IMAGE: return 1;
+            default: return 2;
+        }
+    }
 
-            // Load Bonus Effect Sprite (efekbonus.png)
-            URL bonusEffectUrl = AssetLoader.class.getResource("/assets/images/efek_bonus.png");
-            if (bonusEffectUrl != null) {
-                BufferedImage tempEffect = ImageIO.read(bonusEffectUrl);
-                if (tempEffect != null) {
-                    bonusEffectSprite = gc.createCompatibleImage(tempEffect.getWidth(), tempEffect.getHeight(), Transparency.TRANSLUCENT);
-                    bonusEffectSprite.getGraphics().drawImage(tempEffect, 0, 0, null);
-                    bonusEffectSprite.getGraphics().dispose();
-                    System.out.println("Bonus effect sprite loaded.");
+    // Membaca, men-decode, dan menyimpan satu aset; dijalankan di thread asset-loader
+    private static Object loadAsset(AssetManifest asset, GraphicsConfiguration gc) {
+        long start = System.nanoTime();
+        Object value = null;
+        long bytesRead = 0;
+        long bytesDecoded = 0;
+        AssetArchive.Entry packed = packedEntry(asset);
+        URL url = packed != null ? null : AssetLoader.class.getResource(asset.getPath());
+        if (packed != null) {
+            value = loadPacked(asset, packed, gc);
+            bytesRead = packed.getLength(); // Halaman mapping yang disentuh
+            if (value instanceof BufferedImage) {
+                bytesDecoded = imageBytes((BufferedImage) value);
+            }
+        } else if (url == null) {
+            System.err.println(asset.getLabel() + " not found: " + asset.getPath());
+        } else if (asset.getKind() == AssetManifest.Kind.MUSIC) {
+            value = checkMusic(asset, url); // Di-stream saat diputar; tidak ada yang di-decode di sini
+        } else {
+            try (InputStream in = url.openStream()) {
+                byte[] data = in.readAllBytes();
+                bytesRead = data.length;
+                if (asset.isImage()) {
+                    BufferedImage image = loadImage(asset, data, gc);
+                    if (image != null) {
+                        bytesDecoded = imageBytes(image);
+                    }
+                    value = image;
                 } else {
-                    System.err.println("Bonus effect sprite (tempEffect) is null. File might be corrupted or empty.");
+                    ShortBuffer samples = decodeSoundEffect(asset, data);
+                    bytesDecoded = samples.limit() * 2L;
+                    value = samples;
                 }
-            } else {
-                System.err.println("Bonus effect sprite not found: /assets/images/efek_bonus.png");
+            } catch (IOException | UnsupportedAudioFileException
+                    | IllegalArgumentException e) { // IllegalArgumentException: format tidak bisa dikonversi
+                System.err.println("Error loading " + asset.getLabel() + ": " + e.getMessage());
             }
+        }
+        synchronized (AssetLoader.class) {
+            int i = asset.ordinal();
+            loadNanos[i] = System.nanoTime() - start;
+            loadBytes[i] = bytesRead;
+            decodedBytes[i] = bytesDecoded;
+            loadedFromArchive[i] = packed != null;
+        }
+        if (value != null) {
+            System.out.printf("%s loaded (%d bytes, %.1f ms).%n", asset.getLabel(), bytesRead, (System.nanoTime() - start) / 1e6);
+        }
+        return value;
+    }
 
-            // Load Basket Image (kapal.png)
-            URL basketImageUrl = AssetLoader.class.getResource("/assets/images/kapal.png");
-            if (basketImageUrl != null) {
-                BufferedImage tempBasket = ImageIO.read(basketImageUrl);
-                if (tempBasket != null) {
-                    basketImage = gc.createCompatibleImage(tempBasket.getWidth(), tempBasket.getHeight(), Transparency.TRANSLUCENT);
-                    basketImage.getGraphics().drawImage(tempBasket, 0, 0, null);
-                    basketImage.getGraphics().dispose();
-                    System.out.println("Basket image loaded.");
-                } else {
-                    System.err.println("Basket image (tempBasket) is null. File might be corrupted or empty.");
-                }
-            } else {
-                System.err.println("Basket image not found: /assets/images/kapal.png");
+    // Membuka archive aset jika ada; null jika tidak ada atau tidak bisa dibaca (aset dimuat dari file lepas)
+    private static AssetArchive openArchive() {
+        Path file = Paths.get(ARCHIVE_PATH);
+        if (!Files.isRegularFile(file)) {
+            System.out.println("No asset archive at " + file.toAbsolutePath() + "; decoding asset files.");
+            return null;
+        }
+        try {
+            AssetArchive opened = AssetArchive.open(file);
+            System.out.println("Using asset archive " + file + " (" + opened.size() + " assets).");
+            return opened;
+        } catch (IOException e) {
+            System.err.println("Cannot open asset archive " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Entri archive untuk aset ini, atau null jika tidak ada archive, aset tidak di-pack, atau file sumbernya
+    // sudah berubah sejak AssetPacker dijalankan (aset itu dimuat dari file lepasnya)
+    private static AssetArchive.Entry packedEntry(AssetManifest asset) {
+        return packedEntries.computeIfAbsent(asset, a -> Optional.ofNullable(checkPackedEntry(a))).orElse(null);
+    }
+
+    private static AssetArchive.Entry checkPackedEntry(AssetManifest asset) {
+        AssetArchive.Entry entry = archive == null ? null : archive.get(asset);
+        if (entry == null) {
+            return null;
+        }
+        URL source = AssetLoader.class.getResource(asset.getPath());
+        if (source == null) {
+            return entry; // Hanya archive yang dikirim; tidak ada file sumber untuk dibandingkan
+        }
+        try {
+            if (AssetArchive.isUpToDate(entry, source)) {
+                return entry;
             }
+            System.err.println(asset.getLabel() + " changed since " + archive.getFile()
+                    + " was packed; loading " + asset.getPath() + " instead (rerun AssetPacker).");
+        } catch (IOException e) {
+            System.err.println("Cannot check " + asset.getLabel() + " against asset archive: " + e.getMessage());
+        }
+        return null;
+    }
 
+    // Aset dari archive: piksel disalin ke gambar, PCM dipakai langsung dari mapping
+    private static Object loadPacked(AssetManifest asset, AssetArchive.Entry entry, GraphicsConfiguration gc) {
+        switch (asset.getKind()) {
+            case OPAQUE_IMAGE:
+            case TRANSLUCENT_IMAGE:
+                BufferedImage image = archive.createImage(entry, gc);
+                publish(asset, image);
+                return image;
+            case SOUND:
+                ShortBuffer samples = archive.pcmSamples(entry);
+                soundEffects.load(asset, samples);
+                return samples;
+            default:
+                return entry; // Musik sudah didaftarkan ke musicPlayer di startLoading
+        }
+    }
 
-            // Load Sound Assets dan mendapatkan FloatControl
-            // Background Music (background_music.wav)
-            URL bgMusicUrl = AssetLoader.class.getResource("/assets/sounds/background_music.wav");
-            if (bgMusicUrl != null) {
-                try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(bgMusicUrl)) {
-                    backgroundMusicClip = AudioSystem.getClip();
-                    backgroundMusicClip.open(audioStream);
-                    if (backgroundMusicClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                        backgroundMusicGainControl = (FloatControl) backgroundMusicClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    } else { // NEW: Handle case where control is not supported
-                        System.err.println("Master Gain control not supported for background music.");
-                    }
-                    System.out.println("Background music loaded.");
-                } catch (UnsupportedAudioFileException | LineUnavailableException e) {
-                    System.err.println("Error loading background music: " + e.getMessage());
-                }
-            } else {
-                System.err.println("Background music not found: /assets/sounds/background_music.wav");
+    // Gambar dari cache disk jika ada; jika tidak, di-decode lalu disimpan ke cache untuk start berikutnya
+    private static BufferedImage loadImage(AssetManifest asset, byte[] data, GraphicsConfiguration gc) throws IOException {
+        if (imageCache == null) {
+            return decodeImage(asset, data, gc);
+        }
+        String sourceHash = ImageDiskCache.hashSource(data);
+        BufferedImage image = imageCache.read(asset, sourceHash, gc, transparencyOf(asset));
+        if (image != null) {
+            synchronized (AssetLoader.class) {
+                loadedFromImageCache[asset.ordinal()] = true;
             }
+            publish(asset, image);
+            return image;
+        }
+        long start = System.nanoTime();
+        image = decodeImage(asset, data, gc);
+        if (image != null) {
+            imageCache.write(asset, sourceHash, image, System.nanoTime() - start); // Gambar sudah di-publish sebelum ditulis
+        }
+        return image;
+    }
 
-            // Bonus Music (musicbonus.wav)
-            URL bonusMusicUrl = AssetLoader.class.getResource("/assets/sounds/music_bonus.wav");
-            if (bonusMusicUrl != null) {
-                try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(bonusMusicUrl)) {
-                    bonusMusicClip = AudioSystem.getClip();
-                    bonusMusicClip.open(audioStream);
-                    if (bonusMusicClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                        bonusMusicGainControl = (FloatControl) bonusMusicClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    } else { // NEW
-                        System.err.println("Master Gain control not supported for bonus music.");
-                    }
-                    System.out.println("Bonus music loaded.");
-                } catch (UnsupportedAudioFileException | LineUnavailableException e) {
-                    System.err.println("Error loading bonus music: " + e.getMessage());
-                }
-            } else {
-                System.err.println("Bonus music not found: /assets/sounds/music_bonus.wav");
+    private static int transparencyOf(AssetManifest asset) {
+        return asset.getKind() == AssetManifest.Kind.OPAQUE_IMAGE ? Transparency.OPAQUE : Transparency.TRANSLUCENT;
+    }
+
+    /**
+     * Membuat gambar kosong dengan format yang paling cepat digambar di layar tujuan.
+     * @param gc Konfigurasi layar tujuan, atau null (tanpa layar: INT_RGB atau INT_ARGB).
+     */
+    static BufferedImage createCompatibleImage(GraphicsConfiguration gc, int width, int height, int transparency) {
+        if (gc == null) {
+            return new BufferedImage(width, height,
+                    transparency == Transparency.OPAQUE ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB); // Tanpa layar.
+        }
+        return gc.createCompatibleImage(width, height, transparency);
+    }
+
+    // Decode gambar lalu salin ke compatible image supaya digambar dengan cepat di layar tujuan
+    private static BufferedImage decodeImage(AssetManifest asset, byte[] data, GraphicsConfiguration gc) throws IOException {
+        BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(data));
+        if (decoded == null) {
+            System.err.println(asset.getLabel() + " is null. File might be corrupted or empty.");
+            return null;
+        }
+        BufferedImage image = createCompatibleImage(gc, decoded.getWidth(), decoded.getHeight(), transparencyOf(asset));
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.drawImage(decoded, 0, 0, null);
+        } finally {
+            g2d.dispose();
+        }
+        publish(asset, image);
+        return image;
+    }
+
+    // Memeriksa bahwa file musik bisa dibaca dan dikonversi ke format keluaran MusicPlayer
+    private static AudioFileFormat checkMusic(AssetManifest asset, URL url) {
+        try {
+            AudioFileFormat format = AudioSystem.getAudioFileFormat(url);
+            if (!format.getFormat().matches(MusicPlayer.OUTPUT_FORMAT)
+                    && !AudioSystem.isConversionSupported(MusicPlayer.OUTPUT_FORMAT, format.getFormat())) {
+                System.err.println("Error loading " + asset.getLabel() + ": unsupported format " + format.getFormat());
+                return null;
             }
+            return format;
+        } catch (IOException | UnsupportedAudioFileException e) {
+            System.err.println("Error loading " + asset.getLabel() + ": " + e.getMessage());
+            return null;
+        }
+    }
 
-            // Bomb Effect Sound (musicefekbom.wav)
-            URL bombEffectUrl = AssetLoader.class.getResource("/assets/sounds/music_efek_bom.wav");
-            if (bombEffectUrl != null) {
-                try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(bombEffectUrl)) {
-                    bombEffectClip = AudioSystem.getClip();
-                    bombEffectClip.open(audioStream);
-                    if (bombEffectClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                        bombEffectGainControl = (FloatControl) bombEffectClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    } else { // NEW
-                        System.err.println("Master Gain control not supported for bomb effect sound.");
-                    }
-                    System.out.println("Bomb effect sound loaded.");
-                } catch (UnsupportedAudioFileException | LineUnavailableException e) {
-                    System.err.println("Error loading bomb effect sound: " + e.getMessage());
+    // Men-decode efek suara ke PCM lalu mendaftarkannya ke soundEffects
+    private static ShortBuffer decodeSoundEffect(AssetManifest asset, byte[] data)
+            throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(new ByteArrayInputStream(data))) {
+            ShortBuffer samples = SoundEffectMixer.decode(audioStream);
+            soundEffects.load(asset, samples);
+            return samples;
+        }
+    }
+
+    // Menyimpan gambar yang sudah dimuat ke field statisnya
+    private static void publish(AssetManifest asset, BufferedImage image) {
+        switch (asset) {
+            case PLAYER_ASTRONAUT: playerAstronautSprite = image; break;
+            case BACKGROUND: backgroundImage = image; break;
+            case MAIN_MENU_BACKGROUND: mainMenuBackgroundImage = image; break;
+            case SKILL_BALL: skillBallImage = image; break;
+            case BOMB_ALIEN: bombAlienImage = image; break;
+            case BONUS_STAR: bonusStarImage = image; break;
+            case LASSO_CHAIN: lassoChainSegmentImage = image; break;
+            case LASSO_HOOK: lassoHookImage = image; break;
+            case BONUS_EFFECT: bonusEffectSprite = image; break;
+            case BASKET: basketImage = image; break;
+            default: throw new IllegalArgumentException("Not an image asset: " + asset);
+        }
+    }
+
+    /**
+     * Mengembalikan gambar yang sudah diskalakan ke ukuran tujuan, sehingga bisa digambar 1:1 tanpa
+     * penskalaan di setiap frame. Gambar hasil skala dibuat sekali (dengan interpolasi bilinear) sebagai
+     * compatible image untuk layar tujuan, lalu disimpan di cache LRU yang ukurannya dibatasi.
+     * Jika konfigurasi layar berubah (misalnya jendela dipindah ke monitor lain), cache dikosongkan.
+     * Aman dipanggil dari thread mana pun.
+     *
+     * @param source Gambar asli dari AssetLoader.
+     * @param width Lebar tujuan dalam piksel.
+     * @param height Tinggi tujuan dalam piksel.
+     * @param gc Konfigurasi layar tujuan (misalnya Graphics2D.getDeviceConfiguration()), boleh null.
+     * @return Gambar terskala, atau gambar asli jika ukurannya sudah sama atau ukuran tujuan tidak valid.
+     */
+    public static BufferedImage getScaledImage(BufferedImage source, int width, int height, GraphicsConfiguration gc) {
+        if (source == null || width <= 0 || height <= 0
+                || (source.getWidth() == width && source.getHeight() == height)) {
+            return source;
+        }
+        synchronized (scaledImages) {
+            if (gc != null && gc != scaledImagesConfig) {
+                if (scaledImagesConfig != null) {
+                    clearScaledImages();
                 }
-            } else {
-                System.err.println("Bomb effect sound not found: /assets/sounds/music_efek_bom.wav");
+                scaledImagesConfig = gc;
             }
 
-            // Main Menu Music (main_music.wav)
-            URL mainMenuMusicUrl = AssetLoader.class.getResource("/assets/sounds/main_music.wav");
-            if (mainMenuMusicUrl != null) {
-                try (AudioInputStream audioStream = AudioSystem.getAudioInputStream(mainMenuMusicUrl)) {
-                    mainMenuMusicClip = AudioSystem.getClip();
-                    mainMenuMusicClip.open(audioStream);
-                    if (mainMenuMusicClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
-                        mainMenuMusicGainControl = (FloatControl) mainMenuMusicClip.getControl(FloatControl.Type.MASTER_GAIN);
-                    } else { // NEW
-                        System.err.println("Master Gain control not supported for main menu music.");
-                    }
-                    System.out.println("Main menu music loaded.");
-                } catch (UnsupportedAudioFileException | LineUnavailableException e) {
-                    System.err.println("Error loading main menu music: " + e.getMessage());
-                }
-            } else {
-                System.err.println("Main menu music not found: /assets/sounds/main_music.wav");
+            scaledLookupKey.source = source;
+            scaledLookupKey.width = width;
+            scaledLookupKey.height = height;
+            BufferedImage scaled = scaledImages.get(scaledLookupKey);
+            scaledLookupKey.source = null; // Jangan menahan referensi ke gambar sumber.
+            if (scaled != null) {
+                scaledHitCount++;
+                return scaled;
             }
 
+            scaledMissCount++;
+            scaled = createScaledImage(source, width, height, scaledImagesConfig);
+            scaledImages.put(new ScaledImageKey(source, width, height), scaled);
+            scaledImagesBytes += imageBytes(scaled);
+            evictScaledImages();
+            return scaled;
+        }
+    }
+
+    /**
+     * Mengosongkan cache gambar terskala. Dipanggil saat ukuran panel berubah, karena gambar
+     * yang diskalakan ke ukuran panel lama (misalnya latar belakang) tidak akan dipakai lagi.
+     */
+    public static void invalidateScaledImages() {
+        synchronized (scaledImages) {
+            clearScaledImages();
+        }
+    }
+
+    // Statistik cache untuk log/debug
+    public static String getScaledImageCacheStats() {
+        synchronized (scaledImages) {
+            return String.format("ScaledImageCache[entries=%d, bytes=%d, hits=%d, misses=%d, evictions=%d]",
+                    scaledImages.size(), scaledImagesBytes, scaledHitCount, scaledMissCount, scaledEvictionCount);
+        }
+    }
 
-        } catch (IOException e) {
-            System.err.println("Error loading assets: " + e.getMessage());
-            e.printStackTrace();
+    // Dipanggil sambil memegang lock scaledImages
+    private static void clearScaledImages() {
+        for (BufferedImage image : scaledImages.values()) {
+            image.flush();
         }
+        scaledImages.clear();
+        scaledImagesBytes = 0;
     }
 
-    // Metode utilitas untuk mengatur volume klip
-    public static void setClipVolume(FloatControl gainControl, float volume) {
-        if (gainControl != null) {
-            float minDb = gainControl.getMinimum();
-            float maxDb = gainControl.getMaximum();
-            
-            if (volume <= 0.0f) { 
-                gainControl.setValue(minDb);
-            } else {
-                float dB = (float) (Math.log10(volume) * 20.0);
-                dB = Math.max(minDb, Math.min(dB, maxDb));
-                gainControl.setValue(dB);
+    // Membuang entri yang paling lama tidak dipakai sampai cache kembali di bawah batas; dipanggil sambil memegang lock
+    private static void evictScaledImages() {
+        Iterator<Map.Entry<ScaledImageKey, BufferedImage>> it = scaledImages.entrySet().iterator();
+        // Entri terbaru (yang baru saja dimasukkan) tidak pernah dibuang, walaupun ukurannya melebihi batas.
+        while (scaledImages.size() > 1
+                && (scaledImages.size() > SCALED_CACHE_MAX_ENTRIES || scaledImagesBytes > SCALED_CACHE_MAX_BYTES)
+                && it.hasNext()) {
+            BufferedImage evicted = it.next().getValue();
+            it.remove();
+            scaledImagesBytes -= imageBytes(evicted);
+            evicted.flush();
+            scaledEvictionCount++;
+        }
+    }
+
+    private static long imageBytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    // Menggambar ulang sumber ke compatible image baru dengan ukuran tujuan
+    static BufferedImage createScaledImage(BufferedImage source, int width, int height, GraphicsConfiguration gc) {
+        BufferedImage scaled;
+        if (gc == null && GraphicsEnvironment.isHeadless()) {
+            scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB); // Tanpa layar (misalnya benchmark).
+        } else {
+            if (gc == null) {
+                gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
             }
+            scaled = gc.createCompatibleImage(width, height, source.getTransparency());
+        }
+        Graphics2D g2d = scaled.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g2d.dispose();
         }
+        return scaled;
     }
-}
\ No newline at end of file
+}
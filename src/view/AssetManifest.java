@@ -0,0 +1,49 @@
+/**
+ * Daftar semua aset game (gambar dan suara): lokasi resource, jenisnya, dan nama untuk log.
+ * AssetLoader memuat setiap entri secara paralel; menambah aset cukup dengan menambah entri di sini
+ * dan tempat penyimpanannya di AssetLoader.publish.
+ */
+public enum AssetManifest {
+    PLAYER_ASTRONAUT("/assets/images/astronot.png", Kind.TRANSLUCENT_IMAGE, "Player astronaut sprite"),
+    BACKGROUND("/assets/images/background.jpg", Kind.OPAQUE_IMAGE, "Background image"),
+    MAIN_MENU_BACKGROUND("/assets/images/main_background.jpg", Kind.OPAQUE_IMAGE, "Main menu background image"),
+    SKILL_BALL("/assets/images/bintang_point.png", Kind.TRANSLUCENT_IMAGE, "Skill ball (star) image"),
+    BOMB_ALIEN("/assets/images/bom_alien.png", Kind.TRANSLUCENT_IMAGE, "Bomb alien image"),
+    BONUS_STAR("/assets/images/bintang_bonus.png", Kind.TRANSLUCENT_IMAGE, "Bonus star image"),
+    LASSO_CHAIN("/assets/images/tali_laso.png", Kind.TRANSLUCENT_IMAGE, "Lasso chain segment image"),
+    LASSO_HOOK("/assets/images/kail.png", Kind.TRANSLUCENT_IMAGE, "Lasso hook image"),
+    BONUS_EFFECT("/assets/images/efek_bonus.png", Kind.TRANSLUCENT_IMAGE, "Bonus effect sprite"),
+    BASKET("/assets/images/kapal.png", Kind.TRANSLUCENT_IMAGE, "Basket image"),
+    BACKGROUND_MUSIC("/assets/sounds/background_music.wav", Kind.MUSIC, "Background music"),
+    BONUS_MUSIC("/assets/sounds/music_bonus.wav", Kind.MUSIC, "Bonus music"),
+    BOMB_EFFECT("/assets/sounds/music_efek_bom.wav", Kind.SOUND, "Bomb effect sound"),
+    MAIN_MENU_MUSIC("/assets/sounds/main_music.wav", Kind.MUSIC, "Main menu music");
+
+    /**
+     * Jenis aset menentukan cara decode-nya.
+     */
+    public enum Kind {
+        OPAQUE_IMAGE, // Dikonversi ke compatible image tanpa alpha
+        TRANSLUCENT_IMAGE, // Dikonversi ke compatible image dengan alpha
+        SOUND, // Efek pendek; di-decode penuh ke PCM dan dicampur oleh SoundEffectMixer
+        MUSIC // Lagu panjang yang diulang; di-stream oleh MusicPlayer, saat startup hanya format file-nya yang diperiksa
+    }
+
+    private final String path;
+    private final Kind kind;
+    private final String label;
+
+    AssetManifest(String path, Kind kind, String label) {
+        this.path = path;
+        this.kind = kind;
+        this.label = label;
+    }
+
+    public String getPath() { return path; }
+    public Kind getKind() { return kind; }
+    public String getLabel() { return label; }
+
+    public boolean isImage() {
+        return kind == Kind.OPAQUE_IMAGE || kind == Kind.TRANSLUCENT_IMAGE;
+    }
+}
@@ -0,0 +1,155 @@
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * GameLoop menjalankan simulasi game di thread sendiri dengan langkah waktu tetap (fixed timestep).
+ * Waktu nyata yang berlalu dikumpulkan di accumulator, lalu simulasi dijalankan sebanyak langkah
+ * yang sudah jatuh tempo. Setelah itu satu frame digambar dengan nilai alpha (0..1), yaitu posisi
+ * waktu di antara dua state simulasi terakhir, sehingga rendering bisa menginterpolasi posisi.
+ * Jika thread tertinggal jauh (misalnya GC atau jendela di-drag), jumlah langkah susulan dibatasi
+ * dan sisanya dibuang supaya game tidak "mengejar" tanpa henti.
+ */
+public class GameLoop {
+    /**
+     * Callback yang dipanggil dari thread game loop.
+     */
+    public interface Listener {
+        // Satu langkah simulasi dengan durasi tetap
+        void tick();
+
+        // Menggambar satu frame; alpha = posisi waktu di antara state sebelumnya (0) dan state terbaru (1)
+        void render(double alpha);
+    }
+
+    // Selisih waktu maksimum yang diperhitungkan dalam satu iterasi (misalnya setelah thread lama tertahan)
+    private static final long MAX_FRAME_NANOS = 250_000_000L;
+
+    // Batas langkah simulasi susulan per frame; sisanya dibuang
+    private static final int MAX_CATCH_UP_TICKS = 5;
+
+    // Sisa waktu tunggu yang dilewatkan dengan spin, karena parkNanos tidak presisi di bawah ~1 ms
+    private static final long SPIN_THRESHOLD_NANOS = 1_000_000L;
+
+    private final long tickNanos;
+    private final long frameNanos; // 0 = rendering tanpa batas frame rate
+    private final Listener listener;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile Thread thread;
+
+    // Metrik loop
+    private volatile long tickCount = 0;
+    private volatile long frameCount = 0;
+    private volatile long droppedTickCount = 0;
+
+    /**
+     * @param ticksPerSecond Jumlah langkah simulasi per detik (misalnya 60).
+     * @param maxFramesPerSecond Batas frame per detik untuk rendering, atau 0 untuk tanpa batas.
+     * @param listener Callback simulasi dan rendering.
+     */
+    public GameLoop(int ticksPerSecond, int maxFramesPerSecond, Listener listener) {
+        this.tickNanos = 1_000_000_000L / ticksPerSecond;
+        this.frameNanos = maxFramesPerSecond > 0 ? 1_000_000_000L / maxFramesPerSecond : 0;
+        this.listener = listener;
+    }
+
+    // Memulai thread game loop baru; tidak melakukan apa-apa jika sudah berjalan
+    public void start() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        Thread loopThread = new Thread(this::run, "game-loop");
+        loopThread.setDaemon(true);
+        thread = loopThread;
+        loopThread.start();
+    }
+
+    /**
+     * Menghentikan game loop. Jika dipanggil dari thread lain, menunggu sampai iterasi terakhir selesai.
+     * Jangan dipanggil sambil memegang lock yang juga dipakai di tick() atau render().
+     * @return true jika loop sebelumnya berjalan (pemanggil inilah yang menghentikannya).
+     */
+    public boolean stop() {
+        if (!running.compareAndSet(true, false)) {
+            return false;
+        }
+        Thread loopThread = thread;
+        if (loopThread != null && loopThread != Thread.currentThread()) {
+            LockSupport.unpark(loopThread);
+            try {
+                loopThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    // True jika dipanggil dari thread game loop
+    public boolean isLoopThread() {
+        return Thread.currentThread() == thread;
+    }
+
+    public long getTickCount() { return tickCount; }
+    public long getFrameCount() { return frameCount; }
+    public long getDroppedTickCount() { return droppedTickCount; }
+
+    private void run() {
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (running.get()) {
+            long frameStart = System.nanoTime();
+            accumulator += Math.min(frameStart - previous, MAX_FRAME_NANOS);
+            previous = frameStart;
+
+            int ticks = 0;
+            while (accumulator >= tickNanos && ticks < MAX_CATCH_UP_TICKS && running.get()) {
+                try {
+                    listener.tick();
+                } catch (RuntimeException e) {
+                    e.printStackTrace(); // Sama seperti Timer: satu tick yang gagal tidak menghentikan game
+                }
+                accumulator -= tickNanos;
+                ticks++;
+                tickCount++;
+            }
+            if (accumulator >= tickNanos) {
+                droppedTickCount += accumulator / tickNanos;
+                accumulator %= tickNanos;
+            }
+            if (!running.get()) {
+                break;
+            }
+
+            try {
+                listener.render((double) accumulator / tickNanos);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            frameCount++;
+
+            // Frame pacing: tunggu sampai jadwal frame berikutnya (tanpa batas frame rate: hanya yield)
+            waitUntil(frameStart + frameNanos);
+        }
+    }
+
+    // Tidur sampai waktu tertentu: park untuk sebagian besar waktu, lalu spin untuk sisa yang pendek
+    private void waitUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            Thread.yield();
+            return;
+        }
+        if (remaining > SPIN_THRESHOLD_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+        }
+        while (System.nanoTime() < deadline && running.get()) {
+            Thread.onSpinWait();
+        }
+    }
+}
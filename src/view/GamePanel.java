@@ -1,19 +1,18 @@
 import javax.swing.*;
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.geom.AffineTransform;
-import java.awt.geom.Point2D;
-import java.util.Random;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.awt.image.BufferStrategy;
 import java.awt.image.BufferedImage;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.FloatControl; // NEW: Penting untuk kontrol volume
 
 
 /**
@@ -22,29 +21,12 @@ import javax.sound.sampled.FloatControl; // NEW: Penting untuk kontrol volume
  * Kelas ini bertindak sebagai "View" dalam arsitektur Model-View-ViewModel (MVVM)
  * yang berinteraksi dengan GameViewModel untuk logika game dan MainFrame untuk navigasi.
  */
-public class GamePanel extends JPanel implements ActionListener {
+public class GamePanel extends JPanel implements GameHost {
     private GameViewModel gameViewModel; // Referensi ke ViewModel yang mengelola state dan logika game.
     private MainFrame mainFrame; // Referensi ke frame utama aplikasi untuk navigasi antar panel.
-    private Timer gameLoop; // Timer untuk mengontrol kecepatan update game (game loop).
-    private Random random; // Objek Random, meskipun tidak secara eksplisit digunakan di GamePanel ini, mungkin di ViewModel.
+    private GameLoop gameLoop; // Game loop dengan langkah simulasi tetap, berjalan di thread sendiri (bukan di EDT).
 
-    // Variabel terkait animasi lasso (tali penangkap)
-    private boolean isLassoActive = false; // Menunjukkan apakah lasso sedang dalam proses penembakan/penarikan.
-    private int currentLassoDrawLength = 0; // Panjang lasso yang sedang digambar saat ini untuk animasi.
-    private int targetLassoLength = 0;      // Panjang maksimal yang harus dicapai lasso (jarak dari pemain ke klik mouse).
-    private int lassoDirection = 1;         // Arah pergerakan lasso: 1 untuk memanjang, -1 untuk menarik kembali.
-    private final int LASSO_ANIMATION_SPEED = 10; // Kecepatan pergerakan lasso per frame.
-
-    // Koordinat target klik mouse untuk arah tembakan lasso.
-    private int mouseTargetX;
-    private int mouseTargetY;
-
-    // Variabel untuk animasi bola yang sedang ditarik oleh lasso.
-    private Balls animatingPulledBall = null; // Bola yang saat ini sedang ditarik kembali oleh lasso.
-
-    // Variabel untuk bola yang sedang dipegang oleh pemain.
-    private Balls heldBall = null; // Bola yang saat ini dipegang oleh pemain setelah ditarik.
-    private double heldBallOffsetAngle = 0; // Sudut offset bola yang dipegang relatif terhadap pemain untuk animasi melingkar.
+    // State lasso, bola yang ditarik, dan bola yang dipegang ada di GameViewModel; panel hanya menggambarnya.
 
     // Konstanta untuk tipe pesan JOptionPane, digunakan untuk dialog pop-up.
     public static final int MESSAGE_TYPE_PLAIN = JOptionPane.PLAIN_MESSAGE;
@@ -61,13 +43,13 @@ public class GamePanel extends JPanel implements ActionListener {
     private final int BASKET_DISPLAY_HEIGHT = 120;
 
     // --- VARIABEL ANIMASI PEMAIN ---
-    private HashMap<String, ArrayList<Rectangle>> playerAnimations; // Map untuk menyimpan frame animasi per status (misal "idle_down").
-    private String currentPlayerAnimation = "idle_down"; // Status animasi pemain yang sedang aktif (misal: idle_down, walk_left).
+    private SpriteSheet playerSprites; // Frame animasi pemain yang sudah dipotong dan diskalakan, diindeks dengan PlayerAnimation.ordinal().
+    private PlayerAnimation currentPlayerAnimation = PlayerAnimation.IDLE_DOWN; // Status animasi pemain yang sedang aktif.
     private int currentAnimationFrame = 0; // Indeks frame saat ini dalam animasi yang sedang aktif.
     private int animationTick = 0; // Counter untuk mengontrol kecepatan perubahan frame animasi.
     private final int ANIMATION_SPEED_FACTOR = 10; // Faktor yang menentukan seberapa sering frame animasi berubah (lebih rendah = lebih cepat).
     private boolean isPlayerMoving = false; // Status apakah pemain sedang bergerak.
-    private String lastPlayerDirection = "down"; // Arah terakhir pemain bergerak (untuk menentukan animasi idle).
+    private PlayerAnimation lastPlayerDirection = PlayerAnimation.WALK_DOWN; // Animasi jalan terakhir (arahnya menentukan animasi idle).
 
     // Variabel animasi efek bonus di sekitar pemain.
     private int bonusEffectFrame = 0; // Frame animasi efek bonus saat ini.
@@ -77,8 +59,60 @@ public class GamePanel extends JPanel implements ActionListener {
     private final int BONUS_EFFECT_ANIMATION_SPEED = 5; // Kecepatan perubahan frame animasi efek bonus.
 
     private final int BONUS_EFFECT_DISPLAY_SIZE = 180; // Ukuran tampilan efek bonus di layar.
+    private SpriteSheet bonusEffectSprites; // Frame efek bonus yang sudah dipotong dan diskalakan ke BONUS_EFFECT_DISPLAY_SIZE.
     private final Font BONUS_TIMER_FONT = new Font("Arial", Font.BOLD, 24); // Font untuk menampilkan sisa waktu bonus.
 
+    // --- OBJEK RENDERING YANG DIPAKAI ULANG ---
+    // Dibuat sekali supaya menggambar satu frame tidak mengalokasikan Font, Stroke, Color, atau String baru.
+    private static final Font BALL_VALUE_FONT = new Font("Arial", Font.BOLD, 10); // Font angka nilai bola.
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 20); // Font skor dan jumlah bintang.
+    private static final BasicStroke LASSO_FALLBACK_STROKE = new BasicStroke(2); // Garis pengganti rantai lasso.
+    private static final BasicStroke DEFAULT_STROKE = new BasicStroke(1);
+    private static final Color BONUS_EFFECT_FALLBACK_COLOR = new Color(0, 255, 0, 100); // Hijau transparan.
+    private static final Color BASKET_FALLBACK_COLOR = new Color(139, 69, 19); // Coklat.
+    private static final int BALL_VALUE_BASELINE_OFFSET = 4; // Jarak baseline angka dari tengah bola.
+
+    // Angka nilai bola dan teks HUD, disusun dari glyph angka yang sudah dirender (lihat TextSprite).
+    private final TextSprite ballValueText = new TextSprite("", "", BALL_VALUE_FONT, Color.BLACK);
+    private final TextSprite scoreText = new TextSprite("Score: ", "", HUD_FONT, Color.WHITE);
+    private final TextSprite collectedText = new TextSprite("Count Star: ", "", HUD_FONT, Color.WHITE);
+    private final TextSprite bonusTimerText = new TextSprite("", " s", BONUS_TIMER_FONT, Color.YELLOW);
+    // Segmen rantai dan kail lasso yang sudah dirotasi, supaya tidak perlu menggambar dengan Graphics2D.rotate().
+    private static final int LASSO_ROTATION_STEPS = 128;
+    private RotatedSprite lassoChainSprite;
+    private RotatedSprite lassoHookSprite;
+    // Konfigurasi layar tempat gambar bola sudah diskalakan ke semua ukuran bola (null = belum, atau cache dikosongkan).
+    private GraphicsConfiguration ballImagesConfig;
+
+    // --- GAME LOOP ---
+    private static final int TICKS_PER_SECOND = 60; // Langkah simulasi per detik; semua durasi dalam tick mengacu ke nilai ini.
+    // Batas frame rendering per detik (0 = tanpa batas), bisa diubah lewat -Dskillballs.render.fps.
+    private static final int MAX_RENDER_FPS = Integer.getInteger("skillballs.render.fps", 120);
+
+    // Lock untuk seluruh state game. Dipegang oleh tick simulasi (thread game loop),
+    // oleh paintComponent, dan oleh handler input (EDT), sehingga tidak ada yang membaca state setengah jadi.
+    private final Object stateLock = new Object();
+
+    private volatile double renderAlpha = 1.0; // Posisi waktu frame di antara dua tick terakhir (untuk interpolasi).
+
+    // Mode rendering: "active" (default) menggambar langsung ke Canvas dengan BufferStrategy dari thread game loop;
+    // "passive" memakai repaint() dan paintComponent seperti komponen Swing biasa. Diatur lewat -Dskillballs.render.mode.
+    private static final boolean ACTIVE_RENDERING_REQUESTED =
+            !"passive".equalsIgnoreCase(System.getProperty("skillballs.render.mode", "active"));
+    private volatile boolean activeRendering = false; // True selama Canvas aktif dipakai.
+    private Canvas canvas; // Permukaan gambar untuk rendering aktif (null pada mode pasif).
+
+    // Input gerak (keyboard) dan tembakan lasso (mouse), diproses pada tick berikutnya sesuai urutan masuknya,
+    // supaya perubahan state hanya terjadi di dalam tick dan bisa direkam per tick. Isi: {kode tombol, 0, 0}
+    // untuk gerak, atau {INPUT_LASSO, x, y} untuk tembakan lasso.
+    private final ArrayDeque<int[]> pendingInputs = new ArrayDeque<>();
+    private static final int INPUT_LASSO = -1;
+
+    // Rekaman input setiap sesi (untuk replay dengan ReplayRunner). Diatur lewat -Dskillballs.replay.record dan -Dskillballs.replay.dir.
+    private static final boolean RECORD_REPLAYS =
+            !"false".equalsIgnoreCase(System.getProperty("skillballs.replay.record", "true"));
+    private static final String REPLAY_DIR = System.getProperty("skillballs.replay.dir", "replays");
+
 
     /**
      * Konstruktor untuk GamePanel.
@@ -93,12 +127,52 @@ public class GamePanel extends JPanel implements ActionListener {
         setPreferredSize(new Dimension(1200, 700)); // Mengatur ukuran preferred dari panel.
         setFocusable(true); // Memungkinkan panel untuk menerima fokus keyboard.
         addKeyListener(new GameKeyListener()); // Menambahkan KeyListener untuk input keyboard.
-        addMouseListener(new GameMouseListener()); // Menambahkan MouseListener untuk input mouse.
+        GameMouseListener mouseListener = new GameMouseListener();
+        addMouseListener(mouseListener); // Menambahkan MouseListener untuk input mouse.
+        // Gambar yang diskalakan ke ukuran panel lama (latar belakang) tidak berlaku lagi setelah resize.
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                synchronized (stateLock) {
+                    AssetLoader.invalidateScaledImages();
+                    ballImagesConfig = null; // Gambar bola ikut terhapus dari cache; skalakan ulang di frame berikutnya.
+                }
+            }
+        });
+
+        if (ACTIVE_RENDERING_REQUESTED) {
+            // Canvas menutupi seluruh panel. Canvas tidak menerima fokus, jadi input keyboard tetap ke panel ini;
+            // klik mouse diterima Canvas dengan koordinat yang sama karena posisinya di (0, 0).
+            canvas = new Canvas();
+            canvas.setIgnoreRepaint(true); // Tidak digambar oleh sistem; hanya oleh game loop.
+            canvas.setFocusable(false);
+            canvas.addMouseListener(mouseListener);
+            setLayout(new BorderLayout());
+            add(canvas, BorderLayout.CENTER);
+            activeRendering = true;
+        }
 
-        random = new Random(); // Inisialisasi objek Random.
-        gameLoop = new Timer(15, this); // Menginisialisasi Timer untuk game loop, memicu actionPerformed setiap 15ms.
+        // Menginisialisasi game loop: tick() menjalankan simulasi, render() meminta frame baru digambar.
+        gameLoop = new GameLoop(TICKS_PER_SECOND, MAX_RENDER_FPS, new GameLoop.Listener() {
+            @Override
+            public void tick() {
+                GamePanel.this.tick();
+            }
+
+            @Override
+            public void render(double alpha) {
+                if (activeRendering) {
+                    renderActive(alpha); // Gambar dan tampilkan frame langsung dari thread ini.
+                } else {
+                    renderAlpha = alpha;
+                    repaint(); // Digabung oleh RepaintManager; paintComponent dijalankan di EDT.
+                }
+            }
+        });
 
         loadPlayerAnimations(); // Memuat semua frame animasi pemain dari sprite sheet.
+        lassoChainSprite = new RotatedSprite(AssetLoader.lassoChainSegmentImage, CHAIN_SEGMENT_DISPLAY_SIZE, LASSO_ROTATION_STEPS);
+        lassoHookSprite = new RotatedSprite(AssetLoader.lassoHookImage, HOOK_DISPLAY_SIZE, LASSO_ROTATION_STEPS);
         // playBackgroundMusic(); // Tidak dipanggil di sini, akan dipanggil di startGameLogic untuk memastikan musik mulai saat game siap.
     }
 
@@ -107,28 +181,14 @@ public class GamePanel extends JPanel implements ActionListener {
      * Menginisialisasi ulang ViewModel, mereset state tampilan, dan mengatur musik.
      */
     public void startGameLogic() {
-        gameViewModel.initializeGame(); // Menginisialisasi ulang semua aspek game di ViewModel.
-        resetGamePanelState(); // Mereset variabel-variabel state GamePanel ke kondisi awal.
-        playBackgroundMusic(); // Memulai musik latar belakang game.
-        // NEW: Mengatur volume untuk berbagai klip audio saat game dimulai.
-        // Pengecekan null dilakukan untuk menghindari NullPointerException jika kontrol volume belum dimuat.
-        if (AssetLoader.backgroundMusicGainControl != null) {
-            AssetLoader.setClipVolume(AssetLoader.backgroundMusicGainControl, 0.5f); // Volume musik latar 50%.
-        } else {
-            System.err.println("Background music gain control not available.");
-        }
-        if (AssetLoader.bonusMusicGainControl != null) {
-            AssetLoader.setClipVolume(AssetLoader.bonusMusicGainControl, 0.6f); // Volume musik bonus sedikit lebih keras.
-        } else {
-            System.err.println("Bonus music gain control not available.");
-        }
-        if (AssetLoader.bombEffectGainControl != null) {
-            AssetLoader.setClipVolume(AssetLoader.bombEffectGainControl, 0.8f); // Volume efek bom paling keras.
-        } else {
-            System.err.println("Bomb effect sound gain control not available.");
+        synchronized (stateLock) {
+            gameViewModel.setInputRecorder(RECORD_REPLAYS ? new InputRecorder() : null); // Rekaman baru untuk sesi ini.
+            gameViewModel.initializeGame(); // Menginisialisasi ulang semua aspek game di ViewModel (dengan seed baru).
+            resetGamePanelState(); // Mereset variabel-variabel state GamePanel ke kondisi awal.
         }
+        playBackgroundMusic(); // Memulai musik latar belakang game (crossfade dari musik menu).
 
-        gameLoop.start(); // Memulai game loop.
+        gameLoop.start(); // Memulai thread game loop.
     }
 
     /**
@@ -136,345 +196,328 @@ public class GamePanel extends JPanel implements ActionListener {
      * Digunakan untuk menyiapkan panel untuk game baru atau setelah game berakhir.
      */
     private void resetGamePanelState() {
-        isLassoActive = false;
-        currentLassoDrawLength = 0;
-        targetLassoLength = 0;
-        lassoDirection = 1;
-        mouseTargetX = 0;
-        mouseTargetY = 0;
-        animatingPulledBall = null;
-        heldBall = null;
-        heldBallOffsetAngle = 0;
+        gameViewModel.resetLasso(); // Lasso kembali ke pemain; bola yang ditarik atau dipegang dilepas.
 
         // Mereset state animasi pemain ke idle menghadap bawah.
-        currentPlayerAnimation = "idle_down";
+        currentPlayerAnimation = PlayerAnimation.IDLE_DOWN;
         currentAnimationFrame = 0;
         animationTick = 0;
         isPlayerMoving = false;
-        lastPlayerDirection = "down";
+        lastPlayerDirection = PlayerAnimation.WALK_DOWN;
+        pendingInputs.clear();
 
         stopAllMusic(); // Menghentikan semua musik.
     }
 
     /**
-     * Metode untuk memuat definisi frame animasi pemain dari sprite sheet.
-     * Frame-frame ini disimpan dalam HashMap dengan kunci string yang merepresentasikan status animasi.
-     * Saat ini, hanya mendukung 4 arah utama (atas, bawah, kiri, kanan) dan idle untuk setiap arah tersebut.
-     * Animasi `walk_down` menggunakan frame yang sama dengan `idle_down`.
+     * Metode untuk memuat frame animasi pemain dan efek bonus dari sprite sheet.
+     * Area frame per status didefinisikan di PlayerAnimation (4 arah utama, jalan dan idle).
+     * Frame dipotong dan diskalakan ke ukuran tampilan satu kali oleh SpriteSheet saat pertama kali digambar.
      */
     private void loadPlayerAnimations() {
-        playerAnimations = new HashMap<>();
-
-        int frameWidth = 80;  // Lebar satu frame dalam sprite sheet.
-        int frameHeight = 118; // Tinggi satu frame dalam sprite sheet.
+        playerSprites = new SpriteSheet(AssetLoader.playerAstronautSprite, PlayerAnimation.frameRects(), 50, 50);
 
-        // Memuat frame untuk animasi 'idle_down' dan 'walk_down' (baris 0 dari sprite sheet).
-        ArrayList<Rectangle> idleDownFrames = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            idleDownFrames.add(new Rectangle(i * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
+        // Efek bonus: satu baris berisi BONUS_EFFECT_FRAME_COUNT frame horizontal.
+        Rectangle[][] effectRects = new Rectangle[1][BONUS_EFFECT_FRAME_COUNT];
+        for (int i = 0; i < BONUS_EFFECT_FRAME_COUNT; i++) {
+            effectRects[0][i] = new Rectangle(i * BONUS_EFFECT_FRAME_WIDTH, 0, BONUS_EFFECT_FRAME_WIDTH, BONUS_EFFECT_FRAME_HEIGHT);
         }
-        playerAnimations.put("idle_down", idleDownFrames);
-        playerAnimations.put("walk_down", idleDownFrames);
+        bonusEffectSprites = new SpriteSheet(AssetLoader.bonusEffectSprite, effectRects,
+                BONUS_EFFECT_DISPLAY_SIZE, BONUS_EFFECT_DISPLAY_SIZE);
 
-        // Memuat frame untuk animasi 'walk_left' (baris 1 dari sprite sheet).
-        ArrayList<Rectangle> walkLeftFrames = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            walkLeftFrames.add(new Rectangle(i * frameWidth, 1 * frameHeight, frameWidth, frameHeight));
-        }
-        playerAnimations.put("walk_left", walkLeftFrames);
-
-        // Memuat frame untuk animasi 'walk_right' (baris 2 dari sprite sheet).
-        ArrayList<Rectangle> walkRightFrames = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            walkRightFrames.add(new Rectangle(i * frameWidth, 2 * frameHeight, frameWidth, frameHeight));
-        }
-        playerAnimations.put("walk_right", walkRightFrames);
-
-        // Memuat frame untuk animasi 'walk_up' (baris 3 dari sprite sheet).
-        ArrayList<Rectangle> walkUpFrames = new ArrayList<>();
-        for (int i = 0; i < 4; i++) {
-            walkUpFrames.add(new Rectangle(i * frameWidth, 3 * frameHeight, frameWidth, frameHeight));
-        }
-        playerAnimations.put("walk_up", walkUpFrames);
-
-        // Menambahkan frame idle statis untuk arah kiri, kanan, dan atas (frame pertama dari baris walk yang sesuai).
-        playerAnimations.put("idle_left", new ArrayList<Rectangle>() {{ add(new Rectangle(0 * frameWidth, 1 * frameHeight, frameWidth, frameHeight)); }} );
-        playerAnimations.put("idle_right", new ArrayList<Rectangle>() {{ add(new Rectangle(0 * frameWidth, 2 * frameHeight, frameWidth, frameHeight)); }} );
-        playerAnimations.put("idle_up", new ArrayList<Rectangle>() {{ add(new Rectangle(0 * frameWidth, 3 * frameHeight, frameWidth, frameHeight)); }} );
-        
         System.out.println("Player astronaut animations loaded."); // Konfirmasi pemuatan animasi.
     }
 
     // Metode-metode untuk kontrol suara
 
     /**
-     * Memutar musik latar belakang secara berulang.
-     * Jika musik sudah berjalan, akan dihentikan dan dimulai ulang dari awal.
+     * Memutar musik latar belakang secara berulang (di-stream, dengan crossfade dari lagu sebelumnya).
      */
     private void playBackgroundMusic() {
-        if (AssetLoader.backgroundMusicClip != null) {
-            if (AssetLoader.backgroundMusicClip.isRunning()) {
-                AssetLoader.backgroundMusicClip.stop(); // Hentikan jika sedang berjalan.
-            }
-            AssetLoader.backgroundMusicClip.setFramePosition(0); // Set posisi ke awal.
-            AssetLoader.backgroundMusicClip.loop(Clip.LOOP_CONTINUOUSLY); // Putar secara berulang.
-        }
+        AssetLoader.musicPlayer.play(AssetManifest.BACKGROUND_MUSIC, 0.5f); // Volume musik latar 50%.
     }
 
     /**
-     * Memutar musik bonus secara berulang.
-     * Menghentikan musik latar belakang terlebih dahulu untuk transisi yang mulus.
+     * Memutar musik bonus secara berulang, dengan crossfade dari musik latar belakang.
+     * Jika musik bonus tidak tersedia, musik latar tetap diputar.
      */
     public void playBonusMusic() {
-        if (AssetLoader.bonusMusicClip != null) {
-            stopBackgroundMusic(); // Hentikan musik latar.
-            if (!AssetLoader.bonusMusicClip.isRunning()) { // Pastikan tidak memutar dua kali jika sudah berjalan.
-                AssetLoader.bonusMusicClip.setFramePosition(0);
-                AssetLoader.bonusMusicClip.loop(Clip.LOOP_CONTINUOUSLY);
-            }
-        }
+        AssetLoader.musicPlayer.play(AssetManifest.BONUS_MUSIC, 0.6f); // Volume musik bonus sedikit lebih keras.
     }
 
     /**
-     * Menghentikan musik bonus dan memulai kembali musik latar belakang.
+     * Kembali dari musik bonus ke musik latar belakang. Dipanggil setiap tick tanpa bonus,
+     * jadi hanya membaca satu field jika musik bonus tidak sedang diputar.
      */
     public void stopBonusMusic() {
-        if (AssetLoader.bonusMusicClip != null && AssetLoader.bonusMusicClip.isRunning()) {
-            AssetLoader.bonusMusicClip.stop(); // Hentikan musik bonus.
-            playBackgroundMusic(); // Mulai kembali musik latar.
+        if (AssetLoader.musicPlayer.isPlaying(AssetManifest.BONUS_MUSIC)) {
+            playBackgroundMusic(); // Crossfade kembali ke musik latar.
         }
     }
 
     /**
-     * Memutar efek suara bom satu kali.
-     * Jika efek sedang berjalan, akan dihentikan dan dimulai ulang dari awal.
+     * Memutar efek suara bom satu kali lewat mixer efek suara.
+     * Efek bom yang tumpang tindih terdengar bersamaan; dipanggil dari thread game loop dan tidak memblokir.
      */
     public void playBombEffectSound() {
-        if (AssetLoader.bombEffectClip != null) {
-            if (AssetLoader.bombEffectClip.isRunning()) {
-                AssetLoader.bombEffectClip.stop(); // Hentikan jika sedang berjalan.
-            }
-            AssetLoader.bombEffectClip.setFramePosition(0); // Set posisi ke awal.
-            AssetLoader.bombEffectClip.start(); // Mulai putar satu kali.
-        }
+        AssetLoader.soundEffects.play(AssetManifest.BOMB_EFFECT, 0.8f); // Volume efek bom paling keras.
     }
 
     /**
-     * Menghentikan musik latar belakang jika sedang berjalan.
+     * Memudarkan musik yang sedang diputar (latar, bonus, atau menu utama).
      */
-    private void stopBackgroundMusic() {
-        if (AssetLoader.backgroundMusicClip != null && AssetLoader.backgroundMusicClip.isRunning()) {
-            AssetLoader.backgroundMusicClip.stop();
+    private void stopAllMusic() {
+        AssetLoader.musicPlayer.stop();
+    }
+
+    /**
+     * Metode ini dipanggil setiap kali panel perlu digambar ulang (misalnya, oleh `repaint()`).
+     * Hanya dipakai pada mode rendering pasif; pada mode aktif frame digambar langsung oleh game loop ke Canvas.
+     * @param g Objek Graphics yang digunakan untuk menggambar.
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g); // Memanggil implementasi `paintComponent` dari superclass (JPanel) untuk menggambar background default.
+        if (activeRendering) {
+            return; // Canvas menutupi seluruh panel dan digambar oleh game loop.
+        }
+        // State game dibaca di bawah lock yang sama dengan tick simulasi.
+        synchronized (stateLock) {
+            renderFrame((Graphics2D) g, getWidth(), getHeight(), renderAlpha);
         }
     }
 
     /**
-     * Menghentikan semua klip musik yang mungkin sedang diputar (latar, bonus, menu utama).
+     * Merender aktif satu frame ke Canvas lewat BufferStrategy, dipanggil dari thread game loop.
+     * Jika isi back buffer hilang (misalnya VRAM dipakai aplikasi lain atau mode layar berubah),
+     * frame digambar ulang sampai berhasil ditampilkan utuh.
+     * @param alpha Posisi waktu frame di antara dua tick terakhir.
      */
-    private void stopAllMusic() {
-        stopBackgroundMusic(); // Menghentikan musik latar.
-        if (AssetLoader.bonusMusicClip != null && AssetLoader.bonusMusicClip.isRunning()) {
-             AssetLoader.bonusMusicClip.stop(); // Menghentikan musik bonus.
+    private void renderActive(double alpha) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if (!canvas.isDisplayable() || width <= 0 || height <= 0) {
+            return; // Canvas belum (atau tidak lagi) tampil di layar.
         }
-        if (AssetLoader.mainMenuMusicClip != null && AssetLoader.mainMenuMusicClip.isRunning()) {
-             AssetLoader.mainMenuMusicClip.stop(); // Menghentikan musik menu utama.
+        try {
+            BufferStrategy strategy = canvas.getBufferStrategy();
+            if (strategy == null) {
+                canvas.createBufferStrategy(2); // Double buffering; memakai page flipping jika didukung.
+                strategy = canvas.getBufferStrategy();
+            }
+            do {
+                do {
+                    Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                    try {
+                        synchronized (stateLock) {
+                            renderFrame(g2d, width, height, alpha);
+                        }
+                    } finally {
+                        g2d.dispose();
+                    }
+                } while (strategy.contentsRestored()); // Buffer dipulihkan saat digambar: gambar ulang.
+                strategy.show();
+            } while (strategy.contentsLost()); // Buffer hilang sebelum ditampilkan: ulangi frame.
+            Toolkit.getDefaultToolkit().sync(); // Memastikan frame langsung dikirim ke layar (penting di Linux/X11).
+        } catch (IllegalStateException e) {
+            // Canvas sedang dilepas dari jendela (misalnya kembali ke menu); lewati frame ini.
+        } catch (RuntimeException e) {
+            fallBackToPassiveRendering(e);
         }
     }
 
     /**
-     * Metode ini dipanggil setiap kali panel perlu digambar ulang (misalnya, oleh `repaint()`).
-     * Ini bertanggung jawab untuk rendering semua elemen game ke layar.
-     * @param g Objek Graphics yang digunakan untuk menggambar.
+     * Beralih ke rendering pasif (paintComponent + repaint) jika rendering aktif gagal.
      */
-    @Override
-    protected void paintComponent(Graphics g) {
-        super.paintComponent(g); // Memanggil implementasi `paintComponent` dari superclass (JPanel) untuk menggambar background default.
-        Graphics2D g2d = (Graphics2D) g; // Mengkonversi ke Graphics2D untuk fitur menggambar yang lebih canggih (misalnya rotasi, transform).
+    private void fallBackToPassiveRendering(RuntimeException cause) {
+        System.err.println("Active rendering failed, falling back to repaint(): " + cause);
+        activeRendering = false;
+        SwingUtilities.invokeLater(() -> {
+            remove(canvas);
+            revalidate();
+            repaint();
+        });
+    }
 
-        FontMetrics fm = g2d.getFontMetrics(); // Digunakan untuk menghitung dimensi teks (misalnya lebar untuk senter teks).
+    /**
+     * Menggambar satu frame game. Dipakai oleh kedua mode rendering; pemanggil harus memegang stateLock.
+     * @param g2d Objek Graphics2D tujuan (Graphics panel atau back buffer Canvas).
+     * @param width Lebar area gambar.
+     * @param height Tinggi area gambar.
+     * @param alpha Posisi waktu frame di antara dua tick terakhir (untuk interpolasi).
+     */
+    private void renderFrame(Graphics2D g2d, int width, int height, double alpha) {
+        // Catatan: kode di sini dijalankan setiap frame. Hindari membuat objek baru (new, konkatenasi String,
+        // iterator); pakai konstanta dan TextSprite di atas. Cek dengan RenderAllocationBenchmark.
+
+        // Semua sudut lasso dan semua ukuran bola disiapkan sekali per konfigurasi layar,
+        // bukan saat sudut atau ukuran baru pertama kali muncul.
+        lassoChainSprite.prepare(g2d.getDeviceConfiguration());
+        lassoHookSprite.prepare(g2d.getDeviceConfiguration());
+        prepareBallImages(g2d.getDeviceConfiguration());
 
         // Menggambar Gambar Latar Belakang
         if (AssetLoader.backgroundImage != null) {
             // Menggambar gambar latar belakang, skala agar sesuai dengan ukuran panel.
-            g2d.drawImage(AssetLoader.backgroundImage, 0, 0, getWidth(), getHeight(), null);
+            drawScaled(g2d, AssetLoader.backgroundImage, 0, 0, width, height);
         } else {
             // Fallback: Jika gambar latar belakang tidak dimuat, gambar persegi panjang abu-abu gelap.
             g2d.setColor(Color.DARK_GRAY);
-            g2d.fillRect(0, 0, getWidth(), getHeight());
+            g2d.fillRect(0, 0, width, height);
         }
 
         Player player = gameViewModel.getPlayer(); // Mendapatkan objek pemain dari ViewModel.
-        int playerCenterX = player.getX() + 25; // Menghitung pusat X pemain (pemain 50x50, jadi pusatnya di +25).
-        int playerCenterY = player.getY() + 25; // Menghitung pusat Y pemain.
+        int px = player.getRenderX(alpha); // Posisi pemain yang diinterpolasi di antara dua tick terakhir.
+        int py = player.getRenderY(alpha);
+        int playerCenterX = px + 25; // Menghitung pusat X pemain (pemain 50x50, jadi pusatnya di +25).
+        int playerCenterY = py + 25; // Menghitung pusat Y pemain.
 
         // --- GAMBAR PEMAIN DENGAN ANIMASI ASTRONOT ---
-        if (AssetLoader.playerAstronautSprite != null) {
-            ArrayList<Rectangle> currentFrames = playerAnimations.get(currentPlayerAnimation); // Mendapatkan list frame untuk animasi pemain saat ini.
-            if (currentFrames != null && !currentFrames.isEmpty()) {
-                if (currentAnimationFrame >= currentFrames.size()) {
-                    currentAnimationFrame = 0; // Reset frame ke awal jika sudah mencapai akhir animasi.
-                }
-
-                Rectangle frameRect = currentFrames.get(currentAnimationFrame); // Mendapatkan Rectangle yang mendefinisikan area frame saat ini di sprite sheet.
-                BufferedImage currentSprite = AssetLoader.playerAstronautSprite.getSubimage(
-                    frameRect.x, frameRect.y, frameRect.width, frameRect.height // Mengambil sub-gambar (frame) dari sprite sheet.
-                );
-                g2d.drawImage(currentSprite, player.getX(), player.getY(), 50, 50, null); // Menggambar frame pemain, diskalakan ke ukuran 50x50.
-            } else {
-                // Fallback: Jika animasi tidak ditemukan atau kosong, gambar kotak biru.
-                g2d.setColor(Color.BLUE);
-                g2d.fillRect(player.getX(), player.getY(), 50, 50);
-            }
+        // Frame diambil langsung dari cache SpriteSheet (sudah berukuran 50x50); null jika sprite sheet tidak dimuat.
+        BufferedImage currentSprite = playerSprites.getFrame(
+                currentPlayerAnimation.ordinal(), currentAnimationFrame, g2d.getDeviceConfiguration());
+        if (currentSprite != null) {
+            g2d.drawImage(currentSprite, px, py, null); // Menggambar frame pemain.
         } else {
             // Fallback: Jika sprite sheet pemain tidak dimuat, gambar kotak biru.
             g2d.setColor(Color.BLUE);
-            g2d.fillRect(player.getX(), player.getY(), 50, 50);
+            g2d.fillRect(px, py, 50, 50);
         }
 
         // Menggambar Efek Bonus (efekbonus.png) di sekitar pemain jika aktif (speed boost atau invincible).
         if (player.isSpeedBoostActive() || player.isInvincible()) {
-            if (AssetLoader.bonusEffectSprite != null) {
-                int effectFrameWidth = BONUS_EFFECT_FRAME_WIDTH;
-                int effectFrameHeight = BONUS_EFFECT_FRAME_HEIGHT;
-                
-                // Mendapatkan frame efek bonus saat ini dari sprite sheet.
-                BufferedImage currentEffectSprite = AssetLoader.bonusEffectSprite.getSubimage(
-                    (bonusEffectFrame / BONUS_EFFECT_ANIMATION_SPEED) % BONUS_EFFECT_FRAME_COUNT * effectFrameWidth, // Menghitung posisi X frame.
-                    0, // Asumsi semua frame efek bonus berada di baris pertama (Y=0) sprite sheet.
-                    effectFrameWidth,
-                    effectFrameHeight
-                );
-                
+            // Mendapatkan frame efek bonus saat ini dari cache SpriteSheet (sudah berukuran BONUS_EFFECT_DISPLAY_SIZE).
+            BufferedImage currentEffectSprite = bonusEffectSprites.getFrame(
+                    0, bonusEffectFrame / BONUS_EFFECT_ANIMATION_SPEED, g2d.getDeviceConfiguration());
+            if (currentEffectSprite != null) {
                 // Menggambar efek bonus di sekitar pemain, dengan penyesuaian posisi agar terlihat mengelilingi pemain.
-                g2d.drawImage(currentEffectSprite, 
-                              player.getX() + (50 - BONUS_EFFECT_DISPLAY_SIZE) / 2 - 15, // Penyesuaian X.
-                              player.getY() + (50 - BONUS_EFFECT_DISPLAY_SIZE) / 2 - 40, // Penyesuaian Y.
-                              BONUS_EFFECT_DISPLAY_SIZE, BONUS_EFFECT_DISPLAY_SIZE, null);
+                g2d.drawImage(currentEffectSprite,
+                              px + (50 - BONUS_EFFECT_DISPLAY_SIZE) / 2 - 15, // Penyesuaian X.
+                              py + (50 - BONUS_EFFECT_DISPLAY_SIZE) / 2 - 40, // Penyesuaian Y.
+                              null);
             } else {
                 // Fallback: Jika sprite efek bonus tidak dimuat, gambar lingkaran hijau transparan di sekitar pemain.
-                g2d.setColor(new Color(0, 255, 0, 100)); // Warna hijau dengan transparansi.
-                g2d.fillOval(player.getX() - 10, player.getY() - 10, 70, 70);
+                g2d.setColor(BONUS_EFFECT_FALLBACK_COLOR); // Warna hijau dengan transparansi.
+                g2d.fillOval(px - 10, py - 10, 70, 70);
             }
 
             // Menggambar Timer Efek Bonus (waktu yang tersisa).
-            g2d.setColor(Color.YELLOW);
-            g2d.setFont(BONUS_TIMER_FONT);
-            
             // Mengambil waktu tersisa maksimal dari kedua efek (speed boost atau invincibility).
             int remainingTime = Math.max(player.getSpeedBoostDuration(), player.getInvincibilityDuration()); 
-            String timerText = String.format("%d s", remainingTime / 60); // Format waktu ke detik.
-            
-            int textWidth = fm.stringWidth(timerText); // Menghitung lebar teks timer.
-            g2d.drawString(timerText, player.getX() + (40 - textWidth) / 2, player.getY() - 10); // Menggambar teks timer di atas pemain.
+            // Teks "<detik> s" di atas pemain; gambar teks hanya dirender ulang saat angka detiknya berubah.
+            bonusTimerText.drawCentered(g2d, remainingTime / 60, px + 20, py - 10);
         }
 
 
         // Menggambar Bola-bola Skill (item yang bisa ditangkap)
-        for (Balls ball : gameViewModel.getBalls()) {
+        List<Balls> balls = gameViewModel.getBalls();
+        for (int i = 0; i < balls.size(); i++) { // Loop berindeks: tidak membuat Iterator setiap frame.
+            Balls ball = balls.get(i);
             // Hanya menggambar bola yang aktif, tidak sedang dipegang oleh pemain, dan tidak sedang ditarik lasso.
             if (ball.isActive() && !ball.isHeldByPlayer() && !ball.isBeingPulled()) {
+                int bx = ball.getRenderX(alpha); // Posisi bola yang diinterpolasi.
+                int by = ball.getRenderY(alpha);
                 if (ball.isBomb()) { // Jika bola adalah bom.
                     if (AssetLoader.bombAlienImage != null) {
-                        g2d.drawImage(AssetLoader.bombAlienImage, ball.getX(), ball.getY(), ball.getSize(), ball.getSize(), null);
+                        drawScaled(g2d, AssetLoader.bombAlienImage, bx, by, ball.getSize(), ball.getSize());
                     } else {
                         // Fallback: Jika gambar bom tidak ada, gambar oval dengan warna bola.
                         g2d.setColor(ball.getColor());
-                        g2d.fillOval(ball.getX(), ball.getY(), ball.getSize(), ball.getSize());
+                        g2d.fillOval(bx, by, ball.getSize(), ball.getSize());
                     }
-                    g2d.setColor(Color.WHITE); // Warna teks untuk nilai bom (jika ditampilkan).
-                    g2d.setFont(new Font("Arial", Font.BOLD, 10));
-                    // Catatan: Kode ini menggambar teks putih untuk bom, meskipun bom biasanya tidak memiliki nilai yang ditampilkan di UI.
+                    // Bom tidak menampilkan nilai.
                 } else if (ball.isBonusStar()) { // Jika bola adalah bintang bonus.
                     if (AssetLoader.bonusStarImage != null) {
-                        g2d.drawImage(AssetLoader.bonusStarImage, ball.getX(), ball.getY(), ball.getSize(), ball.getSize(), null);
+                        drawScaled(g2d, AssetLoader.bonusStarImage, bx, by, ball.getSize(), ball.getSize());
                     } else {
                         // Fallback: Jika gambar bintang tidak ada, gambar oval dengan warna bola.
                         g2d.setColor(ball.getColor());
-                        g2d.fillOval(ball.getX(), ball.getY(), ball.getSize(), ball.getSize());
+                        g2d.fillOval(bx, by, ball.getSize(), ball.getSize());
                     }
                 }
                 else { // Jika bola adalah bola skill biasa.
                     if (AssetLoader.skillBallImage != null) {
-                        g2d.drawImage(AssetLoader.skillBallImage, ball.getX(), ball.getY(), ball.getSize(), ball.getSize(), null);
+                        drawScaled(g2d, AssetLoader.skillBallImage, bx, by, ball.getSize(), ball.getSize());
                     } else {
                         // Fallback: Jika gambar bola skill tidak ada, gambar oval dengan warna bola.
                         g2d.setColor(ball.getColor());
-                        g2d.fillOval(ball.getX(), ball.getY(), ball.getSize(), ball.getSize());
+                        g2d.fillOval(bx, by, ball.getSize(), ball.getSize());
                     }
-                    g2d.setColor(Color.BLACK); // Warna teks untuk nilai bola skill.
-                    g2d.setFont(new Font("Arial", Font.BOLD, 10));
-                    String valueStr = String.valueOf(ball.getValue()); // Mengambil nilai bola.
-                    int textWidth = fm.stringWidth(valueStr); // Menghitung lebar teks nilai.
-                    int textHeight = fm.getHeight(); // Menghitung tinggi teks.
-                    g2d.drawString(valueStr, ball.getX() + ball.getSize() / 2 - textWidth / 2, ball.getY() + ball.getSize() / 2 + textHeight / 4); // Menggambar nilai di tengah bola.
+                    drawBallValue(g2d, ball, bx, by); // Menggambar nilai di tengah bola.
                 }
             }
         }
 
+        // State lasso dari ViewModel.
+        boolean isLassoActive = gameViewModel.isLassoActive();
+        int mouseTargetX = gameViewModel.getLassoTargetX();
+        int mouseTargetY = gameViewModel.getLassoTargetY();
+        int prevLassoDrawLength = gameViewModel.getPrevLassoLength();
+        int currentLassoDrawLength = gameViewModel.getLassoLength();
+        Balls animatingPulledBall = gameViewModel.getPulledBall();
+        Balls heldBall = gameViewModel.getHeldBall();
+        double heldBallOffsetAngle = gameViewModel.getHeldBallOffsetAngle();
+
         // Menggambar Lasso (tali penangkap)
         int lassoEndX = 0; // Koordinat X ujung lasso saat ini.
         int lassoEndY = 0; // Koordinat Y ujung lasso saat ini.
         double angle = 0;   // Sudut tembakan lasso.
 
+        // Panjang lasso yang diinterpolasi di antara dua tick terakhir.
+        int lassoDrawLength = (int) Math.round(prevLassoDrawLength + (currentLassoDrawLength - prevLassoDrawLength) * alpha);
+
         if (isLassoActive) { // Jika lasso sedang aktif (sedang ditembakkan atau ditarik).
             // Menghitung sudut dari pemain ke target mouse (arah lasso).
             angle = Math.atan2(mouseTargetY - playerCenterY, mouseTargetX - playerCenterX);
             // Menghitung koordinat ujung lasso berdasarkan panjang gambar saat ini dan sudut.
-            lassoEndX = (int) (playerCenterX + currentLassoDrawLength * Math.cos(angle));
-            lassoEndY = (int) (playerCenterY + currentLassoDrawLength * Math.sin(angle));
+            lassoEndX = (int) (playerCenterX + lassoDrawLength * Math.cos(angle));
+            lassoEndY = (int) (playerCenterY + lassoDrawLength * Math.sin(angle));
 
             // Menggambar Rantai Lasso
             if (AssetLoader.lassoChainSegmentImage != null) { // Jika ada gambar segmen rantai.
                 int segmentWidth = AssetLoader.lassoChainSegmentImage.getWidth();
                 int segmentHeight = AssetLoader.lassoChainSegmentImage.getHeight();
-                
+            
                 if (segmentWidth <= 0 || segmentHeight <= 0) {
                      // Fallback: Jika gambar segmen rantai tidak valid (misalnya lebar/tinggi nol), gambar garis sederhana.
                      g2d.setColor(Color.ORANGE);
-                     g2d.setStroke(new BasicStroke(2)); // Mengatur ketebalan garis.
+                     g2d.setStroke(LASSO_FALLBACK_STROKE); // Mengatur ketebalan garis.
                      g2d.drawLine(playerCenterX, playerCenterY, lassoEndX, lassoEndY);
-                     g2d.setStroke(new BasicStroke(1)); // Mengembalikan ketebalan garis default.
+                     g2d.setStroke(DEFAULT_STROKE); // Mengembalikan ketebalan garis default.
                 } else {
                     int segmentStep = CHAIN_SEGMENT_DISPLAY_SIZE; // Jarak antar segmen rantai yang akan digambar.
 
                     int segmentsToDraw = 0;
                     if (segmentStep > 0) {
-                        segmentsToDraw = currentLassoDrawLength / segmentStep; // Menghitung berapa banyak segmen yang perlu digambar sepanjang lasso.
+                        segmentsToDraw = lassoDrawLength / segmentStep; // Menghitung berapa banyak segmen yang perlu digambar sepanjang lasso.
                     }
-                    
-                    AffineTransform oldTransform = g2d.getTransform(); // Menyimpan AffineTransform saat ini untuk dikembalikan nanti.
-
-                    g2d.translate(playerCenterX, playerCenterY); // Menggeser origin gambar ke pusat pemain.
-                    g2d.rotate(angle); // Memutar koordinat sesuai sudut lasso.
+                
+                    double cos = Math.cos(angle);
+                    double sin = Math.sin(angle);
 
-                    // Menggambar setiap segmen rantai sepanjang lasso.
+                    // Menggambar setiap segmen rantai sepanjang lasso, dari pusat pemain ke arah sudut lasso.
+                    // Segmen sudah dirotasi sesuai sudut lasso, jadi cukup di-blit di titik tengahnya.
                     for (int i = 0; i <= segmentsToDraw; i++) {
-                        // Menggambar segmen rantai; -CHAIN_SEGMENT_DISPLAY_SIZE / 2 untuk menengahkan segmen secara vertikal.
-                        g2d.drawImage(AssetLoader.lassoChainSegmentImage, i * segmentStep, -CHAIN_SEGMENT_DISPLAY_SIZE / 2, CHAIN_SEGMENT_DISPLAY_SIZE, CHAIN_SEGMENT_DISPLAY_SIZE, null);
+                        double distance = i * segmentStep + CHAIN_SEGMENT_DISPLAY_SIZE / 2.0; // Jarak titik tengah segmen dari pemain.
+                        lassoChainSprite.drawCentered(g2d, angle,
+                                (int) Math.round(playerCenterX + distance * cos),
+                                (int) Math.round(playerCenterY + distance * sin));
                     }
-                    g2d.setTransform(oldTransform); // Mengembalikan AffineTransform ke kondisi semula.
                 }
 
             } else {
                 // Fallback: Jika gambar segmen rantai tidak ada, gambar garis oranye tebal sebagai pengganti rantai.
                 g2d.setColor(Color.ORANGE);
-                g2d.setStroke(new BasicStroke(2));
+                g2d.setStroke(LASSO_FALLBACK_STROKE);
                 g2d.drawLine(playerCenterX, playerCenterY, lassoEndX, lassoEndY);
-                g2d.setStroke(new BasicStroke(1));
+                g2d.setStroke(DEFAULT_STROKE);
             }
 
 
             // Menggambar Kail Lasso di Ujung
-            if (AssetLoader.lassoHookImage != null) { // Jika ada gambar kail lasso.
-                AffineTransform oldTransform = g2d.getTransform(); // Menyimpan AffineTransform saat ini.
-
-                g2d.translate(lassoEndX, lassoEndY); // Menggeser origin gambar ke ujung lasso.
-                g2d.rotate(angle - Math.PI / 2); // Memutar kail lasso agar orientasinya sesuai dengan tali. (Asumsi gambar kail default menghadap ke atas)
-
-                g2d.drawImage(AssetLoader.lassoHookImage, -HOOK_DISPLAY_SIZE / 2, -HOOK_DISPLAY_SIZE / 2, HOOK_DISPLAY_SIZE, HOOK_DISPLAY_SIZE, null); // Menggambar kail, menengahkan posisinya.
-                
-                g2d.setTransform(oldTransform); // Mengembalikan AffineTransform ke kondisi semula.
-            } else {
+            // Kail diputar angle - PI/2 agar orientasinya sesuai dengan tali (asumsi gambar kail default menghadap ke atas),
+            // dan digambar dengan titik tengahnya di ujung lasso.
+            if (!lassoHookSprite.drawCentered(g2d, angle - Math.PI / 2, lassoEndX, lassoEndY)) {
                 // Fallback: Jika gambar kail tidak ada, gambar kotak cyan kecil di ujung lasso.
                 int squareSize = 8;
                 g2d.setColor(Color.CYAN);
@@ -485,19 +528,20 @@ public class GamePanel extends JPanel implements ActionListener {
         // Menggambar Keranjang/Titik Pengumpulan Bola
         if (AssetLoader.basketImage != null) { // Jika ada gambar keranjang.
             // Hitung posisi X agar keranjang berada di tengah horizontal.
-            int basketX = (getWidth() / 2) - ((BASKET_DISPLAY_WIDTH + 50) / 2);
+            // Gambar keranjang menutupi area pengumpulan bola di GameViewModel.
+            int basketX = (width / 2) - (GameViewModel.BASKET_WIDTH / 2);
 
             // Hitung posisi Y agar keranjang berada dekat bagian bawah panel.
-            int basketY = getHeight() - (BASKET_DISPLAY_HEIGHT + 50) - 50; // Sekitar 50px dari bawah, disesuaikan dengan ukuran gambar.
+            int basketY = height - GameViewModel.BASKET_HEIGHT - GameViewModel.BASKET_BOTTOM_MARGIN; // Sekitar 50px dari bawah.
 
-            g2d.drawImage(AssetLoader.basketImage, basketX, basketY, BASKET_DISPLAY_WIDTH + 50, BASKET_DISPLAY_HEIGHT + 50, null); // Menggambar keranjang.
+            drawScaled(g2d, AssetLoader.basketImage, basketX, basketY, GameViewModel.BASKET_WIDTH, GameViewModel.BASKET_HEIGHT); // Menggambar keranjang.
         } else {
             // Fallback: Jika gambar keranjang tidak ada, gambar kotak coklat sebagai pengganti.
-            g2d.setColor(new Color(139, 69, 19)); // Warna coklat.
+            g2d.setColor(BASKET_FALLBACK_COLOR); // Warna coklat.
 
             // Hitung posisi X dan Y untuk fallback juga, agar posisinya konsisten.
-            int basketX = (getWidth() / 2) - (BASKET_DISPLAY_WIDTH / 2);
-            int basketY = getHeight() - BASKET_DISPLAY_HEIGHT - 20; // 20px dari bawah.
+            int basketX = (width / 2) - (BASKET_DISPLAY_WIDTH / 2);
+            int basketY = height - BASKET_DISPLAY_HEIGHT - 20; // 20px dari bawah.
 
             g2d.fillRect(basketX, basketY, BASKET_DISPLAY_WIDTH, BASKET_DISPLAY_HEIGHT);
         }
@@ -508,8 +552,8 @@ public class GamePanel extends JPanel implements ActionListener {
             // Jika lasso tidak aktif tetapi bola masih ditandai sedang ditarik (untuk fase retraksi).
             if (!isLassoActive && animatingPulledBall.isBeingPulled()) {
                 angle = Math.atan2(mouseTargetY - playerCenterY, mouseTargetX - playerCenterX); // Hitung ulang sudut.
-                lassoEndX = (int) (playerCenterX + currentLassoDrawLength * Math.cos(angle)); // Hitung posisi X ujung lasso.
-                lassoEndY = (int) (playerCenterY + currentLassoDrawLength * Math.sin(angle)); // Hitung posisi Y ujung lasso.
+                lassoEndX = (int) (playerCenterX + lassoDrawLength * Math.cos(angle)); // Hitung posisi X ujung lasso.
+                lassoEndY = (int) (playerCenterY + lassoDrawLength * Math.sin(angle)); // Hitung posisi Y ujung lasso.
             }
 
             int currentBallX = lassoEndX; // Posisi X bola diatur sama dengan ujung lasso.
@@ -522,14 +566,14 @@ public class GamePanel extends JPanel implements ActionListener {
             // Menggambar bola yang ditarik berdasarkan tipenya (bom, bintang bonus, atau bintang point).
             if (animatingPulledBall.isBomb()) {
                 if (AssetLoader.bombAlienImage != null) {
-                    g2d.drawImage(AssetLoader.bombAlienImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.bombAlienImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
                 } else {
                     g2d.setColor(animatingPulledBall.getColor());
                     g2d.fillOval(currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
                 }
             } else if (animatingPulledBall.isBonusStar()) {
                 if (AssetLoader.bonusStarImage != null) {
-                    g2d.drawImage(AssetLoader.bonusStarImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.bonusStarImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
                 } else {
                     g2d.setColor(animatingPulledBall.getColor());
                     g2d.fillOval(currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
@@ -537,17 +581,12 @@ public class GamePanel extends JPanel implements ActionListener {
             }
             else { // Ini adalah bola skill biasa.
                 if (AssetLoader.skillBallImage != null) {
-                    g2d.drawImage(AssetLoader.skillBallImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.skillBallImage, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
                 } else {
                     g2d.setColor(animatingPulledBall.getColor());
                     g2d.fillOval(currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY, animatingPulledBall.getSize(), animatingPulledBall.getSize());
                 }
-                g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Arial", Font.BOLD, 10));
-                String valueStr = String.valueOf(animatingPulledBall.getValue());
-                int textWidth = fm.stringWidth(valueStr);
-                int textHeight = fm.getHeight();
-                g2d.drawString(valueStr, currentBallX + ballOffsetFromLassoTipX + animatingPulledBall.getSize()/2 - textWidth / 2, currentBallY + ballOffsetFromLassoTipY + animatingPulledBall.getSize()/2 + textHeight / 4);
+                drawBallValue(g2d, animatingPulledBall, currentBallX + ballOffsetFromLassoTipX, currentBallY + ballOffsetFromLassoTipY);
             }
         }
 
@@ -562,14 +601,14 @@ public class GamePanel extends JPanel implements ActionListener {
             // Menggambar bola yang dipegang berdasarkan tipenya.
             if (heldBall.isBomb()) {
                 if (AssetLoader.bombAlienImage != null) {
-                    g2d.drawImage(AssetLoader.bombAlienImage, ballX, ballY, heldBall.getSize(), heldBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.bombAlienImage, ballX, ballY, heldBall.getSize(), heldBall.getSize());
                 } else {
                     g2d.setColor(heldBall.getColor());
                     g2d.fillOval(ballX, ballY, heldBall.getSize(), heldBall.getSize());
                 }
             } else if (heldBall.isBonusStar()) {
                 if (AssetLoader.bonusStarImage != null) {
-                    g2d.drawImage(AssetLoader.bonusStarImage, ballX, ballY, heldBall.getSize(), heldBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.bonusStarImage, ballX, ballY, heldBall.getSize(), heldBall.getSize());
                 } else {
                     g2d.setColor(heldBall.getColor());
                     g2d.fillOval(ballX, ballY, heldBall.getSize(), heldBall.getSize());
@@ -577,25 +616,72 @@ public class GamePanel extends JPanel implements ActionListener {
             }
             else { // Ini adalah bola skill biasa.
                 if (AssetLoader.skillBallImage != null) {
-                    g2d.drawImage(AssetLoader.skillBallImage, ballX, ballY, heldBall.getSize(), heldBall.getSize(), null);
+                    drawScaled(g2d, AssetLoader.skillBallImage, ballX, ballY, heldBall.getSize(), heldBall.getSize());
                 } else {
                     g2d.setColor(heldBall.getColor());
                     g2d.fillOval(ballX, ballY, heldBall.getSize(), heldBall.getSize());
                 }
-                g2d.setColor(Color.BLACK);
-                g2d.setFont(new Font("Arial", Font.BOLD, 10));
-                String valueStr = String.valueOf(heldBall.getValue());
-                int textWidth = fm.stringWidth(valueStr);
-                int textHeight = fm.getHeight();
-                g2d.drawString(valueStr, ballX + heldBall.getSize() / 2 - textWidth / 2, ballY + heldBall.getSize() / 2 + textHeight / 4);
+                drawBallValue(g2d, heldBall, ballX, ballY);
             }
         }
 
         // Menggambar skor pemain dan jumlah bintang yang dikumpulkan di pojok kiri atas.
-        g2d.setColor(Color.WHITE); // Warna teks putih.
-        g2d.setFont(new Font("Arial", Font.BOLD, 20)); // Font tebal ukuran 20.
-        g2d.drawString("Score: " + player.getScore(), 10, 30); // Tampilkan skor.
-        g2d.drawString("Count Star: " + player.getCollectedBalls(), 10, 60); // Tampilkan jumlah bintang.
+        // Teks putih tebal ukuran 20; gambar teks hanya dirender ulang saat angkanya berubah.
+        scoreText.draw(g2d, player.getScore(), 10, 30); // Tampilkan skor.
+        collectedText.draw(g2d, player.getCollectedBalls(), 10, 60); // Tampilkan jumlah bintang.
+    }
+
+    // Menggambar angka nilai bola di tengah bola (bx, by = pojok kiri atas bola) dari TextSprite yang sudah dirender.
+    private void drawBallValue(Graphics2D g2d, Balls ball, int bx, int by) {
+        ballValueText.drawCentered(g2d, ball.getValue(), bx + ball.getSize() / 2, by + ball.getSize() / 2 + BALL_VALUE_BASELINE_OFFSET);
+    }
+
+    // Menskalakan gambar bola skill, bom, dan bintang bonus ke setiap ukuran bola yang mungkin muncul
+    private void prepareBallImages(GraphicsConfiguration gc) {
+        if (gc == ballImagesConfig) {
+            return;
+        }
+        for (int size = GameViewModel.BALL_MIN_SIZE; size <= GameViewModel.BALL_MAX_SIZE; size++) {
+            AssetLoader.getScaledImage(AssetLoader.skillBallImage, size, size, gc);
+            AssetLoader.getScaledImage(AssetLoader.bombAlienImage, size, size, gc);
+            AssetLoader.getScaledImage(AssetLoader.bonusStarImage, size, size, gc);
+        }
+        ballImagesConfig = gc;
+    }
+
+    /**
+     * Menggambar gambar pada ukuran tertentu memakai salinan yang sudah diskalakan dari cache AssetLoader,
+     * sehingga penskalaan hanya dilakukan sekali per ukuran, bukan di setiap frame.
+     */
+    private void drawScaled(Graphics2D g2d, BufferedImage image, int x, int y, int width, int height) {
+        BufferedImage scaled = AssetLoader.getScaledImage(image, width, height, g2d.getDeviceConfiguration());
+        if (scaled.getWidth() == width && scaled.getHeight() == height) {
+            g2d.drawImage(scaled, x, y, null);
+        } else {
+            g2d.drawImage(scaled, x, y, width, height, null); // Ukuran tujuan tidak valid; biarkan Graphics2D yang menangani.
+        }
+    }
+
+    /**
+     * Menggambar satu frame ke Graphics2D mana pun sambil memegang stateLock.
+     * Hanya untuk RenderAllocationBenchmark, yang mengukur alokasi per frame tanpa layar.
+     */
+    void renderFrameForBenchmark(Graphics2D g2d, int width, int height) {
+        synchronized (stateLock) {
+            renderFrame(g2d, width, height, renderAlpha);
+        }
+    }
+
+    // Satu langkah simulasi tanpa game loop; hanya untuk RenderAllocationBenchmark
+    void tickForBenchmark() {
+        synchronized (stateLock) {
+            updateState();
+        }
+    }
+
+    // Hanya untuk RenderAllocationBenchmark
+    GameViewModel getGameViewModel() {
+        return gameViewModel;
     }
 
     /**
@@ -607,32 +693,38 @@ public class GamePanel extends JPanel implements ActionListener {
     }
 
     /**
-     * Metode ini dipanggil setiap kali Timer `gameLoop` "berdetak".
+     * Satu langkah simulasi dengan durasi tetap (1/60 detik), dipanggil dari thread game loop.
      * Ini adalah inti dari loop game, di mana semua logika update (game state, animasi)
-     * terjadi sebelum panel digambar ulang.
-     * @param e Event Action yang memicu panggilan ini (dari Timer).
+     * terjadi. Rendering dilakukan terpisah oleh game loop setelah langkah-langkah yang jatuh tempo selesai.
      */
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        gameViewModel.updateGame(); // Memperbarui logika game inti melalui ViewModel.
-        handleLassoAnimation(); // Menangani logika dan update animasi lasso.
+    private void tick() {
+        synchronized (stateLock) {
+            if (!gameLoop.isRunning()) {
+                return; // Game sudah dihentikan (misalnya dari EDT) sebelum tick ini mendapat lock.
+            }
+            updateState();
+        }
+    }
+
+    // Isi tick(); dipanggil sambil memegang stateLock
+    private void updateState() {
+        // Mulai tick baru: simpan state tick sebelumnya (posisi dan panjang lasso) untuk interpolasi rendering.
+        gameViewModel.beginTick();
+
+        applyPendingInputs(); // Terapkan input gerak dan lasso yang masuk sejak tick sebelumnya.
+
+        gameViewModel.updateGame(); // Memperbarui logika game inti melalui ViewModel (bola, lasso, keranjang).
         
         // --- UPDATE FRAME ANIMASI PEMAIN ---
         animationTick++; // Meningkatkan counter tick animasi.
         if (animationTick >= ANIMATION_SPEED_FACTOR) { // Cek apakah sudah waktunya mengganti frame.
-            ArrayList<Rectangle> frames = playerAnimations.get(currentPlayerAnimation); // Mendapatkan list frame untuk animasi saat ini.
-
-            if (frames != null && !frames.isEmpty()) { // Pastikan ada frame untuk animasi ini.
-                if (currentPlayerAnimation.startsWith("idle_")) {
-                    currentAnimationFrame = 0; // Untuk animasi idle, selalu kembali ke frame pertama (asumsi idle statis atau loop kecil).
-                } else {
-                    currentAnimationFrame++; // Pindah ke frame berikutnya untuk animasi bergerak.
-                    if (currentAnimationFrame >= frames.size()) {
-                        currentAnimationFrame = 0; // Kembali ke frame pertama jika sudah mencapai akhir animasi.
-                    }
-                }
+            if (currentPlayerAnimation.isIdle()) {
+                currentAnimationFrame = 0; // Untuk animasi idle, selalu kembali ke frame pertama (asumsi idle statis atau loop kecil).
             } else {
-                currentAnimationFrame = 0; // Reset frame jika tidak ada frame yang ditemukan (fallback).
+                currentAnimationFrame++; // Pindah ke frame berikutnya untuk animasi bergerak.
+                if (currentAnimationFrame >= currentPlayerAnimation.getFrameCount()) {
+                    currentAnimationFrame = 0; // Kembali ke frame pertama jika sudah mencapai akhir animasi.
+                }
             }
             animationTick = 0; // Reset tick animasi.
         }
@@ -645,139 +737,111 @@ public class GamePanel extends JPanel implements ActionListener {
 
         // Jika pemain tidak sedang bergerak, atur animasi ke status idle berdasarkan arah terakhir.
         if (!isPlayerMoving) {
-            currentPlayerAnimation = "idle_" + lastPlayerDirection;
+            currentPlayerAnimation = lastPlayerDirection.toIdle();
         }
         isPlayerMoving = false; // Reset status bergerak untuk siklus update berikutnya (akan diatur true lagi jika ada input).
+    }
 
-        repaint(); // Meminta sistem untuk menggambar ulang panel (memanggil paintComponent).
-
-        // Logika untuk mendeteksi dan mengumpulkan bola yang dipegang saat pemain menyentuh keranjang.
-        if (heldBall != null) {
-            Player player = gameViewModel.getPlayer();
-            Rectangle playerBounds = new Rectangle(player.getX(), player.getY(), 50, 50); // Membuat batas pemain.
-
-            // --- Perbarui posisi deteksi keranjang ---
-            // Hitung ulang batas keranjang karena ukurannya bisa disesuaikan di paintComponent.
-            int basketWidthActual = BASKET_DISPLAY_WIDTH + 50;
-            int basketHeightActual = BASKET_DISPLAY_HEIGHT + 50;
-            int basketX = (getWidth() / 2) - (basketWidthActual / 2);
-            int basketY = getHeight() - basketHeightActual - 50; // Mengacu pada perhitungan di paintComponent.
-
-            Rectangle basketBounds = new Rectangle(basketX, basketY, basketWidthActual, basketHeightActual); // Membuat batas keranjang.
-            // --- Akhir Perbarui posisi deteksi keranjang ---
-
-            if (playerBounds.intersects(basketBounds)) { // Cek jika pemain berpotongan dengan keranjang.
-                gameViewModel.collectHeldBall(heldBall); // Meminta ViewModel untuk memproses pengumpulan bola.
-                heldBall = null; // Melepaskan bola dari pemain di sisi tampilan.
-                heldBallOffsetAngle = 0; // Reset sudut offset bola yang dipegang.
+    /**
+     * Menerapkan input gerak dari keyboard dan tembakan lasso dari mouse yang diantrekan sejak tick sebelumnya.
+     * Setiap penekanan tombol tetap menggerakkan pemain satu langkah, seperti sebelumnya.
+     */
+    private void applyPendingInputs() {
+        int[] input;
+        while ((input = pendingInputs.pollFirst()) != null) {
+            int key = input[0];
+            if (key == INPUT_LASSO) {
+                // Tembakkan lasso ke titik klik; ViewModel mengabaikannya jika ada bola yang dipegang atau lasso sedang aktif.
+                gameViewModel.fireLasso(input[1], input[2]);
+            } else if (key == KeyEvent.VK_LEFT) {
+                gameViewModel.movePlayer(-5, 0); // Panggil ViewModel untuk menggerakkan pemain 5px ke kiri.
+                isPlayerMoving = true; // Set status pemain bergerak.
+                currentPlayerAnimation = PlayerAnimation.WALK_LEFT; // Set animasi berjalan ke kiri.
+                lastPlayerDirection = currentPlayerAnimation; // Simpan arah terakhir.
+            } else if (key == KeyEvent.VK_RIGHT) {
+                gameViewModel.movePlayer(5, 0); // Panggil ViewModel untuk menggerakkan pemain 5px ke kanan.
+                isPlayerMoving = true;
+                currentPlayerAnimation = PlayerAnimation.WALK_RIGHT;
+                lastPlayerDirection = currentPlayerAnimation;
+            } else if (key == KeyEvent.VK_UP) {
+                gameViewModel.movePlayer(0, -5); // Panggil ViewModel untuk menggerakkan pemain 5px ke atas.
+                isPlayerMoving = true;
+                currentPlayerAnimation = PlayerAnimation.WALK_UP;
+                lastPlayerDirection = currentPlayerAnimation;
+            } else if (key == KeyEvent.VK_DOWN) {
+                gameViewModel.movePlayer(0, 5); // Panggil ViewModel untuk menggerakkan pemain 5px ke bawah.
+                isPlayerMoving = true;
+                currentPlayerAnimation = PlayerAnimation.WALK_DOWN;
+                lastPlayerDirection = currentPlayerAnimation;
             }
         }
     }
 
     /**
-     * Menangani logika animasi ekstensi dan retraksi lasso.
-     * Mengupdate `currentLassoDrawLength` dan `lassoDirection`.
+     * Menghentikan game loop, menyimpan hasil game, mereset state,
+     * dan mengalihkan tampilan kembali ke Main Menu.
+     * Bisa dipanggil dari EDT (tombol spasi) maupun dari thread game loop (game over);
+     * hanya panggilan pertama yang berpengaruh.
      */
-    private void handleLassoAnimation() {
-        if (isLassoActive) { // Hanya berjalan jika lasso sedang aktif.
-            Player player = gameViewModel.getPlayer();
-            int playerCenterX = player.getX() + 25;
-            int playerCenterY = player.getY() + 25;
-            // Hitung sudut tembakan lasso berdasarkan posisi pemain dan target mouse.
-            double angle = Math.atan2(mouseTargetY - playerCenterY, mouseTargetX - playerCenterX);
-
-            if (lassoDirection == 1) { // Fase ekstensi (lasso memanjang).
-                currentLassoDrawLength += LASSO_ANIMATION_SPEED; // Menambah panjang lasso.
-
-                if (currentLassoDrawLength > targetLassoLength) {
-                    currentLassoDrawLength = targetLassoLength; // Pastikan tidak melewati panjang target.
-                }
-
-                // Hitung posisi ujung lasso saat ini.
-                int lassoTipX = (int) (playerCenterX + currentLassoDrawLength * Math.cos(angle));
-                int lassoTipY = (int) (playerCenterY + currentLassoDrawLength * Math.sin(angle));
-
-                int lassoTipSize = 8;
-                Rectangle lassoTipBounds = new Rectangle(lassoTipX - lassoTipSize / 2, lassoTipY - lassoTipSize / 2, lassoTipSize, lassoTipSize); // Membuat batas untuk ujung lasso.
-
-                // Memeriksa kolisi ujung lasso dengan bola di ViewModel.
-                boolean ballCaught = gameViewModel.checkLassoTipCollision(lassoTipBounds, lassoTipX, lassoTipY);
+    public void stopGame() {
+        if (!gameLoop.stop()) { // Menghentikan game loop (menunggu tick terakhir jika dipanggil dari EDT).
+            return; // Game sudah dihentikan sebelumnya.
+        }
+        InputRecorder recording;
+        String username;
+        synchronized (stateLock) {
+            gameViewModel.saveGameResult(); // Memasukkan hasil game ke antrean penyimpanan (tidak menunggu database).
+            recording = gameViewModel.finishInputRecording(); // Menutup rekaman input sesi ini (null jika tidak direkam).
+            username = gameViewModel.getCurrentUsername();
+            resetGamePanelState(); // Mereset semua variabel state panel.
+        }
+        if (recording != null) {
+            saveReplay(recording, username);
+        }
 
-                if (ballCaught) {
-                    lassoDirection = -1; // Jika bola tertangkap, ubah arah menjadi retraksi.
-                } else if (currentLassoDrawLength >= targetLassoLength) {
-                    lassoDirection = -1; // Jika mencapai panjang target tanpa menangkap, juga ubah arah menjadi retraksi.
-                }
-            } else { // Fase retraksi (lasso menarik kembali).
-                currentLassoDrawLength -= LASSO_ANIMATION_SPEED; // Mengurangi panjang lasso.
-                
-                // Hitung ulang posisi ujung lasso untuk menggambar bola yang ditarik.
-                int lassoTipX = (int) (playerCenterX + currentLassoDrawLength * Math.cos(angle));
-                int lassoTipY = (int) (playerCenterY + currentLassoDrawLength * Math.sin(angle));
-                int lassoTipSize = 8;
-                Rectangle lassoTipBounds = new Rectangle(lassoTipX - lassoTipSize / 2, lassoTipY - lassoTipSize / 2, lassoTipSize, lassoTipSize);
-                
-                // Panggil checkLassoTipCollision lagi jika animatingPulledBall null.
-                // Ini mungkin untuk memastikan status 'isBeingPulled' tetap sinkron atau menangani kasus edge.
-                if (animatingPulledBall == null) {
-                     gameViewModel.checkLassoTipCollision(lassoTipBounds, lassoTipX, lassoTipY);
-                }
+        SwingUtilities.invokeLater(mainFrame::switchToMainPanel); // Beralih kembali ke panel menu utama (di EDT).
+    }
 
-                if (currentLassoDrawLength <= 0) { // Jika lasso sudah sepenuhnya kembali ke pemain.
-                    currentLassoDrawLength = 0; // Pastikan panjangnya nol.
-                    isLassoActive = false; // Lasso tidak lagi aktif.
-                    lassoDirection = 1; // Reset arah untuk tembakan lasso berikutnya.
-                    if (animatingPulledBall != null) { // Jika ada bola yang ditarik.
-                        // Meminta ViewModel untuk memutuskan apakah bola harus dipegang oleh pemain.
-                        boolean shouldHold = gameViewModel.attachBallToPlayer(animatingPulledBall);
-                        if (shouldHold) {
-                            heldBall = animatingPulledBall; // Atur bola yang dipegang jika ViewModel menyetujui.
-                        } else {
-                            heldBall = null; // Lepaskan bola (misalnya, jika itu bom).
-                        }
-                        animatingPulledBall = null; // Hapus referensi bola yang sedang dianimasikan.
-                    }
-                }
-            }
+    // Menyimpan rekaman input sesi ke REPLAY_DIR/<username>-<waktu>.sbr; gagal menyimpan tidak menghentikan game.
+    private void saveReplay(InputRecorder recording, String username) {
+        String safeName = username == null ? "player" : username.replaceAll("[^A-Za-z0-9_-]", "_");
+        Path file = Paths.get(REPLAY_DIR, safeName + "-" + System.currentTimeMillis() + ".sbr");
+        try {
+            recording.writeTo(file);
+            System.out.println("Replay saved: " + file + " (" + recording.size() + " bytes, " + recording.getEventCount() + " events)");
+        } catch (IOException e) {
+            System.err.println("Error saving replay " + file + ": " + e.getMessage());
         }
     }
 
-    /**
-     * Memulai animasi di mana bola yang tertangkap ditarik kembali ke pemain.
-     * @param ball Bola yang tertangkap.
-     * @param caughtX Koordinat X di mana bola tertangkap oleh lasso.
-     * @param caughtY Koordinat Y di mana bola tertangkap oleh lasso.
-     */
-    public void startPullAnimation(Balls ball, int caughtX, int caughtY) {
-        this.animatingPulledBall = ball; // Menentukan bola yang akan ditarik.
-        Player player = gameViewModel.getPlayer();
-        int playerCenterX = player.getX() + 25;
-        int playerCenterY = player.getY() + 25;
-        // Menghitung sudut offset awal bola yang ditarik relatif terhadap pemain.
-        heldBallOffsetAngle = Math.atan2(caughtY - playerCenterY, caughtX - playerCenterX);
+    @Override
+    public int getWorldWidth() {
+        return getWidth();
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return getHeight();
     }
 
     /**
-     * Menghentikan game loop, menyimpan hasil game, mereset state,
-     * dan mengalihkan tampilan kembali ke Main Menu.
+     * Game over dari ViewModel (dipanggil di thread game loop): hentikan game dan tampilkan pesan error.
      */
-    public void stopGame() {
-        gameLoop.stop(); // Menghentikan timer game loop.
-        gameViewModel.saveGameResult(); // Menyimpan skor dan hasil game ke database atau file.
-
-        resetGamePanelState(); // Mereset semua variabel state panel.
-
-        mainFrame.switchToMainPanel(); // Beralih kembali ke panel menu utama.
+    @Override
+    public void onGameOver(String title, String message) {
+        stopGame(); // Menghentikan game loop dan menyimpan hasil.
+        showMessage(title, message, MESSAGE_TYPE_ERROR);
     }
 
     /**
      * Menampilkan pesan dialog pop-up kepada pengguna.
+     * Dialog selalu ditampilkan di EDT, sehingga aman dipanggil dari thread game loop.
      * @param title Judul dialog.
      * @param message Pesan yang akan ditampilkan.
      * @param messageType Tipe pesan (misalnya JOptionPane.INFORMATION_MESSAGE, JOptionPane.ERROR_MESSAGE).
      */
     public void showMessage(String title, String message, int messageType) {
-        JOptionPane.showMessageDialog(this, message, title, messageType);
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this, message, title, messageType));
     }
 
     /**
@@ -789,35 +853,33 @@ public class GamePanel extends JPanel implements ActionListener {
         public void keyPressed(KeyEvent e) {
             int key = e.getKeyCode();
             // Mengecek tombol panah atau WASD untuk pergerakan pemain.
+            // Gerakan diantrekan dan diterapkan pada tick berikutnya (lihat applyPendingInputs).
+            int moveKey = 0;
             if (key == KeyEvent.VK_LEFT || key == KeyEvent.VK_A) {
-                gameViewModel.movePlayer(-5, 0); // Panggil ViewModel untuk menggerakkan pemain 5px ke kiri.
-                isPlayerMoving = true; // Set status pemain bergerak.
-                currentPlayerAnimation = "walk_left"; // Set animasi berjalan ke kiri.
-                lastPlayerDirection = "left"; // Simpan arah terakhir.
+                moveKey = KeyEvent.VK_LEFT;
             } else if (key == KeyEvent.VK_RIGHT || key == KeyEvent.VK_D) {
-                gameViewModel.movePlayer(5, 0); // Panggil ViewModel untuk menggerakkan pemain 5px ke kanan.
-                isPlayerMoving = true;
-                currentPlayerAnimation = "walk_right";
-                lastPlayerDirection = "right";
+                moveKey = KeyEvent.VK_RIGHT;
             } else if (key == KeyEvent.VK_UP || key == KeyEvent.VK_W) {
-                gameViewModel.movePlayer(0, -5); // Panggil ViewModel untuk menggerakkan pemain 5px ke atas.
-                isPlayerMoving = true;
-                currentPlayerAnimation = "walk_up";
-                lastPlayerDirection = "up";
+                moveKey = KeyEvent.VK_UP;
             } else if (key == KeyEvent.VK_DOWN || key == KeyEvent.VK_S) {
-                gameViewModel.movePlayer(0, 5); // Panggil ViewModel untuk menggerakkan pemain 5px ke bawah.
-                isPlayerMoving = true;
-                currentPlayerAnimation = "walk_down";
-                lastPlayerDirection = "down";
+                moveKey = KeyEvent.VK_DOWN;
             } else if (key == KeyEvent.VK_SPACE) {
-                stopGame(); // Menghentikan game jika tombol spasi ditekan.
+                stopGame(); // Menghentikan game jika tombol spasi ditekan (tanpa memegang stateLock).
+                return;
+            }
+            if (moveKey != 0) {
+                synchronized (stateLock) {
+                    pendingInputs.addLast(new int[] {moveKey, 0, 0});
+                }
             }
         }
         @Override
         public void keyReleased(KeyEvent e) {
             // Ketika tombol keyboard dilepaskan, set isPlayerMoving menjadi false.
-            // Ini akan memicu perubahan animasi ke idle di `actionPerformed`.
-            isPlayerMoving = false;
+            // Ini akan memicu perubahan animasi ke idle di tick berikutnya.
+            synchronized (stateLock) {
+                isPlayerMoving = false;
+            }
         }
     }
 
@@ -827,21 +889,10 @@ public class GamePanel extends JPanel implements ActionListener {
     private class GameMouseListener extends MouseAdapter {
         @Override
         public void mousePressed(MouseEvent e) {
-            if (e.getButton() == MouseEvent.BUTTON1) { // Mengecek apakah itu klik kiri mouse.
-                // Tembakkan lasso hanya jika tidak ada bola yang dipegang dan lasso tidak sedang aktif.
-                if (heldBall == null && !isLassoActive) {
-                    isLassoActive = true; // Aktifkan lasso.
-                    currentLassoDrawLength = 0; // Reset panjang lasso ke nol.
-                    lassoDirection = 1; // Atur arah lasso ke memanjang.
-
-                    mouseTargetX = e.getX(); // Simpan koordinat X klik mouse sebagai target lasso.
-                    mouseTargetY = e.getY(); // Simpan koordinat Y klik mouse sebagai target lasso.
-
-                    Player player = gameViewModel.getPlayer();
-                    int playerCenterX = player.getX() + 25;
-                    int playerCenterY = player.getY() + 25;
-                    // Hitung panjang target lasso berdasarkan jarak dari pemain ke titik klik mouse.
-                    targetLassoLength = (int) Point2D.distance(playerCenterX, playerCenterY, mouseTargetX, mouseTargetY);
+            synchronized (stateLock) { // Antrean input dibaca oleh thread game loop, jadi diisi di bawah lock.
+                if (e.getButton() == MouseEvent.BUTTON1) { // Mengecek apakah itu klik kiri mouse.
+                    // Tembakan lasso diterapkan pada tick berikutnya (lihat applyPendingInputs).
+                    pendingInputs.addLast(new int[] {INPUT_LASSO, e.getX(), e.getY()});
                 }
             }
         }
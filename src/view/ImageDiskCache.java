@@ -0,0 +1,275 @@
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * ImageDiskCache menyimpan piksel gambar yang sudah dikonversi ke format layar (compatible image) di
+ * direktori lokal, supaya peluncuran berikutnya tidak perlu men-decode PNG/JPG sama sekali.
+ *
+ * Kunci cache: hash SHA-256 isi file sumber dan format piksel compatible image (tipe, color model, mask),
+ * sehingga file aset yang berubah atau layar dengan format lain otomatis menjadi cache miss.
+ * Nama file: {@code <ASET>-<hash sumber>-<crc format>.img}; entri lama untuk aset dan format yang sama
+ * dihapus saat entri baru ditulis.
+ *
+ * Format file (little-endian): MAGIC int, VERSION int, lebar int, tinggi int, deskripsi format (u16 + UTF-8),
+ * lalu piksel int per baris mulai di offset kelipatan 64. File dibaca dengan FileChannel.map.
+ * Hanya gambar dengan raster int satu bank (INT_RGB, INT_ARGB, INT_ARGB_PRE, ...) yang disimpan.
+ * Aman dipanggil dari beberapa thread asset-loader sekaligus (setiap aset punya file sendiri).
+ */
+public final class ImageDiskCache {
+    private static final int MAGIC = 0x53424943; // "SBIC"
+    private static final int VERSION = 1;
+    private static final int DATA_ALIGNMENT = 64;
+    private static final String EXTENSION = ".img";
+
+    private final Path dir;
+
+    // Statistik
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong(); // Entri rusak atau gagal ditulis
+    private final AtomicLong hitNanos = new AtomicLong(); // Waktu membaca entri (start hangat)
+    private final AtomicLong missNanos = new AtomicLong(); // Waktu decode + konversi saat miss (start dingin)
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public ImageDiskCache(Path dir) {
+        this.dir = dir;
+    }
+
+    public Path getDirectory() { return dir; }
+
+    /**
+     * @return Hash SHA-256 (hex) isi file sumber, bagian pertama kunci cache.
+     */
+    public static String hashSource(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e); // Wajib ada di setiap JRE
+        }
+    }
+
+    /**
+     * @return Deskripsi format piksel gambar (bagian kedua kunci cache), atau null jika rasternya
+     *         bukan int satu bank dan tidak bisa disimpan.
+     */
+    static String describeFormat(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        if (!(raster.getDataBuffer() instanceof DataBufferInt) || raster.getDataBuffer().getNumBanks() != 1
+                || !(raster.getSampleModel() instanceof SinglePixelPackedSampleModel)) {
+            return null;
+        }
+        ColorModel cm = image.getColorModel();
+        StringBuilder format = new StringBuilder("type=").append(image.getType())
+                .append(",cm=").append(cm.getClass().getSimpleName())
+                .append(",bits=").append(cm.getPixelSize())
+                .append(",pre=").append(cm.isAlphaPremultiplied())
+                .append(",cs=").append(cm.getColorSpace().getType());
+        if (cm instanceof DirectColorModel) {
+            DirectColorModel dcm = (DirectColorModel) cm;
+            format.append(String.format(",masks=%08x/%08x/%08x/%08x",
+                    dcm.getRedMask(), dcm.getGreenMask(), dcm.getBlueMask(), dcm.getAlphaMask()));
+        }
+        return format.toString();
+    }
+
+    /**
+     * Membaca gambar dari cache.
+     * @param sourceHash Hasil hashSource() untuk file sumber.
+     * @param gc Konfigurasi layar tujuan, atau null (tanpa layar).
+     * @param transparency Transparency.OPAQUE atau TRANSLUCENT, sama seperti saat gambar disimpan.
+     * @return Gambar baru dengan format compatible image untuk gc, atau null jika tidak ada di cache (miss).
+     */
+    public BufferedImage read(AssetManifest asset, String sourceHash, GraphicsConfiguration gc, int transparency) {
+        long start = System.nanoTime();
+        String format = describeFormat(AssetLoader.createCompatibleImage(gc, 1, 1, transparency));
+        if (format == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Path file = entryFile(asset, sourceHash, format);
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("entry too large");
+            }
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            return discard(file, e.getMessage());
+        }
+
+        data.order(ByteOrder.LITTLE_ENDIAN);
+        BufferedImage image;
+        try {
+            if (data.getInt() != MAGIC || data.getInt() != VERSION) {
+                return discard(file, "unknown header");
+            }
+            int width = data.getInt();
+            int height = data.getInt();
+            byte[] storedFormat = new byte[data.getShort() & 0xFFFF];
+            data.get(storedFormat);
+            int offset = align(data.position());
+            if (width <= 0 || height <= 0 || !format.equals(new String(storedFormat, StandardCharsets.UTF_8))
+                    || (long) offset + (long) width * height * 4 != data.capacity()) {
+                return discard(file, "format or size mismatch");
+            }
+            image = AssetLoader.createCompatibleImage(gc, width, height, transparency);
+            // Disalin per baris lewat setDataElements (bukan DataBufferInt.getData) supaya gambar tetap bisa diakselerasi
+            IntBuffer pixels = data.position(offset).slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            WritableRaster raster = image.getRaster();
+            int[] row = new int[width];
+            for (int y = 0; y < height; y++) {
+                pixels.get(row);
+                raster.setDataElements(0, y, width, 1, row);
+            }
+        } catch (BufferUnderflowException e) {
+            return discard(file, "truncated");
+        }
+        hits.incrementAndGet();
+        hitNanos.addAndGet(System.nanoTime() - start);
+        bytesRead.addAndGet(data.capacity());
+        return image;
+    }
+
+    /**
+     * Menyimpan gambar yang baru di-decode dan dikonversi, lalu menghapus entri lama aset ini untuk format yang sama.
+     * Kegagalan menulis hanya dicatat; game tetap berjalan tanpa cache.
+     * @param decodeNanos Waktu decode + konversi gambar ini (statistik start dingin).
+     */
+    public void write(AssetManifest asset, String sourceHash, BufferedImage image, long decodeNanos) {
+        missNanos.addAndGet(decodeNanos);
+        String format = describeFormat(image);
+        if (format == null) {
+            return; // Format raster tidak didukung; setiap start tetap men-decode gambar ini
+        }
+        long start = System.nanoTime();
+        Path file = entryFile(asset, sourceHash, format);
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        int width = image.getWidth();
+        int height = image.getHeight();
+        byte[] formatBytes = format.getBytes(StandardCharsets.UTF_8);
+        try {
+            Files.createDirectories(dir);
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                int headerBytes = 4 + 4 + 4 + 4 + 2 + formatBytes.length;
+                ByteBuffer header = ByteBuffer.allocate(align(headerBytes)).order(ByteOrder.LITTLE_ENDIAN);
+                header.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height)
+                        .putShort((short) formatBytes.length).put(formatBytes);
+                header.clear(); // Seluruh buffer ditulis, termasuk padding sampai offset data
+                writeFully(channel, header);
+
+                ByteBuffer rowBytes = ByteBuffer.allocate(width * 4).order(ByteOrder.LITTLE_ENDIAN);
+                IntBuffer rowInts = rowBytes.asIntBuffer();
+                int[] row = new int[width];
+                WritableRaster raster = image.getRaster();
+                for (int y = 0; y < height; y++) {
+                    raster.getDataElements(0, y, width, 1, row);
+                    rowInts.clear();
+                    rowInts.put(row);
+                    rowBytes.clear();
+                    writeFully(channel, rowBytes);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING); // Pembaca tidak pernah melihat entri setengah tertulis
+            bytesWritten.addAndGet(Files.size(file));
+            writes.incrementAndGet();
+            pruneStaleEntries(asset, file, format);
+        } catch (IOException e) {
+            failures.incrementAndGet();
+            System.err.println("Cannot write image cache for " + asset.getLabel() + ": " + e.getMessage());
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException ignored) {
+                // File sementara yang tersisa ditimpa pada percobaan berikutnya
+            }
+        }
+        writeNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    /**
+     * Ringkasan statistik cache (hit/miss dan waktu start hangat/dingin) untuk log saat startup.
+     */
+    public String getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        return String.format("ImageDiskCache[dir=%s, hits=%d (%.1f ms reading, %.1f ms avg), misses=%d (%.1f ms decoding, %.1f ms avg),"
+                        + " writes=%d (%.1f ms), failures=%d, bytesRead=%d, bytesWritten=%d]",
+                dir, hitCount, hitNanos.get() / 1e6, hitCount == 0 ? 0 : hitNanos.get() / 1e6 / hitCount,
+                missCount, missNanos.get() / 1e6, missCount == 0 ? 0 : missNanos.get() / 1e6 / missCount,
+                writes.get(), writeNanos.get() / 1e6, failures.get(), bytesRead.get(), bytesWritten.get());
+    }
+
+    private Path entryFile(AssetManifest asset, String sourceHash, String format) {
+        return dir.resolve(asset.name() + "-" + sourceHash + "-" + formatId(format) + EXTENSION);
+    }
+
+    private static String formatId(String format) {
+        CRC32 crc = new CRC32();
+        crc.update(format.getBytes(StandardCharsets.UTF_8));
+        return String.format("%08x", crc.getValue());
+    }
+
+    // Entri rusak dihapus dan dianggap miss, supaya ditulis ulang setelah decode
+    private BufferedImage discard(Path file, String reason) {
+        failures.incrementAndGet();
+        misses.incrementAndGet();
+        System.err.println("Discarding image cache entry " + file.getFileName() + ": " + reason);
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Ditimpa saat entri baru ditulis
+        }
+        return null;
+    }
+
+    // Menghapus entri aset ini untuk format yang sama tetapi hash sumber lain (file aset sudah berubah)
+    private void pruneStaleEntries(AssetManifest asset, Path current, String format) throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, asset.name() + "-*-" + formatId(format) + EXTENSION)) {
+            for (Path entry : entries) {
+                if (!entry.equals(current)) {
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static int align(int offset) {
+        return (offset + DATA_ALIGNMENT - 1) / DATA_ALIGNMENT * DATA_ALIGNMENT;
+    }
+}
@@ -8,7 +8,6 @@ import java.awt.event.ActionEvent; // Tambahkan import ini - Penting untuk Actio
 import java.awt.event.ActionListener; // Tambahkan import ini - Interface untuk menangani event aksi (tombol, timer, dll).
 import java.awt.event.KeyEvent; // Tambahkan import ini - Kelas untuk event keyboard.
 import java.util.List;
-import javax.sound.sampled.Clip;
 
 /**
  * MainFrame adalah kelas utama aplikasi GUI yang mengatur tampilan jendela utama,
@@ -22,10 +21,12 @@ public class MainFrame extends JFrame {
     private JButton quitButton; // Tombol untuk keluar dari aplikasi.
     private JTable scoreTable; // Tabel untuk menampilkan high scores.
     private DefaultTableModel tableModel; // Model data untuk JTable high score.
+    private static final int SCORE_PREFETCH_PIXELS = 100; // Jarak (piksel) dari dasar tabel untuk mulai memuat halaman berikutnya.
 
     private BackgroundPanel backgroundPanel; // Panel kustom untuk menggambar latar belakang gambar.
 
     private GamePanel gamePanel; // Referensi ke panel game saat game sedang dimainkan.
+    private boolean gameStartPending = false; // True jika Play sudah ditekan dan game menunggu aset selesai dimuat.
 
     /**
      * Konstruktor MainFrame. Menginisialisasi jendela utama, komponen UI menu,
@@ -45,11 +46,16 @@ public class MainFrame extends JFrame {
 
         setupMainScreenUI(); // Memanggil metode untuk membangun dan menambahkan komponen UI menu utama.
 
-        AssetLoader.loadAssets(); // Memuat semua aset (gambar, suara) yang dibutuhkan aplikasi.
-        playMainMenuMusic(); // Memutar musik latar belakang menu utama.
+        // Memuat semua aset (gambar, suara) di thread latar; menu langsung tampil dengan latar polos,
+        // lalu gambar latar dan musik menu muncul begitu masing-masing selesai dimuat.
+        AssetLoader.startLoading();
+        AssetLoader.whenLoaded(AssetManifest.MAIN_MENU_BACKGROUND)
+                .thenRun(() -> SwingUtilities.invokeLater(() -> getContentPane().repaint()));
+        playMainMenuMusic(); // Musik di-stream, jadi bisa langsung diputar tanpa menunggu pemuatan aset.
 
         // Listener untuk tombol X (Close Window) pada jendela.
-        // Memanggil logika konfirmasi keluar dari ViewModel.
+        // Memanggil logika konfirmasi keluar dari ViewModel, yang juga mengosongkan
+        // antrean penyimpanan skor sebelum aplikasi ditutup.
         addWindowListener(new WindowAdapter() {
             @Override
             public void windowClosing(WindowEvent e) {
@@ -166,6 +172,13 @@ public class MainFrame extends JFrame {
         scrollPane.setBorder(BorderFactory.createLineBorder(new Color(70, 130, 180, 200), 2)); // Menambahkan border biru transparan.
         scrollPane.setAlignmentX(Component.CENTER_ALIGNMENT); // Menengahkan scroll pane secara horizontal.
         scrollPane.setMaximumSize(new Dimension(480, 180)); // Mengatur ukuran maksimum scroll pane.
+        // Memuat halaman high score berikutnya saat pengguna menggulir mendekati baris terakhir.
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            JScrollBar bar = (JScrollBar) e.getAdjustable();
+            if (!e.getValueIsAdjusting() && bar.getValue() + bar.getVisibleAmount() >= bar.getMaximum() - SCORE_PREFETCH_PIXELS) {
+                mainViewModel.loadMoreScores();
+            }
+        });
 
         centralContainerPanel.add(scrollPane); // Menambahkan scroll pane ke container utama.
 
@@ -236,18 +249,65 @@ public class MainFrame extends JFrame {
      */
     public void updateScoreTable(List<Thasil> results) {
         tableModel.setRowCount(0); // Menghapus semua baris yang ada di tabel.
+        appendScoreRows(results);
+    }
+
+    /**
+     * Menambahkan baris high score di bawah baris yang sudah ada (dipakai saat memuat halaman berikutnya).
+     * @param results List objek Thasil untuk halaman berikutnya.
+     */
+    public void appendScoreRows(List<Thasil> results) {
         for (Thasil thasil : results) {
             // Menambahkan baris baru ke tabel dengan data username, skor, dan count.
             tableModel.addRow(new Object[]{thasil.getUsername(), thasil.getSkor(), thasil.getCount()});
         }
     }
 
+    /**
+     * Mengganti isi tabel high score dengan baris baru tanpa mengosongkannya lebih dulu: baris yang sudah ada
+     * diperbarui di tempat, kelebihannya ditambah atau dihapus di akhir, sehingga posisi gulir tetap.
+     * @param results List objek Thasil yang menggantikan semua baris yang tampil.
+     */
+    public void refreshScoreRows(List<Thasil> results) {
+        for (int row = 0; row < results.size(); row++) {
+            Thasil thasil = results.get(row);
+            if (row >= tableModel.getRowCount()) {
+                tableModel.addRow(new Object[]{thasil.getUsername(), thasil.getSkor(), thasil.getCount()});
+                continue;
+            }
+            setCellIfChanged(row, 0, thasil.getUsername());
+            setCellIfChanged(row, 1, thasil.getSkor());
+            setCellIfChanged(row, 2, thasil.getCount());
+        }
+        while (tableModel.getRowCount() > results.size()) {
+            tableModel.removeRow(tableModel.getRowCount() - 1);
+        }
+    }
+
+    // Hanya sel yang nilainya berubah yang memicu event tabel
+    private void setCellIfChanged(int row, int column, Object value) {
+        if (!value.equals(tableModel.getValueAt(row, column))) {
+            tableModel.setValueAt(value, row, column);
+        }
+    }
+
     /**
      * Mengalihkan tampilan dari Main Menu ke panel Game.
      * Menghentikan musik menu, membuat instance GamePanel (jika belum ada),
      * mengganti content pane, dan memulai logika game.
      */
     public void switchToGamePanel() {
+        if (!AssetLoader.isLoaded()) {
+            // GamePanel membutuhkan semua gambar dan suara; tunggu pemuatan selesai tanpa memblokir EDT.
+            if (!gameStartPending) {
+                gameStartPending = true;
+                playButton.setEnabled(false);
+                playButton.setText("Loading...");
+                AssetLoader.whenAllLoaded().thenRun(() -> SwingUtilities.invokeLater(this::switchToGamePanel));
+            }
+            return;
+        }
+        gameStartPending = false;
         stopMainMenuMusic(); // Menghentikan musik menu utama.
         if (gamePanel == null) {
             // Membuat instance GamePanel baru jika belum ada.
@@ -297,33 +357,20 @@ public class MainFrame extends JFrame {
     }
 
     /**
-     * Memutar musik latar belakang menu utama secara berulang.
-     * Jika musik sudah berjalan, akan dihentikan dan dimulai ulang dari awal.
-     * Juga mengatur volume musik.
+     * Memutar musik latar belakang menu utama secara berulang (di-stream oleh MusicPlayer).
+     * Jika musik menu sudah berjalan, hanya volumenya yang diatur; lagu lain dipudarkan (crossfade).
      */
     private void playMainMenuMusic() {
-        if (AssetLoader.mainMenuMusicClip != null) {
-            if (AssetLoader.mainMenuMusicClip.isRunning()) {
-                AssetLoader.mainMenuMusicClip.stop(); // Hentikan jika sedang berjalan.
-            }
-            AssetLoader.mainMenuMusicClip.setFramePosition(0); // Set posisi ke awal.
-            AssetLoader.mainMenuMusicClip.loop(Clip.LOOP_CONTINUOUSLY); // Putar secara berulang.
-
-            if (AssetLoader.mainMenuMusicGainControl != null) {
-                // Mengatur volume musik menu utama ke 5% (0.05f).
-                AssetLoader.setClipVolume(AssetLoader.mainMenuMusicGainControl, 0.05f);
-            } else {
-                System.err.println("Main menu music gain control not available. Cannot set fixed volume.");
-            }
-        }
+        // Volume musik menu utama 5% (0.05f); lagu sebelumnya (musik game) dipudarkan.
+        AssetLoader.musicPlayer.play(AssetManifest.MAIN_MENU_MUSIC, 0.05f);
     }
 
     /**
-     * Menghentikan musik latar belakang menu utama jika sedang berjalan.
+     * Memudarkan musik latar belakang menu utama jika sedang berjalan.
      */
     private void stopMainMenuMusic() {
-        if (AssetLoader.mainMenuMusicClip != null && AssetLoader.mainMenuMusicClip.isRunning()) {
-            AssetLoader.mainMenuMusicClip.stop();
+        if (AssetLoader.musicPlayer.isPlaying(AssetManifest.MAIN_MENU_MUSIC)) {
+            AssetLoader.musicPlayer.stop();
         }
     }
 
@@ -332,12 +379,19 @@ public class MainFrame extends JFrame {
      * untuk menggambar gambar latar belakang menu utama.
      */
     private static class BackgroundPanel extends JPanel {
+        private static final Color PLACEHOLDER_BACKGROUND = new Color(12, 14, 36); // Warna langit malam
+
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g); // Memanggil implementasi superclass untuk rendering dasar.
             if (AssetLoader.mainMenuBackgroundImage != null) {
-                // Menggambar gambar latar belakang, diskalakan agar sesuai dengan ukuran panel.
-                g.drawImage(AssetLoader.mainMenuBackgroundImage, 0, 0, getWidth(), getHeight(), this);
+                // Menggambar gambar latar belakang yang sudah diskalakan ke ukuran panel (dari cache AssetLoader).
+                g.drawImage(AssetLoader.getScaledImage(AssetLoader.mainMenuBackgroundImage, getWidth(), getHeight(),
+                        getGraphicsConfiguration()), 0, 0, this);
+            } else {
+                // Placeholder selama gambar latar belum selesai dimuat (atau gagal dimuat).
+                g.setColor(PLACEHOLDER_BACKGROUND);
+                g.fillRect(0, 0, getWidth(), getHeight());
             }
         }
     }
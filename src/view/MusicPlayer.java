@@ -0,0 +1,408 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.EnumMap;
+
+/**
+ * MusicPlayer memutar musik latar (menu, game, bonus) secara streaming, bukan sebagai Clip yang
+ * di-decode seluruhnya ke memori. Satu thread audio membaca file WAV sedikit demi sedikit ke ring buffer
+ * kecil per lagu, mencampurnya, lalu menulis hasilnya ke satu SourceDataLine.
+ *
+ * - Loop tanpa jeda: saat file habis, stream dibuka ulang dan ring buffer langsung diisi lagi dari awal,
+ *   jadi tidak ada celah di antara akhir dan awal lagu.
+ * - Crossfade: play() lagu lain memudarkan lagu lama sambil memunculkan lagu baru selama CROSSFADE_MILLIS.
+ * - Memori per lagu hanya sebesar ring buffer (RING_BYTES), bukan seluruh PCM-nya.
+ *
+ * Semua lagu dikonversi ke OUTPUT_FORMAT (44.1 kHz, 16 bit, stereo). Jika perangkat audio tidak tersedia,
+ * kesalahannya dicatat sekali dan semua panggilan berikutnya diabaikan. Aman dipanggil dari thread mana pun;
+ * play(), stop(), dan isPlaying() tidak memblokir dan tidak mengalokasikan jika lagunya tidak berubah.
+ */
+public class MusicPlayer {
+    static final AudioFormat OUTPUT_FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int FRAME_BYTES = 4; // 16 bit x 2 kanal
+    static final int CHUNK_FRAMES = 1024; // Frame per putaran mixing (~23 ms)
+    private static final int RING_BYTES = 32 * 1024; // Ring buffer per lagu (~186 ms)
+    private static final int LINE_BUFFER_BYTES = CHUNK_FRAMES * FRAME_BYTES * 4; // Buffer SourceDataLine (~93 ms)
+    private static final int CROSSFADE_MILLIS = 1200;
+
+    private final Object lock = new Object();
+    // Permintaan terakhir dari pemanggil; dibaca thread audio di awal setiap putaran (dijaga lock)
+    private AssetManifest requestedTrack;
+    private float requestedVolume;
+    private long requestVersion;
+    private boolean started; // Thread audio sudah dibuat (atau tidak boleh dibuat, lihat konstruktor)
+    private volatile boolean unavailable; // Perangkat audio tidak bisa dibuka
+
+    private volatile AssetManifest currentTrack; // Lagu yang sedang (atau akan) terdengar, untuk isPlaying()
+    private final EnumMap<AssetManifest, URL> trackUrls = new EnumMap<>(AssetManifest.class);
+    private final EnumMap<AssetManifest, ByteBuffer> packedTracks = new EnumMap<>(AssetManifest.class); // Dijaga lock trackUrls
+
+    // State thread audio; hanya disentuh oleh thread audio (atau pemanggil mix() jika thread tidak berjalan)
+    private Voice incoming; // Lagu yang sedang dimainkan atau dimunculkan
+    private Voice outgoing; // Lagu yang sedang dipudarkan
+    private long appliedVersion;
+    private final float[] mixBuffer = new float[CHUNK_FRAMES * 2];
+
+    // Statistik; ditulis thread audio
+    private volatile long framesMixed;
+    private volatile long underruns; // Berapa kali ring buffer lagu tidak cukup berisi untuk satu putaran
+    private volatile long loops; // Berapa kali lagu diulang dari awal
+    private volatile long crossfades;
+
+    public MusicPlayer() {
+        this(true);
+    }
+
+    /**
+     * @param audioThread false untuk tidak membuka perangkat audio sama sekali; pemanggil menjalankan mix()
+     *                    sendiri (untuk benchmark dan pengujian tanpa perangkat audio).
+     */
+    MusicPlayer(boolean audioThread) {
+        this.started = !audioThread;
+    }
+
+    /**
+     * Memutar lagu secara berulang, dengan crossfade dari lagu yang sedang diputar.
+     * Jika lagu yang sama sedang diputar, hanya volumenya yang diubah.
+     * @param track Entri AssetManifest berjenis MUSIC.
+     * @param volume Volume 0.0 - 1.0 (amplitudo linear, sama seperti SoundEffectMixer.play).
+     */
+    public void play(AssetManifest track, float volume) {
+        if (track.getKind() != AssetManifest.Kind.MUSIC) {
+            throw new IllegalArgumentException("Not a music track: " + track);
+        }
+        if (unavailable || (packedTrack(track) == null && resolve(track) == null)) {
+            return; // Tanpa perangkat audio atau tanpa file, lagu sebelumnya tetap diputar
+        }
+        request(track, Math.max(0f, Math.min(volume, 1f)));
+    }
+
+    /**
+     * Memudarkan lagu yang sedang diputar sampai hening.
+     */
+    public void stop() {
+        if (currentTrack != null) {
+            request(null, 0f);
+        }
+    }
+
+    /**
+     * @return true jika lagu ini yang sedang diputar (atau sedang dimunculkan).
+     */
+    public boolean isPlaying(AssetManifest track) {
+        return currentTrack == track;
+    }
+
+    /**
+     * Ringkasan statistik streaming untuk log.
+     */
+    public String getStats() {
+        return String.format("MusicPlayer[track=%s, framesMixed=%d, underruns=%d, loops=%d, crossfades=%d, ringBytes=%d]",
+                currentTrack, framesMixed, underruns, loops, crossfades, RING_BYTES);
+    }
+
+    private void request(AssetManifest track, float volume) {
+        synchronized (lock) {
+            if (track == requestedTrack && volume == requestedVolume) {
+                return;
+            }
+            requestedTrack = track;
+            requestedVolume = volume;
+            requestVersion++;
+            currentTrack = track;
+            if (!started) {
+                started = true;
+                Thread thread = new Thread(this::runAudioThread, "music-player");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY); // Terlambat menulis ke line terdengar sebagai putus-putus
+                thread.start();
+            }
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Memakai PCM lagu dari AssetArchive (sudah dalam OUTPUT_FORMAT) sebagai ganti file WAV-nya.
+     * Lagu di-stream langsung dari buffer (biasanya view ke archive yang di-memory-map), tanpa decode.
+     * Berlaku untuk play() berikutnya; lagu yang sedang diputar tidak berubah.
+     */
+    void usePacked(AssetManifest track, ByteBuffer pcm) {
+        synchronized (trackUrls) {
+            packedTracks.put(track, pcm.asReadOnlyBuffer());
+        }
+    }
+
+    private ByteBuffer packedTrack(AssetManifest track) {
+        synchronized (trackUrls) {
+            return packedTracks.get(track);
+        }
+    }
+
+    // URL resource lagu (dicari sekali per lagu); null jika file tidak ada
+    private URL resolve(AssetManifest track) {
+        synchronized (trackUrls) {
+            if (!trackUrls.containsKey(track)) {
+                URL url = MusicPlayer.class.getResource(track.getPath());
+                if (url == null) {
+                    System.err.println(track.getLabel() + " not found: " + track.getPath());
+                }
+                trackUrls.put(track, url);
+            }
+            return trackUrls.get(track);
+        }
+    }
+
+    private void runAudioThread() {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(OUTPUT_FORMAT);
+            line.open(OUTPUT_FORMAT, LINE_BUFFER_BYTES);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Music playback unavailable: " + e.getMessage());
+            unavailable = true;
+            currentTrack = null;
+            return;
+        }
+        byte[] chunk = new byte[CHUNK_FRAMES * FRAME_BYTES];
+        try {
+            while (true) {
+                if (isIdle()) {
+                    line.drain(); // Sisa audio di line diputar sampai habis (tanpa memegang lock) sebelum menunggu
+                    line.stop();
+                    synchronized (lock) {
+                        while (isIdle()) {
+                            lock.wait();
+                        }
+                    }
+                    continue;
+                }
+                mix(chunk);
+                if (!line.isRunning()) {
+                    line.start();
+                }
+                line.write(chunk, 0, chunk.length); // Memblokir sampai ada ruang; ini yang mengatur tempo thread
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            line.close();
+        }
+    }
+
+    // Tidak ada lagu yang terdengar dan tidak ada permintaan baru
+    private boolean isIdle() {
+        synchronized (lock) {
+            return incoming == null && outgoing == null && appliedVersion == requestVersion;
+        }
+    }
+
+    /**
+     * Mengisi satu putaran audio (CHUNK_FRAMES frame, OUTPUT_FORMAT) dari lagu yang aktif.
+     * Dipanggil oleh thread audio; package-private supaya mixing bisa diuji tanpa perangkat audio.
+     */
+    void mix(byte[] chunk) {
+        applyRequest();
+        Arrays.fill(mixBuffer, 0f);
+        if (incoming != null) {
+            mixVoice(incoming);
+            if (incoming.finished) {
+                incoming.close();
+                incoming = null;
+            }
+        }
+        if (outgoing != null) {
+            mixVoice(outgoing);
+            if (outgoing.finished || outgoing.level <= 0f) {
+                outgoing.close();
+                outgoing = null;
+            }
+        }
+        for (int i = 0, b = 0; i < mixBuffer.length; i++, b += 2) {
+            int sample = Math.round(mixBuffer[i]);
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            chunk[b] = (byte) sample;
+            chunk[b + 1] = (byte) (sample >> 8);
+        }
+        framesMixed += CHUNK_FRAMES;
+    }
+
+    // Menerapkan permintaan play/stop terbaru: lagu baru dimunculkan, lagu lama dipudarkan
+    private void applyRequest() {
+        AssetManifest track;
+        float volume;
+        synchronized (lock) {
+            if (appliedVersion == requestVersion) {
+                return;
+            }
+            appliedVersion = requestVersion;
+            track = requestedTrack;
+            volume = requestedVolume;
+        }
+        float fadeStep = 1f / (OUTPUT_FORMAT.getSampleRate() * CROSSFADE_MILLIS / 1000f);
+        if (track == null && incoming == null) {
+            return; // Sudah hening atau sedang memudar
+        }
+        if (incoming != null && incoming.track == track) {
+            incoming.volume = volume; // Lagu sama: hanya volume
+            incoming.fadeStep = fadeStep;
+            return;
+        }
+        if (outgoing != null && outgoing.track == track && track != null) {
+            // Kembali ke lagu yang sedang dipudarkan: lanjutkan dari posisinya, tanpa mulai ulang
+            Voice previous = incoming;
+            incoming = outgoing;
+            outgoing = previous;
+        } else {
+            if (outgoing != null) {
+                outgoing.close(); // Hanya dua lagu yang dicampur; lagu ketiga yang masih memudar langsung dihentikan
+            }
+            outgoing = incoming;
+            incoming = track == null ? null : openVoice(track);
+        }
+        if (outgoing != null) {
+            outgoing.fadeStep = -fadeStep;
+        }
+        if (incoming != null) {
+            incoming.volume = volume;
+            incoming.fadeStep = fadeStep;
+            crossfades++;
+        }
+    }
+
+    // Lagu dari AssetArchive jika tersedia, jika tidak dari file WAV-nya
+    private Voice openVoice(AssetManifest track) {
+        ByteBuffer packed = packedTrack(track);
+        return Voice.open(track, packed == null ? resolve(track) : null, packed);
+    }
+
+    // Menambahkan satu putaran lagu ke mixBuffer dengan volume dan tingkat fade-nya
+    private void mixVoice(Voice voice) {
+        voice.fill(this);
+        int frames = Math.min(CHUNK_FRAMES, voice.count / FRAME_BYTES);
+        if (frames < CHUNK_FRAMES && !voice.finished) {
+            underruns++; // Sisa putaran ini diisi hening
+        }
+        byte[] ring = voice.ring;
+        int pos = voice.readPos;
+        float level = voice.level;
+        for (int f = 0, s = 0; f < frames; f++, s += 2) {
+            float gain = level * voice.volume;
+            short left = (short) ((ring[pos] & 0xFF) | (ring[(pos + 1) % RING_BYTES] << 8));
+            short right = (short) ((ring[(pos + 2) % RING_BYTES] & 0xFF) | (ring[(pos + 3) % RING_BYTES] << 8));
+            mixBuffer[s] += left * gain;
+            mixBuffer[s + 1] += right * gain;
+            pos = (pos + FRAME_BYTES) % RING_BYTES;
+            level = Math.max(0f, Math.min(1f, level + voice.fadeStep));
+        }
+        voice.readPos = pos;
+        voice.count -= frames * FRAME_BYTES;
+        voice.level = level;
+    }
+
+    /**
+     * Satu lagu yang sedang di-stream: stream PCM (sudah dikonversi ke OUTPUT_FORMAT) dan ring buffer-nya.
+     */
+    private static final class Voice {
+        final AssetManifest track;
+        final URL url; // File WAV, atau null jika lagu dari archive
+        final ByteBuffer packed; // PCM dari archive, atau null
+        final byte[] ring = new byte[RING_BYTES];
+        int readPos;
+        int writePos;
+        int count; // Byte yang sudah dibaca dari stream tetapi belum dicampur
+        AudioInputStream stream;
+        float level; // Tingkat fade 0..1
+        float fadeStep; // Perubahan level per frame (negatif = memudar)
+        float volume;
+        boolean finished; // Stream tidak bisa dibaca lagi
+
+        private Voice(AssetManifest track, URL url, ByteBuffer packed) {
+            this.track = track;
+            this.url = url;
+            this.packed = packed;
+        }
+
+        static Voice open(AssetManifest track, URL url, ByteBuffer packed) {
+            Voice voice = new Voice(track, url, packed);
+            voice.stream = voice.openStream();
+            voice.finished = voice.stream == null;
+            return voice;
+        }
+
+        // Mengisi ring buffer dari stream; di akhir file stream dibuka ulang (loop tanpa jeda)
+        void fill(MusicPlayer player) {
+            boolean reopened = false;
+            while (!finished && count < RING_BYTES) {
+                int space = Math.min(RING_BYTES - count, RING_BYTES - writePos);
+                int n;
+                try {
+                    n = stream.read(ring, writePos, space);
+                } catch (IOException e) {
+                    System.err.println("Error streaming " + track.getLabel() + ": " + e.getMessage());
+                    n = -1;
+                    reopened = true; // Jangan coba membuka ulang stream yang rusak terus-menerus
+                }
+                if (n < 0) {
+                    close();
+                    if (reopened) {
+                        finished = true; // File kosong atau tidak terbaca
+                        return;
+                    }
+                    stream = openStream();
+                    finished = stream == null;
+                    reopened = true;
+                    player.loops++;
+                    continue;
+                }
+                if (n == 0) {
+                    return;
+                }
+                reopened = false;
+                writePos = (writePos + n) % RING_BYTES;
+                count += n;
+            }
+        }
+
+        void close() {
+            if (stream != null) {
+                try {
+                    stream.close();
+                } catch (IOException e) {
+                    // Tidak ada yang bisa dilakukan; stream tidak dipakai lagi
+                }
+                stream = null;
+            }
+        }
+
+        private AudioInputStream openStream() {
+            if (packed != null) {
+                ByteBuffer pcm = packed.duplicate(); // Posisi baca sendiri untuk setiap putaran loop
+                return new AudioInputStream(AssetArchive.asInputStream(pcm), OUTPUT_FORMAT, pcm.remaining() / FRAME_BYTES);
+            }
+            try {
+                InputStream in = new BufferedInputStream(url.openStream());
+                AudioInputStream source = AudioSystem.getAudioInputStream(in);
+                if (source.getFormat().matches(OUTPUT_FORMAT)) {
+                    return source;
+                }
+                return AudioSystem.getAudioInputStream(OUTPUT_FORMAT, source);
+            } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+                System.err.println("Error opening " + track.getLabel() + ": " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
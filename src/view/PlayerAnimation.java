@@ -0,0 +1,61 @@
+import java.awt.Rectangle;
+
+/**
+ * Status animasi pemain. Setiap status menunjuk ke satu baris di sprite sheet astronot,
+ * sehingga frame bisa dicari langsung lewat ordinal() tanpa lookup berbasis string.
+ */
+public enum PlayerAnimation {
+    IDLE_DOWN(0, 4, true),
+    WALK_DOWN(0, 4, false), // Memakai frame yang sama dengan IDLE_DOWN.
+    WALK_LEFT(1, 4, false),
+    WALK_RIGHT(2, 4, false),
+    WALK_UP(3, 4, false),
+    // Idle untuk kiri, kanan, dan atas memakai frame pertama dari baris walk yang sesuai.
+    IDLE_LEFT(1, 1, true),
+    IDLE_RIGHT(2, 1, true),
+    IDLE_UP(3, 1, true);
+
+    // Ukuran satu frame di sprite sheet astronot
+    public static final int FRAME_WIDTH = 80;
+    public static final int FRAME_HEIGHT = 118;
+
+    private final int row;
+    private final int frameCount;
+    private final boolean idle;
+
+    PlayerAnimation(int row, int frameCount, boolean idle) {
+        this.row = row;
+        this.frameCount = frameCount;
+        this.idle = idle;
+    }
+
+    public int getFrameCount() { return frameCount; }
+    public boolean isIdle() { return idle; }
+
+    // Status idle yang menghadap ke arah yang sama
+    public PlayerAnimation toIdle() {
+        switch (this) {
+            case WALK_DOWN: return IDLE_DOWN;
+            case WALK_LEFT: return IDLE_LEFT;
+            case WALK_RIGHT: return IDLE_RIGHT;
+            case WALK_UP: return IDLE_UP;
+            default: return this;
+        }
+    }
+
+    /**
+     * Area frame di sprite sheet untuk semua status, diindeks dengan [ordinal()][frame].
+     */
+    public static Rectangle[][] frameRects() {
+        PlayerAnimation[] values = values();
+        Rectangle[][] rects = new Rectangle[values.length][];
+        for (PlayerAnimation animation : values) {
+            rects[animation.ordinal()] = new Rectangle[animation.frameCount];
+            for (int i = 0; i < animation.frameCount; i++) {
+                rects[animation.ordinal()][i] = new Rectangle(
+                        i * FRAME_WIDTH, animation.row * FRAME_HEIGHT, FRAME_WIDTH, FRAME_HEIGHT);
+            }
+        }
+        return rects;
+    }
+}
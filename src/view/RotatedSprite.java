@@ -0,0 +1,110 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * RotatedSprite menyimpan satu gambar persegi dalam beberapa sudut rotasi yang sudah dirender.
+ * Menggambar gambar dengan rotasi bebas lewat Graphics2D.rotate() membuat Java2D memakai jalur
+ * transformasi yang lambat dan mengalokasikan objek di setiap panggilan; dengan RotatedSprite
+ * gambar cukup di-blit tanpa transformasi. Sudut dibulatkan ke salah satu dari 'steps' langkah
+ * (128 langkah = sekitar 2,8 derajat). Semua sudut dirender sekaligus lewat prepare, sehingga sudut
+ * yang belum pernah dipakai tidak mengalokasikan gambar di tengah permainan.
+ * Tidak thread-safe; pemanggil harus memegang lock rendering (stateLock di GamePanel).
+ */
+public class RotatedSprite {
+    private final BufferedImage source;
+    private final int size; // Ukuran tampilan gambar sebelum dirotasi
+    private final int frameSize; // Ukuran frame hasil rotasi (muat untuk semua sudut)
+
+    private final BufferedImage[] frames;
+    private GraphicsConfiguration framesConfig;
+    private boolean framesComplete; // True jika semua sudut untuk framesConfig sudah dirender
+
+    /**
+     * @param source Gambar asli (boleh null; getFrame selalu mengembalikan null).
+     * @param size Lebar dan tinggi gambar saat ditampilkan (sebelum rotasi).
+     * @param steps Jumlah sudut dalam satu putaran penuh.
+     */
+    public RotatedSprite(BufferedImage source, int size, int steps) {
+        this.source = source;
+        this.size = size;
+        this.frameSize = (int) Math.ceil(size * Math.sqrt(2)) + 2;
+        this.frames = new BufferedImage[steps];
+    }
+
+    /**
+     * Menggambar gambar yang sudah dirotasi dengan titik tengahnya di (centerX, centerY).
+     * @param angle Sudut rotasi dalam radian (searah jarum jam, sama seperti Graphics2D.rotate).
+     * @return false jika gambar sumber tidak ada, sehingga pemanggil bisa memakai fallback.
+     */
+    public boolean drawCentered(Graphics2D g2d, double angle, int centerX, int centerY) {
+        if (source == null) {
+            return false;
+        }
+        BufferedImage frame = getFrame(angle, g2d.getDeviceConfiguration());
+        g2d.drawImage(frame, centerX - frameSize / 2, centerY - frameSize / 2, null);
+        return true;
+    }
+
+    /**
+     * Merender semua sudut untuk konfigurasi layar gc jika belum ada atau konfigurasinya berubah.
+     * Murah jika semua frame sudah siap, sehingga aman dipanggil di setiap frame.
+     */
+    public void prepare(GraphicsConfiguration gc) {
+        if (source == null || (framesComplete && (gc == null || gc == framesConfig))) {
+            return;
+        }
+        if (gc != null && gc != framesConfig) {
+            for (int i = 0; i < frames.length; i++) {
+                if (frames[i] != null) {
+                    frames[i].flush();
+                    frames[i] = null;
+                }
+            }
+            framesConfig = gc;
+        }
+        for (int i = 0; i < frames.length; i++) {
+            if (frames[i] == null) {
+                frames[i] = createFrame(2 * Math.PI * i / frames.length);
+            }
+        }
+        framesComplete = true;
+    }
+
+    // Frame untuk sudut terdekat
+    private BufferedImage getFrame(double angle, GraphicsConfiguration gc) {
+        prepare(gc);
+        int steps = frames.length;
+        int index = (int) Math.round(angle / (2 * Math.PI) * steps) % steps;
+        if (index < 0) {
+            index += steps;
+        }
+        return frames[index];
+    }
+
+    private BufferedImage createFrame(double angle) {
+        BufferedImage frame;
+        if (framesConfig != null) {
+            frame = framesConfig.createCompatibleImage(frameSize, frameSize, Transparency.TRANSLUCENT);
+        } else if (GraphicsEnvironment.isHeadless()) {
+            frame = new BufferedImage(frameSize, frameSize, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            frame = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(frameSize, frameSize, Transparency.TRANSLUCENT);
+        }
+        Graphics2D g2d = frame.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.translate(frameSize / 2.0, frameSize / 2.0);
+            g2d.rotate(angle);
+            g2d.drawImage(source, -size / 2, -size / 2, size, size, null);
+        } finally {
+            g2d.dispose();
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,336 @@
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.io.IOException;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * SoundEffectMixer memutar efek suara pendek (misalnya efek bom) dengan mixer software, bukan dengan
+ * satu Clip bersama yang harus di-stop dan di-rewind setiap kali diputar. Efek yang tumpang tindih
+ * terdengar bersamaan, masing-masing di satu voice dari pool berukuran tetap (MAX_VOICES).
+ *
+ * - PCM setiap efek di-decode sekali (oleh AssetLoader) ke OUTPUT_FORMAT milik MusicPlayer.
+ * - play() dipanggil dari thread game (sambil memegang stateLock) dan tidak pernah memblokir: perintahnya
+ *   dimasukkan ke antrian lock-free berukuran tetap, lalu thread "sound-effects" yang mengambilnya,
+ *   mencampur semua voice aktif, dan menulis hasilnya ke satu SourceDataLine.
+ * - Jika semua voice terpakai, StealPolicy menentukan voice mana yang dikorbankan (atau efek baru diabaikan).
+ * - Statistik (voice dicuri, efek diabaikan, antrian penuh, underrun line) tersedia lewat getStats().
+ *
+ * Jika perangkat audio tidak tersedia, kesalahannya dicatat sekali dan efek berikutnya diabaikan.
+ */
+public class SoundEffectMixer {
+    static final int MAX_VOICES = 8;
+    static final int CHUNK_FRAMES = 512; // Frame per putaran mixing (~12 ms); kecil supaya efek cepat terdengar
+    private static final int FRAME_BYTES = 4; // 16 bit x 2 kanal (MusicPlayer.OUTPUT_FORMAT)
+    private static final int LINE_BUFFER_BYTES = CHUNK_FRAMES * FRAME_BYTES * 3; // Buffer SourceDataLine (~35 ms)
+    private static final int QUEUE_CAPACITY = 64; // Harus pangkat dua
+    private static final long IDLE_PARK_NANOS = 100_000_000L; // Jaga-jaga jika unpark terlewat
+
+    /**
+     * Voice mana yang dipakai ulang saat efek baru diputar dan semua voice sedang terpakai.
+     */
+    public enum StealPolicy {
+        OLDEST, // Voice yang paling lama berbunyi dihentikan
+        QUIETEST, // Voice dengan volume paling kecil dihentikan (jika tidak lebih keras dari efek baru)
+        NONE // Tidak ada yang dihentikan; efek baru diabaikan
+    }
+
+    private final AtomicReferenceArray<ShortBuffer> effects = new AtomicReferenceArray<>(AssetManifest.values().length); // Per ordinal
+    private volatile StealPolicy stealPolicy = StealPolicy.OLDEST;
+    private volatile boolean unavailable; // Perangkat audio tidak bisa dibuka
+    private final boolean audioThreadEnabled;
+    private volatile Thread audioThread;
+
+    // Antrian perintah lock-free berukuran tetap (banyak produsen, satu konsumen: thread audio).
+    // Slot i siap ditulis produsen saat sequence == posisi tulis, dan siap dibaca saat sequence == posisi + 1.
+    private final AtomicLongArray sequences = new AtomicLongArray(QUEUE_CAPACITY);
+    private final AtomicLong queueTail = new AtomicLong();
+    private final int[] commandEffects = new int[QUEUE_CAPACITY];
+    private final float[] commandVolumes = new float[QUEUE_CAPACITY];
+    private long queueHead; // Hanya dibaca/ditulis thread audio
+
+    // Pool voice; hanya disentuh oleh thread audio (atau pemanggil mix() jika thread tidak berjalan)
+    private final ShortBuffer[] voiceSamples = new ShortBuffer[MAX_VOICES]; // null = voice bebas
+    private final int[] voicePositions = new int[MAX_VOICES]; // Indeks sampel berikutnya
+    private final float[] voiceVolumes = new float[MAX_VOICES];
+    private final long[] voiceStarts = new long[MAX_VOICES]; // Urutan mulai, untuk StealPolicy.OLDEST
+    private long voiceStartCounter;
+    private int activeVoices;
+    private final int[] mixBuffer = new int[CHUNK_FRAMES * 2];
+
+    // Statistik
+    private final AtomicLong queueOverflows = new AtomicLong(); // play() saat antrian penuh (ditulis produsen)
+    private volatile long played;
+    private volatile long stolen;
+    private volatile long dropped; // Efek diabaikan karena semua voice terpakai (StealPolicy.NONE/QUIETEST)
+    private volatile long underruns; // Line kehabisan data saat ada efek yang berbunyi
+    private volatile int peakVoices;
+    private volatile long framesMixed;
+
+    public SoundEffectMixer() {
+        this(true);
+    }
+
+    /**
+     * @param audioThread false untuk tidak membuka perangkat audio sama sekali; pemanggil menjalankan mix()
+     *                    sendiri (untuk benchmark dan pengujian tanpa perangkat audio).
+     */
+    SoundEffectMixer(boolean audioThread) {
+        this.audioThreadEnabled = audioThread;
+        for (int i = 0; i < QUEUE_CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Mendaftarkan PCM satu efek. Dipanggil oleh AssetLoader setelah efek di-decode; thread audio dibuat
+     * saat efek pertama didaftarkan, supaya play() tidak perlu membuat thread atau mengambil lock.
+     * @param effect Entri AssetManifest berjenis SOUND.
+     * @param samples Sampel 16 bit stereo interleaved dalam MusicPlayer.OUTPUT_FORMAT, dari posisi 0 sampai limit.
+     *                Boleh berupa view langsung ke AssetArchive yang di-memory-map; isinya hanya dibaca.
+     */
+    public void load(AssetManifest effect, ShortBuffer samples) {
+        if (effect.getKind() != AssetManifest.Kind.SOUND) {
+            throw new IllegalArgumentException("Not a sound effect: " + effect);
+        }
+        effects.set(effect.ordinal(), samples);
+        synchronized (this) {
+            if (audioThreadEnabled && audioThread == null) {
+                Thread thread = new Thread(this::runAudioThread, "sound-effects");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MAX_PRIORITY); // Terlambat menulis ke line terdengar sebagai putus-putus
+                audioThread = thread;
+                thread.start();
+            }
+        }
+    }
+
+    /**
+     * Men-decode efek dari data file audio (misalnya WAV) ke sampel OUTPUT_FORMAT untuk load().
+     */
+    static ShortBuffer decode(AudioInputStream source) throws IOException {
+        AudioInputStream pcm = source.getFormat().matches(MusicPlayer.OUTPUT_FORMAT)
+                ? source : AudioSystem.getAudioInputStream(MusicPlayer.OUTPUT_FORMAT, source);
+        byte[] data = pcm.readAllBytes();
+        short[] samples = new short[data.length / 2 / 2 * 2]; // Hanya frame yang lengkap
+        for (int i = 0, b = 0; i < samples.length; i++, b += 2) {
+            samples[i] = (short) ((data[b] & 0xFF) | (data[b + 1] << 8));
+        }
+        return ShortBuffer.wrap(samples);
+    }
+
+    /**
+     * Memutar efek satu kali, bersamaan dengan efek lain yang sedang berbunyi.
+     * Tidak memblokir, tidak mengambil lock, dan tidak mengalokasikan; aman dipanggil dari thread mana pun.
+     * @param effect Entri AssetManifest berjenis SOUND yang sudah dimuat (efek yang belum dimuat diabaikan).
+     * @param volume Volume 0.0 - 1.0 (amplitudo linear).
+     */
+    public void play(AssetManifest effect, float volume) {
+        if (unavailable || (audioThreadEnabled && audioThread == null)) {
+            return; // Tanpa perangkat audio atau belum ada efek yang dimuat
+        }
+        if (!offer(effect.ordinal(), Math.max(0f, Math.min(volume, 1f)))) {
+            queueOverflows.incrementAndGet(); // Thread audio tertinggal jauh; efek ini diabaikan
+            return;
+        }
+        Thread thread = audioThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    public StealPolicy getStealPolicy() { return stealPolicy; }
+
+    public void setStealPolicy(StealPolicy stealPolicy) {
+        if (stealPolicy == null) {
+            throw new IllegalArgumentException("stealPolicy must not be null");
+        }
+        this.stealPolicy = stealPolicy;
+    }
+
+    public long getPlayedCount() { return played; }
+    public long getStolenCount() { return stolen; }
+    public long getDroppedCount() { return dropped; }
+    public long getQueueOverflowCount() { return queueOverflows.get(); }
+    public long getUnderrunCount() { return underruns; }
+    public int getPeakVoices() { return peakVoices; }
+
+    /**
+     * Ringkasan statistik mixer untuk log.
+     */
+    public String getStats() {
+        return String.format("SoundEffectMixer[policy=%s, voices=%d, played=%d, stolen=%d, dropped=%d, queueOverflows=%d,"
+                        + " underruns=%d, peakVoices=%d, framesMixed=%d]",
+                stealPolicy, MAX_VOICES, played, stolen, dropped, queueOverflows.get(), underruns, peakVoices, framesMixed);
+    }
+
+    // Produsen: mengklaim slot dengan CAS pada queueTail, menulis isinya, lalu menerbitkannya lewat sequence
+    private boolean offer(int effect, float volume) {
+        while (true) {
+            long tail = queueTail.get();
+            int slot = (int) (tail & (QUEUE_CAPACITY - 1));
+            long sequence = sequences.get(slot);
+            if (sequence == tail) {
+                if (queueTail.compareAndSet(tail, tail + 1)) {
+                    commandEffects[slot] = effect;
+                    commandVolumes[slot] = volume;
+                    sequences.set(slot, tail + 1); // Volatile write: isi slot terlihat oleh thread audio
+                    return true;
+                }
+            } else if (sequence < tail) {
+                return false; // Slot belum dikosongkan konsumen: antrian penuh
+            }
+            // Produsen lain mengklaim slot ini lebih dulu; coba lagi dengan tail terbaru
+        }
+    }
+
+    // Konsumen: memulai voice untuk setiap perintah yang sudah diterbitkan
+    private void drainCommands() {
+        while (true) {
+            int slot = (int) (queueHead & (QUEUE_CAPACITY - 1));
+            if (sequences.get(slot) != queueHead + 1) {
+                return; // Kosong (atau produsen belum selesai menulis slot ini)
+            }
+            int effect = commandEffects[slot];
+            float volume = commandVolumes[slot];
+            sequences.set(slot, queueHead + QUEUE_CAPACITY); // Slot bebas untuk putaran antrian berikutnya
+            queueHead++;
+            startVoice(effect, volume);
+        }
+    }
+
+    private void startVoice(int effectOrdinal, float volume) {
+        ShortBuffer samples = effects.get(effectOrdinal);
+        if (samples == null || samples.limit() == 0) {
+            return; // Efek belum dimuat atau gagal dimuat
+        }
+        int voice = findVoice(volume);
+        if (voice < 0) {
+            dropped++;
+            return;
+        }
+        if (voiceSamples[voice] != null) {
+            stolen++;
+        } else {
+            activeVoices++;
+            peakVoices = Math.max(peakVoices, activeVoices);
+        }
+        voiceSamples[voice] = samples;
+        voicePositions[voice] = 0;
+        voiceVolumes[voice] = volume;
+        voiceStarts[voice] = voiceStartCounter++;
+        played++;
+    }
+
+    // Voice bebas, voice yang dicuri menurut StealPolicy, atau -1 jika efek baru diabaikan
+    private int findVoice(float volume) {
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (voiceSamples[i] == null) {
+                return i;
+            }
+        }
+        StealPolicy policy = stealPolicy;
+        if (policy == StealPolicy.NONE) {
+            return -1;
+        }
+        int victim = 0;
+        for (int i = 1; i < MAX_VOICES; i++) {
+            if (policy == StealPolicy.OLDEST
+                    ? voiceStarts[i] < voiceStarts[victim]
+                    : voiceVolumes[i] < voiceVolumes[victim]) {
+                victim = i;
+            }
+        }
+        if (policy == StealPolicy.QUIETEST && voiceVolumes[victim] > volume) {
+            return -1; // Semua voice lebih keras dari efek baru
+        }
+        return victim;
+    }
+
+    /**
+     * Mengambil perintah play() yang tertunda lalu mengisi satu putaran audio (CHUNK_FRAMES frame,
+     * MusicPlayer.OUTPUT_FORMAT) dari semua voice aktif. Dipanggil oleh thread audio; package-private
+     * supaya mixing bisa diuji tanpa perangkat audio.
+     * @return true jika ada voice yang berbunyi di putaran ini.
+     */
+    boolean mix(byte[] chunk) {
+        drainCommands();
+        if (activeVoices == 0) {
+            return false;
+        }
+        Arrays.fill(mixBuffer, 0);
+        for (int v = 0; v < MAX_VOICES; v++) {
+            ShortBuffer samples = voiceSamples[v];
+            if (samples == null) {
+                continue;
+            }
+            int pos = voicePositions[v];
+            int count = Math.min(mixBuffer.length, samples.limit() - pos);
+            int gain = Math.round(voiceVolumes[v] * 65536f); // Fixed point 16.16
+            for (int i = 0; i < count; i++) {
+                mixBuffer[i] += (samples.get(pos + i) * gain) >> 16;
+            }
+            pos += count;
+            if (pos >= samples.limit()) {
+                voiceSamples[v] = null; // Efek selesai; voice bebas lagi
+                activeVoices--;
+            } else {
+                voicePositions[v] = pos;
+            }
+        }
+        for (int i = 0, b = 0; i < mixBuffer.length; i++, b += 2) {
+            int sample = mixBuffer[i];
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            chunk[b] = (byte) sample;
+            chunk[b + 1] = (byte) (sample >> 8);
+        }
+        framesMixed += CHUNK_FRAMES;
+        return true;
+    }
+
+    private void runAudioThread() {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(MusicPlayer.OUTPUT_FORMAT);
+            line.open(MusicPlayer.OUTPUT_FORMAT, LINE_BUFFER_BYTES);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            System.err.println("Sound effects unavailable: " + e.getMessage());
+            unavailable = true;
+            return;
+        }
+        byte[] chunk = new byte[CHUNK_FRAMES * FRAME_BYTES];
+        boolean streaming = false; // Putaran sebelumnya menulis audio ke line
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                if (!mix(chunk)) {
+                    if (streaming) {
+                        line.drain(); // Ekor efek terakhir diputar sampai habis sebelum line dihentikan
+                        line.stop();
+                        streaming = false;
+                    }
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS); // Dibangunkan oleh play()
+                    continue;
+                }
+                if (!line.isRunning()) {
+                    line.start();
+                } else if (streaming && line.available() >= line.getBufferSize()) {
+                    underruns++; // Line sudah kosong sebelum putaran ini ditulis: terdengar sebagai celah
+                }
+                line.write(chunk, 0, chunk.length); // Memblokir sampai ada ruang; ini yang mengatur tempo thread
+                streaming = true;
+            }
+        } finally {
+            line.close();
+        }
+    }
+}
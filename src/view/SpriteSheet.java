@@ -0,0 +1,84 @@
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+
+/**
+ * SpriteSheet memotong sprite sheet menjadi frame-frame animasi satu kali saja. Setiap frame disalin
+ * ke compatible image tersendiri yang sudah diskalakan ke ukuran tampilan, sehingga saat menggambar
+ * tidak ada getSubimage() atau penskalaan lagi, dan gambar bisa diakselerasi oleh Java2D.
+ * Frame dicari dengan indeks animasi dan indeks frame (akses array biasa).
+ * Jika konfigurasi layar berubah, frame dibuat ulang untuk layar yang baru.
+ */
+public class SpriteSheet {
+    private final BufferedImage sheet;
+    private final Rectangle[][] frameRects; // Area frame di sheet, [animasi][frame]
+    private final int displayWidth;
+    private final int displayHeight;
+
+    private BufferedImage[][] frames; // Frame siap gambar, [animasi][frame]; null = belum dibuat
+    private GraphicsConfiguration framesConfig;
+
+    /**
+     * @param sheet Gambar sprite sheet (boleh null; semua frame akan null).
+     * @param frameRects Area setiap frame di sheet, diindeks [animasi][frame].
+     * @param displayWidth Lebar frame saat ditampilkan.
+     * @param displayHeight Tinggi frame saat ditampilkan.
+     */
+    public SpriteSheet(BufferedImage sheet, Rectangle[][] frameRects, int displayWidth, int displayHeight) {
+        this.sheet = sheet;
+        this.frameRects = frameRects;
+        this.displayWidth = displayWidth;
+        this.displayHeight = displayHeight;
+    }
+
+    public int getFrameCount(int animation) {
+        return frameRects[animation].length;
+    }
+
+    /**
+     * Mengembalikan frame yang sudah dipotong dan diskalakan ke ukuran tampilan.
+     * @param animation Indeks animasi.
+     * @param frame Indeks frame; dibungkus (modulo) jika melebihi jumlah frame.
+     * @param gc Konfigurasi layar tujuan, boleh null.
+     * @return Gambar frame, atau null jika sheet tidak dimuat atau area frame di luar sheet.
+     */
+    public synchronized BufferedImage getFrame(int animation, int frame, GraphicsConfiguration gc) {
+        if (sheet == null) {
+            return null;
+        }
+        if (frames == null || (gc != null && gc != framesConfig)) {
+            buildFrames(gc);
+        }
+        BufferedImage[] animationFrames = frames[animation];
+        return animationFrames.length == 0 ? null : animationFrames[frame % animationFrames.length];
+    }
+
+    // Memotong dan menskalakan semua frame untuk konfigurasi layar tertentu
+    private void buildFrames(GraphicsConfiguration gc) {
+        BufferedImage[][] built = new BufferedImage[frameRects.length][];
+        for (int a = 0; a < frameRects.length; a++) {
+            built[a] = new BufferedImage[frameRects[a].length];
+            for (int f = 0; f < frameRects[a].length; f++) {
+                Rectangle rect = frameRects[a][f];
+                try {
+                    BufferedImage region = sheet.getSubimage(rect.x, rect.y, rect.width, rect.height);
+                    built[a][f] = AssetLoader.createScaledImage(region, displayWidth, displayHeight, gc);
+                } catch (RasterFormatException e) {
+                    System.err.println("Sprite frame " + rect + " is outside the sprite sheet: " + e.getMessage());
+                }
+            }
+        }
+        if (frames != null) {
+            for (BufferedImage[] animationFrames : frames) {
+                for (BufferedImage image : animationFrames) {
+                    if (image != null) {
+                        image.flush();
+                    }
+                }
+            }
+        }
+        frames = built;
+        framesConfig = gc;
+    }
+}
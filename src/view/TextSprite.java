@@ -0,0 +1,162 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * TextSprite menggambar teks berformat "prefix + angka + suffix" dari gambar yang sudah dirender:
+ * satu gambar untuk prefix, satu untuk suffix, dan satu per glyph angka ('0'-'9' dan '-').
+ * Semua gambar dirender sekali per konfigurasi layar; angkanya disusun dari glyph di setiap panggilan,
+ * sehingga angka yang berubah (skor, timer) tidak membuat String, layout glyph, atau gambar baru.
+ * Dipakai untuk HUD (skor, jumlah bintang, timer bonus) dan angka nilai bola.
+ * Tidak thread-safe; pemanggil harus memegang lock rendering (stateLock di GamePanel).
+ */
+public class TextSprite {
+    private static final String GLYPHS = "0123456789-";
+    private static final int MINUS = 10; // Indeks '-' di GLYPHS
+    private static final int MAX_GLYPHS = 11; // Tanda minus dan 10 digit cukup untuk semua nilai int
+
+    private final String prefix;
+    private final String suffix;
+    private final Font font;
+    private final Color color;
+
+    private BufferedImage prefixImage; // null jika prefix kosong
+    private BufferedImage suffixImage; // null jika suffix kosong
+    private final BufferedImage[] glyphImages = new BufferedImage[GLYPHS.length()];
+    private final int[] glyphWidths = new int[GLYPHS.length()];
+    private int prefixWidth;
+    private int suffixWidth;
+    private int ascent;
+    private boolean rendered;
+    private GraphicsConfiguration renderedConfig;
+
+    // Indeks glyph dari angka yang sedang digambar, dari kiri ke kanan (dipakai ulang di setiap panggilan)
+    private final int[] layout = new int[MAX_GLYPHS];
+
+    public TextSprite(String prefix, String suffix, Font font, Color color) {
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.font = font;
+        this.color = color;
+    }
+
+    /**
+     * Menggambar teks dengan posisi baseline seperti Graphics.drawString.
+     * @param x Posisi X sisi kiri teks.
+     * @param baselineY Posisi Y baseline teks.
+     */
+    public void draw(Graphics2D g2d, int value, int x, int baselineY) {
+        prepare(g2d);
+        drawLayout(g2d, layoutValue(value), x, baselineY - ascent);
+    }
+
+    /**
+     * Menggambar teks dengan posisi tengah horizontal tertentu.
+     * @param centerX Posisi X tengah teks.
+     * @param baselineY Posisi Y baseline teks.
+     */
+    public void drawCentered(Graphics2D g2d, int value, int centerX, int baselineY) {
+        prepare(g2d);
+        int count = layoutValue(value);
+        drawLayout(g2d, count, centerX - layoutWidth(count) / 2, baselineY - ascent);
+    }
+
+    // Mengisi 'layout' dengan glyph angka; mengembalikan jumlah glyph.
+    // Digit diambil dari belakang tanpa Math.abs(value), supaya Integer.MIN_VALUE tetap benar.
+    private int layoutValue(int value) {
+        int count = 0;
+        int remaining = value;
+        do {
+            layout[count++] = Math.abs(remaining % 10);
+            remaining /= 10;
+        } while (remaining != 0);
+        if (value < 0) {
+            layout[count++] = MINUS;
+        }
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int glyph = layout[i];
+            layout[i] = layout[j];
+            layout[j] = glyph;
+        }
+        return count;
+    }
+
+    private int layoutWidth(int count) {
+        int width = prefixWidth + suffixWidth;
+        for (int i = 0; i < count; i++) {
+            width += glyphWidths[layout[i]];
+        }
+        return width;
+    }
+
+    private void drawLayout(Graphics2D g2d, int count, int x, int y) {
+        if (prefixImage != null) {
+            g2d.drawImage(prefixImage, x, y, null);
+        }
+        x += prefixWidth;
+        for (int i = 0; i < count; i++) {
+            g2d.drawImage(glyphImages[layout[i]], x, y, null);
+            x += glyphWidths[layout[i]];
+        }
+        if (suffixImage != null) {
+            g2d.drawImage(suffixImage, x, y, null);
+        }
+    }
+
+    // Merender prefix, suffix, dan semua glyph angka jika belum ada atau konfigurasi layar berubah
+    private void prepare(Graphics2D g2d) {
+        GraphicsConfiguration gc = g2d.getDeviceConfiguration();
+        if (rendered && gc == renderedConfig) {
+            return;
+        }
+        FontMetrics fm = g2d.getFontMetrics(font);
+        ascent = fm.getAscent();
+        int height = Math.max(fm.getAscent() + fm.getDescent(), 1);
+
+        prefixWidth = fm.stringWidth(prefix);
+        prefixImage = renderText(prefix, prefixWidth, height, gc, prefixImage);
+        suffixWidth = fm.stringWidth(suffix);
+        suffixImage = renderText(suffix, suffixWidth, height, gc, suffixImage);
+        for (int i = 0; i < glyphImages.length; i++) {
+            String glyph = GLYPHS.substring(i, i + 1);
+            glyphWidths[i] = fm.stringWidth(glyph);
+            glyphImages[i] = renderText(glyph, glyphWidths[i], height, gc, glyphImages[i]);
+        }
+        rendered = true;
+        renderedConfig = gc;
+    }
+
+    // Merender satu teks ke gambar baru (null jika teksnya kosong); gambar sebelumnya dilepas
+    private BufferedImage renderText(String text, int width, int height, GraphicsConfiguration gc, BufferedImage previous) {
+        if (previous != null) {
+            previous.flush();
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+        width = Math.max(width, 1);
+        BufferedImage image;
+        if (gc != null) {
+            image = gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        } else if (GraphicsEnvironment.isHeadless()) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            image = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        Graphics2D textGraphics = image.createGraphics();
+        try {
+            textGraphics.setFont(font);
+            textGraphics.setColor(color);
+            textGraphics.drawString(text, 0, ascent);
+        } finally {
+            textGraphics.dispose();
+        }
+        return image;
+    }
+}
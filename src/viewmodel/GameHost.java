@@ -0,0 +1,40 @@
+/**
+ * GameHost adalah semua yang dibutuhkan GameViewModel dari lingkungan tempat game berjalan:
+ * ukuran dunia, event audio, dan event game over. GamePanel mengimplementasikannya untuk game
+ * biasa (Swing, suara, dialog), sedangkan HeadlessSimulation mengimplementasikannya tanpa AWT
+ * sehingga simulasi bisa dijalankan secepat mungkin di server tanpa layar.
+ * Semua metode dipanggil dari dalam tick simulasi (thread game loop), jadi harus cepat dan tidak memblokir.
+ */
+public interface GameHost {
+    /**
+     * @return Lebar dunia game dalam piksel (lebar panel pada game biasa).
+     */
+    int getWorldWidth();
+
+    /**
+     * @return Tinggi dunia game dalam piksel (tinggi panel pada game biasa).
+     */
+    int getWorldHeight();
+
+    /**
+     * Efek bonus dimulai (bintang bonus ditangkap).
+     */
+    void playBonusMusic();
+
+    /**
+     * Tidak ada efek bonus yang aktif. Dipanggil setiap tick selama tidak ada bonus, jadi harus idempoten.
+     */
+    void stopBonusMusic();
+
+    /**
+     * Bom meledak di dekat pemain (sebelum game over).
+     */
+    void playBombEffectSound();
+
+    /**
+     * Game berakhir. Host menghentikan loop, menyimpan hasil (GameViewModel.saveGameResult), dan memberi tahu pemain.
+     * @param title Judul pesan game over.
+     * @param message Isi pesan game over (skor akhir dan penyebabnya).
+     */
+    void onGameOver(String title, String message);
+}
@@ -1,29 +1,66 @@
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 
-import javax.swing.JOptionPane;
-
-import java.awt.Rectangle;
-
 /**
  * GameViewModel adalah kelas yang mengelola logika game inti,
  * bertindak sebagai "ViewModel" dalam arsitektur MVVM.
  * Ini bertanggung jawab untuk memperbarui state game, menangani interaksi antar objek,
- * mengelola skor, dan berkomunikasi dengan DatabaseModel dan GamePanel.
+ * mengelola skor, dan berkomunikasi dengan DatabaseModel dan GameHost (GamePanel atau HeadlessSimulation).
+ * Seluruh state simulasi, termasuk lasso, bola yang ditarik, bola yang dipegang, dan keranjang,
+ * ada di kelas ini, sehingga game bisa dijalankan tanpa GamePanel (lihat HeadlessSimulation).
+ *
+ * Simulasi deterministik: semua nilai acak diambil dari satu Random yang di-seed ulang di awal setiap sesi,
+ * semua perhitungan sudut memakai StrictMath (hasilnya sama di semua JVM), dan input pemain hanya masuk
+ * lewat movePlayer dan fireLasso di dalam tick. Dengan seed yang sama dan input yang sama pada tick yang sama,
+ * sesi berjalan sama persis; InputRecorder mencatat input itu dan ReplayEngine menjalankannya ulang.
  */
 public class GameViewModel {
     private Player player; // Objek pemain dalam game.
-    private List<Balls> Balls; // List dari semua objek 'Balls' (bintang, bom, bonus) di layar.
+    private final BallStore ballStore; // Data semua bola (bintang, bom, bonus) di layar dalam array paralel; objek Balls dipakai ulang.
+    private final SpatialGrid ballGrid; // Indeks spasial bola yang bergerak bebas, untuk query tabrakan.
     private String currentUsername; // Username pemain saat ini.
-    private DatabaseModel databaseModel; // Model untuk interaksi dengan database (menyimpan skor).
-    private GamePanel gamePanel; // Referensi ke GamePanel (View) untuk interaksi UI dan sound.
+    private DatabaseModel databaseModel; // Model untuk interaksi dengan database (menyimpan skor); dibuat saat pertama kali menyimpan.
+    private GameHost host; // Lingkungan game: ukuran dunia, suara, dan game over (GamePanel atau HeadlessSimulation).
+    private boolean gameOver = false; // True setelah game berakhir, sampai initializeGame() dipanggil lagi.
+
+    private static final int GRID_CELL_SIZE = 64; // Ukuran sel grid, sedikit lebih besar dari bola terbesar (60px).
+    private static final int GRID_BUCKETS = 1024; // Jumlah bucket hash grid.
+    private static final int LASSO_TIP_SIZE = 8; // Ukuran kotak ujung lasso untuk deteksi tabrakan.
+    private static final int LASSO_ANIMATION_SPEED = 10; // Perubahan panjang lasso per tick.
+    private static final int PLAYER_CENTER_OFFSET = 25; // Pusat pemain relatif terhadap posisinya (pemain 50x50).
+    private static final int PLAYER_BOUNDS_SIZE = 50; // Ukuran kotak pemain untuk deteksi keranjang.
+
+    // Area keranjang tempat bola dikumpulkan: di tengah bawah dunia game.
+    public static final int BASKET_WIDTH = 130;
+    public static final int BASKET_HEIGHT = 170;
+    public static final int BASKET_BOTTOM_MARGIN = 50;
+
+    // Rentang ukuran bola (piksel); GamePanel menskalakan gambar bola untuk semua ukuran ini sekaligus.
+    public static final int BALL_MIN_SIZE = 40;
+    public static final int BALL_MAX_SIZE = 60;
+
+    // State lasso (tali penangkap).
+    private boolean isLassoActive = false; // Menunjukkan apakah lasso sedang dalam proses penembakan/penarikan.
+    private int currentLassoDrawLength = 0; // Panjang lasso saat ini.
+    private int prevLassoDrawLength = 0; // Panjang lasso pada tick sebelumnya (untuk interpolasi rendering).
+    private int targetLassoLength = 0; // Panjang maksimal yang harus dicapai lasso (jarak dari pemain ke titik target).
+    private int lassoDirection = 1; // Arah pergerakan lasso: 1 untuk memanjang, -1 untuk menarik kembali.
+    private int lassoTargetX; // Titik target tembakan lasso.
+    private int lassoTargetY;
+    private Balls pulledBall = null; // Bola yang saat ini sedang ditarik kembali oleh lasso.
+    private Balls heldBall = null; // Bola yang saat ini dipegang oleh pemain setelah ditarik.
+    private double heldBallOffsetAngle = 0; // Sudut bola yang ditarik/dipegang relatif terhadap pemain.
 
     private final int MAX_BALLS = 10; // Jumlah maksimum bola yang bisa ada di layar pada satu waktu.
     private final int BALL_SPAWN_INTERVAL = 50; // Interval (dalam tick game) untuk memunculkan bola baru.
     private int spawnCounter = 0; // Counter untuk melacak kapan bola baru harus muncul.
-    private Random random; // Objek Random untuk menghasilkan nilai acak (posisi, jenis bola).
+    private final Random random; // Satu-satunya sumber nilai acak game (posisi, jenis, dan atribut bola); di-seed ulang setiap sesi.
+    private long sessionSeed; // Seed sesi saat ini.
+    private long tick = 0; // Nomor tick di sesi ini; tick pertama adalah 1 (lihat beginTick).
+    private InputRecorder inputRecorder; // Perekam input sesi ini, atau null jika tidak direkam.
+    private int recordedWorldWidth; // Ukuran dunia terakhir yang dicatat di rekaman, untuk mendeteksi resize.
+    private int recordedWorldHeight;
+    private static final int CHECKSUM_INTERVAL_TICKS = 600; // Checksum state dicatat di rekaman setiap 10 detik waktu game.
 
     private final double BOMB_CHANCE = 0.3; // Probabilitas munculnya bom (30%).
     private final double BONUS_Balls_CHANCE = 0.2; // Probabilitas munculnya bola bonus (20%).
@@ -31,31 +68,130 @@ public class GameViewModel {
     private final int BONUS_DURATION_TICKS = 600; // Durasi dasar efek bonus dalam tick game (sekitar 10 detik jika 60 tick/detik).
     private final int MAX_BONUS_DURATION_TICKS = 1800; // Durasi maksimum efek bonus yang bisa diakumulasi (sekitar 30 detik).
 
+    private long sessionStartMillis; // Waktu mulai sesi (epoch milidetik) untuk riwayat game_session.
+    private long sessionStartNanos; // Waktu mulai sesi (System.nanoTime) untuk menghitung durasi.
+    private int bombsHit = 0; // Berapa kali pemain terkena bom di sesi ini (termasuk saat kebal).
+
     /**
      * Konstruktor untuk GameViewModel.
-     * Menginisialisasi username, referensi GamePanel, DatabaseModel, dan Random.
+     * Menginisialisasi username, host, dan Random.
+     * @param username Username pemain saat ini.
+     * @param host Lingkungan game (GamePanel atau HeadlessSimulation).
+     */
+    public GameViewModel(String username, GameHost host) {
+        this(username, host, new Random());
+    }
+
+    /**
+     * Konstruktor dengan sumber angka acak yang ditentukan pemanggil.
+     * Semua nilai acak game (spawn dan atribut bola) diambil dari objek ini. initializeGame() tanpa seed
+     * mengambil seed sesi dari objek ini juga, jadi Random dengan seed tetap menghasilkan rangkaian sesi yang sama.
      * @param username Username pemain saat ini.
-     * @param gamePanel Referensi ke GamePanel yang terkait.
+     * @param host Lingkungan game (GamePanel atau HeadlessSimulation).
+     * @param random Sumber angka acak.
      */
-    public GameViewModel(String username, GamePanel gamePanel) {
+    public GameViewModel(String username, GameHost host, Random random) {
         this.currentUsername = username;
-        this.gamePanel = gamePanel;
-        this.databaseModel = new DatabaseModel(); // Inisialisasi DatabaseModel.
-        this.random = new Random(); // Inisialisasi Random.
-        this.Balls = new ArrayList<>(); // Inisialisasi list Balls.
+        this.host = host;
+        this.random = random;
+        this.ballStore = new BallStore(MAX_BALLS); // Semua bola untuk mode normal sudah dibuat di awal.
+        this.ballGrid = new SpatialGrid(GRID_CELL_SIZE, GRID_BUCKETS);
     }
 
     /**
-     * Menginisialisasi ulang state game untuk memulai permainan baru.
+     * Menginisialisasi ulang state game untuk memulai permainan baru dengan seed baru.
      * Menempatkan pemain di tengah dan membersihkan semua bola yang ada.
      */
     public void initializeGame() {
+        initializeGame(random.nextLong());
+    }
+
+    /**
+     * Menginisialisasi ulang state game untuk memulai permainan baru dengan seed tertentu.
+     * Dua sesi dengan seed, ukuran dunia, dan input yang sama berjalan sama persis.
+     * Jika ada InputRecorder yang terpasang, header rekaman (seed, username, ukuran dunia) ditulis di sini.
+     * @param seed Seed untuk semua nilai acak sesi ini.
+     */
+    public void initializeGame(long seed) {
+        sessionSeed = seed;
+        random.setSeed(seed);
+        tick = 0;
         // Menempatkan pemain di tengah layar, menggunakan dimensi visual pemain dari kelas Player.
-        player = new Player(gamePanel.getWidth() / 2 - Player.VISUAL_WIDTH / 2, gamePanel.getHeight() / 2 - Player.VISUAL_HEIGHT / 2);
-        Balls.clear(); // Mengosongkan list bola.
+        player = new Player(host.getWorldWidth() / 2 - Player.VISUAL_WIDTH / 2, host.getWorldHeight() / 2 - Player.VISUAL_HEIGHT / 2);
+        ballGrid.clear();
+        ballStore.releaseAll(); // Mengembalikan semua bola ke daftar bebas.
+        resetLasso(); // Lasso kembali ke pemain, tidak ada bola yang ditarik atau dipegang.
+        gameOver = false;
         spawnCounter = 0; // Mereset counter spawn.
+        bombsHit = 0; // Mereset statistik sesi.
+        sessionStartMillis = System.currentTimeMillis();
+        sessionStartNanos = System.nanoTime();
+        if (inputRecorder != null) {
+            recordedWorldWidth = host.getWorldWidth();
+            recordedWorldHeight = host.getWorldHeight();
+            inputRecorder.begin(seed, currentUsername, recordedWorldWidth, recordedWorldHeight);
+        }
+    }
+
+    /**
+     * Memasang perekam input untuk sesi berikutnya. Harus dipanggil sebelum initializeGame().
+     * @param recorder Perekam baru (kosong), atau null untuk berhenti merekam.
+     */
+    public void setInputRecorder(InputRecorder recorder) {
+        this.inputRecorder = recorder;
+    }
+
+    /**
+     * Menutup rekaman sesi ini dengan checksum state akhir dan melepas perekamnya.
+     * @return Perekam yang sudah ditutup, atau null jika sesi ini tidak direkam.
+     */
+    public InputRecorder finishInputRecording() {
+        InputRecorder recorder = inputRecorder;
+        if (recorder != null) {
+            recorder.end(tick, computeStateChecksum());
+            inputRecorder = null;
+        }
+        return recorder;
+    }
+
+    public String getCurrentUsername() { return currentUsername; }
+    public long getSessionSeed() { return sessionSeed; }
+    public long getTick() { return tick; }
+
+    /**
+     * Mengembalikan lasso ke kondisi awal dan melepas referensi ke bola yang ditarik atau dipegang.
+     * Dipanggil saat game dimulai dan saat game dihentikan.
+     */
+    public void resetLasso() {
+        isLassoActive = false;
+        currentLassoDrawLength = 0;
+        prevLassoDrawLength = 0;
+        targetLassoLength = 0;
+        lassoDirection = 1;
+        lassoTargetX = 0;
+        lassoTargetY = 0;
+        pulledBall = null;
+        heldBall = null;
+        heldBallOffsetAngle = 0;
+    }
+
+    /**
+     * @return true jika game sudah berakhir (game over) sejak initializeGame() terakhir.
+     */
+    public boolean isGameOver() {
+        return gameOver;
     }
 
+    // Getter state lasso untuk rendering.
+    public boolean isLassoActive() { return isLassoActive; }
+    public int getLassoLength() { return currentLassoDrawLength; }
+    public int getPrevLassoLength() { return prevLassoDrawLength; }
+    public int getLassoTargetX() { return lassoTargetX; }
+    public int getLassoTargetY() { return lassoTargetY; }
+    public Balls getPulledBall() { return pulledBall; }
+    public Balls getHeldBall() { return heldBall; }
+    public double getHeldBallOffsetAngle() { return heldBallOffsetAngle; }
+
     /**
      * Mengembalikan objek Player.
      * @return Objek Player saat ini.
@@ -66,10 +202,89 @@ public class GameViewModel {
 
     /**
      * Mengembalikan list objek Balls.
-     * @return List dari semua objek Balls di layar.
+     * Urutan bola bisa berubah saat ada bola yang dihapus, dan objek bola dipakai ulang setelah dihapus.
+     * @return List read-only dari semua objek Balls di layar.
      */
     public List<Balls> getBalls() {
-        return Balls;
+        return ballStore.asList();
+    }
+
+    /**
+     * Ringkasan isi store bola untuk profiling.
+     * @return String statistik BallStore.
+     */
+    public String getBallStoreStats() {
+        return ballStore.getStats();
+    }
+
+    /**
+     * Ringkasan counter query tabrakan (broad phase / narrow phase) untuk profiling.
+     * @return String statistik grid spasial.
+     */
+    public String getCollisionStats() {
+        return ballGrid.getStats();
+    }
+
+    /**
+     * Memulai tick baru: menaikkan nomor tick dan menyimpan state tick sebelumnya untuk interpolasi.
+     * Urutan satu tick selalu beginTick(), lalu input (movePlayer, fireLasso), lalu updateGame().
+     * Jika sesi direkam, perubahan ukuran dunia dan checksum state berkala dicatat di sini.
+     */
+    public void beginTick() {
+        tick++;
+        if (inputRecorder != null) {
+            int width = host.getWorldWidth();
+            int height = host.getWorldHeight();
+            if (width != recordedWorldWidth || height != recordedWorldHeight) {
+                recordedWorldWidth = width;
+                recordedWorldHeight = height;
+                inputRecorder.recordResize(tick, width, height);
+            }
+            if (tick % CHECKSUM_INTERVAL_TICKS == 0) {
+                inputRecorder.recordChecksum(tick, computeStateChecksum());
+            }
+        }
+        savePreviousPositions();
+    }
+
+    /**
+     * Hash dari seluruh state simulasi (pemain, lasso, bola, counter spawn, nomor tick), tanpa posisi
+     * tick sebelumnya yang hanya dipakai untuk rendering. Dipakai untuk memeriksa bahwa replay tidak menyimpang.
+     * @return Checksum state saat ini.
+     */
+    public long computeStateChecksum() {
+        long hash = tick;
+        hash = hash * 31 + player.getX();
+        hash = hash * 31 + player.getY();
+        hash = hash * 31 + player.getScore();
+        hash = hash * 31 + player.getCollectedBalls();
+        hash = hash * 31 + (player.isInvincible() ? 1 : 0);
+        hash = hash * 31 + (player.isSpeedBoostActive() ? 1 : 0);
+        hash = hash * 31 + player.getInvincibilityDuration();
+        hash = hash * 31 + player.getSpeedBoostDuration();
+        hash = hash * 31 + spawnCounter;
+        hash = hash * 31 + bombsHit;
+        hash = hash * 31 + (gameOver ? 1 : 0);
+        hash = hash * 31 + (isLassoActive ? 1 : 0);
+        hash = hash * 31 + currentLassoDrawLength;
+        hash = hash * 31 + targetLassoLength;
+        hash = hash * 31 + lassoDirection;
+        hash = hash * 31 + lassoTargetX;
+        hash = hash * 31 + lassoTargetY;
+        hash = hash * 31 + (pulledBall == null ? -1 : pulledBall.slot);
+        hash = hash * 31 + (heldBall == null ? -1 : heldBall.slot);
+        hash = hash * 31 + Double.doubleToLongBits(heldBallOffsetAngle);
+        return ballStore.checksum(hash);
+    }
+
+    /**
+     * Menyimpan posisi pemain, semua bola, dan panjang lasso sebagai state tick sebelumnya.
+     * Dipanggil di awal setiap tick lewat beginTick(), sehingga rendering bisa menginterpolasi posisi di antara dua tick.
+     */
+    private void savePreviousPositions() {
+        player.savePreviousPosition();
+        prevLassoDrawLength = currentLassoDrawLength;
+        ballStore.savePreviousPositions();
     }
 
     /**
@@ -80,6 +295,9 @@ public class GameViewModel {
      * @param dy Perubahan posisi vertikal yang diinginkan (arah: -1 atas, 1 bawah, 0 tidak bergerak).
      */
     public void movePlayer(int dx, int dy) {
+        if (inputRecorder != null) {
+            inputRecorder.recordMove(tick, dx, dy);
+        }
         int speed = player.getCurrentSpeed(); // Mendapatkan kecepatan pemain saat ini (bisa berubah karena bonus).
         // Menghitung posisi X baru. Jika dx > 0 (kanan), tambahkan speed; jika dx < 0 (kiri), kurangi speed.
         int newX = player.getX() + (dx > 0 ? speed : (dx < 0 ? -speed : 0));
@@ -88,12 +306,12 @@ public class GameViewModel {
 
         // Batasan pergerakan pemain di sumbu X. Pemain harus tetap di dalam lebar panel.
         // Menggunakan VISUAL_WIDTH dari kelas Player untuk perhitungan batas kanan.
-        if (newX >= 0 && newX <= gamePanel.getWidth() - Player.VISUAL_WIDTH) {
+        if (newX >= 0 && newX <= host.getWorldWidth() - Player.VISUAL_WIDTH) {
             player.setX(newX);
         }
         // Batasan pergerakan pemain di sumbu Y. Pemain harus tetap di dalam tinggi panel.
         // Menggunakan VISUAL_HEIGHT dari kelas Player untuk perhitungan batas bawah.
-        if (newY >= 0 && newY <= gamePanel.getHeight() - Player.VISUAL_HEIGHT) {
+        if (newY >= 0 && newY <= host.getWorldHeight() - Player.VISUAL_HEIGHT) {
             player.setY(newY);
         }
     }
@@ -101,52 +319,60 @@ public class GameViewModel {
     /**
      * Metode utama untuk memperbarui state game di setiap tick.
      * Menggerakkan bola, memeriksa tabrakan, memperbarui durasi bonus,
-     * dan memicu spawn bola baru.
+     * memicu spawn bola baru, menggerakkan lasso, dan memeriksa keranjang.
      */
     public void updateGame() {
-    
-        // Hitbox pemain diletakkan di tengah visual pemain.
-        int hitboxX = player.getX() + (Player.VISUAL_WIDTH - Player.HITBOX_WIDTH) / 2;
-        int hitboxY = player.getY() + (Player.VISUAL_HEIGHT - Player.HITBOX_HEIGHT) / 2;
-        Rectangle playerHitbox = new Rectangle(hitboxX, hitboxY, Player.HITBOX_WIDTH, Player.HITBOX_HEIGHT); // Membuat objek Rectangle untuk hitbox pemain.
+        if (gameOver) {
+            return; // Tick yang tersisa setelah game over tidak mengubah apa-apa.
+        }
+
+        // Menggerakkan semua bola yang bebas (aktif, tidak ditarik, tidak dipegang) dalam satu sapuan array.
+        ballStore.moveFreeBalls();
 
-        // Menggunakan Iterator untuk mengiterasi dan menghapus bola dengan aman.
-        Iterator<Balls> iterator = Balls.iterator();
-        while (iterator.hasNext()) {
-            Balls ball = iterator.next();
+        // Loop berindeks: bola yang dihapus digantikan bola terakhir (swap-remove), jadi index tidak dinaikkan.
+        int i = 0;
+        while (i < ballStore.size()) {
             // Memproses bola hanya jika aktif, tidak sedang ditarik, dan tidak dipegang pemain.
-            if (ball.isActive() && !ball.isBeingPulled() && !ball.isHeldByPlayer()) {
-                ball.move(); // Menggerakkan bola.
-
-                // Cek tabrakan pemain-bom untuk bom yang bergerak bebas.
-                if (ball.isBomb()) {
-                    Rectangle bombBounds = new Rectangle(ball.getX(), ball.getY(), ball.getSize(), ball.getSize()); // Membuat batas bom.
-                    if (playerHitbox.intersects(bombBounds)) { // <<< GUNAKAN playerHitbox untuk deteksi tabrakan.
-                        if (player.isInvincible()) {
-                            // Jika pemain kebal, bom dihapus tanpa efek negatif.
-                            System.out.println("Bomb hit, but player is invincible!");
-                            iterator.remove(); // Hapus bom.
-                        } else {
-                            // Jika pemain tidak kebal dan terkena bom, game over.
-                            System.out.println("GAME OVER! Player hit a bomb!");
-                            gamePanel.playBombEffectSound(); // Memutar efek suara bom.
-                            gamePanel.stopGame(); // Menghentikan game loop dan menyimpan hasil.
-                            // Menampilkan pesan GAME OVER dengan skor akhir dan jumlah bintang yang dikumpulkan.
-                            gamePanel.showMessage("GAME OVER!!!", "\nYour Final Score: " + player.getScore() + " points.\n           Count: " + player.getCollectedBalls() +  " Star.", GamePanel.MESSAGE_TYPE_ERROR);
-                            gamePanel.getMainFrame().switchToMainPanel(); // Kembali ke menu utama.
-                            return; // Keluar dari metode updateGame karena game sudah berakhir.
-                        }
-                    }
-                }
+            if (ballStore.isFree(i)) {
+                Balls ball = ballStore.get(i);
 
                 // Menghapus bola jika sudah keluar dari layar.
                 // Logika ini untuk bola yang bergerak dari kiri ke kanan.
-                if (ball.isMovingRight() && ball.getX() > gamePanel.getWidth() + ball.getSize()) {
-                    iterator.remove();
+                if (ball.isMovingRight() && ball.getX() > host.getWorldWidth() + ball.getSize()) {
+                    removeBall(ball);
+                    continue;
                 } // Logika ini untuk bola yang bergerak dari kanan ke kiri.
                 else if (!ball.isMovingRight() && ball.getX() < -ball.getSize()) {
-                    iterator.remove();
+                    removeBall(ball);
+                    continue;
                 }
+                ballGrid.update(ball); // Pindahkan ke sel baru jika perlu.
+            }
+            i++;
+        }
+
+        // Cek tabrakan pemain-bom untuk bom yang bergerak bebas.
+        // Hitbox pemain diletakkan di tengah visual pemain; grid hanya memeriksa sel di sekitarnya.
+        int hitboxX = player.getX() + (Player.VISUAL_WIDTH - Player.HITBOX_WIDTH) / 2;
+        int hitboxY = player.getY() + (Player.VISUAL_HEIGHT - Player.HITBOX_HEIGHT) / 2;
+        int hits = ballGrid.query(hitboxX, hitboxY, Player.HITBOX_WIDTH, Player.HITBOX_HEIGHT);
+        for (int hit = 0; hit < hits; hit++) {
+            Balls ball = ballGrid.getResult(hit);
+            if (!ball.isBomb()) {
+                continue;
+            }
+            bombsHit++;
+            if (player.isInvincible()) {
+                // Jika pemain kebal, bom dihapus tanpa efek negatif.
+                System.out.println("Bomb hit, but player is invincible!");
+                removeBall(ball); // Hapus bom.
+            } else {
+                // Jika pemain tidak kebal dan terkena bom, game over.
+                System.out.println("GAME OVER! Player hit a bomb!");
+                host.playBombEffectSound(); // Memutar efek suara bom.
+                // Menghentikan game dan menampilkan pesan GAME OVER dengan skor akhir dan jumlah bintang yang dikumpulkan.
+                endGame("GAME OVER!!!", "\nYour Final Score: " + player.getScore() + " points.\n           Count: " + player.getCollectedBalls() +  " Star.");
+                return; // Keluar dari metode updateGame karena game sudah berakhir.
             }
         }
 
@@ -167,16 +393,133 @@ public class GameViewModel {
         }
         // Jika tidak ada bonus yang aktif, hentikan musik bonus.
         if (!player.isSpeedBoostActive() && !player.isInvincible()) {
-            gamePanel.stopBonusMusic();
+            host.stopBonusMusic();
         }
 
         // Logika spawning bola.
         spawnCounter++; // Meningkatkan counter spawn.
         // Jika sudah waktunya spawn dan jumlah bola belum mencapai maksimum, spawn bola baru.
-        if (spawnCounter >= BALL_SPAWN_INTERVAL && Balls.size() < MAX_BALLS) {
+        if (spawnCounter >= BALL_SPAWN_INTERVAL && ballStore.size() < MAX_BALLS) {
             spawnSkillBall(); // Memanggil metode untuk memunculkan bola.
             spawnCounter = 0; // Mereset counter spawn.
         }
+
+        updateLasso(); // Menggerakkan lasso dan menangkap bola.
+        if (!gameOver) {
+            checkBasket(); // Mengumpulkan bola yang dipegang jika pemain menyentuh keranjang.
+        }
+    }
+
+    /**
+     * Menembakkan lasso ke titik target (misalnya posisi klik mouse).
+     * Lasso hanya bisa ditembakkan jika tidak ada bola yang dipegang dan lasso tidak sedang aktif.
+     * @param targetX Posisi X target.
+     * @param targetY Posisi Y target.
+     * @return true jika lasso ditembakkan.
+     */
+    public boolean fireLasso(int targetX, int targetY) {
+        if (gameOver || heldBall != null || isLassoActive) {
+            return false;
+        }
+        isLassoActive = true; // Aktifkan lasso.
+        currentLassoDrawLength = 0; // Reset panjang lasso ke nol.
+        lassoDirection = 1; // Atur arah lasso ke memanjang.
+        lassoTargetX = targetX;
+        lassoTargetY = targetY;
+
+        int playerCenterX = player.getX() + PLAYER_CENTER_OFFSET;
+        int playerCenterY = player.getY() + PLAYER_CENTER_OFFSET;
+        // Hitung panjang target lasso berdasarkan jarak dari pemain ke titik target.
+        double dx = targetX - playerCenterX;
+        double dy = targetY - playerCenterY;
+        targetLassoLength = (int) Math.sqrt(dx * dx + dy * dy);
+        if (inputRecorder != null) {
+            inputRecorder.recordLasso(tick, targetX, targetY); // Hanya tembakan yang diterima; yang ditolak tidak mengubah state.
+        }
+        return true;
+    }
+
+    /**
+     * Menangani ekstensi dan retraksi lasso di setiap tick.
+     * Mengupdate `currentLassoDrawLength` dan `lassoDirection`, dan menyerahkan bola yang tertangkap ke pemain.
+     */
+    private void updateLasso() {
+        if (!isLassoActive) { // Hanya berjalan jika lasso sedang aktif.
+            return;
+        }
+        int playerCenterX = player.getX() + PLAYER_CENTER_OFFSET;
+        int playerCenterY = player.getY() + PLAYER_CENTER_OFFSET;
+        // Hitung sudut tembakan lasso berdasarkan posisi pemain dan target.
+        double angle = StrictMath.atan2(lassoTargetY - playerCenterY, lassoTargetX - playerCenterX);
+
+        if (lassoDirection == 1) { // Fase ekstensi (lasso memanjang).
+            currentLassoDrawLength += LASSO_ANIMATION_SPEED; // Menambah panjang lasso.
+
+            if (currentLassoDrawLength > targetLassoLength) {
+                currentLassoDrawLength = targetLassoLength; // Pastikan tidak melewati panjang target.
+            }
+
+            // Hitung posisi ujung lasso saat ini.
+            int lassoTipX = (int) (playerCenterX + currentLassoDrawLength * StrictMath.cos(angle));
+            int lassoTipY = (int) (playerCenterY + currentLassoDrawLength * StrictMath.sin(angle));
+
+            // Memeriksa kolisi ujung lasso dengan bola.
+            boolean ballCaught = checkLassoTipCollision(lassoTipX, lassoTipY);
+
+            if (ballCaught) {
+                lassoDirection = -1; // Jika bola tertangkap, ubah arah menjadi retraksi.
+            } else if (currentLassoDrawLength >= targetLassoLength) {
+                lassoDirection = -1; // Jika mencapai panjang target tanpa menangkap, juga ubah arah menjadi retraksi.
+            }
+        } else { // Fase retraksi (lasso menarik kembali).
+            currentLassoDrawLength -= LASSO_ANIMATION_SPEED; // Mengurangi panjang lasso.
+
+            // Selama belum ada bola yang ditarik, ujung lasso masih bisa menangkap bola saat kembali.
+            if (pulledBall == null) {
+                int lassoTipX = (int) (playerCenterX + currentLassoDrawLength * StrictMath.cos(angle));
+                int lassoTipY = (int) (playerCenterY + currentLassoDrawLength * StrictMath.sin(angle));
+                checkLassoTipCollision(lassoTipX, lassoTipY);
+            }
+
+            if (currentLassoDrawLength <= 0) { // Jika lasso sudah sepenuhnya kembali ke pemain.
+                currentLassoDrawLength = 0; // Pastikan panjangnya nol.
+                isLassoActive = false; // Lasso tidak lagi aktif.
+                lassoDirection = 1; // Reset arah untuk tembakan lasso berikutnya.
+                if (pulledBall != null) { // Jika ada bola yang ditarik.
+                    Balls ball = pulledBall;
+                    pulledBall = null; // Hapus referensi bola yang sedang ditarik.
+                    // Bola dipegang pemain hanya jika bukan bom atau bonus.
+                    heldBall = attachBallToPlayer(ball) ? ball : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Mengumpulkan bola yang dipegang jika pemain menyentuh area keranjang.
+     */
+    private void checkBasket() {
+        if (heldBall == null) {
+            return;
+        }
+        int basketX = host.getWorldWidth() / 2 - BASKET_WIDTH / 2;
+        int basketY = host.getWorldHeight() - BASKET_HEIGHT - BASKET_BOTTOM_MARGIN;
+        int playerX = player.getX();
+        int playerY = player.getY();
+        // Cek jika kotak pemain berpotongan dengan keranjang.
+        if (playerX < basketX + BASKET_WIDTH && playerX + PLAYER_BOUNDS_SIZE > basketX
+                && playerY < basketY + BASKET_HEIGHT && playerY + PLAYER_BOUNDS_SIZE > basketY) {
+            Balls ball = heldBall;
+            heldBall = null; // Melepaskan bola dari pemain.
+            heldBallOffsetAngle = 0; // Reset sudut offset bola yang dipegang.
+            collectHeldBall(ball); // Memproses pengumpulan bola.
+        }
+    }
+
+    // Menghentikan game: host menghentikan loop, menyimpan hasil, dan menampilkan pesan.
+    private void endGame(String title, String message) {
+        gameOver = true;
+        host.onGameOver(title, message);
     }
 
     /**
@@ -202,38 +545,39 @@ public class GameViewModel {
         if (movingRight) {
             BallstX = -50; // Muncul dari kiri luar layar.
             // Posisi Y acak di paruh atas layar (asumsi paruh atas untuk bola bergerak ke kanan).
-            BallstY = random.nextInt(gamePanel.getHeight() / 2 - 50); 
+            BallstY = random.nextInt(host.getWorldHeight() / 2 - 50); 
         } else {
-            BallstX = gamePanel.getWidth() + 50; // Muncul dari kanan luar layar.
+            BallstX = host.getWorldWidth() + 50; // Muncul dari kanan luar layar.
             // Posisi Y acak di paruh bawah layar (asumsi paruh bawah untuk bola bergerak ke kiri).
-            BallstY = random.nextInt(gamePanel.getHeight() / 2 - 50) + gamePanel.getHeight() / 2;
+            BallstY = random.nextInt(host.getWorldHeight() / 2 - 50) + host.getWorldHeight() / 2;
         }
 
-        // Menambahkan objek Balls baru ke list.
-        // Parameter: x, y, speed, value, minSize, maxSize, isBomb, isBonusStar.
-        Balls.add(new Balls(BallstX, BallstY, 2, 5, 40, 60, isBomb, isBonusBalls));
+        // Menempatkan bola baru di BallStore (objek Balls diambil dari daftar bebas).
+        // Parameter: x, y, minSpeed, maxSpeed, minSize, maxSize, isBomb, isBonusStar, random.
+        Balls ball = ballStore.acquire(BallstX, BallstY, 2, 5, BALL_MIN_SIZE, BALL_MAX_SIZE, isBomb, isBonusBalls, random);
+        ballGrid.insert(ball);
+    }
+
+    // Menghapus bola dari grid spasial dan dari BallStore.
+    private void removeBall(Balls ball) {
+        ballGrid.remove(ball);
+        ballStore.release(ball);
     }
 
     /**
      * Memeriksa apakah ujung lasso (kail) bertabrakan dengan bola yang aktif dan bebas.
-     * Jika ada tabrakan, bola ditandai sebagai 'being pulled' dan animasi penarikan dimulai.
-     * @param lassoTipBounds Batasan (Rectangle) dari ujung lasso.
+     * Jika ada tabrakan, bola ditandai sebagai 'being pulled' dan mulai ditarik ke pemain.
+     * Grid spasial hanya berisi bola yang bergerak bebas, jadi query hanya memeriksa sel di sekitar ujung lasso.
      * @param lassoTipX Posisi X ujung lasso.
      * @param lassoTipY Posisi Y ujung lasso.
      * @return true jika bola tertangkap, false jika tidak.
      */
-    public boolean checkLassoTipCollision(Rectangle lassoTipBounds, int lassoTipX, int lassoTipY) {
-        Balls caughtBall = null;
-        // Iterasi melalui semua bola untuk mencari tabrakan.
-        for (Balls ball : Balls) {
-            // Cek hanya bola yang aktif, tidak sedang ditarik, dan tidak dipegang.
-            if (ball.isActive() && !ball.isBeingPulled() && !ball.isHeldByPlayer()) {
-                Rectangle ballBounds = new Rectangle(ball.getX(), ball.getY(), ball.getSize(), ball.getSize()); // Membuat batas bola.
-                if (lassoTipBounds.intersects(ballBounds)) { // Cek tabrakan antara ujung lasso dan bola.
-                    caughtBall = ball; // Jika bertabrakan, simpan referensi bola.
-                    break; // Keluar dari loop karena hanya ingin menangkap satu bola per tembakan.
-                }
-            }
+    private boolean checkLassoTipCollision(int lassoTipX, int lassoTipY) {
+        int hits = ballGrid.query(lassoTipX - LASSO_TIP_SIZE / 2, lassoTipY - LASSO_TIP_SIZE / 2, LASSO_TIP_SIZE, LASSO_TIP_SIZE);
+        // Hanya satu bola yang ditangkap per tembakan.
+        Balls caughtBall = hits > 0 ? ballGrid.getResult(0) : null;
+        if (caughtBall != null) {
+            ballGrid.remove(caughtBall); // Bola yang ditarik tidak lagi bergerak bebas.
         }
 
         if (caughtBall != null) { // Jika ada bola yang tertangkap.
@@ -242,54 +586,54 @@ public class GameViewModel {
                 caughtBall.setActive(false); // Bom tidak lagi berinteraksi sebagai objek bergerak.
                 caughtBall.setBeingPulled(true); // Tandai sedang ditarik.
                 System.out.println("Bomb caught by lasso tip! Pulling to player for explosion.");
-                gamePanel.startPullAnimation(caughtBall, lassoTipX, lassoTipY); // Memicu animasi penarikan di GamePanel.
+                startPull(caughtBall, lassoTipX, lassoTipY); // Mulai menarik bola ke pemain.
                 return true; // Bola tertangkap.
             } else { // Ini adalah bola skill biasa atau bola bonus.
                 // Tandai tidak aktif, sedang ditarik, dan mulai animasi penarikan.
                 caughtBall.setActive(false);
                 caughtBall.setBeingPulled(true);
                 System.out.println("Ball caught by lasso tip! Starting pull animation to player.");
-                gamePanel.startPullAnimation(caughtBall, lassoTipX, lassoTipY);
+                startPull(caughtBall, lassoTipX, lassoTipY);
                 return true; // Bola tertangkap.
             }
         }
         return false; // Tidak ada bola yang tertangkap.
     }
 
+    // Menyimpan bola yang ditarik dan sudut awalnya relatif terhadap pemain (dipakai saat bola dipegang).
+    private void startPull(Balls ball, int caughtX, int caughtY) {
+        pulledBall = ball;
+        int playerCenterX = player.getX() + PLAYER_CENTER_OFFSET;
+        int playerCenterY = player.getY() + PLAYER_CENTER_OFFSET;
+        heldBallOffsetAngle = StrictMath.atan2(caughtY - playerCenterY, caughtX - playerCenterX);
+    }
+
     /**
      * Memproses bola setelah ditarik kembali ke pemain.
      * Menangani efek bom, bonus, atau menempelkan bola skill ke pemain.
      * @param ball Bola yang telah ditarik kembali ke pemain.
      * @return true jika bola berhasil ditempelkan ke pemain, false jika tidak (misalnya bom/bonus).
      */
-    public boolean attachBallToPlayer(Balls ball) {
+    private boolean attachBallToPlayer(Balls ball) {
         if (ball.isBomb()) { // Jika bola adalah bom.
+            bombsHit++;
             if (player.isInvincible()) {
                 // Jika pemain kebal, bom dihapus tanpa efek.
                 System.out.println("Bomb lassoed, but player is invincible! Bomb removed.");
-                Balls.remove(ball); // Hapus bom dari list.
+                removeBall(ball); // Hapus bom dari list.
             } else {
                 // Jika pemain tidak kebal, game over karena bom meledak.
                 System.out.println("GAME OVER! Bomb exploded at player!");
-                gamePanel.playBombEffectSound(); // Putar suara efek bom.
-                gamePanel.stopGame(); // Hentikan logika game dan simpan hasil.
-
-                // --- Peningkatan Tampilan GAME OVER (TANPA IKON KUSTOM) ---
-                // Menampilkan dialog pesan GAME OVER.
-                JOptionPane.showMessageDialog(
-                    gamePanel, // Parent component untuk dialog.
-                    "A bomb exploded on you!\nYour Final Score: " + player.getScore() + " points.\n           Count: " + player.getCollectedBalls() +  " Star.", // Pesan yang ditampilkan.
-                    "GAME OVER!", // Judul dialog.
-                    JOptionPane.ERROR_MESSAGE // Menggunakan tipe ERROR_MESSAGE untuk menampilkan ikon silang merah standar.
-                );
-                // --- Akhir Peningkatan Tampilan GAME OVER ---
-                gamePanel.getMainFrame().switchToMainPanel(); // Kembali ke menu utama setelah dialog.
-                Balls.remove(ball); // Hapus bola bom dari list.
+                host.playBombEffectSound(); // Putar suara efek bom.
+                // Hentikan game, simpan hasil, dan tampilkan pesan GAME OVER.
+                endGame("GAME OVER!",
+                    "A bomb exploded on you!\nYour Final Score: " + player.getScore() + " points.\n           Count: " + player.getCollectedBalls() +  " Star.");
+                removeBall(ball); // Hapus bola bom dari list.
             }
             return false; // Bom tidak ditempelkan.
         } else if (ball.isBonusStar()) { // Jika bola adalah bintang bonus.
             System.out.println("BONUS Balls COLLECTED! Speed boost & Invincibility!");
-            gamePanel.playBonusMusic(); // Memutar musik bonus.
+            host.playBonusMusic(); // Memutar musik bonus.
 
             player.addScore(ball.getValue()); // Menambahkan skor bonus.
             // Mendapatkan durasi bonus yang sudah aktif.
@@ -303,7 +647,7 @@ public class GameViewModel {
             player.setSpeedBoostDuration(Math.min(currentSpeedBoostDuration + BONUS_DURATION_TICKS, MAX_BONUS_DURATION_TICKS));
             player.setInvincibilityDuration(Math.min(currentInvincibilityDuration + BONUS_DURATION_TICKS, MAX_BONUS_DURATION_TICKS));
 
-            Balls.remove(ball); // Hapus bola bonus dari list.
+            removeBall(ball); // Hapus bola bonus dari list.
             return false; // Bola bonus tidak ditempelkan.
         }
 
@@ -320,19 +664,19 @@ public class GameViewModel {
      * Menangani kasus khusus jika bom dibawa ke keranjang.
      * @param ball Bola yang akan dikumpulkan.
      */
-    public void collectHeldBall(Balls ball) {
+    private void collectHeldBall(Balls ball) {
         if (ball.isBomb()) { // Jika bola yang dibawa ke keranjang adalah bom.
+            bombsHit++;
             System.out.println("GAME OVER! Brought bomb to basket!");
-            gamePanel.playBombEffectSound(); // Putar efek suara bom.
-            gamePanel.stopGame(); // Hentikan game.
-            gamePanel.showMessage("GAME OVER", "You brought a bomb to the basket! Score: " + player.getScore(), GamePanel.MESSAGE_TYPE_ERROR); // Tampilkan pesan game over.
-            Balls.remove(ball); // Hapus bom.
+            host.playBombEffectSound(); // Putar efek suara bom.
+            endGame("GAME OVER", "You brought a bomb to the basket! Score: " + player.getScore()); // Hentikan game dan tampilkan pesan game over.
+            removeBall(ball); // Hapus bom.
             return; // Keluar dari metode.
         }
         if (ball.isBonusStar()) { // Kasus ini seharusnya tidak terjadi jika bonus ball langsung diproses di attachBallToPlayer.
                                   // Ini adalah safety check.
             System.out.println("Bonus Balls (shouldn't be here) deposited. Removing.");
-            Balls.remove(ball);
+            removeBall(ball);
             return;
         }
 
@@ -340,14 +684,24 @@ public class GameViewModel {
         player.addScore(ball.getValue());  // Tambahkan skor pemain berdasarkan nilai bola.
         player.addCollectedBall();         // Tambahkan jumlah bola yang dikumpulkan pemain.
         ball.setHeldByPlayer(false); // Tandai bola tidak lagi dipegang pemain.
-        Balls.remove(ball); // Hapus bola dari list.
+        removeBall(ball); // Hapus bola dari list.
         System.out.println("Ball deposited! Score: " + player.getScore() + ", Balls: " + player.getCollectedBalls()); // Log informasi.
     }
 
     /**
-     * Menyimpan hasil akhir game (username, skor, jumlah bola terkumpul) ke database.
+     * Menyimpan hasil akhir game (username, skor, jumlah bola terkumpul) ke database,
+     * beserta satu baris riwayat sesi (durasi dan jumlah bom yang mengenai pemain).
+     * Penyimpanan dilakukan asinkron lewat antrean, sehingga tidak memblokir
+     * Event Dispatch Thread saat game over meskipun MySQL lambat atau mati.
      */
     public void saveGameResult() {
-        databaseModel.saveThasil(currentUsername, player.getScore(), player.getCollectedBalls()); // Panggil metode save di DatabaseModel.
+        if (databaseModel == null) {
+            databaseModel = new DatabaseModel(); // Dibuat saat dibutuhkan, supaya simulasi tanpa database tidak membuka koneksi.
+        }
+        databaseModel.saveThasilAsync(currentUsername, player.getScore(), player.getCollectedBalls()); // Masukkan hasil ke antrean write-behind.
+
+        long durationMillis = (System.nanoTime() - sessionStartNanos) / 1_000_000L;
+        databaseModel.recordGameSessionAsync(new GameSession(currentUsername, player.getScore(), player.getCollectedBalls(),
+                durationMillis, bombsHit, sessionStartMillis, sessionStartMillis + durationMillis)); // Masukkan sesi ke antrean riwayat.
     }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+import java.util.Random;
+
+/**
+ * HeadlessSimulation menjalankan GameViewModel tanpa GamePanel, tanpa Swing, dan tanpa suara.
+ * Tidak ada game loop dengan jeda waktu: setiap panggilan step() adalah satu tick simulasi (1/60 detik
+ * waktu game), sehingga game bisa dijalankan secepat CPU mampu untuk soak test, benchmark, atau
+ * di server tanpa layar. Event audio dan game over tidak diputar atau ditampilkan, hanya dihitung.
+ * Hasil game tidak disimpan ke database; panggil getViewModel().saveGameResult() jika dibutuhkan.
+ * Input diterapkan di dalam tick seperti di GamePanel, sehingga sesi headless bisa direkam
+ * (getViewModel().setInputRecorder) dan dijalankan ulang dengan ReplayEngine.
+ * Tidak thread-safe; satu simulasi dijalankan oleh satu thread.
+ */
+public class HeadlessSimulation implements GameHost {
+    private static final int PLAYER_STEP = 5; // Sama seperti satu penekanan tombol panah di GamePanel
+
+    private final int worldWidth;
+    private final int worldHeight;
+    private final GameViewModel viewModel;
+
+    private boolean lassoPending; // Tembakan lasso yang menunggu tick berikutnya
+    private int pendingLassoX;
+    private int pendingLassoY;
+
+    private long ticks;
+    private int gamesStarted;
+    private int gameOvers;
+    private long bonusMusicStarts;
+    private long bombEffects;
+    private String lastGameOverTitle;
+    private String lastGameOverMessage;
+
+    /**
+     * @param username Nama pemain untuk hasil game.
+     * @param worldWidth Lebar dunia game (setara lebar panel).
+     * @param worldHeight Tinggi dunia game (setara tinggi panel).
+     * @param random Sumber angka acak untuk seluruh simulasi.
+     */
+    public HeadlessSimulation(String username, int worldWidth, int worldHeight, Random random) {
+        if (worldWidth <= 0 || worldHeight <= 0) {
+            throw new IllegalArgumentException("World size must be positive: " + worldWidth + "x" + worldHeight);
+        }
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.viewModel = new GameViewModel(username, this, random);
+    }
+
+    /**
+     * Memulai game baru (pemain di tengah, tanpa bola) dengan seed berikutnya dari Random simulasi.
+     */
+    public void start() {
+        lassoPending = false;
+        viewModel.initializeGame();
+        gamesStarted++;
+    }
+
+    /**
+     * Memulai game baru dengan seed tertentu.
+     */
+    public void start(long seed) {
+        lassoPending = false;
+        viewModel.initializeGame(seed);
+        gamesStarted++;
+    }
+
+    /**
+     * Menjalankan satu tick simulasi dengan input gerak pemain dan tembakan lasso yang diantrekan,
+     * seperti satu tick di GamePanel.
+     * @param dx Arah gerak horizontal (-1, 0, 1).
+     * @param dy Arah gerak vertikal (-1, 0, 1).
+     */
+    public void step(int dx, int dy) {
+        viewModel.beginTick();
+        if (dx != 0) {
+            viewModel.movePlayer(dx * PLAYER_STEP, 0);
+        }
+        if (dy != 0) {
+            viewModel.movePlayer(0, dy * PLAYER_STEP);
+        }
+        if (lassoPending) {
+            lassoPending = false;
+            viewModel.fireLasso(pendingLassoX, pendingLassoY);
+        }
+        viewModel.updateGame();
+        ticks++;
+    }
+
+    /**
+     * Menembakkan lasso ke titik target pada tick berikutnya, seperti klik kiri mouse di GamePanel.
+     * ViewModel mengabaikannya jika ada bola yang dipegang atau lasso sedang aktif. Jika dipanggil
+     * beberapa kali sebelum step(), hanya target terakhir yang dipakai.
+     */
+    public void fireLasso(int targetX, int targetY) {
+        lassoPending = true;
+        pendingLassoX = targetX;
+        pendingLassoY = targetY;
+    }
+
+    public boolean isGameOver() {
+        return viewModel.isGameOver();
+    }
+
+    public GameViewModel getViewModel() {
+        return viewModel;
+    }
+
+    public long getTicks() { return ticks; }
+    public int getGamesStarted() { return gamesStarted; }
+    public int getGameOvers() { return gameOvers; }
+    public long getBonusMusicStarts() { return bonusMusicStarts; }
+    public long getBombEffects() { return bombEffects; }
+    public String getLastGameOverTitle() { return lastGameOverTitle; }
+    public String getLastGameOverMessage() { return lastGameOverMessage; }
+
+    @Override
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+
+    @Override
+    public void playBonusMusic() {
+        bonusMusicStarts++;
+    }
+
+    @Override
+    public void stopBonusMusic() {
+        // Tidak ada musik yang diputar
+    }
+
+    @Override
+    public void playBombEffectSound() {
+        bombEffects++;
+    }
+
+    @Override
+    public void onGameOver(String title, String message) {
+        gameOvers++;
+        lastGameOverTitle = title;
+        lastGameOverMessage = message;
+    }
+}
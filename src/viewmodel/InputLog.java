@@ -0,0 +1,207 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * InputLog adalah hasil baca file rekaman input (.sbr) yang ditulis oleh InputRecorder.
+ * Event disimpan di array paralel (tipe, tick, a, b, checksum) supaya replay tidak membuat objek per event.
+ *
+ * Format (big-endian, varint = 7 bit per byte dengan bit tertinggi sebagai penanda lanjutan):
+ *   header  int magic "SBR1", byte versi, long seed, varint panjang + UTF-8 username,
+ *           varint lebar dunia, varint tinggi dunia
+ *   event   byte tipe, varint selisih tick dari event sebelumnya, lalu payload:
+ *           MOVE     zigzag-varint dx, zigzag-varint dy   (input pemain di dalam tick)
+ *           LASSO    zigzag-varint x, zigzag-varint y     (input pemain di dalam tick)
+ *           RESIZE   varint lebar, varint tinggi          (ukuran dunia berubah sebelum tick)
+ *           CHECKSUM long checksum                        (state sebelum tick, untuk deteksi divergensi)
+ *           END      long checksum                        (state akhir; event terakhir)
+ */
+public class InputLog {
+    static final int MAGIC = 0x53425231; // "SBR1"
+    static final int VERSION = 1;
+
+    public static final int EVENT_MOVE = 1;
+    public static final int EVENT_LASSO = 2;
+    public static final int EVENT_RESIZE = 3;
+    public static final int EVENT_CHECKSUM = 4;
+    public static final int EVENT_END = 5;
+
+    private final long seed;
+    private final String username;
+    private final int worldWidth;
+    private final int worldHeight;
+
+    private int eventCount;
+    private byte[] types = new byte[64];
+    private long[] ticks = new long[64];
+    private int[] valuesA = new int[64];
+    private int[] valuesB = new int[64];
+    private long[] checksums = new long[64];
+    private boolean hasEnd;
+
+    // Posisi baca selama parsing
+    private final byte[] data;
+    private int position;
+
+    private InputLog(byte[] data) throws IOException {
+        this.data = data;
+        if (readInt() != MAGIC) {
+            throw new IOException("Not an input log (bad magic)");
+        }
+        int version = readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported input log version: " + version);
+        }
+        seed = readLong();
+        int nameLength = readVarInt();
+        if (nameLength < 0 || nameLength > data.length - position) {
+            throw new IOException("Corrupt input log: bad username length " + nameLength);
+        }
+        username = new String(data, position, nameLength, StandardCharsets.UTF_8);
+        position += nameLength;
+        worldWidth = readVarInt();
+        worldHeight = readVarInt();
+
+        long tick = 0;
+        while (position < data.length && !hasEnd) {
+            int type = readByte();
+            long delta = readVarLong();
+            if (delta < 0) {
+                throw new IOException("Corrupt input log: negative tick delta at byte " + position);
+            }
+            tick += delta;
+            int a = 0;
+            int b = 0;
+            long checksum = 0;
+            switch (type) {
+                case EVENT_MOVE:
+                case EVENT_LASSO:
+                    a = unZigZag(readVarInt());
+                    b = unZigZag(readVarInt());
+                    break;
+                case EVENT_RESIZE:
+                    a = readVarInt();
+                    b = readVarInt();
+                    break;
+                case EVENT_CHECKSUM:
+                    checksum = readLong();
+                    break;
+                case EVENT_END:
+                    checksum = readLong();
+                    hasEnd = true;
+                    break;
+                default:
+                    throw new IOException("Corrupt input log: unknown event type " + type + " at byte " + (position - 1));
+            }
+            add(type, tick, a, b, checksum);
+        }
+    }
+
+    public static InputLog read(Path file) throws IOException {
+        return parse(Files.readAllBytes(file));
+    }
+
+    public static InputLog parse(byte[] data) throws IOException {
+        return new InputLog(data);
+    }
+
+    public long getSeed() { return seed; }
+    public String getUsername() { return username; }
+    public int getWorldWidth() { return worldWidth; }
+    public int getWorldHeight() { return worldHeight; }
+    public int getEventCount() { return eventCount; }
+    public int getSizeInBytes() { return data.length; }
+
+    /**
+     * @return true jika log ditutup dengan event END (sesi selesai normal, bukan terpotong).
+     */
+    public boolean hasEnd() {
+        return hasEnd;
+    }
+
+    /**
+     * @return Tick terakhir di log (tick END jika ada).
+     */
+    public long getLastTick() {
+        return eventCount == 0 ? 0 : ticks[eventCount - 1];
+    }
+
+    public int getType(int index) { return types[checkIndex(index)]; }
+    public long getTick(int index) { return ticks[checkIndex(index)]; }
+    public int getA(int index) { return valuesA[checkIndex(index)]; }
+    public int getB(int index) { return valuesB[checkIndex(index)]; }
+    public long getChecksum(int index) { return checksums[checkIndex(index)]; }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= eventCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", events: " + eventCount);
+        }
+        return index;
+    }
+
+    private void add(int type, long tick, int a, int b, long checksum) {
+        if (eventCount == types.length) {
+            int capacity = eventCount * 2;
+            types = Arrays.copyOf(types, capacity);
+            ticks = Arrays.copyOf(ticks, capacity);
+            valuesA = Arrays.copyOf(valuesA, capacity);
+            valuesB = Arrays.copyOf(valuesB, capacity);
+            checksums = Arrays.copyOf(checksums, capacity);
+        }
+        types[eventCount] = (byte) type;
+        ticks[eventCount] = tick;
+        valuesA[eventCount] = a;
+        valuesB[eventCount] = b;
+        checksums[eventCount] = checksum;
+        eventCount++;
+    }
+
+    private int readByte() throws IOException {
+        if (position >= data.length) {
+            throw new IOException("Corrupt input log: unexpected end of data");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private long readLong() throws IOException {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | readByte();
+        }
+        return value;
+    }
+
+    private int readVarInt() throws IOException {
+        long value = readVarLong();
+        if ((value >>> 32) != 0) {
+            throw new IOException("Corrupt input log: varint too large at byte " + position);
+        }
+        return (int) value;
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupt input log: varint too long at byte " + position);
+    }
+
+    private static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,174 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * InputRecorder mencatat semua input pemain dalam satu sesi (gerak dan tembakan lasso) beserta nomor
+ * tick-nya ke dalam buffer biner di memori, dalam format InputLog. Bersama seed sesi, log ini cukup
+ * untuk menjalankan ulang sesi yang sama persis dengan ReplayEngine.
+ * Dipanggil oleh GameViewModel dari dalam tick; mencatat satu event tidak mengalokasikan objek
+ * selama buffer masih cukup. Tidak thread-safe.
+ */
+public class InputRecorder {
+    private static final int INITIAL_CAPACITY = 4096;
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length;
+    private long lastTick; // Tick event terakhir; tick ditulis sebagai selisih supaya kecil
+    private boolean started;
+    private boolean finished;
+    private int eventCount;
+
+    /**
+     * Menulis header log. Dipanggil oleh GameViewModel.initializeGame.
+     */
+    void begin(long seed, String username, int worldWidth, int worldHeight) {
+        if (started) {
+            throw new IllegalStateException("Input recording already started");
+        }
+        started = true;
+        writeInt(InputLog.MAGIC);
+        writeByte(InputLog.VERSION);
+        writeLong(seed);
+        byte[] name = (username == null ? "" : username).getBytes(StandardCharsets.UTF_8);
+        writeVarInt(name.length);
+        ensureCapacity(name.length);
+        System.arraycopy(name, 0, buffer, length, name.length);
+        length += name.length;
+        writeVarInt(worldWidth);
+        writeVarInt(worldHeight);
+    }
+
+    void recordMove(long tick, int dx, int dy) {
+        if (!writeEvent(InputLog.EVENT_MOVE, tick)) {
+            return;
+        }
+        writeVarInt(zigZag(dx));
+        writeVarInt(zigZag(dy));
+    }
+
+    void recordLasso(long tick, int targetX, int targetY) {
+        if (!writeEvent(InputLog.EVENT_LASSO, tick)) {
+            return;
+        }
+        writeVarInt(zigZag(targetX));
+        writeVarInt(zigZag(targetY));
+    }
+
+    void recordResize(long tick, int worldWidth, int worldHeight) {
+        if (!writeEvent(InputLog.EVENT_RESIZE, tick)) {
+            return;
+        }
+        writeVarInt(worldWidth);
+        writeVarInt(worldHeight);
+    }
+
+    void recordChecksum(long tick, long checksum) {
+        if (!writeEvent(InputLog.EVENT_CHECKSUM, tick)) {
+            return;
+        }
+        writeLong(checksum);
+    }
+
+    /**
+     * Menutup log dengan checksum state akhir. Event setelah ini diabaikan.
+     */
+    void end(long tick, long checksum) {
+        if (!writeEvent(InputLog.EVENT_END, tick)) {
+            return;
+        }
+        writeLong(checksum);
+        finished = true;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return Ukuran log dalam byte.
+     */
+    public int size() {
+        return length;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Menulis log ke file (membuat folder induknya jika belum ada).
+     */
+    public void writeTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, toByteArray());
+    }
+
+    // Menulis tipe dan selisih tick; false jika di luar sesi yang direkam (payload tidak boleh ditulis)
+    private boolean writeEvent(int type, long tick) {
+        if (!started || finished) {
+            return false;
+        }
+        if (tick < lastTick) {
+            throw new IllegalArgumentException("Tick went backwards: " + tick + " < " + lastTick);
+        }
+        writeByte(type);
+        writeVarLong(tick - lastTick);
+        lastTick = tick;
+        eventCount++;
+        return true;
+    }
+
+    private void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[length++] = (byte) value;
+    }
+
+    private void writeInt(int value) {
+        ensureCapacity(4);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (value >>> shift);
+        }
+    }
+
+    // Varint tanpa tanda: 7 bit per byte, bit tertinggi = masih ada byte berikutnya
+    private void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[length++] = (byte) value;
+    }
+
+    // Zigzag: angka negatif kecil juga menjadi varint pendek
+    private static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
@@ -1,4 +1,5 @@
 import javax.swing.JOptionPane; // Digunakan untuk menampilkan dialog pesan.
+import javax.swing.SwingUtilities; // Digunakan untuk menjalankan update UI di Event Dispatch Thread.
 import java.util.List; // Digunakan untuk bekerja dengan koleksi List.
 
 /**
@@ -11,6 +12,11 @@ public class MainViewModel {
     private DatabaseModel databaseModel; // Referensi ke DatabaseModel untuk interaksi dengan data (skor).
     private String currentUsername; // Menyimpan username pemain yang sedang aktif atau terakhir dimasukkan.
 
+    private static final int SCORE_PAGE_SIZE = 50; // Jumlah baris high score yang dimuat per halaman.
+    private Thasil lastLoadedScore; // Baris terakhir yang sudah dimuat (posisi keyset untuk halaman berikutnya).
+    private boolean hasMoreScores = false; // Apakah masih ada halaman high score berikutnya.
+    private int loadedScoreCount = 0; // Jumlah baris high score yang sedang tampil (semua halaman yang sudah dimuat).
+
     /**
      * Konstruktor untuk MainViewModel.
      * Menginisialisasi referensi ke MainFrame dan DatabaseModel.
@@ -19,16 +25,53 @@ public class MainViewModel {
     public MainViewModel(MainFrame mainFrame) {
         this.mainFrame = mainFrame;
         this.databaseModel = new DatabaseModel(); // Inisialisasi DatabaseModel.
+        // Hasil game disimpan asinkron; segarkan baris high score yang tampil di EDT setelah tersimpan.
+        this.databaseModel.setScoreFlushListener(changed -> SwingUtilities.invokeLater(this::refreshScores));
     }
 
     /**
-     * Memuat daftar high score dari database dan memperbarui tampilan tabel di MainFrame.
+     * Memuat halaman pertama high score dari database dan memperbarui tampilan tabel di MainFrame.
+     * Halaman berikutnya dimuat lewat loadMoreScores() saat pengguna menggulir tabel.
      */
     public void loadScores() {
-        List<Thasil> results = databaseModel.getAllThasil(); // Mengambil semua hasil (skor) dari database.
+        List<Thasil> results = databaseModel.getTopThasil(SCORE_PAGE_SIZE); // Mengambil halaman pertama hasil (skor).
+        lastLoadedScore = results.isEmpty() ? null : results.get(results.size() - 1); // Simpan posisi keyset untuk halaman berikutnya.
+        hasMoreScores = results.size() == SCORE_PAGE_SIZE;
+        loadedScoreCount = results.size();
         mainFrame.updateScoreTable(results); // Memanggil metode di MainFrame untuk memperbarui tabel skor dengan data yang didapat.
     }
 
+    /**
+     * Memuat ulang sebanyak baris yang sedang tampil (minimal satu halaman) dan memperbarui baris tabel di tempat,
+     * tanpa mengembalikan tabel ke halaman pertama. Dipanggil setelah hasil game asinkron tersimpan.
+     */
+    public void refreshScores() {
+        int limit = Math.max(SCORE_PAGE_SIZE, loadedScoreCount);
+        List<Thasil> results = databaseModel.getTopThasil(limit);
+        lastLoadedScore = results.isEmpty() ? null : results.get(results.size() - 1);
+        hasMoreScores = results.size() == limit;
+        loadedScoreCount = results.size();
+        mainFrame.refreshScoreRows(results);
+    }
+
+    /**
+     * Memuat halaman high score berikutnya (keyset pagination) dan menambahkannya ke tabel di MainFrame.
+     * Tidak melakukan apa-apa jika semua baris sudah dimuat.
+     */
+    public void loadMoreScores() {
+        if (!hasMoreScores || lastLoadedScore == null) {
+            return;
+        }
+        List<Thasil> results = databaseModel.getThasilPage(
+                lastLoadedScore.getSkor(), lastLoadedScore.getCount(), lastLoadedScore.getUsername(), SCORE_PAGE_SIZE);
+        if (!results.isEmpty()) {
+            lastLoadedScore = results.get(results.size() - 1);
+            loadedScoreCount += results.size();
+            mainFrame.appendScoreRows(results); // Menambahkan baris baru di bawah baris yang sudah ada.
+        }
+        hasMoreScores = results.size() == SCORE_PAGE_SIZE;
+    }
+
     /**
      * Memulai permainan baru dengan username yang diberikan.
      * Melakukan validasi username dan jika valid, beralih ke panel game.
@@ -63,6 +106,7 @@ public class MainViewModel {
         int confirm = JOptionPane.showConfirmDialog(mainFrame, "Are you sure you want to quit?", "Quit Game", JOptionPane.YES_NO_OPTION);
         // Memeriksa pilihan pengguna.
         if (confirm == JOptionPane.YES_OPTION) {
+            DatabaseModel.shutdown(); // Menyimpan hasil yang masih antre lalu menutup pool koneksi sebelum keluar.
             System.exit(0); // Menghentikan aplikasi Java.
         }
     }
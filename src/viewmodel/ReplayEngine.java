@@ -0,0 +1,161 @@
+import java.util.Random;
+
+/**
+ * ReplayEngine menjalankan ulang sesi yang direkam InputRecorder tanpa layar dan tanpa jeda waktu:
+ * GameViewModel baru di-seed dengan seed sesi, lalu setiap input diterapkan pada tick yang sama seperti aslinya.
+ * Checksum state di log dibandingkan dengan checksum hasil replay, sehingga divergensi sekecil apa pun
+ * (misalnya perubahan logika game yang tidak disengaja) terdeteksi beserta tick pertamanya.
+ *
+ * Urutan satu tick sama dengan GamePanel: perubahan ukuran dunia, beginTick(), cek checksum,
+ * input (gerak dan lasso) sesuai urutan rekaman, lalu updateGame().
+ * Seperti HeadlessSimulation, audio dan game over hanya dihitung. Tidak thread-safe.
+ */
+public class ReplayEngine implements GameHost {
+    private final InputLog log;
+    private final GameViewModel viewModel;
+    private int worldWidth;
+    private int worldHeight;
+
+    private int nextEvent; // Event berikutnya di log yang belum diterapkan
+    private long checksumsVerified;
+    private long checksumMismatches;
+    private long firstMismatchTick = -1;
+    private boolean endVerified;
+    private long gameOverTick = -1;
+
+    public ReplayEngine(InputLog log) {
+        if (log.getWorldWidth() <= 0 || log.getWorldHeight() <= 0) {
+            throw new IllegalArgumentException("Replay has invalid world size: " + log.getWorldWidth() + "x" + log.getWorldHeight());
+        }
+        this.log = log;
+        this.worldWidth = log.getWorldWidth();
+        this.worldHeight = log.getWorldHeight();
+        this.viewModel = new GameViewModel(log.getUsername(), this, new Random());
+        viewModel.initializeGame(log.getSeed());
+    }
+
+    /**
+     * Menjalankan seluruh log sampai event terakhir (event END jika ada).
+     * @return true jika semua checksum cocok.
+     */
+    public boolean run() {
+        long lastTick = log.getLastTick();
+        if (viewModel.getTick() == 0) {
+            applyEvents(0, false); // Input sebelum tick pertama (jika ada) dan END untuk sesi tanpa tick
+        }
+        while (viewModel.getTick() < lastTick) {
+            step();
+        }
+        applyEvents(lastTick, false); // Event END tercatat setelah tick terakhir selesai
+        return checksumMismatches == 0;
+    }
+
+    /**
+     * Menjalankan satu tick replay.
+     */
+    public void step() {
+        long tick = viewModel.getTick() + 1;
+        // Perubahan ukuran dunia berlaku sebelum tick dimulai, seperti panel yang di-resize di antara dua tick
+        while (nextEvent < log.getEventCount() && log.getTick(nextEvent) < tick) {
+            nextEvent++; // Event dengan tick yang sudah lewat seharusnya tidak ada; dilewati jika log rusak
+        }
+        for (int i = nextEvent; i < log.getEventCount() && log.getTick(i) == tick; i++) {
+            if (log.getType(i) == InputLog.EVENT_RESIZE) {
+                worldWidth = log.getA(i);
+                worldHeight = log.getB(i);
+            }
+        }
+        viewModel.beginTick();
+        applyEvents(tick, true);
+        viewModel.updateGame();
+    }
+
+    // Menerapkan event tick ini: checksum dibandingkan, input diterapkan; END hanya dibandingkan setelah tick terakhir
+    private void applyEvents(long tick, boolean beforeUpdate) {
+        while (nextEvent < log.getEventCount() && log.getTick(nextEvent) == tick) {
+            int type = log.getType(nextEvent);
+            if (beforeUpdate && type == InputLog.EVENT_END) {
+                return; // Dibandingkan setelah updateGame (lihat run)
+            }
+            switch (type) {
+                case InputLog.EVENT_MOVE:
+                    viewModel.movePlayer(log.getA(nextEvent), log.getB(nextEvent));
+                    break;
+                case InputLog.EVENT_LASSO:
+                    viewModel.fireLasso(log.getA(nextEvent), log.getB(nextEvent));
+                    break;
+                case InputLog.EVENT_CHECKSUM:
+                    verifyChecksum(tick, log.getChecksum(nextEvent));
+                    break;
+                case InputLog.EVENT_END:
+                    endVerified = verifyChecksum(tick, log.getChecksum(nextEvent));
+                    break;
+                default:
+                    break; // RESIZE sudah diterapkan di step()
+            }
+            nextEvent++;
+        }
+    }
+
+    private boolean verifyChecksum(long tick, long expected) {
+        checksumsVerified++;
+        if (viewModel.computeStateChecksum() == expected) {
+            return true;
+        }
+        checksumMismatches++;
+        if (firstMismatchTick < 0) {
+            firstMismatchTick = tick;
+        }
+        return false;
+    }
+
+    public GameViewModel getViewModel() { return viewModel; }
+    public long getTicks() { return viewModel.getTick(); }
+    public long getChecksumsVerified() { return checksumsVerified; }
+    public long getChecksumMismatches() { return checksumMismatches; }
+
+    /**
+     * @return Tick pertama yang checksum-nya tidak cocok, atau -1 jika semuanya cocok.
+     */
+    public long getFirstMismatchTick() { return firstMismatchTick; }
+
+    /**
+     * @return true jika log memiliki event END dan state akhir replay sama dengannya.
+     */
+    public boolean isEndVerified() { return endVerified; }
+
+    /**
+     * @return Tick saat game over terjadi di replay, atau -1 jika tidak terjadi.
+     */
+    public long getGameOverTick() { return gameOverTick; }
+
+    @Override
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+
+    @Override
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+
+    @Override
+    public void playBonusMusic() {
+        // Tidak ada suara saat replay
+    }
+
+    @Override
+    public void stopBonusMusic() {
+        // Tidak ada suara saat replay
+    }
+
+    @Override
+    public void playBombEffectSound() {
+        // Tidak ada suara saat replay
+    }
+
+    @Override
+    public void onGameOver(String title, String message) {
+        gameOverTick = viewModel.getTick();
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.Arrays;
+
+/**
+ * SpatialGrid adalah indeks spasial berbentuk grid seragam (spatial hash) untuk bola yang bergerak bebas.
+ * Setiap bola dimasukkan ke satu sel berdasarkan pojok kiri atasnya; sel dipetakan ke salah satu bucket
+ * lewat hash, sehingga dunia tidak perlu dibatasi (bola muncul di luar layar). Query persegi panjang
+ * hanya memeriksa sel di sekitar area query (diperluas sebesar ukuran bola terbesar), bukan semua bola.
+ *
+ * Posisi bola di grid (bucket, slot, sel) disimpan di objek Balls itu sendiri, sehingga insert, remove,
+ * dan update tidak mengalokasikan objek apa pun setelah bucket mencapai kapasitasnya.
+ * Tidak thread-safe; dipakai hanya di dalam tick simulasi (di bawah stateLock GamePanel).
+ *
+ * Counter untuk profiling:
+ *   queries        jumlah query yang dijalankan
+ *   cellsVisited   jumlah sel yang diperiksa
+ *   broadPhase     jumlah entri bucket yang diperiksa (termasuk sel lain dengan hash yang sama)
+ *   narrowPhase    jumlah tes perpotongan AABB terhadap bola di sel yang benar
+ *   hits           jumlah tes yang berpotongan
+ */
+public class SpatialGrid {
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final int cellSize;
+    private final int bucketMask;
+    private final Balls[][] buckets;
+    private final int[] bucketSizes;
+
+    private int size;
+    private int maxEntitySize; // Ukuran bola terbesar yang pernah dimasukkan; query diperluas sebesar ini
+
+    // Hasil query terakhir; dipakai ulang supaya query tidak mengalokasikan array baru
+    private Balls[] results = new Balls[16];
+    private int resultCount;
+
+    private long queries;
+    private long cellsVisited;
+    private long broadPhaseCandidates;
+    private long narrowPhaseTests;
+    private long narrowPhaseHits;
+
+    /**
+     * @param cellSize Lebar dan tinggi satu sel dalam piksel; sebaiknya sedikit lebih besar dari bola terbesar.
+     * @param bucketCount Jumlah bucket hash; dibulatkan ke atas ke pangkat dua.
+     */
+    public SpatialGrid(int cellSize, int bucketCount) {
+        if (cellSize <= 0 || bucketCount <= 0) {
+            throw new IllegalArgumentException("cellSize and bucketCount must be positive");
+        }
+        int buckets = Integer.highestOneBit(bucketCount);
+        if (buckets < bucketCount) {
+            buckets <<= 1;
+        }
+        this.cellSize = cellSize;
+        this.bucketMask = buckets - 1;
+        this.buckets = new Balls[buckets][];
+        this.bucketSizes = new int[buckets];
+    }
+
+    /**
+     * Memasukkan bola ke grid berdasarkan posisinya saat ini. Tidak melakukan apa-apa jika bola sudah ada di grid.
+     */
+    public void insert(Balls ball) {
+        if (ball.gridBucket >= 0) {
+            return;
+        }
+        int cellX = cellOf(ball.getX());
+        int cellY = cellOf(ball.getY());
+        int bucket = bucketOf(cellX, cellY);
+
+        Balls[] entries = buckets[bucket];
+        int count = bucketSizes[bucket];
+        if (entries == null) {
+            entries = new Balls[INITIAL_BUCKET_CAPACITY];
+            buckets[bucket] = entries;
+        } else if (count == entries.length) {
+            entries = Arrays.copyOf(entries, count * 2);
+            buckets[bucket] = entries;
+        }
+        entries[count] = ball;
+        bucketSizes[bucket] = count + 1;
+
+        ball.gridBucket = bucket;
+        ball.gridSlot = count;
+        ball.gridCellX = cellX;
+        ball.gridCellY = cellY;
+        size++;
+        if (ball.getSize() > maxEntitySize) {
+            maxEntitySize = ball.getSize();
+        }
+    }
+
+    /**
+     * Mengeluarkan bola dari grid. Tidak melakukan apa-apa jika bola tidak ada di grid.
+     */
+    public void remove(Balls ball) {
+        int bucket = ball.gridBucket;
+        if (bucket < 0) {
+            return;
+        }
+        // Swap-remove: entri terakhir di bucket mengisi slot yang kosong
+        Balls[] entries = buckets[bucket];
+        int last = bucketSizes[bucket] - 1;
+        Balls moved = entries[last];
+        entries[ball.gridSlot] = moved;
+        moved.gridSlot = ball.gridSlot;
+        entries[last] = null;
+        bucketSizes[bucket] = last;
+
+        ball.gridBucket = -1;
+        size--;
+    }
+
+    /**
+     * Memindahkan bola ke sel barunya setelah bergerak. Murah jika bola masih di sel yang sama,
+     * yang merupakan kasus paling umum karena bola hanya bergerak beberapa piksel per tick.
+     */
+    public void update(Balls ball) {
+        if (ball.gridBucket < 0) {
+            return;
+        }
+        int cellX = cellOf(ball.getX());
+        int cellY = cellOf(ball.getY());
+        if (cellX == ball.gridCellX && cellY == ball.gridCellY) {
+            return;
+        }
+        remove(ball);
+        insert(ball);
+    }
+
+    /**
+     * Mengosongkan grid. Kapasitas bucket tetap dipertahankan.
+     */
+    public void clear() {
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            Balls[] entries = buckets[bucket];
+            for (int i = 0; i < bucketSizes[bucket]; i++) {
+                entries[i].gridBucket = -1;
+                entries[i] = null;
+            }
+            bucketSizes[bucket] = 0;
+        }
+        for (int i = 0; i < resultCount; i++) {
+            results[i] = null;
+        }
+        resultCount = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Balls ball) {
+        return ball.gridBucket >= 0;
+    }
+
+    /**
+     * Mencari semua bola yang berpotongan dengan persegi panjang (x, y, width, height).
+     * Hasilnya dibaca dengan getResult(0 .. jumlah-1) dan hanya berlaku sampai query berikutnya.
+     * Urutan hasil ditentukan oleh urutan sel dan slot, sehingga selalu sama untuk state yang sama.
+     * @return Jumlah bola yang berpotongan.
+     */
+    public int query(int x, int y, int width, int height) {
+        for (int i = 0; i < resultCount; i++) {
+            results[i] = null;
+        }
+        resultCount = 0;
+        queries++;
+        if (size == 0 || width <= 0 || height <= 0) {
+            return 0;
+        }
+
+        // Bola disimpan berdasarkan pojok kiri atas, jadi bola dari sel di kiri/atas area query bisa ikut berpotongan
+        int minCellX = cellOf(x - maxEntitySize);
+        int minCellY = cellOf(y - maxEntitySize);
+        int maxCellX = cellOf(x + width - 1);
+        int maxCellY = cellOf(y + height - 1);
+
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                cellsVisited++;
+                int bucket = bucketOf(cellX, cellY);
+                Balls[] entries = buckets[bucket];
+                int count = bucketSizes[bucket];
+                for (int i = 0; i < count; i++) {
+                    Balls ball = entries[i];
+                    broadPhaseCandidates++;
+                    // Bucket bisa berisi sel lain dengan hash yang sama; lewati supaya tidak terhitung dua kali
+                    if (ball.gridCellX != cellX || ball.gridCellY != cellY) {
+                        continue;
+                    }
+                    narrowPhaseTests++;
+                    int ballSize = ball.getSize();
+                    if (ball.getX() < x + width && ball.getX() + ballSize > x
+                            && ball.getY() < y + height && ball.getY() + ballSize > y) {
+                        narrowPhaseHits++;
+                        addResult(ball);
+                    }
+                }
+            }
+        }
+        return resultCount;
+    }
+
+    /**
+     * Bola ke-index dari hasil query terakhir.
+     */
+    public Balls getResult(int index) {
+        if (index < 0 || index >= resultCount) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", results: " + resultCount);
+        }
+        return results[index];
+    }
+
+    public long getQueryCount() { return queries; }
+    public long getCellsVisited() { return cellsVisited; }
+    public long getBroadPhaseCandidates() { return broadPhaseCandidates; }
+    public long getNarrowPhaseTests() { return narrowPhaseTests; }
+    public long getNarrowPhaseHits() { return narrowPhaseHits; }
+
+    public void resetCounters() {
+        queries = 0;
+        cellsVisited = 0;
+        broadPhaseCandidates = 0;
+        narrowPhaseTests = 0;
+        narrowPhaseHits = 0;
+    }
+
+    /**
+     * Ringkasan counter untuk log atau benchmark.
+     */
+    public String getStats() {
+        return String.format("Spatial grid: entries=%d cellSize=%d queries=%d cellsVisited=%d broadPhase=%d narrowPhase=%d hits=%d",
+                size, cellSize, queries, cellsVisited, broadPhaseCandidates, narrowPhaseTests, narrowPhaseHits);
+    }
+
+    private void addResult(Balls ball) {
+        if (resultCount == results.length) {
+            results = Arrays.copyOf(results, resultCount * 2);
+        }
+        results[resultCount++] = ball;
+    }
+
+    private int cellOf(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private int bucketOf(int cellX, int cellY) {
+        return ((cellX * 73856093) ^ (cellY * 19349663)) & bucketMask;
+    }
+}